@@ -0,0 +1,312 @@
+/*
+ * Copyright (C) 2011 Everit Kft. (http://www.everit.org)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.everit.jira.analytics;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.apache.commons.httpclient.HttpClient;
+import org.apache.commons.httpclient.HttpMethod;
+import org.apache.commons.httpclient.HttpStatus;
+import org.apache.commons.httpclient.MultiThreadedHttpConnectionManager;
+import org.apache.commons.httpclient.methods.GetMethod;
+import org.apache.commons.httpclient.methods.PostMethod;
+import org.apache.commons.httpclient.methods.StringRequestEntity;
+import org.apache.commons.httpclient.params.HttpConnectionManagerParams;
+
+import com.google.gson.GsonBuilder;
+
+/**
+ * Delivers the analytics URLs in the background. The URLs wait in a bounded buffer. If the buffer
+ * is full the oldest URL is dropped, so a slow or unreachable analytics host can not hold more
+ * memory than the capacity. One thread delivers the buffered URLs in batches. A batch of one URL
+ * is sent as a simple GET request, a bigger batch is sent as one Piwik bulk tracking POST request
+ * per host. The connections are pooled and have timeouts. The dispatcher can be started again
+ * after it is stopped, every start creates a new connection pool.
+ */
+public class AnalyticsDispatcher {
+
+  /**
+   * The default capacity of the buffer.
+   */
+  public static final int DEFAULT_CAPACITY = 1000;
+
+  /**
+   * The default maximum number of URLs in one batch.
+   */
+  public static final int DEFAULT_MAX_BATCH_SIZE = 50;
+
+  /**
+   * The default timeout of the connection and the response in milliseconds.
+   */
+  public static final int DEFAULT_TIMEOUT_IN_MILLISEC = 5000;
+
+  private static final int MAX_CONNECTIONS = 2;
+
+  private static final long NANOS_IN_MILLISEC = 1000000L;
+
+  private static final int STOP_TIMEOUT_IN_SECONDS = 5;
+
+  private final BlockingQueue<String> buffer;
+
+  private final AtomicLong deliveryCount = new AtomicLong();
+
+  private final AtomicLong droppedCount = new AtomicLong();
+
+  private ExecutorService executorService;
+
+  private final AtomicLong failedCount = new AtomicLong();
+
+  private MultiThreadedHttpConnectionManager httpConnectionManager;
+
+  private final int maxBatchSize;
+
+  private final AtomicLong maxLatencyInMillisec = new AtomicLong();
+
+  private final AtomicLong sentCount = new AtomicLong();
+
+  private final int timeoutInMillisec;
+
+  private final AtomicLong totalLatencyInMillisec = new AtomicLong();
+
+  /**
+   * Creates a dispatcher with the default settings.
+   */
+  public AnalyticsDispatcher() {
+    this(DEFAULT_CAPACITY, DEFAULT_MAX_BATCH_SIZE, DEFAULT_TIMEOUT_IN_MILLISEC);
+  }
+
+  /**
+   * Constructor.
+   *
+   * @param capacity
+   *          the maximum number of the buffered URLs.
+   * @param maxBatchSize
+   *          the maximum number of URLs delivered in one batch.
+   * @param timeoutInMillisec
+   *          the timeout of the connection and the response in milliseconds.
+   */
+  public AnalyticsDispatcher(final int capacity, final int maxBatchSize,
+      final int timeoutInMillisec) {
+    buffer = new ArrayBlockingQueue<>(capacity);
+    this.maxBatchSize = maxBatchSize;
+    this.timeoutInMillisec = timeoutInMillisec;
+  }
+
+  private HttpMethod createBulkMethod(final String endpoint, final List<String> queries) {
+    PostMethod postMethod = new PostMethod(endpoint);
+    String body = new GsonBuilder().disableHtmlEscaping().create()
+        .toJson(Collections.singletonMap("requests", queries));
+    try {
+      postMethod.setRequestEntity(new StringRequestEntity(body, "application/json", "UTF-8"));
+    } catch (IOException e) {
+      throw new IllegalStateException(e);
+    }
+    return postMethod;
+  }
+
+  private MultiThreadedHttpConnectionManager createHttpConnectionManager() {
+    MultiThreadedHttpConnectionManager connectionManager =
+        new MultiThreadedHttpConnectionManager();
+    HttpConnectionManagerParams params = connectionManager.getParams();
+    params.setConnectionTimeout(timeoutInMillisec);
+    params.setSoTimeout(timeoutInMillisec);
+    params.setDefaultMaxConnectionsPerHost(MAX_CONNECTIONS);
+    params.setMaxTotalConnections(MAX_CONNECTIONS);
+    return connectionManager;
+  }
+
+  private void deliver(final HttpClient httpClient, final List<String> batch) {
+    Map<String, List<String>> queriesByEndpoint = new LinkedHashMap<>();
+    for (String url : batch) {
+      int queryIndex = url.indexOf('?');
+      String endpoint = queryIndex < 0 ? url : url.substring(0, queryIndex);
+      String query = queryIndex < 0 ? "" : url.substring(queryIndex);
+      List<String> queries = queriesByEndpoint.get(endpoint);
+      if (queries == null) {
+        queries = new ArrayList<>();
+        queriesByEndpoint.put(endpoint, queries);
+      }
+      queries.add(query);
+    }
+    for (Entry<String, List<String>> entry : queriesByEndpoint.entrySet()) {
+      List<String> queries = entry.getValue();
+      HttpMethod method;
+      if (queries.size() == 1) {
+        method = new GetMethod(entry.getKey() + queries.get(0));
+      } else {
+        method = createBulkMethod(entry.getKey(), queries);
+      }
+      execute(httpClient, method, queries.size());
+    }
+  }
+
+  private void dispatch(final HttpClient httpClient) {
+    List<String> batch = new ArrayList<>(maxBatchSize);
+    while (!Thread.currentThread().isInterrupted()) {
+      try {
+        batch.add(buffer.take());
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+        return;
+      }
+      buffer.drainTo(batch, maxBatchSize - 1);
+      try {
+        deliver(httpClient, batch);
+      } catch (RuntimeException e) {
+        // analytics is best effort, the dispatcher thread must not stop
+        failedCount.addAndGet(batch.size());
+      }
+      batch.clear();
+    }
+  }
+
+  private void execute(final HttpClient httpClient, final HttpMethod method,
+      final int urlCount) {
+    long start = System.nanoTime();
+    try {
+      int statusCode = httpClient.executeMethod(method);
+      if ((statusCode >= HttpStatus.SC_OK) && (statusCode < HttpStatus.SC_MULTIPLE_CHOICES)) {
+        sentCount.addAndGet(urlCount);
+      } else {
+        failedCount.addAndGet(urlCount);
+      }
+    } catch (IOException e) {
+      failedCount.addAndGet(urlCount);
+    } finally {
+      method.releaseConnection();
+      recordLatency((System.nanoTime() - start) / NANOS_IN_MILLISEC);
+    }
+  }
+
+  /**
+   * Gives back the average delivery latency of the requests in milliseconds.
+   */
+  public long getAverageLatencyInMillisec() {
+    long deliveries = deliveryCount.get();
+    return deliveries == 0 ? 0 : totalLatencyInMillisec.get() / deliveries;
+  }
+
+  /**
+   * Gives back the number of the URLs dropped because the buffer was full.
+   */
+  public long getDroppedCount() {
+    return droppedCount.get();
+  }
+
+  /**
+   * Gives back the number of the URLs what delivery failed.
+   */
+  public long getFailedCount() {
+    return failedCount.get();
+  }
+
+  /**
+   * Gives back the highest delivery latency of the requests in milliseconds.
+   */
+  public long getMaxLatencyInMillisec() {
+    return maxLatencyInMillisec.get();
+  }
+
+  /**
+   * Gives back the number of the buffered URLs waiting for the delivery.
+   */
+  public int getQueueDepth() {
+    return buffer.size();
+  }
+
+  /**
+   * Gives back the number of the delivered URLs.
+   */
+  public long getSentCount() {
+    return sentCount.get();
+  }
+
+  /**
+   * Buffers the URL for the delivery. Never blocks: if the buffer is full the oldest URL is
+   * dropped.
+   *
+   * @param url
+   *          the analytics URL.
+   */
+  public void offer(final String url) {
+    while (!buffer.offer(url)) {
+      if (buffer.poll() != null) {
+        droppedCount.incrementAndGet();
+      }
+    }
+  }
+
+  private void recordLatency(final long latencyInMillisec) {
+    deliveryCount.incrementAndGet();
+    totalLatencyInMillisec.addAndGet(latencyInMillisec);
+    long max = maxLatencyInMillisec.get();
+    while ((latencyInMillisec > max)
+        && !maxLatencyInMillisec.compareAndSet(max, latencyInMillisec)) {
+      max = maxLatencyInMillisec.get();
+    }
+  }
+
+  /**
+   * Starts the delivery thread with a new connection pool.
+   */
+  public synchronized void start() {
+    if (executorService != null) {
+      return;
+    }
+    httpConnectionManager = createHttpConnectionManager();
+    final HttpClient httpClient = new HttpClient(httpConnectionManager);
+    executorService = Executors.newSingleThreadExecutor();
+    executorService.execute(new Runnable() {
+      @Override
+      public void run() {
+        dispatch(httpClient);
+      }
+    });
+  }
+
+  /**
+   * Stops the delivery thread and closes the connections. The not delivered URLs stay in the
+   * buffer until the next start.
+   */
+  public synchronized void stop() {
+    if (executorService != null) {
+      executorService.shutdownNow();
+      try {
+        executorService.awaitTermination(STOP_TIMEOUT_IN_SECONDS, TimeUnit.SECONDS);
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+      }
+      executorService = null;
+    }
+    if (httpConnectionManager != null) {
+      httpConnectionManager.shutdown();
+      httpConnectionManager = null;
+    }
+  }
+
+}
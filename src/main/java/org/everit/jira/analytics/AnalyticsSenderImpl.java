@@ -15,61 +15,37 @@
  */
 package org.everit.jira.analytics;
 
-import java.io.IOException;
-import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
-
-import org.apache.commons.httpclient.HttpClient;
-import org.apache.commons.httpclient.methods.GetMethod;
 import org.everit.jira.analytics.event.AnalyticsEvent;
 import org.springframework.beans.factory.DisposableBean;
 import org.springframework.beans.factory.InitializingBean;
 
 /**
- * Implementation of {@link AnalyticsSender}.
+ * Implementation of {@link AnalyticsSender}. The events are delivered by an
+ * {@link AnalyticsDispatcher}, so the sending never blocks the caller.
  */
 public class AnalyticsSenderImpl implements InitializingBean, DisposableBean, AnalyticsSender {
 
-  /**
-   * Sender command that send event to analytics application.
-   */
-  private static class Command implements Runnable {
-
-    private final AnalyticsEvent analyticsEvent;
-
-    Command(final AnalyticsEvent analyticsEvent) {
-      this.analyticsEvent = analyticsEvent;
-    }
-
-    @Override
-    public void run() {
-      try {
-        HttpClient httpClient = new HttpClient();
-        String url = analyticsEvent.getUrl();
-        GetMethod getMethod = new GetMethod(url);
-        httpClient.executeMethod(getMethod);
-      } catch (IOException e) {
-        // do nothing
-      }
-    }
-  }
-
-  private static final int MAX_THREAD = 4;
-
-  private ExecutorService executorService;
+  private final AnalyticsDispatcher dispatcher = new AnalyticsDispatcher();
 
   @Override
   public void afterPropertiesSet() throws Exception {
-    executorService = Executors.newFixedThreadPool(MAX_THREAD);
+    dispatcher.start();
   }
 
   @Override
   public void destroy() throws Exception {
-    executorService.shutdown();
+    dispatcher.stop();
+  }
+
+  /**
+   * Gives back the dispatcher, for example to read the delivery metrics.
+   */
+  public AnalyticsDispatcher getDispatcher() {
+    return dispatcher;
   }
 
   @Override
   public void send(final AnalyticsEvent analyticsEvent) {
-    executorService.execute(new Command(analyticsEvent));
+    dispatcher.offer(analyticsEvent.getUrl());
   }
 }
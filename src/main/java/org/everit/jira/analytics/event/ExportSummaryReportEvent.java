@@ -33,6 +33,8 @@ public class ExportSummaryReportEvent implements AnalyticsEvent {
 
   public static final String EVENT_ACTION_EXCEL = "Export Summary";
 
+  public static final String EVENT_ACTION_XLSX = "Export Summary XLSX";
+
   private static final String EVENT_CATEGORY = "Reporting";
 
   private final String eventAction;
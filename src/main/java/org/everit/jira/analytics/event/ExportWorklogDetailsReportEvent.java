@@ -40,6 +40,12 @@ public class ExportWorklogDetailsReportEvent implements AnalyticsEvent {
       public String decideAnalyticsEvenName(final boolean allColumns) {
         return allColumns ? EVENT_NAME_ALL_FIELDS : EVENT_NAME_CUSTOM_FIELDS;
       }
+    },
+    XLSX {
+      @Override
+      public String decideAnalyticsEvenName(final boolean allColumns) {
+        return allColumns ? EVENT_NAME_ALL_FIELDS_XLSX : EVENT_NAME_CUSTOM_FIELDS_XLSX;
+      }
     };
     public abstract String decideAnalyticsEvenName(boolean allColumns);
   }
@@ -55,10 +61,14 @@ public class ExportWorklogDetailsReportEvent implements AnalyticsEvent {
 
   private static final String EVENT_NAME_ALL_FIELDS_CSV = "all-fields-csv";
 
+  private static final String EVENT_NAME_ALL_FIELDS_XLSX = "all-fields-xlsx";
+
   private static final String EVENT_NAME_CUSTOM_FIELDS = "custom-fields";
 
   private static final String EVENT_NAME_CUSTOM_FIELDS_CSV = "custom-fields-csv";
 
+  private static final String EVENT_NAME_CUSTOM_FIELDS_XLSX = "custom-fields-xlsx";
+
   private final boolean allColumns;
 
   private WorkLogDetailsExportFormat exportFormat;
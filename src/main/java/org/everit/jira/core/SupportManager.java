@@ -19,9 +19,12 @@ import java.util.Date;
 import java.util.List;
 import java.util.regex.Pattern;
 
+import org.everit.jira.core.dto.PeriodSummary;
 import org.everit.jira.core.impl.DateTimeServer;
+import org.everit.jira.core.util.IssueKeyMatcher;
 import org.everit.jira.reporting.plugin.dto.MissingsWorklogsDTO;
 import org.everit.jira.settings.dto.TimeTrackerGlobalSettings;
+import org.joda.time.Interval;
 import org.ofbiz.core.entity.GenericEntityException;
 
 /**
@@ -58,6 +61,18 @@ public interface SupportManager {
    */
   List<String> getProjectsId();
 
+  /**
+   * Give back the spent time of more periods with one worklog query for the range of all periods.
+   *
+   * @param periods
+   *          The periods. Cannot be empty.
+   * @param nonWorkingIssueMatcher
+   *          The matcher of the non-working issues. The filtered summaries not contain the
+   *          worklogs of the matching issues.
+   * @return The summaries in the order of the periods.
+   */
+  List<PeriodSummary> summaries(List<Interval> periods, IssueKeyMatcher nonWorkingIssueMatcher);
+
   /**
    * Give back the all worklogs spent time between the two date.
    *
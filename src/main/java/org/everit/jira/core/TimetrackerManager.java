@@ -18,6 +18,7 @@ package org.everit.jira.core;
 import java.text.ParseException;
 import java.util.List;
 import java.util.Set;
+import java.util.SortedSet;
 
 import org.everit.jira.core.impl.DateTimeServer;
 import org.everit.jira.timetracker.plugin.dto.EveritWorklog;
@@ -86,6 +87,16 @@ public interface TimetrackerManager {
    */
   List<String> getLoggedDaysOfTheMonth(DateTimeServer date);
 
+  /**
+   * The method find the logged days of the given date month with one worklog query. The worklogs
+   * are assigned to the days in the time zone of the given date.
+   *
+   * @param date
+   *          The date in DateTime with User Time Zone.
+   * @return The ordered set of the day of month numbers. (Eg. [12, 15])
+   */
+  SortedSet<Integer> getLoggedDayNumbersOfTheMonth(DateTimeServer date);
+
   /**
    * Give back the biggest end time of the date after worklogs method. Or give back 08:00.
    *
@@ -0,0 +1,56 @@
+/*
+ * Copyright (C) 2011 Everit Kft. (http://www.everit.org)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.everit.jira.core.dto;
+
+/**
+ * The spent time of the logged user in a period.
+ */
+public class PeriodSummary {
+
+  private long filteredSummaryInSeconds;
+
+  private long summaryInSeconds;
+
+  /**
+   * Adds a worklog to the summary.
+   *
+   * @param timeWorked
+   *          the spent time of the worklog in seconds.
+   * @param nonWorking
+   *          the worklog issue matches any non-working issue pattern or not.
+   */
+  public void add(final long timeWorked, final boolean nonWorking) {
+    summaryInSeconds += timeWorked;
+    if (!nonWorking) {
+      filteredSummaryInSeconds += timeWorked;
+    }
+  }
+
+  /**
+   * The spent time without the worklogs of the non-working issues.
+   */
+  public long getFilteredSummaryInSeconds() {
+    return filteredSummaryInSeconds;
+  }
+
+  /**
+   * The spent time of all worklogs.
+   */
+  public long getSummaryInSeconds() {
+    return summaryInSeconds;
+  }
+
+}
@@ -0,0 +1,66 @@
+/*
+ * Copyright (C) 2011 Everit Kft. (http://www.everit.org)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.everit.jira.core.impl;
+
+import org.everit.jira.core.util.AccessDecisionCache;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.InitializingBean;
+
+import com.atlassian.crowd.event.group.GroupDeletedEvent;
+import com.atlassian.crowd.event.group.GroupMembershipCreatedEvent;
+import com.atlassian.crowd.event.group.GroupMembershipDeletedEvent;
+import com.atlassian.event.api.EventListener;
+import com.atlassian.event.api.EventPublisher;
+
+/**
+ * Clears the {@link AccessDecisionCache} when the groups of the users can change. The settings
+ * changes are detected by the settings version of the cached decisions.
+ */
+public class AccessDecisionCacheInvalidator implements InitializingBean, DisposableBean {
+
+  private final EventPublisher eventPublisher;
+
+  public AccessDecisionCacheInvalidator(final EventPublisher eventPublisher) {
+    this.eventPublisher = eventPublisher;
+  }
+
+  @Override
+  public void afterPropertiesSet() throws Exception {
+    eventPublisher.register(this);
+  }
+
+  @Override
+  public void destroy() throws Exception {
+    eventPublisher.unregister(this);
+    AccessDecisionCache.clear();
+  }
+
+  @EventListener
+  public void onGroupDeleted(final GroupDeletedEvent event) {
+    AccessDecisionCache.clear();
+  }
+
+  @EventListener
+  public void onGroupMembershipCreated(final GroupMembershipCreatedEvent event) {
+    AccessDecisionCache.clear();
+  }
+
+  @EventListener
+  public void onGroupMembershipDeleted(final GroupMembershipDeletedEvent event) {
+    AccessDecisionCache.clear();
+  }
+
+}
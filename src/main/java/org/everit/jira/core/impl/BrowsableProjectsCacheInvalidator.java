@@ -0,0 +1,91 @@
+/*
+ * Copyright (C) 2011 Everit Kft. (http://www.everit.org)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.everit.jira.core.impl;
+
+import org.everit.jira.core.util.BrowsableProjectsCache;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.InitializingBean;
+
+import com.atlassian.crowd.event.group.GroupMembershipCreatedEvent;
+import com.atlassian.crowd.event.group.GroupMembershipDeletedEvent;
+import com.atlassian.event.api.EventListener;
+import com.atlassian.event.api.EventPublisher;
+import com.atlassian.jira.event.ProjectCreatedEvent;
+import com.atlassian.jira.event.ProjectDeletedEvent;
+import com.atlassian.jira.event.scheme.AbstractSchemeEntityEvent;
+import com.atlassian.jira.event.scheme.AbstractSchemeEvent;
+
+/**
+ * Clears the {@link BrowsableProjectsCache} when the browsable projects of the users can change.
+ * Project role actor changes have no event in JIRA, the cache picks them up by the time to live of
+ * the entries.
+ */
+public class BrowsableProjectsCacheInvalidator implements InitializingBean, DisposableBean {
+
+  private final EventPublisher eventPublisher;
+
+  public BrowsableProjectsCacheInvalidator(final EventPublisher eventPublisher) {
+    this.eventPublisher = eventPublisher;
+  }
+
+  @Override
+  public void afterPropertiesSet() throws Exception {
+    eventPublisher.register(this);
+  }
+
+  @Override
+  public void destroy() throws Exception {
+    eventPublisher.unregister(this);
+    BrowsableProjectsCache.clear();
+  }
+
+  @EventListener
+  public void onGroupMembershipCreated(final GroupMembershipCreatedEvent event) {
+    BrowsableProjectsCache.clear();
+  }
+
+  @EventListener
+  public void onGroupMembershipDeleted(final GroupMembershipDeletedEvent event) {
+    BrowsableProjectsCache.clear();
+  }
+
+  @EventListener
+  public void onProjectCreated(final ProjectCreatedEvent event) {
+    BrowsableProjectsCache.clear();
+  }
+
+  @EventListener
+  public void onProjectDeleted(final ProjectDeletedEvent event) {
+    BrowsableProjectsCache.clear();
+  }
+
+  /**
+   * Scheme created, updated or deleted.
+   */
+  @EventListener
+  public void onSchemeChanged(final AbstractSchemeEvent event) {
+    BrowsableProjectsCache.clear();
+  }
+
+  /**
+   * Permission grant added to or removed from a scheme.
+   */
+  @EventListener
+  public void onSchemeEntityChanged(final AbstractSchemeEntityEvent event) {
+    BrowsableProjectsCache.clear();
+  }
+
+}
@@ -17,7 +17,7 @@ package org.everit.jira.core.impl;
 
 import java.util.Date;
 
-import org.everit.jira.core.util.TimetrackerUtil;
+import org.everit.jira.core.util.TimeZoneContext;
 import org.everit.jira.timetracker.plugin.util.DateTimeConverterUtil;
 import org.joda.time.DateTime;
 import org.joda.time.DateTimeZone;
@@ -43,7 +43,7 @@ public final class DateTimeServer {
    * @return A new DateTimeServer object.
    */
   public static DateTimeServer getInstanceBasedOnSystemTimeZone(final DateTime systemTimeZone) {
-    DateTimeServer dateTimeServer = new DateTimeServer();
+    DateTimeServer dateTimeServer = new DateTimeServer(TimeZoneContext.current());
     dateTimeServer.setSystemTimeZone(systemTimeZone);
     return dateTimeServer;
   }
@@ -57,10 +57,26 @@ public final class DateTimeServer {
    * @return A new DateTimeServer object.
    */
   public static DateTimeServer getInstanceBasedOnSystemTimeZone(final long systemTimeZoneInMillis) {
+    return DateTimeServer.getInstanceBasedOnSystemTimeZone(systemTimeZoneInMillis,
+        TimeZoneContext.current());
+  }
+
+  /**
+   * Simple instance generator. Create the userTimeZone based on the given milliseconds.
+   *
+   * @param systemTimeZoneInMillis
+   *          The user DateTime in millis.
+   * @param timeZoneContext
+   *          The time zones of the request.
+   *
+   * @return A new DateTimeServer object.
+   */
+  public static DateTimeServer getInstanceBasedOnSystemTimeZone(final long systemTimeZoneInMillis,
+      final TimeZoneContext timeZoneContext) {
     DateTime systemTimeZoneFromMilis = new DateTime(systemTimeZoneInMillis);
     systemTimeZoneFromMilis =
-        systemTimeZoneFromMilis.withZoneRetainFields(TimetrackerUtil.getSystemTimeZone());
-    DateTimeServer dateTimeServer = new DateTimeServer();
+        systemTimeZoneFromMilis.withZoneRetainFields(timeZoneContext.getSystemTimeZone());
+    DateTimeServer dateTimeServer = new DateTimeServer(timeZoneContext);
     dateTimeServer.setSystemTimeZone(systemTimeZoneFromMilis);
     return dateTimeServer;
   }
@@ -74,7 +90,7 @@ public final class DateTimeServer {
    * @return A new DateTimeServer object.
    */
   public static DateTimeServer getInstanceBasedOnUserTimeZone(final DateTime userTimeZone) {
-    DateTimeServer dateTimeServer = new DateTimeServer();
+    DateTimeServer dateTimeServer = new DateTimeServer(TimeZoneContext.current());
     dateTimeServer.setUserTimeZone(userTimeZone);
     return dateTimeServer;
   }
@@ -88,10 +104,26 @@ public final class DateTimeServer {
    * @return A new DateTimeServer object.
    */
   public static DateTimeServer getInstanceBasedOnUserTimeZone(final long userTimeZoneInMillis) {
+    return DateTimeServer.getInstanceBasedOnUserTimeZone(userTimeZoneInMillis,
+        TimeZoneContext.current());
+  }
+
+  /**
+   * Simple instance generator. Create the userTimeZone based on the given milliseconds.
+   *
+   * @param userTimeZoneInMillis
+   *          The user DateTime in millis.
+   * @param timeZoneContext
+   *          The time zones of the request.
+   *
+   * @return A new DateTimeServer object.
+   */
+  public static DateTimeServer getInstanceBasedOnUserTimeZone(final long userTimeZoneInMillis,
+      final TimeZoneContext timeZoneContext) {
     DateTime userTimeZoneFromMillis = new DateTime(userTimeZoneInMillis, DateTimeZone.UTC);
     userTimeZoneFromMillis =
-        userTimeZoneFromMillis.withZoneRetainFields(TimetrackerUtil.getLoggedUserTimeZone());
-    DateTimeServer dateTimeServer = new DateTimeServer();
+        userTimeZoneFromMillis.withZoneRetainFields(timeZoneContext.getUserTimeZone());
+    DateTimeServer dateTimeServer = new DateTimeServer(timeZoneContext);
     dateTimeServer.setUserTimeZone(userTimeZoneFromMillis);
     return dateTimeServer;
   }
@@ -102,8 +134,9 @@ public final class DateTimeServer {
    * @return A new DateTimeServer object.
    */
   public static DateTimeServer getInstanceSystemNow() {
-    DateTimeServer dateTimeServer = new DateTimeServer();
-    dateTimeServer.setSystemTimeZone(new DateTime(TimetrackerUtil.getSystemTimeZone()));
+    TimeZoneContext timeZoneContext = TimeZoneContext.current();
+    DateTimeServer dateTimeServer = new DateTimeServer(timeZoneContext);
+    dateTimeServer.setSystemTimeZone(new DateTime(timeZoneContext.getSystemTimeZone()));
     return dateTimeServer;
   }
 
@@ -111,12 +144,14 @@ public final class DateTimeServer {
 
   private DateTime systemTimeZoneDayStart;
 
+  private final TimeZoneContext timeZoneContext;
+
   private DateTime userTimeZone;
 
   private DateTime userTimeZoneDayStart;
 
-  private DateTimeServer() {
-
+  private DateTimeServer(final TimeZoneContext timeZoneContext) {
+    this.timeZoneContext = timeZoneContext;
   }
 
   /**
@@ -133,10 +168,9 @@ public final class DateTimeServer {
   }
 
   private void calculateBasedOnSystemTimeZone() {
-    userTimeZone = DateTimeConverterUtil.convertDateZoneToUserTimeZone(systemTimeZone);
+    userTimeZone = systemTimeZone.withZone(timeZoneContext.getUserTimeZone());
     systemTimeZoneDayStart = DateTimeConverterUtil.setDateToDayStart(systemTimeZone);
-    userTimeZoneDayStart =
-        DateTimeConverterUtil.convertDateZoneToSystemTimeZone(systemTimeZoneDayStart);
+    userTimeZoneDayStart = systemTimeZoneDayStart.withZone(timeZoneContext.getSystemTimeZone());
   }
 
   private void calculateBasedOnUserTimeZone() {
@@ -146,10 +180,9 @@ public final class DateTimeServer {
     // systemTZ = 02:00
     // usersDS = 00:00
     // systemDS = 11:00 (day before)
-    systemTimeZone = DateTimeConverterUtil.convertDateZoneToSystemTimeZone(userTimeZone);
+    systemTimeZone = userTimeZone.withZone(timeZoneContext.getSystemTimeZone());
     userTimeZoneDayStart = DateTimeConverterUtil.setDateToDayStart(userTimeZone);
-    systemTimeZoneDayStart =
-        DateTimeConverterUtil.convertDateZoneToSystemTimeZone(userTimeZoneDayStart);
+    systemTimeZoneDayStart = userTimeZoneDayStart.withZone(timeZoneContext.getSystemTimeZone());
   }
 
   public DateTime getSystemTimeZone() {
@@ -17,22 +17,31 @@ package org.everit.jira.core.impl;
 
 import java.text.DecimalFormat;
 import java.util.ArrayList;
-import java.util.Calendar;
+import java.util.Arrays;
+import java.util.Collection;
 import java.util.Collections;
 import java.util.Date;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
 import java.util.regex.Pattern;
 
 import org.everit.jira.core.SupportManager;
+import org.everit.jira.core.dto.PeriodSummary;
+import org.everit.jira.core.util.IssueKeyMatcher;
 import org.everit.jira.core.util.TimetrackerUtil;
 import org.everit.jira.core.util.WorklogUtil;
 import org.everit.jira.reporting.plugin.dto.MissingsWorklogsDTO;
 import org.everit.jira.settings.dto.TimeTrackerGlobalSettings;
+import org.everit.jira.timetracker.plugin.dto.IssueSnapshot;
 import org.everit.jira.timetracker.plugin.util.DateTimeConverterUtil;
 import org.joda.time.DateTime;
 import org.joda.time.DateTimeConstants;
+import org.joda.time.Interval;
 import org.ofbiz.core.entity.EntityCondition;
+import org.ofbiz.core.entity.EntityConditionList;
+import org.ofbiz.core.entity.EntityOperator;
 import org.ofbiz.core.entity.GenericEntityException;
 import org.ofbiz.core.entity.GenericValue;
 
@@ -43,6 +52,7 @@ import com.atlassian.jira.issue.MutableIssue;
 import com.atlassian.jira.security.JiraAuthenticationContext;
 import com.atlassian.jira.security.PermissionManager;
 import com.atlassian.jira.security.groups.GroupManager;
+import com.atlassian.jira.security.roles.ProjectRole;
 import com.atlassian.jira.security.roles.ProjectRoleManager;
 import com.atlassian.jira.user.ApplicationUser;
 
@@ -51,6 +61,13 @@ import com.atlassian.jira.user.ApplicationUser;
  */
 public class SupportComponent implements SupportManager {
 
+  private static final List<String> WORKLOG_SUM_FIELDS =
+      Collections.unmodifiableList(Arrays.asList("issue", "startdate", "timeworked"));
+
+  private static final List<String> WORKLOG_SUMMARY_FIELDS =
+      Collections.unmodifiableList(
+          Arrays.asList("issue", "startdate", "timeworked", "grouplevel", "rolelevel"));
+
   private TimeTrackingConfiguration timeTrackingConfiguration;
 
   public SupportComponent(final TimeTrackingConfiguration timeTrackingConfiguration) {
@@ -62,7 +79,7 @@ public class SupportComponent implements SupportManager {
       final DateTimeServer to, final boolean workingHour, final boolean checkNonWorking,
       final TimeTrackerGlobalSettings settings)
       throws GenericEntityException {
-    List<MissingsWorklogsDTO> datesWhereNoWorklog = new ArrayList<MissingsWorklogsDTO>();
+    List<DateTime> checkedDays = new ArrayList<>();
     DateTimeServer fromDate = from;
     DateTimeServer toDate = to;
     Set<DateTime> excludeDatesAsSet = settings.getExcludeDates();
@@ -84,33 +101,47 @@ public class SupportComponent implements SupportManager {
             DateTimeServer.getInstanceBasedOnUserTimeZone(fromDate.getUserTimeZone().plusDays(1));
         continue;
       }
-      // check worklog. if no worklog set result else ++ scanedDate
-      DecimalFormat decimalFormat = new DecimalFormat("#.#");
+      checkedDays.add(fromDate.getUserTimeZone());
+      fromDate =
+          DateTimeServer.getInstanceBasedOnUserTimeZone(fromDate.getUserTimeZone().plusDays(1));
+    }
+    List<MissingsWorklogsDTO> datesWhereNoWorklog = new ArrayList<MissingsWorklogsDTO>();
+    if (checkedDays.isEmpty()) {
+      return datesWhereNoWorklog;
+    }
+
+    int dayCount = checkedDays.size();
+    long[] dayStarts = new long[dayCount];
+    long[] dayEnds = new long[dayCount];
+    for (int i = 0; i < dayCount; i++) {
+      DateTime day = checkedDays.get(i);
+      dayStarts[i] = day.getMillis();
+      dayEnds[i] = day.plusDays(1).getMillis();
+    }
+    long[] timeSpentByDay = new long[dayCount];
+    boolean[] loggedDays = new boolean[dayCount];
+    sumTimeWorkedByDay(dayStarts, dayEnds, workingHour && checkNonWorking,
+        settings.getNonWorkingIssueMatcher(), timeSpentByDay, loggedDays);
 
+    // check worklog. if no worklog set result else ++ scanedDate
+    DecimalFormat decimalFormat = new DecimalFormat("#.#");
+    double workHoursPerDay = timeTrackingConfiguration.getHoursPerDay().doubleValue();
+    double expectedTimeSpent = workHoursPerDay * DateTimeConverterUtil.SECONDS_PER_MINUTE
+        * DateTimeConverterUtil.MINUTES_PER_HOUR;
+    for (int i = 0; i < dayCount; i++) {
+      Date day = checkedDays.get(i).toDate();
       if (workingHour) {
-        // fromDate = DateTimeConverterUtil.setDateToDayStart(fromDate);
-        double missingsTime =
-            isContainsEnoughWorklog(fromDate.getUserTimeZone().toDate(),
-                checkNonWorking, settings.getNonWorkingIssuePatterns());
+        double missingsTime = expectedTimeSpent - timeSpentByDay[i];
         if (missingsTime > 0) {
           missingsTime = missingsTime / DateTimeConverterUtil.SECONDS_PER_MINUTE
               / DateTimeConverterUtil.MINUTES_PER_HOUR;
-          // BigDecimal bd =
-          // new BigDecimal(Double.toString(missingsTime)).setScale(2, RoundingMode.HALF_EVEN);
-          // missingsTime = bd.doubleValue();
           datesWhereNoWorklog
-              .add(new MissingsWorklogsDTO(fromDate.getUserTimeZone().toDate(),
-                  decimalFormat.format(missingsTime)));
-        }
-      } else {
-        if (!TimetrackerUtil.isContainsWorklog(fromDate.getUserTimeZone().toDate())) {
-          datesWhereNoWorklog
-              .add(new MissingsWorklogsDTO(fromDate.getUserTimeZone().toDate(),
-                  decimalFormat.format(timeTrackingConfiguration.getHoursPerDay().doubleValue())));
+              .add(new MissingsWorklogsDTO(day, decimalFormat.format(missingsTime)));
         }
+      } else if (!loggedDays[i]) {
+        datesWhereNoWorklog
+            .add(new MissingsWorklogsDTO(day, decimalFormat.format(workHoursPerDay)));
       }
-      fromDate =
-          DateTimeServer.getInstanceBasedOnUserTimeZone(fromDate.getUserTimeZone().plusDays(1));
     }
     Collections.reverse(datesWhereNoWorklog);
     return datesWhereNoWorklog;
@@ -127,68 +158,113 @@ public class SupportComponent implements SupportManager {
   }
 
   /**
-   * Check the given date is contains enough worklog. The worklog spent time have to be equal or
-   * greater then 8 hours.
+   * Sums the spent time of the logged user by days with one worklog query for the whole range.
    *
-   * @param date
-   *          The date what have to check. Set to the start of the day and in system Time Zone.
+   * @param dayStarts
+   *          The start of the days in milliseconds, in ascending order.
+   * @param dayEnds
+   *          The end (exclusive) of the days in milliseconds.
    * @param checkNonWorking
-   *          Exclude or not the non-working issues.
-   * @return The number of missings hours.
-   * @throws GenericEntityException
-   *           If GenericEntity Exception.
+   *          Exclude or not the non-working issues from the spent time.
+   * @param nonWorkingIssueMatcher
+   *          The matcher of the non-working issues.
+   * @param timeSpentByDay
+   *          The spent time in seconds by days. Filled by this method.
+   * @param loggedDays
+   *          Has the day any worklog or not. Filled by this method.
    */
-  private double isContainsEnoughWorklog(final Date date,
-      final boolean checkNonWorking, final List<Pattern> nonWorkingIssuePatterns)
-      throws GenericEntityException {
+  private void sumTimeWorkedByDay(final long[] dayStarts, final long[] dayEnds,
+      final boolean checkNonWorking, final IssueKeyMatcher nonWorkingIssueMatcher,
+      final long[] timeSpentByDay, final boolean[] loggedDays) {
     JiraAuthenticationContext authenticationContext = ComponentAccessor
         .getJiraAuthenticationContext();
     ApplicationUser user = authenticationContext.getUser();
-    Calendar startDate = Calendar.getInstance();
-    startDate.setTime(date);
-    Calendar endDate = (Calendar) startDate.clone();
-    endDate.add(Calendar.DAY_OF_MONTH, 1);
-    double workHoursPerDay = timeTrackingConfiguration.getHoursPerDay().doubleValue();
-    double expectedTimeSpent = workHoursPerDay * DateTimeConverterUtil.SECONDS_PER_MINUTE
-        * DateTimeConverterUtil.MINUTES_PER_HOUR;
-
     List<EntityCondition> exprList =
-        WorklogUtil.createWorklogQueryExprListWithPermissionCheck(user, startDate.getTimeInMillis(),
-            endDate.getTimeInMillis());
-    List<GenericValue> worklogGVList =
-        ComponentAccessor.getOfBizDelegator().findByAnd("IssueWorklogView", exprList);
-    if ((worklogGVList == null) || worklogGVList.isEmpty()) {
-      return expectedTimeSpent;
+        WorklogUtil.createWorklogQueryExprListWithPermissionCheck(user, dayStarts[0],
+            dayEnds[dayEnds.length - 1]);
+    List<GenericValue> worklogGVList = ComponentAccessor.getOfBizDelegator().findByCondition(
+        "IssueWorklogView", new EntityConditionList(exprList, EntityOperator.AND),
+        WORKLOG_SUM_FIELDS, null);
+    if (worklogGVList == null) {
+      return;
     }
-    if (checkNonWorking) {
-      removeNonWorkingIssues(worklogGVList, nonWorkingIssuePatterns);
-    }
-    long timeSpent = 0;
+    boolean filterNonWorking = checkNonWorking && !nonWorkingIssueMatcher.isEmpty();
+    IssueManager issueManager = ComponentAccessor.getIssueManager();
+    Map<Long, Boolean> nonWorkingIssues = new HashMap<>();
     for (GenericValue worklog : worklogGVList) {
-      timeSpent += worklog.getLong("timeworked").longValue();
+      long startDate = worklog.getTimestamp("startdate").getTime();
+      int dayIndex = Arrays.binarySearch(dayStarts, startDate);
+      if (dayIndex < 0) {
+        dayIndex = -dayIndex - 2;
+      }
+      if ((dayIndex < 0) || (startDate >= dayEnds[dayIndex])) {
+        continue;
+      }
+      loggedDays[dayIndex] = true;
+      if (filterNonWorking) {
+        Long issueId = worklog.getLong("issue");
+        Boolean nonWorking = nonWorkingIssues.get(issueId);
+        if (nonWorking == null) {
+          MutableIssue issue = issueManager.getIssueObject(issueId);
+          nonWorking = nonWorkingIssueMatcher.matches(issue.getKey());
+          nonWorkingIssues.put(issueId, nonWorking);
+        }
+        if (nonWorking) {
+          continue;
+        }
+      }
+      timeSpentByDay[dayIndex] += worklog.getLong("timeworked").longValue();
     }
-    double missingsTime = expectedTimeSpent - timeSpent;
-    return missingsTime;
   }
 
-  private void removeNonWorkingIssues(final List<GenericValue> worklogGVList,
-      final List<Pattern> nonWorkingIssuePatterns) {
-    List<GenericValue> worklogsCopy = new ArrayList<>(worklogGVList);
-    if ((nonWorkingIssuePatterns != null) && !nonWorkingIssuePatterns.isEmpty()) {
-      IssueManager issueManager = ComponentAccessor.getIssueManager();
-      for (GenericValue worklog : worklogsCopy) {
-        Long issueId = worklog.getLong("issue");
-        MutableIssue issue = issueManager.getIssueObject(issueId);
-        for (Pattern issuePattern : nonWorkingIssuePatterns) {
-          boolean issueMatches = issuePattern.matcher(issue.getKey()).matches();
-          // if match not count in summary
-          if (issueMatches) {
-            worklogGVList.remove(worklog);
-            break;
-          }
+  @Override
+  public List<PeriodSummary> summaries(final List<Interval> periods,
+      final IssueKeyMatcher nonWorkingIssueMatcher) {
+    long rangeStart = Long.MAX_VALUE;
+    long rangeEnd = Long.MIN_VALUE;
+    List<PeriodSummary> summaries = new ArrayList<>();
+    for (Interval period : periods) {
+      rangeStart = Math.min(rangeStart, period.getStartMillis());
+      rangeEnd = Math.max(rangeEnd, period.getEndMillis());
+      summaries.add(new PeriodSummary());
+    }
+    JiraAuthenticationContext authenticationContext = ComponentAccessor
+        .getJiraAuthenticationContext();
+    ApplicationUser user = authenticationContext.getUser();
+    List<EntityCondition> exprList =
+        WorklogUtil.createWorklogQueryExprListWithPermissionCheck(user, rangeStart, rangeEnd);
+    List<GenericValue> worklogGVList = ComponentAccessor.getOfBizDelegator().findByCondition(
+        "IssueWorklogView", new EntityConditionList(exprList, EntityOperator.AND),
+        WORKLOG_SUMMARY_FIELDS, null);
+    if ((worklogGVList == null) || worklogGVList.isEmpty()) {
+      return summaries;
+    }
+
+    Map<Long, IssueSnapshot> issueSnapshots =
+        WorklogUtil.loadIssueSnapshots(worklogGVList, user);
+    Collection<String> loggedUserGroupNames =
+        ComponentAccessor.getGroupManager().getGroupNamesForUser(user);
+    ProjectRoleManager projectRoleManager =
+        ComponentAccessor.getComponent(ProjectRoleManager.class);
+    Map<Long, Collection<ProjectRole>> projectRolesCache = new HashMap<>();
+    for (GenericValue worklog : worklogGVList) {
+      Long issueId = worklog.getLong("issue");
+      IssueSnapshot issueSnapshot = issueSnapshots.get(issueId);
+      if ((issueSnapshot == null)
+          || !WorklogUtil.hasWorklogVisibility(user, loggedUserGroupNames, projectRoleManager,
+              projectRolesCache, issueSnapshot, worklog)) {
+        continue;
+      }
+      boolean nonWorking = nonWorkingIssueMatcher.matches(issueSnapshot.getIssueKey());
+      long startDate = worklog.getTimestamp("startdate").getTime();
+      long timeWorked = worklog.getLong("timeworked").longValue();
+      for (int i = 0; i < periods.size(); i++) {
+        if (periods.get(i).contains(startDate)) {
+          summaries.get(i).add(timeWorked, nonWorking);
         }
       }
     }
+    return summaries;
   }
 
   @Override
@@ -213,20 +289,14 @@ public class SupportComponent implements SupportManager {
     PermissionManager permissionManager = ComponentAccessor.getPermissionManager();
     ProjectRoleManager projectRoleManager =
         ComponentAccessor.getComponent(ProjectRoleManager.class);
+    IssueKeyMatcher issueMatcher = IssueKeyMatcher.create(issuePatterns);
     // if we have non-estimated issues
     for (GenericValue worklog : worklogsCopy) {
       Long issueId = worklog.getLong("issue");
       MutableIssue issue = issueManager.getIssueObject(issueId);
-      if ((issuePatterns != null) && !issuePatterns.isEmpty()) {
-        for (Pattern issuePattern : issuePatterns) {
-          boolean issueMatches = issuePattern.matcher(issue.getKey())
-              .matches();
-          // if match not count in summary
-          if (issueMatches) {
-            worklogs.remove(worklog);
-            break;
-          }
-        }
+      // if match not count in summary
+      if (issueMatcher.matches(issue.getKey())) {
+        worklogs.remove(worklog);
       }
       boolean hasWorklogVisibility = WorklogUtil.hasWorklogVisibility(user,
           issueManager,
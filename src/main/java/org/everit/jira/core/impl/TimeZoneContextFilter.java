@@ -0,0 +1,54 @@
+/*
+ * Copyright (C) 2011 Everit Kft. (http://www.everit.org)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.everit.jira.core.impl;
+
+import java.io.IOException;
+
+import javax.servlet.Filter;
+import javax.servlet.FilterChain;
+import javax.servlet.FilterConfig;
+import javax.servlet.ServletException;
+import javax.servlet.ServletRequest;
+import javax.servlet.ServletResponse;
+
+import org.everit.jira.core.util.TimeZoneContext;
+
+/**
+ * Binds a {@link TimeZoneContext} to the thread of the request, so the time zones are resolved
+ * only once per request.
+ */
+public class TimeZoneContextFilter implements Filter {
+
+  @Override
+  public void destroy() {
+  }
+
+  @Override
+  public void doFilter(final ServletRequest request, final ServletResponse response,
+      final FilterChain chain) throws IOException, ServletException {
+    TimeZoneContext previous = TimeZoneContext.bind();
+    try {
+      chain.doFilter(request, response);
+    } finally {
+      TimeZoneContext.restore(previous);
+    }
+  }
+
+  @Override
+  public void init(final FilterConfig filterConfig) throws ServletException {
+  }
+
+}
@@ -16,26 +16,40 @@
 package org.everit.jira.core.impl;
 
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.Date;
 import java.util.List;
 import java.util.Set;
+import java.util.SortedSet;
+import java.util.TreeSet;
 
 import org.everit.jira.core.TimetrackerManager;
 import org.everit.jira.core.util.TimetrackerUtil;
+import org.everit.jira.core.util.WorklogUtil;
 import org.everit.jira.settings.TimeTrackerSettingsHelper;
 import org.everit.jira.settings.dto.TimeTrackerUserSettings;
 import org.everit.jira.timetracker.plugin.dto.EveritWorklog;
 import org.everit.jira.timetracker.plugin.util.DateTimeConverterUtil;
 import org.joda.time.DateTime;
 import org.joda.time.DateTimeConstants;
+import org.joda.time.DateTimeZone;
+import org.ofbiz.core.entity.EntityCondition;
+import org.ofbiz.core.entity.EntityConditionList;
+import org.ofbiz.core.entity.EntityOperator;
+import org.ofbiz.core.entity.GenericValue;
 
 import com.atlassian.jira.bc.issue.worklog.TimeTrackingConfiguration;
+import com.atlassian.jira.component.ComponentAccessor;
+import com.atlassian.jira.user.ApplicationUser;
 
 /**
  * Implementation of {@link TimetrackerManager}.
  */
 public class TimetrackerComponent implements TimetrackerManager {
 
+  private static final List<String> STARTDATE_FIELD =
+      Collections.singletonList("startdate");
+
   private final TimeTrackerSettingsHelper settingsHelper;
 
   private TimeTrackingConfiguration timeTrackingConfiguration;
@@ -128,24 +142,38 @@ public class TimetrackerComponent implements TimetrackerManager {
     return getExtraDaysOfTheMonth(date, includeDatesSet);
   }
 
+  @Override
+  public SortedSet<Integer> getLoggedDayNumbersOfTheMonth(final DateTimeServer date) {
+    DateTime monthStart = date.getUserTimeZone().withDayOfMonth(1).withTimeAtStartOfDay();
+    DateTime nextMonthStart = monthStart.plusMonths(1).withTimeAtStartOfDay();
+    ApplicationUser user = ComponentAccessor.getJiraAuthenticationContext().getUser();
+
+    List<EntityCondition> exprList =
+        WorklogUtil.createWorklogQueryExprListWithPermissionCheck(user, monthStart.getMillis(),
+            nextMonthStart.getMillis());
+    List<GenericValue> worklogGVList = ComponentAccessor.getOfBizDelegator().findByCondition(
+        "IssueWorklogView", new EntityConditionList(exprList, EntityOperator.AND),
+        STARTDATE_FIELD, null);
+
+    SortedSet<Integer> loggedDays = new TreeSet<>();
+    if (worklogGVList == null) {
+      return loggedDays;
+    }
+    DateTimeZone userTimeZone = monthStart.getZone();
+    for (GenericValue worklogGv : worklogGVList) {
+      DateTime startDate =
+          new DateTime(worklogGv.getTimestamp("startdate").getTime(), userTimeZone);
+      loggedDays.add(startDate.getDayOfMonth());
+    }
+    return loggedDays;
+  }
+
   @Override
   public List<String> getLoggedDaysOfTheMonth(final DateTimeServer date) {
     List<String> resultDays = new ArrayList<>();
-    int dayOfMonth = 1;
-    int maxDayOfMonth = date.getUserTimeZone().dayOfMonth().getMaximumValue();
-    DateTimeServer startCalendar = DateTimeServer.getInstanceBasedOnUserTimeZone(
-        date.getUserTimeZone().withDayOfMonth(dayOfMonth));
-
-    while (dayOfMonth <= maxDayOfMonth) {
-      if (TimetrackerUtil.isContainsWorklog(
-          DateTimeConverterUtil.setDateToDayStart(startCalendar.getUserTimeZone()).toDate())) {
-        resultDays.add(Integer.toString(dayOfMonth));
-      }
-      DateTime plusDays = startCalendar.getUserTimeZone().plusDays(1);
-      startCalendar = DateTimeServer.getInstanceBasedOnUserTimeZone(plusDays);
-      dayOfMonth++;
+    for (Integer dayOfMonth : getLoggedDayNumbersOfTheMonth(date)) {
+      resultDays.add(dayOfMonth.toString());
     }
-
     return resultDays;
   }
 
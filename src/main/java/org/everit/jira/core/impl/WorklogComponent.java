@@ -18,16 +18,21 @@ package org.everit.jira.core.impl;
 import java.text.ParseException;
 import java.util.ArrayList;
 import java.util.Calendar;
+import java.util.Collection;
 import java.util.Collections;
 import java.util.Date;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 import org.everit.jira.core.EVWorklogManager;
 import org.everit.jira.core.RemainingEstimateType;
 import org.everit.jira.core.dto.WorklogParameter;
+import org.everit.jira.core.util.TimeZoneContext;
 import org.everit.jira.core.util.WorklogUtil;
 import org.everit.jira.timetracker.plugin.dto.EveritWorklog;
 import org.everit.jira.timetracker.plugin.dto.EveritWorklogComparator;
+import org.everit.jira.timetracker.plugin.dto.IssueSnapshot;
 import org.everit.jira.timetracker.plugin.exception.WorklogException;
 import org.ofbiz.core.entity.EntityCondition;
 import org.ofbiz.core.entity.GenericValue;
@@ -49,7 +54,7 @@ import com.atlassian.jira.permission.ProjectPermissions;
 import com.atlassian.jira.security.JiraAuthenticationContext;
 import com.atlassian.jira.security.PermissionManager;
 import com.atlassian.jira.security.Permissions;
-import com.atlassian.jira.security.groups.GroupManager;
+import com.atlassian.jira.security.roles.ProjectRole;
 import com.atlassian.jira.security.roles.ProjectRoleManager;
 import com.atlassian.jira.user.ApplicationUser;
 
@@ -294,21 +299,28 @@ public class WorklogComponent implements EVWorklogManager {
     List<GenericValue> worklogGVList = ComponentAccessor.getOfBizDelegator()
         .findByAnd("IssueWorklogView", exprList);
 
-    IssueManager issueManager = ComponentAccessor.getIssueManager();
-    GroupManager groupManager = ComponentAccessor.getGroupManager();
-    PermissionManager permissionManager = ComponentAccessor.getPermissionManager();
+    Map<Long, IssueSnapshot> issueSnapshots =
+        WorklogUtil.loadIssueSnapshots(worklogGVList, loggedInUser);
+    Collection<String> loggedUserGroupNames =
+        ComponentAccessor.getGroupManager().getGroupNamesForUser(loggedInUser);
     ProjectRoleManager projectRoleManager =
         ComponentAccessor.getComponent(ProjectRoleManager.class);
+    Map<Long, Collection<ProjectRole>> projectRolesCache = new HashMap<>();
+    TimeZoneContext timeZoneContext = TimeZoneContext.current();
 
     for (GenericValue worklogGv : worklogGVList) {
+      IssueSnapshot issueSnapshot = issueSnapshots.get(worklogGv.getLong("issue"));
+      if (issueSnapshot == null) {
+        continue;
+      }
       boolean hasWorklogVisibility = WorklogUtil.hasWorklogVisibility(loggedInUser,
-          issueManager,
-          groupManager,
+          loggedUserGroupNames,
           projectRoleManager,
-          permissionManager,
+          projectRolesCache,
+          issueSnapshot,
           worklogGv);
       if (hasWorklogVisibility) {
-        EveritWorklog worklog = new EveritWorklog(worklogGv);
+        EveritWorklog worklog = new EveritWorklog(worklogGv, issueSnapshot, timeZoneContext);
         worklogs.add(worklog);
       }
     }
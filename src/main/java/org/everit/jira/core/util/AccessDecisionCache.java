@@ -0,0 +1,162 @@
+/*
+ * Copyright (C) 2011 Everit Kft. (http://www.everit.org)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.everit.jira.core.util;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+import com.atlassian.jira.user.ApplicationUser;
+
+/**
+ * Short living, per user cache of the decisions of the plugin web conditions. The conditions run
+ * on every page view (for example the top navigation menu), so the settings load and the group
+ * membership check run once per user and the later calls read the cached decision. A decision is
+ * valid only for the settings version it was made with, so saving any settings invalidates it.
+ * The cache is cleared by {@link org.everit.jira.core.impl.AccessDecisionCacheInvalidator} when a
+ * group membership changes, and a decision made before a clear is never kept. The time to live
+ * limits the staleness where no event arrives (for example on the other nodes of a cluster). Only
+ * the {@link #MAX_SIZE} least recently used decisions are kept.
+ */
+public final class AccessDecisionCache {
+
+  /**
+   * A cached decision.
+   */
+  private static final class Entry {
+
+    private final boolean allowed;
+
+    private final long expiration;
+
+    private final long settingsVersion;
+
+    Entry(final boolean allowed, final long settingsVersion, final long expiration) {
+      this.allowed = allowed;
+      this.settingsVersion = settingsVersion;
+      this.expiration = expiration;
+    }
+
+    boolean isExpired(final long now) {
+      return now >= expiration;
+    }
+  }
+
+  private static final float CACHE_LOAD_FACTOR = 0.75f;
+
+  private static final AtomicLong INVALIDATION_COUNT = new AtomicLong();
+
+  /**
+   * The maximum number of the cached decisions.
+   */
+  public static final int MAX_SIZE = 3000;
+
+  /**
+   * The least recently used decisions by condition and user key.
+   */
+  private static final Map<String, Entry> CACHE =
+      Collections.synchronizedMap(new LinkedHashMap<String, Entry>(MAX_SIZE, CACHE_LOAD_FACTOR,
+          true) {
+
+        private static final long serialVersionUID = -6385231072484209641L;
+
+        @Override
+        protected boolean removeEldestEntry(final Map.Entry<String, Entry> eldest) {
+          return size() > MAX_SIZE;
+        }
+      });
+
+  /**
+   * The time to live of the entries in milliseconds.
+   */
+  public static final long TIME_TO_LIVE = 30000L;
+
+  /**
+   * Removes all cached decisions.
+   */
+  public static void clear() {
+    INVALIDATION_COUNT.incrementAndGet();
+    CACHE.clear();
+  }
+
+  private static String createKey(final String conditionKey, final ApplicationUser user) {
+    return conditionKey + ':' + user.getKey();
+  }
+
+  /**
+   * Gives back the cached decision of the condition.
+   *
+   * @param conditionKey
+   *          the key of the condition.
+   * @param user
+   *          the user. The decisions of the anonymous user are not cached.
+   * @param settingsVersion
+   *          the current version of the settings.
+   * @return the decision or <code>null</code> if it is not cached or made with other settings.
+   */
+  public static Boolean get(final String conditionKey, final ApplicationUser user,
+      final long settingsVersion) {
+    if (user == null) {
+      return null;
+    }
+    Entry entry = CACHE.get(AccessDecisionCache.createKey(conditionKey, user));
+    if ((entry == null) || entry.isExpired(System.currentTimeMillis())
+        || (entry.settingsVersion != settingsVersion)) {
+      return null;
+    }
+    return entry.allowed;
+  }
+
+  /**
+   * Gives back the number of the clears. It has to be queried before the decision is made and
+   * passed to the {@link #put(String, ApplicationUser, long, long, boolean)} method.
+   */
+  public static long getInvalidationCount() {
+    return INVALIDATION_COUNT.get();
+  }
+
+  /**
+   * Caches the decision of the condition if the cache is not cleared since the decision is made.
+   *
+   * @param conditionKey
+   *          the key of the condition.
+   * @param user
+   *          the user. The decisions of the anonymous user are not cached.
+   * @param settingsVersion
+   *          the version of the settings that was queried before the settings were loaded.
+   * @param invalidationCount
+   *          the {@link #getInvalidationCount()} before the decision is made.
+   * @param allowed
+   *          the decision.
+   */
+  public static void put(final String conditionKey, final ApplicationUser user,
+      final long settingsVersion, final long invalidationCount, final boolean allowed) {
+    if ((user == null) || (INVALIDATION_COUNT.get() != invalidationCount)) {
+      return;
+    }
+    String key = AccessDecisionCache.createKey(conditionKey, user);
+    Entry entry = new Entry(allowed, settingsVersion, System.currentTimeMillis() + TIME_TO_LIVE);
+    CACHE.put(key, entry);
+    if (INVALIDATION_COUNT.get() != invalidationCount) {
+      // cleared meanwhile
+      CACHE.remove(key);
+    }
+  }
+
+  private AccessDecisionCache() {
+  }
+}
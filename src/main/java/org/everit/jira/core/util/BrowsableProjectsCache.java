@@ -0,0 +1,138 @@
+/*
+ * Copyright (C) 2011 Everit Kft. (http://www.everit.org)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.everit.jira.core.util;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import com.atlassian.jira.component.ComponentAccessor;
+import com.atlassian.jira.project.Project;
+import com.atlassian.jira.security.Permissions;
+import com.atlassian.jira.user.ApplicationUser;
+
+/**
+ * Short living, per user cache of the ids of the projects what the user can browse. One page load
+ * asks the same list many times, so the permission walk runs once and the later calls read the
+ * cached list. The cache is cleared by
+ * {@link org.everit.jira.core.impl.BrowsableProjectsCacheInvalidator} when a permission scheme, a
+ * project or a group membership changes. The time to live limits the staleness where no event
+ * arrives: JIRA does not publish an event when a project role actor is added or removed, so a role
+ * change is picked up when the entry expires. The same applies on the other nodes of a cluster.
+ */
+public final class BrowsableProjectsCache {
+
+  /**
+   * A cached project id list.
+   */
+  private static final class Entry {
+
+    private final long expiration;
+
+    private final List<Long> projectIds;
+
+    Entry(final List<Long> projectIds, final long expiration) {
+      this.projectIds = projectIds;
+      this.expiration = expiration;
+    }
+
+    boolean isExpired(final long now) {
+      return now >= expiration;
+    }
+  }
+
+  private static final Map<String, Entry> CACHE = new ConcurrentHashMap<>();
+
+  /**
+   * The cache size above the expired entries are removed.
+   */
+  private static final int CLEANUP_THRESHOLD = 1000;
+
+  private static final AtomicLong INVALIDATION_COUNT = new AtomicLong();
+
+  /**
+   * The time to live of the entries in milliseconds.
+   */
+  public static final long TIME_TO_LIVE = 30000L;
+
+  /**
+   * Removes all cached entries.
+   */
+  public static void clear() {
+    INVALIDATION_COUNT.incrementAndGet();
+    CACHE.clear();
+  }
+
+  private static List<Long> createProjectIds(final ApplicationUser user) {
+    Collection<Project> projects = ComponentAccessor.getPermissionManager()
+        .getProjects(Permissions.BROWSE, user);
+
+    List<Long> projectList = new ArrayList<>();
+    for (Project project : projects) {
+      projectList.add(project.getId());
+    }
+    return Collections.unmodifiableList(projectList);
+  }
+
+  /**
+   * Gives back the ids of the projects what the user can browse.
+   *
+   * @param user
+   *          the user. If <code>null</code> the anonymous permissions are checked and not cached.
+   * @return the unmodifiable list of the project ids.
+   */
+  public static List<Long> getProjectIds(final ApplicationUser user) {
+    if (user == null) {
+      return BrowsableProjectsCache.createProjectIds(user);
+    }
+    long now = System.currentTimeMillis();
+    String userKey = user.getKey();
+    Entry entry = CACHE.get(userKey);
+    if ((entry == null) || entry.isExpired(now)) {
+      long invalidationCount = INVALIDATION_COUNT.get();
+      entry = new Entry(BrowsableProjectsCache.createProjectIds(user), now + TIME_TO_LIVE);
+      if (CACHE.size() >= CLEANUP_THRESHOLD) {
+        BrowsableProjectsCache.removeExpired(now);
+      }
+      // a list loaded during an invalidation may be stale, so it is not cached
+      if (INVALIDATION_COUNT.get() == invalidationCount) {
+        CACHE.put(userKey, entry);
+        if (INVALIDATION_COUNT.get() != invalidationCount) {
+          // cleared meanwhile
+          CACHE.remove(userKey, entry);
+        }
+      }
+    }
+    return entry.projectIds;
+  }
+
+  private static void removeExpired(final long now) {
+    Iterator<Entry> iterator = CACHE.values().iterator();
+    while (iterator.hasNext()) {
+      if (iterator.next().isExpired(now)) {
+        iterator.remove();
+      }
+    }
+  }
+
+  private BrowsableProjectsCache() {
+  }
+}
@@ -0,0 +1,197 @@
+/*
+ * Copyright (C) 2011 Everit Kft. (http://www.everit.org)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.everit.jira.core.util;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.regex.Pattern;
+import java.util.regex.PatternSyntaxException;
+
+/**
+ * Immutable matcher of issue keys against the issue patterns of the global settings (non-working
+ * issues, non-estimated collector issues). The patterns are compiled into one alternation of
+ * non-capturing groups and the results are remembered by issue key. Patterns that cannot be
+ * combined (numbered back references, the same named group in more patterns) are matched one by
+ * one. The matchers are cached by the pattern sources, so a
+ * settings version is compiled only once and shared by every caller.
+ */
+public final class IssueKeyMatcher {
+
+  private static final Map<List<String>, IssueKeyMatcher> CACHE = new ConcurrentHashMap<>();
+
+  /**
+   * The cache size above the cached matchers are dropped. Only a few pattern lists live at the
+   * same time (one per settings key).
+   */
+  private static final int CACHE_LIMIT = 16;
+
+  /**
+   * The matcher without patterns. Matches nothing.
+   */
+  public static final IssueKeyMatcher EMPTY =
+      new IssueKeyMatcher(Collections.<String> emptyList());
+
+  /**
+   * The number of remembered issue keys above the memo is cleared.
+   */
+  private static final int MEMO_LIMIT = 10000;
+
+  /**
+   * Matches a numbered back reference. Patterns with back references cannot be combined, because
+   * the group numbers are shifted in the alternation.
+   */
+  private static final Pattern NUMBERED_BACK_REFERENCE = Pattern.compile("\\\\[1-9]");
+
+  /**
+   * Compiles the patterns into one alternation.
+   *
+   * @return the combined pattern or <code>null</code> if the patterns cannot be combined.
+   */
+  private static Pattern combine(final List<String> sources) {
+    if ((sources.size() < 2) || hasNumberedBackReference(sources)) {
+      return null;
+    }
+    StringBuilder sb = new StringBuilder();
+    for (String source : sources) {
+      if (sb.length() > 0) {
+        sb.append('|');
+      }
+      sb.append("(?:").append(source).append(')');
+    }
+    try {
+      return Pattern.compile(sb.toString());
+    } catch (PatternSyntaxException e) {
+      // for example the same named group is defined in more patterns
+      return null;
+    }
+  }
+
+  /**
+   * Gives back the matcher of the given patterns.
+   *
+   * @param patterns
+   *          the patterns. The elements can be {@link Pattern} or {@link String} objects. If
+   *          <code>null</code> or empty {@link #EMPTY} is returned.
+   * @return the cached or the new matcher.
+   */
+  public static IssueKeyMatcher create(final Collection<?> patterns) {
+    if ((patterns == null) || patterns.isEmpty()) {
+      return EMPTY;
+    }
+    List<String> sources = new ArrayList<>(patterns.size());
+    for (Object pattern : patterns) {
+      sources.add(String.valueOf(pattern));
+    }
+    IssueKeyMatcher matcher = CACHE.get(sources);
+    if (matcher == null) {
+      matcher = new IssueKeyMatcher(Collections.unmodifiableList(sources));
+      if (CACHE.size() >= CACHE_LIMIT) {
+        CACHE.clear();
+      }
+      CACHE.put(matcher.sources, matcher);
+    }
+    return matcher;
+  }
+
+  private static boolean hasNumberedBackReference(final List<String> sources) {
+    for (String source : sources) {
+      if (NUMBERED_BACK_REFERENCE.matcher(source).find()) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  private final Pattern combinedPattern;
+
+  private final Map<String, Boolean> memo = new ConcurrentHashMap<>();
+
+  private final List<Pattern> patterns;
+
+  private final List<String> sources;
+
+  private IssueKeyMatcher(final List<String> sources) {
+    this.sources = sources;
+    List<Pattern> compiledPatterns = new ArrayList<>(sources.size());
+    for (String source : sources) {
+      compiledPatterns.add(Pattern.compile(source));
+    }
+    patterns = Collections.unmodifiableList(compiledPatterns);
+    combinedPattern = IssueKeyMatcher.combine(sources);
+  }
+
+  private boolean compute(final String issueKey) {
+    if (combinedPattern != null) {
+      return combinedPattern.matcher(issueKey).matches();
+    }
+    for (Pattern pattern : patterns) {
+      if (pattern.matcher(issueKey).matches()) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  /**
+   * Gives back the compiled patterns one by one.
+   *
+   * @return the unmodifiable list of the patterns.
+   */
+  public List<Pattern> getPatterns() {
+    return patterns;
+  }
+
+  /**
+   * Gives back the source of the patterns.
+   *
+   * @return the unmodifiable list of the pattern sources.
+   */
+  public List<String> getSources() {
+    return sources;
+  }
+
+  public boolean isEmpty() {
+    return sources.isEmpty();
+  }
+
+  /**
+   * Checks the issue key matches any pattern or not.
+   *
+   * @param issueKey
+   *          the issue key.
+   * @return <code>true</code> if any pattern matches the whole issue key, otherwise
+   *         <code>false</code>.
+   */
+  public boolean matches(final String issueKey) {
+    if ((issueKey == null) || sources.isEmpty()) {
+      return false;
+    }
+    Boolean result = memo.get(issueKey);
+    if (result == null) {
+      result = compute(issueKey);
+      if (memo.size() >= MEMO_LIMIT) {
+        memo.clear();
+      }
+      memo.put(issueKey, result);
+    }
+    return result;
+  }
+
+}
@@ -0,0 +1,127 @@
+/*
+ * Copyright (C) 2011 Everit Kft. (http://www.everit.org)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.everit.jira.core.util;
+
+import org.joda.time.DateTimeZone;
+
+/**
+ * The system and the logged user time zone of a request. The zones are resolved once, on the first
+ * use, and the same context is used by every conversion of the request. The context of the request
+ * is bound to the thread by {@link org.everit.jira.core.impl.TimeZoneContextFilter}. If no context
+ * is bound, {@link #current()} gives back a new context.
+ */
+public final class TimeZoneContext {
+
+  private static final ThreadLocal<TimeZoneContext> BOUND_CONTEXT =
+      new ThreadLocal<TimeZoneContext>();
+
+  /**
+   * Binds a new, not yet resolved context to the current thread.
+   *
+   * @return the previously bound context or <code>null</code>. It has to be passed to the
+   *         {@link #restore(TimeZoneContext)} method.
+   */
+  public static TimeZoneContext bind() {
+    TimeZoneContext previous = BOUND_CONTEXT.get();
+    BOUND_CONTEXT.set(new TimeZoneContext(null, null));
+    return previous;
+  }
+
+  /**
+   * Gives back the context bound to the current thread.
+   *
+   * @return the bound context or a new context if there is no bound one.
+   */
+  public static TimeZoneContext current() {
+    TimeZoneContext timeZoneContext = BOUND_CONTEXT.get();
+    if (timeZoneContext == null) {
+      return new TimeZoneContext(null, null);
+    }
+    return timeZoneContext;
+  }
+
+  /**
+   * Gives back the context bound to the current thread.
+   *
+   * @return the bound context or <code>null</code>.
+   */
+  public static TimeZoneContext getBound() {
+    return BOUND_CONTEXT.get();
+  }
+
+  /**
+   * Creates a context with the given time zones.
+   *
+   * @param userTimeZone
+   *          the time zone of the user.
+   * @param systemTimeZone
+   *          the time zone of the system.
+   * @return the context.
+   */
+  public static TimeZoneContext of(final DateTimeZone userTimeZone,
+      final DateTimeZone systemTimeZone) {
+    return new TimeZoneContext(userTimeZone, systemTimeZone);
+  }
+
+  /**
+   * Restores the context bound before the {@link #bind()} call.
+   *
+   * @param previous
+   *          the context returned by the {@link #bind()} method.
+   */
+  public static void restore(final TimeZoneContext previous) {
+    if (previous == null) {
+      BOUND_CONTEXT.remove();
+    } else {
+      BOUND_CONTEXT.set(previous);
+    }
+  }
+
+  private volatile DateTimeZone systemTimeZone;
+
+  private volatile DateTimeZone userTimeZone;
+
+  private TimeZoneContext(final DateTimeZone userTimeZone, final DateTimeZone systemTimeZone) {
+    this.userTimeZone = userTimeZone;
+    this.systemTimeZone = systemTimeZone;
+  }
+
+  /**
+   * Gives back the system time zone. Resolved on the first call.
+   */
+  public DateTimeZone getSystemTimeZone() {
+    DateTimeZone result = systemTimeZone;
+    if (result == null) {
+      result = TimetrackerUtil.resolveSystemTimeZone();
+      systemTimeZone = result;
+    }
+    return result;
+  }
+
+  /**
+   * Gives back the time zone of the logged user, based on the time zone setting of the plugin.
+   * Resolved on the first call.
+   */
+  public DateTimeZone getUserTimeZone() {
+    DateTimeZone result = userTimeZone;
+    if (result == null) {
+      result = TimetrackerUtil.resolveLoggedUserTimeZone(this);
+      userTimeZone = result;
+    }
+    return result;
+  }
+
+}
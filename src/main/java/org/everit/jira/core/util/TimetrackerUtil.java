@@ -66,19 +66,15 @@ public final class TimetrackerUtil {
    *
    * @param issue
    *          The issue.
+   * @param collectorIssueMatcher
+   *          The matcher of the collector issues.
    * @return True if not specified, bigger or equals whit spent time else false.
    */
   public static boolean checkIssueEstimatedTime(final MutableIssue issue,
-      final List<Pattern> collectorIssueIds) {
-    String issueKey = issue.getKey();
-    if (collectorIssueIds != null) {
-      for (Pattern issuePattern : collectorIssueIds) {
-        // check matches
-        boolean isCollectorIssue = issuePattern.matcher(issueKey).matches();
-        if (isCollectorIssue) {
-          return true;
-        }
-      }
+      final IssueKeyMatcher collectorIssueMatcher) {
+    // check matches
+    if (collectorIssueMatcher.matches(issue.getKey())) {
+      return true;
     }
     Long estimated = issue.getEstimate();
     Status issueStatus = issue.getStatusObject();
@@ -89,6 +85,20 @@ public final class TimetrackerUtil {
     return true;
   }
 
+  /**
+   * Check the issue original estimated time. If null then the original estimated time wasn't
+   * specified, else compare the spent time with the original estimated time.
+   *
+   * @param issue
+   *          The issue.
+   * @return True if not specified, bigger or equals whit spent time else false.
+   */
+  public static boolean checkIssueEstimatedTime(final MutableIssue issue,
+      final List<Pattern> collectorIssueIds) {
+    return TimetrackerUtil.checkIssueEstimatedTime(issue,
+        IssueKeyMatcher.create(collectorIssueIds));
+  }
+
   /**
    * Check the date is contains the dates or not.
    *
@@ -200,24 +210,13 @@ public final class TimetrackerUtil {
   }
 
   /**
-   * Get the logged user {@link DateTimeZone}.
+   * Get the logged user {@link DateTimeZone}. Use the {@link TimeZoneContext} of the request if it
+   * is bound.
    *
    * @return The logged user {@link DateTimeZone}.
    */
   public static DateTimeZone getLoggedUserTimeZone() {
-    TimeTrackerSettingsHelper settingsHelper =
-        ComponentAccessor.getOSGiComponentInstanceOfType(TimeTrackerSettingsHelper.class);
-    TimeTrackerGlobalSettings globalSettings = settingsHelper.loadGlobalSettings();
-    TimeZoneTypes timeZoneTypes = globalSettings.getTimeZone();
-    if (TimeZoneTypes.USER.equals(timeZoneTypes)) {
-      TimeZoneServiceImpl timeZoneServiceImpl = TimetrackerUtil.getInitializedTimeZoneServeice();
-      JiraServiceContext serviceContext = TimetrackerUtil.getServiceContext();
-      TimeZone timeZone = timeZoneServiceImpl.getUserTimeZone(serviceContext);
-      return DateTimeZone.forTimeZone(timeZone);
-    } else {
-      return TimetrackerUtil.getSystemTimeZone();
-    }
-
+    return TimeZoneContext.current().getUserTimeZone();
   }
 
   private static JiraServiceContext getServiceContext() {
@@ -228,15 +227,17 @@ public final class TimetrackerUtil {
   }
 
   /**
-   * Get the system {@link DateTimeZone}.
+   * Get the system {@link DateTimeZone}. Use the {@link TimeZoneContext} of the request if it is
+   * bound.
    *
    * @return The system {@link DateTimeZone}.
    */
   public static DateTimeZone getSystemTimeZone() {
-    TimeZoneServiceImpl timeZoneServiceImpl = TimetrackerUtil.getInitializedTimeZoneServeice();
-    JiraServiceContext serviceContext = TimetrackerUtil.getServiceContext();
-    TimeZone timeZone = timeZoneServiceImpl.getJVMTimeZoneInfo(serviceContext).toTimeZone();
-    return DateTimeZone.forTimeZone(timeZone);
+    TimeZoneContext timeZoneContext = TimeZoneContext.getBound();
+    if (timeZoneContext != null) {
+      return timeZoneContext.getSystemTimeZone();
+    }
+    return TimetrackerUtil.resolveSystemTimeZone();
   }
 
   /**
@@ -282,6 +283,40 @@ public final class TimetrackerUtil {
     return true;
   }
 
+  /**
+   * Resolve the logged user {@link DateTimeZone} based on the time zone setting of the plugin.
+   *
+   * @param timeZoneContext
+   *          the context that gives the system time zone if the plugin uses that.
+   * @return The logged user {@link DateTimeZone}.
+   */
+  static DateTimeZone resolveLoggedUserTimeZone(final TimeZoneContext timeZoneContext) {
+    TimeTrackerSettingsHelper settingsHelper =
+        ComponentAccessor.getOSGiComponentInstanceOfType(TimeTrackerSettingsHelper.class);
+    TimeTrackerGlobalSettings globalSettings = settingsHelper.loadGlobalSettings();
+    TimeZoneTypes timeZoneTypes = globalSettings.getTimeZone();
+    if (TimeZoneTypes.USER.equals(timeZoneTypes)) {
+      TimeZoneServiceImpl timeZoneServiceImpl = TimetrackerUtil.getInitializedTimeZoneServeice();
+      JiraServiceContext serviceContext = TimetrackerUtil.getServiceContext();
+      TimeZone timeZone = timeZoneServiceImpl.getUserTimeZone(serviceContext);
+      return DateTimeZone.forTimeZone(timeZone);
+    } else {
+      return timeZoneContext.getSystemTimeZone();
+    }
+  }
+
+  /**
+   * Resolve the system {@link DateTimeZone}.
+   *
+   * @return The system {@link DateTimeZone}.
+   */
+  static DateTimeZone resolveSystemTimeZone() {
+    TimeZoneServiceImpl timeZoneServiceImpl = TimetrackerUtil.getInitializedTimeZoneServeice();
+    JiraServiceContext serviceContext = TimetrackerUtil.getServiceContext();
+    TimeZone timeZone = timeZoneServiceImpl.getJVMTimeZoneInfo(serviceContext).toTimeZone();
+    return DateTimeZone.forTimeZone(timeZone);
+  }
+
   /**
    * URL encode the given String with UTF-8 charset.
    *
@@ -18,7 +18,14 @@ package org.everit.jira.core.util;
 import java.sql.Timestamp;
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.everit.jira.timetracker.plugin.dto.IssueSnapshot;
 
 import org.ofbiz.core.entity.EntityCondition;
 import org.ofbiz.core.entity.EntityExpr;
@@ -31,7 +38,6 @@ import com.atlassian.jira.issue.MutableIssue;
 import com.atlassian.jira.permission.ProjectPermissions;
 import com.atlassian.jira.project.Project;
 import com.atlassian.jira.security.PermissionManager;
-import com.atlassian.jira.security.Permissions;
 import com.atlassian.jira.security.groups.GroupManager;
 import com.atlassian.jira.security.roles.ProjectRole;
 import com.atlassian.jira.security.roles.ProjectRoleManager;
@@ -42,15 +48,20 @@ import com.atlassian.jira.user.ApplicationUser;
  */
 public final class WorklogUtil {
 
-  private static List<Long> createProjects(final ApplicationUser loggedInUser) {
-    Collection<Project> projects = ComponentAccessor.getPermissionManager()
-        .getProjects(Permissions.BROWSE, loggedInUser);
+  /**
+   * The maximum number of issue ids in one issue query. Keeps the IN list under the parameter
+   * limit of the databases.
+   */
+  public static final int ISSUE_QUERY_CHUNK_SIZE = 1000;
 
-    List<Long> projectList = new ArrayList<>();
-    for (Project project : projects) {
-      projectList.add(project.getId());
+  private static boolean containsProjectRole(final Collection<ProjectRole> projectRoles,
+      final Long roleLevelId) {
+    for (ProjectRole projectRole : projectRoles) {
+      if (projectRole.getId().equals(roleLevelId)) {
+        return true;
+      }
     }
-    return projectList;
+    return false;
   }
 
   /**
@@ -122,7 +133,7 @@ public final class WorklogUtil {
     String userKey = ((selectedUser == null) || "".equals(selectedUser))
         ? loggedInUser.getKey() : selectedUser;
 
-    List<Long> projects = WorklogUtil.createProjects(loggedInUser);
+    List<Long> projects = BrowsableProjectsCache.getProjectIds(loggedInUser);
 
     List<EntityCondition> exprList =
         WorklogUtil.createWorklogQueryExprList(startDate, endDate, userKey);
@@ -135,6 +146,12 @@ public final class WorklogUtil {
     return exprList;
   }
 
+  private static boolean hasGroupLevelVisibility(final Collection<String> loggedUserGroupNames,
+      final GenericValue worklogGv) {
+    String groupLevel = worklogGv.getString("grouplevel");
+    return (groupLevel == null) || loggedUserGroupNames.contains(groupLevel);
+  }
+
   /**
    * Check has worklog visibility permission for the user.
    *
@@ -157,27 +174,92 @@ public final class WorklogUtil {
       final ProjectRoleManager projectRoleManager, final PermissionManager permissionManager,
       final GenericValue worklogGv) {
     Collection<String> loggedUserGroupNames = groupManager.getGroupNamesForUser(loggedInUser);
-    Long roleLevelId = worklogGv.getLong("rolelevel");
-    String groupLevel = worklogGv.getString("grouplevel");
     Long issueId = worklogGv.getLong("issue");
     MutableIssue issue = issueManager.getIssueObject(issueId);
     if (!permissionManager.hasPermission(ProjectPermissions.BROWSE_PROJECTS, issue, loggedInUser)) {
       return false;
     }
-    boolean hasWorklogVisibility = true;
-    if ((roleLevelId != null)) {
-      hasWorklogVisibility = false;
+    Long roleLevelId = worklogGv.getLong("rolelevel");
+    if (roleLevelId != null) {
       Collection<ProjectRole> projectRoles =
           projectRoleManager.getProjectRoles(loggedInUser, issue.getProjectObject());
-      for (ProjectRole projectRole : projectRoles) {
-        if (projectRole.getId().equals(roleLevelId)) {
-          hasWorklogVisibility = true;
+      return WorklogUtil.containsProjectRole(projectRoles, roleLevelId);
+    }
+    return WorklogUtil.hasGroupLevelVisibility(loggedUserGroupNames, worklogGv);
+  }
+
+  /**
+   * Check has worklog visibility permission for the user based on the already resolved issue data.
+   * The project roles of the user are resolved at most once per project.
+   *
+   * @param loggedInUser
+   *          the logged user.
+   * @param loggedUserGroupNames
+   *          the group names of the logged user.
+   * @param projectRoleManager
+   *          the {@link ProjectRoleManager} instance.
+   * @param projectRolesCache
+   *          the already resolved project roles of the logged user by project id. Filled by this
+   *          method.
+   * @param issueSnapshot
+   *          the resolved data of the worklog issue.
+   * @param worklogGv
+   *          the {@link GenericValue} for the worklog.
+   * @return true if has worklog visibility, otherwise false.
+   */
+  public static boolean hasWorklogVisibility(final ApplicationUser loggedInUser,
+      final Collection<String> loggedUserGroupNames, final ProjectRoleManager projectRoleManager,
+      final Map<Long, Collection<ProjectRole>> projectRolesCache,
+      final IssueSnapshot issueSnapshot, final GenericValue worklogGv) {
+    if (!issueSnapshot.isBrowsable()) {
+      return false;
+    }
+    Long roleLevelId = worklogGv.getLong("rolelevel");
+    if (roleLevelId == null) {
+      return WorklogUtil.hasGroupLevelVisibility(loggedUserGroupNames, worklogGv);
+    }
+    Project project = issueSnapshot.getProject();
+    Long projectId = project.getId();
+    Collection<ProjectRole> projectRoles = projectRolesCache.get(projectId);
+    if (projectRoles == null) {
+      projectRoles = projectRoleManager.getProjectRoles(loggedInUser, project);
+      projectRolesCache.put(projectId, projectRoles);
+    }
+    return WorklogUtil.containsProjectRole(projectRoles, roleLevelId);
+  }
+
+  /**
+   * Loads the issues of the given worklogs with one query per {@value #ISSUE_QUERY_CHUNK_SIZE}
+   * distinct issues and creates the {@link IssueSnapshot} of each issue.
+   *
+   * @param worklogGVList
+   *          the worklogs.
+   * @param loggedInUser
+   *          the logged user. The permissions are resolved for this user.
+   * @return the issue snapshots by issue id.
+   */
+  public static Map<Long, IssueSnapshot> loadIssueSnapshots(
+      final List<GenericValue> worklogGVList, final ApplicationUser loggedInUser) {
+    Set<Long> issueIds = new LinkedHashSet<>();
+    for (GenericValue worklogGv : worklogGVList) {
+      issueIds.add(worklogGv.getLong("issue"));
+    }
+    IssueManager issueManager = ComponentAccessor.getIssueManager();
+    PermissionManager permissionManager = ComponentAccessor.getPermissionManager();
+    Map<Long, IssueSnapshot> issueSnapshots = new HashMap<>();
+    List<Long> chunk = new ArrayList<>(ISSUE_QUERY_CHUNK_SIZE);
+    Iterator<Long> issueIdIterator = issueIds.iterator();
+    while (issueIdIterator.hasNext()) {
+      chunk.add(issueIdIterator.next());
+      if ((chunk.size() == ISSUE_QUERY_CHUNK_SIZE) || !issueIdIterator.hasNext()) {
+        for (MutableIssue issue : issueManager.getIssueObjects(chunk)) {
+          issueSnapshots.put(issue.getId(),
+              IssueSnapshot.create(issue, permissionManager, loggedInUser));
         }
+        chunk.clear();
       }
-    } else if ((groupLevel != null) && !loggedUserGroupNames.contains(groupLevel)) {
-      hasWorklogVisibility = false;
     }
-    return hasWorklogVisibility;
+    return issueSnapshots;
   }
 
   private WorklogUtil() {
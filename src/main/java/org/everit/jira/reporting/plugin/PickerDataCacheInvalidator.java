@@ -0,0 +1,160 @@
+/*
+ * Copyright (C) 2011 Everit Kft. (http://www.everit.org)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.everit.jira.reporting.plugin;
+
+import java.util.List;
+
+import org.everit.jira.reporting.plugin.util.PickerDataCache;
+import org.ofbiz.core.entity.GenericEntityException;
+import org.ofbiz.core.entity.GenericValue;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.InitializingBean;
+
+import com.atlassian.event.api.EventListener;
+import com.atlassian.event.api.EventPublisher;
+import com.atlassian.jira.component.ComponentAccessor;
+import com.atlassian.jira.event.ProjectDeletedEvent;
+import com.atlassian.jira.event.issue.IssueEvent;
+import com.atlassian.jira.event.project.AbstractVersionEvent;
+import com.atlassian.jira.event.type.EventType;
+import com.atlassian.jira.issue.Issue;
+import com.atlassian.jira.issue.fields.CustomField;
+import com.atlassian.jira.issue.issuetype.IssueType;
+
+/**
+ * Invalidates the lists of the {@link PickerDataCache} when the labels, the versions or the epics
+ * change. JIRA does not publish events about the component changes, the cached components expire
+ * after {@link PickerDataCache#TIME_TO_LIVE}.
+ */
+public class PickerDataCacheInvalidator implements InitializingBean, DisposableBean {
+
+  private static final String FIELD_EPIC_CHILD = "Epic Child";
+
+  private static final String FIELD_EPIC_LINK = "Epic Link";
+
+  private static final String FIELD_EPIC_NAME = "Epic Name";
+
+  private static final String FIELD_LABELS = "labels";
+
+  private static final String ISSUE_TYPE_EPIC = "Epic";
+
+  private static final Logger LOGGER = LoggerFactory.getLogger(PickerDataCacheInvalidator.class);
+
+  private final EventPublisher eventPublisher;
+
+  public PickerDataCacheInvalidator(final EventPublisher eventPublisher) {
+    this.eventPublisher = eventPublisher;
+  }
+
+  @Override
+  public void afterPropertiesSet() throws Exception {
+    eventPublisher.register(this);
+  }
+
+  @Override
+  public void destroy() throws Exception {
+    eventPublisher.unregister(this);
+    PickerDataCache.clear();
+  }
+
+  private void invalidateChangedFields(final GenericValue changeLog) {
+    List<GenericValue> changeItems;
+    try {
+      changeItems = changeLog.getRelated("ChildChangeItem");
+    } catch (GenericEntityException e) {
+      LOGGER.warn("Cannot read the change items, invalidate the labels and the epic links.", e);
+      PickerDataCache.invalidate(PickerDataCache.LABELS);
+      PickerDataCache.invalidate(PickerDataCache.EPIC_LINKS);
+      return;
+    }
+    for (GenericValue changeItem : changeItems) {
+      String field = changeItem.getString("field");
+      if (FIELD_LABELS.equalsIgnoreCase(field)) {
+        PickerDataCache.invalidate(PickerDataCache.LABELS);
+      } else if (FIELD_EPIC_NAME.equals(field) || FIELD_EPIC_LINK.equals(field)
+          || FIELD_EPIC_CHILD.equals(field)) {
+        PickerDataCache.invalidate(PickerDataCache.EPIC_LINKS);
+      }
+    }
+  }
+
+  /**
+   * Checks whether the issue is an epic: its type is "Epic" or it has an epic name.
+   */
+  private boolean isEpic(final Issue issue) {
+    IssueType issueType = issue.getIssueTypeObject();
+    if ((issueType != null) && ISSUE_TYPE_EPIC.equals(issueType.getName())) {
+      return true;
+    }
+    for (CustomField epicNameField : ComponentAccessor.getCustomFieldManager()
+        .getCustomFieldObjectsByName(FIELD_EPIC_NAME)) {
+      if (issue.getCustomFieldValue(epicNameField) != null) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  /**
+   * Issue created, updated, moved or deleted. Only the changes that affect the labels or the epics
+   * invalidate the cache. The created issues have no change log, so a created epic or labeled
+   * issue is checked directly. A moved issue gets a new key and project, and its type can change,
+   * so every move invalidates the epic links.
+   */
+  @EventListener
+  public void onIssueEvent(final IssueEvent event) {
+    Long eventTypeId = event.getEventTypeId();
+    if (EventType.ISSUE_DELETED_ID.equals(eventTypeId)) {
+      PickerDataCache.invalidate(PickerDataCache.LABELS);
+      PickerDataCache.invalidate(PickerDataCache.EPIC_LINKS);
+      return;
+    }
+    if (EventType.ISSUE_MOVED_ID.equals(eventTypeId)) {
+      PickerDataCache.invalidate(PickerDataCache.EPIC_LINKS);
+    }
+    if (EventType.ISSUE_CREATED_ID.equals(eventTypeId)) {
+      Issue issue = event.getIssue();
+      if (issue != null) {
+        if (!issue.getLabels().isEmpty()) {
+          PickerDataCache.invalidate(PickerDataCache.LABELS);
+        }
+        if (isEpic(issue)) {
+          PickerDataCache.invalidate(PickerDataCache.EPIC_LINKS);
+        }
+      }
+    }
+    GenericValue changeLog = event.getChangeLog();
+    if (changeLog != null) {
+      invalidateChangedFields(changeLog);
+    }
+  }
+
+  @EventListener
+  public void onProjectDeleted(final ProjectDeletedEvent event) {
+    PickerDataCache.clear();
+  }
+
+  /**
+   * Version created, updated, released, archived, merged or deleted.
+   */
+  @EventListener
+  public void onVersionEvent(final AbstractVersionEvent event) {
+    PickerDataCache.invalidate(PickerDataCache.VERSIONS);
+  }
+
+}
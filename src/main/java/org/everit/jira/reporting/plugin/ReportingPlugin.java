@@ -15,12 +15,16 @@
  */
 package org.everit.jira.reporting.plugin;
 
+import java.util.List;
+
 import org.everit.jira.reporting.plugin.dto.IssueSummaryReportDTO;
 import org.everit.jira.reporting.plugin.dto.OrderBy;
 import org.everit.jira.reporting.plugin.dto.ProjectSummaryReportDTO;
 import org.everit.jira.reporting.plugin.dto.ReportSearchParam;
+import org.everit.jira.reporting.plugin.dto.ReportsDTO;
 import org.everit.jira.reporting.plugin.dto.UserSummaryReportDTO;
 import org.everit.jira.reporting.plugin.dto.WorklogDetailsReportDTO;
+import org.everit.jira.timetracker.plugin.dto.ChartData;
 
 /**
  * The ReportingPlugin interface.
@@ -29,8 +33,30 @@ public interface ReportingPlugin {
 
   IssueSummaryReportDTO getIssueSummaryReport(ReportSearchParam reportSearchParam);
 
+  /**
+   * Gets the worklogged time sums per project, summed by the database. The worklogs of the issues
+   * with issue security level are summed only if the logged user can browse the issue.
+   *
+   * @param reportSearchParam
+   *          the {@link ReportSearchParam} object, that contains parameters to filter condition.
+   * @return the {@link ChartData} list. The durations are in milliseconds.
+   */
+  List<ChartData> getProjectChartData(ReportSearchParam reportSearchParam);
+
   ProjectSummaryReportDTO getProjectSummaryReport(ReportSearchParam reportSearchParam);
 
+  /**
+   * Gets the worklog details, project summary, issue summary and user summary reports. The queries
+   * of the reports run concurrently.
+   *
+   * @param reportSearchParam
+   *          the {@link ReportSearchParam} object, that contains parameters to filter condition.
+   * @param orderBy
+   *          the order of the worklog details report.
+   * @return the {@link ReportsDTO}.
+   */
+  ReportsDTO getReports(ReportSearchParam reportSearchParam, OrderBy orderBy);
+
   UserSummaryReportDTO getUserSummaryReport(ReportSearchParam reportSearchParam);
 
   WorklogDetailsReportDTO getWorklogDetailsReport(ReportSearchParam reportSearchParam,
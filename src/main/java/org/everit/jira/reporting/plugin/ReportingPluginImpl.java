@@ -17,8 +17,30 @@ package org.everit.jira.reporting.plugin;
 
 import java.io.IOException;
 import java.io.Serializable;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.Iterator;
 import java.util.List;
-
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.UUID;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionHandler;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.everit.jira.core.util.TimeZoneContext;
+import org.everit.jira.core.util.WorklogUtil;
 import org.everit.jira.querydsl.support.QuerydslCallable;
 import org.everit.jira.querydsl.support.QuerydslSupport;
 import org.everit.jira.querydsl.support.ri.QuerydslSupportImpl;
@@ -29,24 +51,245 @@ import org.everit.jira.reporting.plugin.dto.PagingDTO;
 import org.everit.jira.reporting.plugin.dto.ProjectSummaryDTO;
 import org.everit.jira.reporting.plugin.dto.ProjectSummaryReportDTO;
 import org.everit.jira.reporting.plugin.dto.ReportSearchParam;
+import org.everit.jira.reporting.plugin.dto.ReportsDTO;
 import org.everit.jira.reporting.plugin.dto.UserSummaryDTO;
 import org.everit.jira.reporting.plugin.dto.UserSummaryReportDTO;
 import org.everit.jira.reporting.plugin.dto.WorklogDetailsDTO;
 import org.everit.jira.reporting.plugin.dto.WorklogDetailsReportDTO;
+import org.everit.jira.reporting.plugin.dto.WorklogDetailsTotalsDTO;
+import org.everit.jira.reporting.plugin.exception.JTRPException;
+import org.everit.jira.reporting.plugin.query.AbstractSummaryReportQuery;
 import org.everit.jira.reporting.plugin.query.IssueSummaryReportQueryBuilder;
 import org.everit.jira.reporting.plugin.query.ProjectSummaryReportQueryBuilder;
 import org.everit.jira.reporting.plugin.query.UserSummaryReportQueryBuilder;
 import org.everit.jira.reporting.plugin.query.WorklogDetailsReportQueryBuilder;
+import org.everit.jira.reporting.plugin.util.QueryDeadline;
+import org.everit.jira.timetracker.plugin.dto.ChartData;
 import org.everit.jira.timetracker.plugin.util.DateTimeConverterUtil;
 import org.springframework.beans.factory.DisposableBean;
 import org.springframework.beans.factory.InitializingBean;
 
+import com.atlassian.jira.component.ComponentAccessor;
+import com.atlassian.jira.issue.IssueManager;
+import com.atlassian.jira.issue.MutableIssue;
+import com.atlassian.jira.permission.ProjectPermissions;
+import com.atlassian.jira.security.JiraAuthenticationContext;
+import com.atlassian.jira.security.PermissionManager;
+import com.atlassian.jira.user.ApplicationUser;
+
 /**
  * The implementation of the {@link ReportingPlugin}.
  */
 public class ReportingPluginImpl implements ReportingPlugin, InitializingBean,
     DisposableBean, Serializable {
 
+  /**
+   * The queries of one report request. At most
+   * {@value ReportingPluginImpl#REPORT_QUERY_PARALLELISM} queries of the request run on the query
+   * executor, the others run in the thread of the request while it waits for the results. The
+   * results are waited until the common deadline of the request.
+   */
+  private final class ReportQueries {
+
+    private final QueryDeadline deadline =
+        new QueryDeadline(System.currentTimeMillis() + reportQueryTimeout);
+
+    private final List<FutureTask<?>> futures = new ArrayList<>();
+
+    private final Deque<FutureTask<?>> pending = new ArrayDeque<>();
+
+    private int submittedCount;
+
+    private void cancel() {
+      deadline.cancel();
+      for (FutureTask<?> future : futures) {
+        future.cancel(true);
+      }
+    }
+
+    /**
+     * Waits for the result of the query. If the deadline of the request passes or the query
+     * fails, the other queries of the request are cancelled.
+     */
+    <R> R get(final Future<R> future) {
+      try {
+        runPending(future);
+        long timeout = deadline.getRemainingMillis();
+        return future.get(timeout, TimeUnit.MILLISECONDS);
+      } catch (TimeoutException e) {
+        cancel();
+        throw new JTRPException(KEY_REPORT_TIMEOUT);
+      } catch (InterruptedException e) {
+        cancel();
+        Thread.currentThread().interrupt();
+        throw new JTRPException(KEY_REPORT_TIMEOUT);
+      } catch (ExecutionException e) {
+        cancel();
+        Throwable cause = e.getCause();
+        if (cause instanceof RuntimeException) {
+          throw (RuntimeException) cause;
+        }
+        if (cause instanceof Error) {
+          throw (Error) cause;
+        }
+        throw new RuntimeException(cause);
+      }
+    }
+
+    /**
+     * Runs the waited query in the current thread if it is not started yet. Until the waited query
+     * is done on the executor, the pending queries of the request run in the current thread.
+     */
+    private void runPending(final Future<?> future) {
+      ThreadPoolExecutor executor = queryExecutor;
+      if (pending.remove(future)
+          || ((executor != null) && executor.remove((FutureTask<?>) future))) {
+        ((FutureTask<?>) future).run();
+        return;
+      }
+      while (!future.isDone() && !pending.isEmpty()) {
+        pending.poll().run();
+      }
+    }
+
+    /**
+     * Submits the query. The query runs with the logged user of the request, because the worklog
+     * visibility condition is built from it, and with the deadline of the request. Without
+     * executor the query runs immediately in the current thread.
+     */
+    <R> Future<R> submit(final QuerydslCallable<R> query) {
+      final ApplicationUser loggedUser =
+          ComponentAccessor.getJiraAuthenticationContext().getUser();
+      final QuerydslCallable<R> deadlineQuery = deadline.wrap(query);
+      FutureTask<R> task = new FutureTask<>(new Callable<R>() {
+        @Override
+        public R call() {
+          JiraAuthenticationContext authenticationContext =
+              ComponentAccessor.getJiraAuthenticationContext();
+          ApplicationUser previousUser = authenticationContext.getUser();
+          authenticationContext.setLoggedInUser(loggedUser);
+          try {
+            return querydslSupport.execute(deadlineQuery);
+          } finally {
+            authenticationContext.setLoggedInUser(previousUser);
+          }
+        }
+      });
+      futures.add(task);
+      ThreadPoolExecutor executor = queryExecutor;
+      if (executor == null) {
+        task.run();
+      } else if (submittedCount < REPORT_QUERY_PARALLELISM) {
+        submittedCount++;
+        executor.execute(task);
+      } else {
+        pending.add(task);
+      }
+      return task;
+    }
+
+    <S> SummaryFutures<S> submitSummary(final AbstractSummaryReportQuery<S> queryBuilder) {
+      return new SummaryFutures<>(submit(queryBuilder.buildQuery()),
+          submit(queryBuilder.buildCountQuery()));
+    }
+  }
+
+  /**
+   * The pending queries of a summary report.
+   */
+  private static final class SummaryFutures<S> {
+
+    private final Future<Long> count;
+
+    private final Future<List<S>> summaries;
+
+    SummaryFutures(final Future<List<S>> summaries, final Future<Long> count) {
+      this.summaries = summaries;
+      this.count = count;
+    }
+  }
+
+  /**
+   * Totals of a worklog details report, kept for the paging and ordering requests of the report.
+   */
+  private static final class TotalsEntry {
+
+    private final long expiration;
+
+    private final WorklogDetailsTotalsDTO totals;
+
+    private final List<Object> totalsKey;
+
+    TotalsEntry(final WorklogDetailsTotalsDTO totals, final List<Object> totalsKey,
+        final long expiration) {
+      this.totals = totals;
+      this.totalsKey = totalsKey;
+      this.expiration = expiration;
+    }
+
+    boolean isExpired(final long now) {
+      return now >= expiration;
+    }
+  }
+
+  /**
+   * The pending queries of a worklog details report. The totals query is not submitted if the
+   * totals of the filter are cached.
+   */
+  private static final class WorklogDetailsFutures {
+
+    private WorklogDetailsTotalsDTO cachedTotals;
+
+    private final WorklogDetailsReportQueryBuilder queryBuilder;
+
+    private Future<WorklogDetailsTotalsDTO> totals;
+
+    private final List<Object> totalsKey;
+
+    private String totalsToken;
+
+    private Future<List<WorklogDetailsDTO>> worklogDetails;
+
+    WorklogDetailsFutures(final WorklogDetailsReportQueryBuilder queryBuilder,
+        final List<Object> totalsKey) {
+      this.queryBuilder = queryBuilder;
+      this.totalsKey = totalsKey;
+    }
+  }
+
+  /**
+   * The message key of the error when the report queries do not finish until the deadline.
+   */
+  private static final String KEY_REPORT_TIMEOUT = "jtrp.plugin.report.timeout";
+
+  /**
+   * The keep alive time of the idle report query threads in milliseconds.
+   */
+  private static final long REPORT_QUERY_KEEP_ALIVE = 60000L;
+
+  /**
+   * The maximum number of the queries of one report request that run on the query executor. The
+   * request thread runs the other queries, so one request cannot occupy the whole pool.
+   */
+  private static final int REPORT_QUERY_PARALLELISM = 2;
+
+  /**
+   * The maximum number of report queries that run concurrently. Every running query holds a
+   * database connection from the pool of JIRA.
+   */
+  private static final int REPORT_QUERY_POOL_SIZE = 4;
+
+  /**
+   * The maximum number of report queries that wait for a free query thread. Above this the
+   * queries run in the thread of the request.
+   */
+  private static final int REPORT_QUERY_QUEUE_CAPACITY = 100;
+
+  /**
+   * The deadline of the queries of one report request in milliseconds.
+   */
+  private static final long REPORT_QUERY_TIMEOUT = 120000L;
+
   /**
    * The plugin reporting settings groups that have browse user permission.
    */
@@ -56,8 +299,29 @@ public class ReportingPluginImpl implements ReportingPlugin, InitializingBean,
    */
   private static final long serialVersionUID = -3872710932298672883L;
 
+  /**
+   * The cache size above the expired totals are removed.
+   */
+  private static final int TOTALS_CLEANUP_THRESHOLD = 100;
+
+  /**
+   * The time in milliseconds while the totals of a report are reused by its paging and ordering
+   * requests. A new report always queries the totals.
+   */
+  private static final long TOTALS_TIME_TO_LIVE = 300000L;
+
   private QuerydslSupport querydslSupport;
 
+  private transient volatile ThreadPoolExecutor queryExecutor;
+
+  /**
+   * The deadline of the queries of one report request in milliseconds.
+   */
+  private final long reportQueryTimeout;
+
+  private final transient Map<String, TotalsEntry> worklogDetailsTotalsCache =
+      new ConcurrentHashMap<>();
+
   /**
    * Default constructor.
    */
@@ -67,10 +331,73 @@ public class ReportingPluginImpl implements ReportingPlugin, InitializingBean,
     } catch (Exception e) {
       throw new RuntimeException(e);
     }
+    reportQueryTimeout = REPORT_QUERY_TIMEOUT;
+  }
+
+  /**
+   * Constructor with the given {@link QuerydslSupport} and deadline of the report queries.
+   *
+   * @param querydslSupport
+   *          the {@link QuerydslSupport} that runs the queries.
+   * @param reportQueryTimeout
+   *          the deadline of the queries of one report request in milliseconds.
+   */
+  public ReportingPluginImpl(final QuerydslSupport querydslSupport,
+      final long reportQueryTimeout) {
+    this.querydslSupport = querydslSupport;
+    this.reportQueryTimeout = reportQueryTimeout;
+  }
+
+  private void addChartData(final Map<String, ChartData> chartDataByProject,
+      final ChartData issueChartData) {
+    ChartData projectChartData = chartDataByProject.get(issueChartData.getProjectId());
+    if (projectChartData == null) {
+      chartDataByProject.put(issueChartData.getProjectId(), issueChartData);
+    } else {
+      projectChartData.setDuration(projectChartData.getDuration() + issueChartData.getDuration());
+    }
   }
 
   @Override
   public void afterPropertiesSet() throws Exception {
+    final AtomicInteger threadNumber = new AtomicInteger();
+    ThreadFactory threadFactory = new ThreadFactory() {
+      @Override
+      public Thread newThread(final Runnable runnable) {
+        Thread thread = new Thread(runnable, "jtrp-report-query-" + threadNumber.incrementAndGet());
+        thread.setDaemon(true);
+        return thread;
+      }
+    };
+    RejectedExecutionHandler callerRuns = new RejectedExecutionHandler() {
+      @Override
+      public void rejectedExecution(final Runnable runnable, final ThreadPoolExecutor executor) {
+        runnable.run();
+      }
+    };
+    ThreadPoolExecutor executor = new ThreadPoolExecutor(REPORT_QUERY_POOL_SIZE,
+        REPORT_QUERY_POOL_SIZE, REPORT_QUERY_KEEP_ALIVE, TimeUnit.MILLISECONDS,
+        new LinkedBlockingQueue<Runnable>(REPORT_QUERY_QUEUE_CAPACITY), threadFactory,
+        callerRuns);
+    executor.allowCoreThreadTimeOut(true);
+    queryExecutor = executor;
+  }
+
+  private IssueSummaryReportDTO createIssueSummaryReport(final ReportQueries queries,
+      final ReportSearchParam reportSearchParam,
+      final SummaryFutures<IssueSummaryDTO> issueSummaryFutures) {
+    List<IssueSummaryDTO> issueSummaries = queries.get(issueSummaryFutures.summaries);
+
+    Long issueSummaryCount = queries.get(issueSummaryFutures.count);
+
+    PagingDTO paging = createPagingDTO(reportSearchParam.offset,
+        reportSearchParam.limit,
+        issueSummaryCount);
+
+    return new IssueSummaryReportDTO()
+        .issueSummaries(issueSummaries)
+        .issueSummaryCount(issueSummaryCount)
+        .paging(paging);
   }
 
   private PagingDTO createPagingDTO(final Long offset, final Long limit, final Long count) {
@@ -99,48 +426,12 @@ public class ReportingPluginImpl implements ReportingPlugin, InitializingBean,
         .maxPageNumber(maxPageNumber);
   }
 
-  @Override
-  public void destroy() throws Exception {
-  }
+  private ProjectSummaryReportDTO createProjectSummaryReport(final ReportQueries queries,
+      final ReportSearchParam reportSearchParam,
+      final SummaryFutures<ProjectSummaryDTO> projectSummaryFutures) {
+    List<ProjectSummaryDTO> projectSummaries = queries.get(projectSummaryFutures.summaries);
 
-  @Override
-  public IssueSummaryReportDTO getIssueSummaryReport(final ReportSearchParam reportSearchParam) {
-    IssueSummaryReportQueryBuilder issueSummaryQueryBuilder =
-        new IssueSummaryReportQueryBuilder(reportSearchParam);
-
-    QuerydslCallable<List<IssueSummaryDTO>> issueSummaryQuery = issueSummaryQueryBuilder
-        .buildQuery();
-
-    QuerydslCallable<Long> issueSummaryCountQuery = issueSummaryQueryBuilder.buildCountQuery();
-
-    List<IssueSummaryDTO> issueSummaries = querydslSupport.execute(issueSummaryQuery);
-
-    Long issueSummaryCount = querydslSupport.execute(issueSummaryCountQuery);
-
-    PagingDTO paging = createPagingDTO(reportSearchParam.offset,
-        reportSearchParam.limit,
-        issueSummaryCount);
-
-    return new IssueSummaryReportDTO()
-        .issueSummaries(issueSummaries)
-        .issueSummaryCount(issueSummaryCount)
-        .paging(paging);
-  }
-
-  @Override
-  public ProjectSummaryReportDTO getProjectSummaryReport(
-      final ReportSearchParam reportSearchParam) {
-    ProjectSummaryReportQueryBuilder projectSummaryQueryBuilder =
-        new ProjectSummaryReportQueryBuilder(reportSearchParam);
-
-    QuerydslCallable<List<ProjectSummaryDTO>> projectSummaryQuery = projectSummaryQueryBuilder
-        .buildQuery();
-
-    QuerydslCallable<Long> projectSummaryCountQuery = projectSummaryQueryBuilder.buildCountQuery();
-
-    List<ProjectSummaryDTO> projectSummaries = querydslSupport.execute(projectSummaryQuery);
-
-    Long projectSummaryCount = querydslSupport.execute(projectSummaryCountQuery);
+    Long projectSummaryCount = queries.get(projectSummaryFutures.count);
 
     PagingDTO paging = createPagingDTO(reportSearchParam.offset,
         reportSearchParam.limit,
@@ -152,19 +443,49 @@ public class ReportingPluginImpl implements ReportingPlugin, InitializingBean,
         .projectSummaryCount(projectSummaryCount);
   }
 
-  @Override
-  public UserSummaryReportDTO getUserSummaryReport(final ReportSearchParam reportSearchParam) {
-    UserSummaryReportQueryBuilder userSummaryQueryBuilder =
-        new UserSummaryReportQueryBuilder(reportSearchParam);
-
-    QuerydslCallable<List<UserSummaryDTO>> userSummaryQuery = userSummaryQueryBuilder
-        .buildQuery();
-
-    QuerydslCallable<Long> userSummaryCountQuery = userSummaryQueryBuilder.buildCountQuery();
+  /**
+   * Creates the key of the worklog details totals. The key contains every filter parameter and
+   * the logged user (the worklog visibility depends on it), but not the offset and the limit.
+   */
+  private List<Object> createTotalsKey(final ReportSearchParam reportSearchParam) {
+    ApplicationUser loggedUser = ComponentAccessor.getJiraAuthenticationContext().getUser();
+    return Arrays.<Object> asList(
+        loggedUser == null ? null : loggedUser.getKey(),
+        reportSearchParam.groupsHasNoMembers,
+        reportSearchParam.issueAffectedVersions,
+        reportSearchParam.issueAssignees,
+        reportSearchParam.issueComponents,
+        reportSearchParam.issueCreateDate,
+        reportSearchParam.issueEpicLinkIssueIds,
+        reportSearchParam.issueEpicName,
+        reportSearchParam.issueFixedVersions,
+        reportSearchParam.issueIds,
+        reportSearchParam.issueKeys,
+        reportSearchParam.issuePriorityIds,
+        reportSearchParam.issueReporters,
+        reportSearchParam.issueResolutionIds,
+        reportSearchParam.issueStatusIds,
+        reportSearchParam.issueTypeIds,
+        reportSearchParam.labels,
+        reportSearchParam.projectIds,
+        reportSearchParam.selectNoAffectedVersionIssue,
+        reportSearchParam.selectNoComponentIssue,
+        reportSearchParam.selectNoFixedVersionIssue,
+        reportSearchParam.selectReleasedFixVersion,
+        reportSearchParam.selectUnassgined,
+        reportSearchParam.selectUnreleasedFixVersion,
+        reportSearchParam.selectUnresolvedResolution,
+        reportSearchParam.users,
+        reportSearchParam.worklogEndDate,
+        reportSearchParam.worklogStartDate);
+  }
 
-    List<UserSummaryDTO> userSummaries = querydslSupport.execute(userSummaryQuery);
+  private UserSummaryReportDTO createUserSummaryReport(final ReportQueries queries,
+      final ReportSearchParam reportSearchParam,
+      final SummaryFutures<UserSummaryDTO> userSummaryFutures) {
+    List<UserSummaryDTO> userSummaries = queries.get(userSummaryFutures.summaries);
 
-    Long userSummaryCount = querydslSupport.execute(userSummaryCountQuery);
+    Long userSummaryCount = queries.get(userSummaryFutures.count);
 
     PagingDTO paging = createPagingDTO(reportSearchParam.offset,
         reportSearchParam.limit,
@@ -176,43 +497,37 @@ public class ReportingPluginImpl implements ReportingPlugin, InitializingBean,
         .userSummaryCount(userSummaryCount);
   }
 
-  @Override
-  public WorklogDetailsReportDTO getWorklogDetailsReport(
-      final ReportSearchParam reportSearchParam, final OrderBy orderBy) {
-    WorklogDetailsReportQueryBuilder worklogDetailsReportQueryBuilder =
-        new WorklogDetailsReportQueryBuilder(reportSearchParam, orderBy);
-
-    QuerydslCallable<List<WorklogDetailsDTO>> worklogDetailsQuery = worklogDetailsReportQueryBuilder
-        .buildQuery();
-
-    QuerydslCallable<Long> worklogDetailsCountQuery =
-        worklogDetailsReportQueryBuilder.buildCountQuery();
-
-    QuerydslCallable<Long> grandTotalQuery =
-        worklogDetailsReportQueryBuilder.buildGrandTotalQuery();
-
-    List<WorklogDetailsDTO> worklogDetails = querydslSupport.execute(worklogDetailsQuery);
+  private WorklogDetailsReportDTO createWorklogDetailsReport(final ReportQueries queries,
+      final ReportSearchParam reportSearchParam,
+      final WorklogDetailsFutures worklogDetailsFutures) {
+    List<WorklogDetailsDTO> worklogDetails = queries.get(worklogDetailsFutures.worklogDetails);
+    TimeZoneContext timeZoneContext = TimeZoneContext.current();
     for (WorklogDetailsDTO worklogDetail : worklogDetails) {
-      worklogDetail.setIssueCreated(
-          DateTimeConverterUtil.addTimeZoneToTimestamp(worklogDetail.getIssueCreated()));
-      worklogDetail.setIssueUpdated(
-          DateTimeConverterUtil.addTimeZoneToTimestamp(worklogDetail.getIssueUpdated()));
-      worklogDetail.setWorklogCreated(
-          DateTimeConverterUtil.addTimeZoneToTimestamp(worklogDetail.getWorklogCreated()));
-      worklogDetail.setWorklogStartDate(
-          DateTimeConverterUtil
-              .addTimeZoneToTimestamp(worklogDetail.getWorklogStartDate()));
-      worklogDetail.setWorklogUpdated(
-          DateTimeConverterUtil.addTimeZoneToTimestamp(worklogDetail.getWorklogUpdated()));
+      worklogDetail.setIssueCreated(DateTimeConverterUtil
+          .addTimeZoneToTimestamp(worklogDetail.getIssueCreated(), timeZoneContext));
+      worklogDetail.setIssueUpdated(DateTimeConverterUtil
+          .addTimeZoneToTimestamp(worklogDetail.getIssueUpdated(), timeZoneContext));
+      worklogDetail.setWorklogCreated(DateTimeConverterUtil
+          .addTimeZoneToTimestamp(worklogDetail.getWorklogCreated(), timeZoneContext));
+      worklogDetail.setWorklogStartDate(DateTimeConverterUtil
+          .addTimeZoneToTimestamp(worklogDetail.getWorklogStartDate(), timeZoneContext));
+      worklogDetail.setWorklogUpdated(DateTimeConverterUtil
+          .addTimeZoneToTimestamp(worklogDetail.getWorklogUpdated(), timeZoneContext));
     }
 
-    Long worklogDetailsCount = querydslSupport.execute(worklogDetailsCountQuery);
+    WorklogDetailsTotalsDTO totals = getWorklogDetailsTotals(queries, worklogDetailsFutures);
+    Long worklogDetailsCount = totals.getWorklogDetailsCount();
 
-    Long grandTotal = querydslSupport.execute(grandTotalQuery);
+    Long grandTotal = totals.getGrandTotal();
 
+    WorklogDetailsReportQueryBuilder worklogDetailsReportQueryBuilder =
+        worklogDetailsFutures.queryBuilder;
     PagingDTO paging = createPagingDTO(reportSearchParam.offset,
         reportSearchParam.limit,
-        worklogDetailsCount);
+        worklogDetailsCount)
+            .nextCursor(worklogDetailsReportQueryBuilder.getNextCursor())
+            .prevCursor(worklogDetailsReportQueryBuilder.getPrevCursor())
+            .totalsToken(worklogDetailsFutures.totalsToken);
 
     return new WorklogDetailsReportDTO()
         .worklogDetails(worklogDetails)
@@ -221,12 +536,169 @@ public class ReportingPluginImpl implements ReportingPlugin, InitializingBean,
         .paging(paging);
   }
 
+  @Override
+  public void destroy() throws Exception {
+    ThreadPoolExecutor executor = queryExecutor;
+    queryExecutor = null;
+    if (executor != null) {
+      executor.shutdownNow();
+    }
+    worklogDetailsTotalsCache.clear();
+  }
+
+  @Override
+  public IssueSummaryReportDTO getIssueSummaryReport(final ReportSearchParam reportSearchParam) {
+    ReportQueries queries = new ReportQueries();
+    SummaryFutures<IssueSummaryDTO> issueSummaryFutures =
+        queries.submitSummary(new IssueSummaryReportQueryBuilder(reportSearchParam));
+    return createIssueSummaryReport(queries, reportSearchParam, issueSummaryFutures);
+  }
+
+  @Override
+  public List<ChartData> getProjectChartData(final ReportSearchParam reportSearchParam) {
+    ProjectSummaryReportQueryBuilder projectSummaryQueryBuilder =
+        new ProjectSummaryReportQueryBuilder(reportSearchParam);
+
+    List<ChartData> chartDataList =
+        querydslSupport.execute(projectSummaryQueryBuilder.buildChartDataQuery());
+    Map<Long, ChartData> securedIssueChartData =
+        querydslSupport.execute(projectSummaryQueryBuilder.buildSecuredIssueChartDataQuery());
+    if (securedIssueChartData.isEmpty()) {
+      return chartDataList;
+    }
+
+    // the issue security levels are checked per issue, like the issue search does. The issues are
+    // loaded with one query per chunk instead of one query per issue.
+    ApplicationUser loggedUser = ComponentAccessor.getJiraAuthenticationContext().getUser();
+    PermissionManager permissionManager = ComponentAccessor.getPermissionManager();
+    IssueManager issueManager = ComponentAccessor.getIssueManager();
+    Map<String, ChartData> chartDataByProject = new TreeMap<>();
+    for (ChartData chartData : chartDataList) {
+      chartDataByProject.put(chartData.getProjectId(), chartData);
+    }
+    List<Long> issueIds = new ArrayList<>(securedIssueChartData.keySet());
+    for (int from = 0; from < issueIds.size(); from += WorklogUtil.ISSUE_QUERY_CHUNK_SIZE) {
+      List<Long> chunk = issueIds.subList(from,
+          Math.min(from + WorklogUtil.ISSUE_QUERY_CHUNK_SIZE, issueIds.size()));
+      for (MutableIssue issue : issueManager.getIssueObjects(chunk)) {
+        if (permissionManager.hasPermission(ProjectPermissions.BROWSE_PROJECTS, issue,
+            loggedUser)) {
+          addChartData(chartDataByProject, securedIssueChartData.get(issue.getId()));
+        }
+      }
+    }
+    return new ArrayList<>(chartDataByProject.values());
+  }
+
+  @Override
+  public ProjectSummaryReportDTO getProjectSummaryReport(
+      final ReportSearchParam reportSearchParam) {
+    ReportQueries queries = new ReportQueries();
+    SummaryFutures<ProjectSummaryDTO> projectSummaryFutures =
+        queries.submitSummary(new ProjectSummaryReportQueryBuilder(reportSearchParam));
+    return createProjectSummaryReport(queries, reportSearchParam, projectSummaryFutures);
+  }
+
+  @Override
+  public ReportsDTO getReports(final ReportSearchParam reportSearchParam,
+      final OrderBy orderBy) {
+    ReportQueries queries = new ReportQueries();
+    WorklogDetailsFutures worklogDetailsFutures =
+        submitWorklogDetails(queries, reportSearchParam, orderBy);
+    SummaryFutures<ProjectSummaryDTO> projectSummaryFutures =
+        queries.submitSummary(new ProjectSummaryReportQueryBuilder(reportSearchParam));
+    SummaryFutures<IssueSummaryDTO> issueSummaryFutures =
+        queries.submitSummary(new IssueSummaryReportQueryBuilder(reportSearchParam));
+    SummaryFutures<UserSummaryDTO> userSummaryFutures =
+        queries.submitSummary(new UserSummaryReportQueryBuilder(reportSearchParam));
+
+    return new ReportsDTO()
+        .worklogDetailsReport(
+            createWorklogDetailsReport(queries, reportSearchParam, worklogDetailsFutures))
+        .projectSummaryReport(
+            createProjectSummaryReport(queries, reportSearchParam, projectSummaryFutures))
+        .issueSummaryReport(
+            createIssueSummaryReport(queries, reportSearchParam, issueSummaryFutures))
+        .userSummaryReport(
+            createUserSummaryReport(queries, reportSearchParam, userSummaryFutures));
+  }
+
+  @Override
+  public UserSummaryReportDTO getUserSummaryReport(final ReportSearchParam reportSearchParam) {
+    ReportQueries queries = new ReportQueries();
+    SummaryFutures<UserSummaryDTO> userSummaryFutures =
+        queries.submitSummary(new UserSummaryReportQueryBuilder(reportSearchParam));
+    return createUserSummaryReport(queries, reportSearchParam, userSummaryFutures);
+  }
+
+  @Override
+  public WorklogDetailsReportDTO getWorklogDetailsReport(
+      final ReportSearchParam reportSearchParam, final OrderBy orderBy) {
+    ReportQueries queries = new ReportQueries();
+    WorklogDetailsFutures worklogDetailsFutures =
+        submitWorklogDetails(queries, reportSearchParam, orderBy);
+    return createWorklogDetailsReport(queries, reportSearchParam, worklogDetailsFutures);
+  }
+
+  /**
+   * Gives back the worklog count and the grand total of the report. The queried totals are kept
+   * under a new token, so the paging and ordering requests of the report can reuse them.
+   */
+  private WorklogDetailsTotalsDTO getWorklogDetailsTotals(final ReportQueries queries,
+      final WorklogDetailsFutures worklogDetailsFutures) {
+    if (worklogDetailsFutures.totals == null) {
+      return worklogDetailsFutures.cachedTotals;
+    }
+    WorklogDetailsTotalsDTO totals = queries.get(worklogDetailsFutures.totals);
+    long now = System.currentTimeMillis();
+    if (worklogDetailsTotalsCache.size() >= TOTALS_CLEANUP_THRESHOLD) {
+      removeExpiredTotals(now);
+    }
+    String totalsToken = UUID.randomUUID().toString();
+    worklogDetailsTotalsCache.put(totalsToken, new TotalsEntry(totals,
+        worklogDetailsFutures.totalsKey, now + TOTALS_TIME_TO_LIVE));
+    worklogDetailsFutures.totalsToken = totalsToken;
+    return totals;
+  }
+
   private void readObject(final java.io.ObjectInputStream stream) throws IOException,
       ClassNotFoundException {
     stream.close();
     throw new java.io.NotSerializableException(getClass().getName());
   }
 
+  private void removeExpiredTotals(final long now) {
+    Iterator<TotalsEntry> iterator = worklogDetailsTotalsCache.values().iterator();
+    while (iterator.hasNext()) {
+      if (iterator.next().isExpired(now)) {
+        iterator.remove();
+      }
+    }
+  }
+
+  private WorklogDetailsFutures submitWorklogDetails(final ReportQueries queries,
+      final ReportSearchParam reportSearchParam, final OrderBy orderBy) {
+    WorklogDetailsReportQueryBuilder worklogDetailsReportQueryBuilder =
+        new WorklogDetailsReportQueryBuilder(reportSearchParam, orderBy);
+    WorklogDetailsFutures worklogDetailsFutures = new WorklogDetailsFutures(
+        worklogDetailsReportQueryBuilder, createTotalsKey(reportSearchParam));
+
+    worklogDetailsFutures.worklogDetails =
+        queries.submit(worklogDetailsReportQueryBuilder.buildQuery());
+
+    String totalsToken = reportSearchParam.totalsToken;
+    TotalsEntry entry = totalsToken == null ? null : worklogDetailsTotalsCache.get(totalsToken);
+    if ((entry == null) || entry.isExpired(System.currentTimeMillis())
+        || !entry.totalsKey.equals(worklogDetailsFutures.totalsKey)) {
+      worklogDetailsFutures.totals =
+          queries.submit(worklogDetailsReportQueryBuilder.buildTotalsQuery());
+    } else {
+      worklogDetailsFutures.cachedTotals = entry.totals;
+      worklogDetailsFutures.totalsToken = totalsToken;
+    }
+    return worklogDetailsFutures;
+  }
+
   private void writeObject(final java.io.ObjectOutputStream stream) throws IOException {
     stream.close();
     throw new java.io.NotSerializableException(getClass().getName());
@@ -26,8 +26,24 @@ public class PagingDTO {
 
   private Integer maxPageNumber = null;
 
+  /**
+   * The keyset cursor token of the next page. <code>null</code> if the page is not seekable.
+   */
+  private String nextCursor;
+
+  /**
+   * The keyset cursor token of the previous page. <code>null</code> if the page is not seekable.
+   */
+  private String prevCursor;
+
   private Long start = 0L;
 
+  /**
+   * The token of the worklog details totals. The paging and ordering requests send it back to
+   * reuse the totals of the first page.
+   */
+  private String totalsToken;
+
   public PagingDTO actPageNumber(final Integer actPageNumber) {
     this.actPageNumber = actPageNumber;
     return this;
@@ -50,18 +66,45 @@ public class PagingDTO {
     return maxPageNumber;
   }
 
+  public String getNextCursor() {
+    return nextCursor;
+  }
+
+  public String getPrevCursor() {
+    return prevCursor;
+  }
+
   public Long getStart() {
     return start;
   }
 
+  public String getTotalsToken() {
+    return totalsToken;
+  }
+
   public PagingDTO maxPageNumber(final Integer maxPageNumber) {
     this.maxPageNumber = maxPageNumber;
     return this;
   }
 
+  public PagingDTO nextCursor(final String nextCursor) {
+    this.nextCursor = nextCursor;
+    return this;
+  }
+
+  public PagingDTO prevCursor(final String prevCursor) {
+    this.prevCursor = prevCursor;
+    return this;
+  }
+
   public PagingDTO start(final Long start) {
     this.start = start;
     return this;
   }
 
+  public PagingDTO totalsToken(final String totalsToken) {
+    this.totalsToken = totalsToken;
+    return this;
+  }
+
 }
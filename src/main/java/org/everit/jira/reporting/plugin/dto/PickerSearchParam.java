@@ -0,0 +1,71 @@
+/*
+ * Copyright (C) 2011 Everit Kft. (http://www.everit.org)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.everit.jira.reporting.plugin.dto;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Representation of the typeahead search param of the pickers.
+ */
+public class PickerSearchParam {
+
+  /**
+   * The maximum number of the results. <code>null</code> if not limited.
+   */
+  public Long limit;
+
+  /**
+   * The case insensitive prefix of the searched names. <code>null</code> if all names searched.
+   * Matched on the loaded list instead of the queries, because a case insensitive database
+   * predicate can not use the name indexes.
+   */
+  public String prefix;
+
+  /**
+   * The projects to search in. Empty if all projects searched.
+   */
+  public List<Long> projectIds = Collections.emptyList();
+
+  /**
+   * Checks the search param is restricted by any of the prefix, the limit or the projects.
+   */
+  public boolean isRestricted() {
+    return ((prefix != null) && !prefix.isEmpty())
+        || (limit != null)
+        || !projectIds.isEmpty();
+  }
+
+  public PickerSearchParam limit(final Long limit) {
+    this.limit = limit;
+    return this;
+  }
+
+  public PickerSearchParam prefix(final String prefix) {
+    this.prefix = prefix;
+    return this;
+  }
+
+  /**
+   * Sets the projects to search in. <code>null</code> means all projects.
+   */
+  public PickerSearchParam projectIds(final List<Long> projectIds) {
+    this.projectIds = projectIds == null
+        ? Collections.<Long> emptyList()
+        : projectIds;
+    return this;
+  }
+}
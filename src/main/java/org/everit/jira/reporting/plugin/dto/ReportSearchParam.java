@@ -24,6 +24,12 @@ import java.util.List;
  */
 public class ReportSearchParam {
 
+  /**
+   * The keyset cursor token of the requested page. If it is valid for the order, the page is
+   * selected by the cursor instead of the offset.
+   */
+  public String cursor;
+
   public boolean groupsHasNoMembers = false;
 
   public List<String> issueAffectedVersions = Collections.emptyList();
@@ -76,12 +82,23 @@ public class ReportSearchParam {
 
   public boolean selectUnresolvedResolution = false;
 
+  /**
+   * The token of the worklog details totals from the first page of the report. If it belongs to
+   * the same filter the totals are not queried again while paging or ordering.
+   */
+  public String totalsToken;
+
   public List<String> users = Collections.emptyList();
 
   public Date worklogEndDate;
 
   public Date worklogStartDate;
 
+  public ReportSearchParam cursor(final String cursor) {
+    this.cursor = cursor;
+    return this;
+  }
+
   public ReportSearchParam groupsHasNoMembers(final boolean groupsHasNoMembers) {
     this.groupsHasNoMembers = groupsHasNoMembers;
     return this;
@@ -213,6 +230,11 @@ public class ReportSearchParam {
     return this;
   }
 
+  public ReportSearchParam totalsToken(final String totalsToken) {
+    this.totalsToken = totalsToken;
+    return this;
+  }
+
   public ReportSearchParam users(final List<String> users) {
     this.users = users;
     return this;
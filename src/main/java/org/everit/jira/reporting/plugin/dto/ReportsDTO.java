@@ -0,0 +1,67 @@
+/*
+ * Copyright (C) 2011 Everit Kft. (http://www.everit.org)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.everit.jira.reporting.plugin.dto;
+
+/**
+ * Contains every report of the reporting page. The queries of the reports run concurrently.
+ */
+public class ReportsDTO {
+
+  private IssueSummaryReportDTO issueSummaryReport = new IssueSummaryReportDTO();
+
+  private ProjectSummaryReportDTO projectSummaryReport = new ProjectSummaryReportDTO();
+
+  private UserSummaryReportDTO userSummaryReport = new UserSummaryReportDTO();
+
+  private WorklogDetailsReportDTO worklogDetailsReport = new WorklogDetailsReportDTO();
+
+  public IssueSummaryReportDTO getIssueSummaryReport() {
+    return issueSummaryReport;
+  }
+
+  public ProjectSummaryReportDTO getProjectSummaryReport() {
+    return projectSummaryReport;
+  }
+
+  public UserSummaryReportDTO getUserSummaryReport() {
+    return userSummaryReport;
+  }
+
+  public WorklogDetailsReportDTO getWorklogDetailsReport() {
+    return worklogDetailsReport;
+  }
+
+  public ReportsDTO issueSummaryReport(final IssueSummaryReportDTO issueSummaryReport) {
+    this.issueSummaryReport = issueSummaryReport;
+    return this;
+  }
+
+  public ReportsDTO projectSummaryReport(final ProjectSummaryReportDTO projectSummaryReport) {
+    this.projectSummaryReport = projectSummaryReport;
+    return this;
+  }
+
+  public ReportsDTO userSummaryReport(final UserSummaryReportDTO userSummaryReport) {
+    this.userSummaryReport = userSummaryReport;
+    return this;
+  }
+
+  public ReportsDTO worklogDetailsReport(final WorklogDetailsReportDTO worklogDetailsReport) {
+    this.worklogDetailsReport = worklogDetailsReport;
+    return this;
+  }
+
+}
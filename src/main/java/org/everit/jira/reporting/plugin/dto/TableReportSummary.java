@@ -0,0 +1,197 @@
+/*
+ * Copyright (C) 2011 Everit Kft. (http://www.everit.org)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.everit.jira.reporting.plugin.dto;
+
+import java.util.List;
+
+import org.everit.jira.timetracker.plugin.DurationFormatter;
+import org.everit.jira.timetracker.plugin.dto.EveritWorklog;
+import org.everit.jira.timetracker.plugin.util.DateTimeConverterUtil;
+
+/**
+ * The daily, weekly and monthly sums of the table report. The sums are stored in seconds in
+ * primitive arrays indexed by the day, the ISO week and the month offset from the first worklog,
+ * so the days, the weeks and the months of different years never collide. The sums are formatted
+ * only when a summary cell is rendered.
+ */
+public class TableReportSummary {
+
+  private final long[] daySums;
+
+  private final DurationFormatter durationFormatter;
+
+  private final int firstDayIndex;
+
+  private final int firstMonthIndex;
+
+  private final int firstWeekIndex;
+
+  private final long[] monthSums;
+
+  private final long[] realDaySums;
+
+  private final long[] realMonthSums;
+
+  private final long[] realWeekSums;
+
+  private final long[] weekSums;
+
+  /**
+   * Creates the empty sums for the range of the worklogs.
+   *
+   * @param worklogs
+   *          the worklogs of the report.
+   * @param durationFormatter
+   *          the formatter of the sums.
+   */
+  public TableReportSummary(final List<EveritWorklog> worklogs,
+      final DurationFormatter durationFormatter) {
+    this.durationFormatter = durationFormatter;
+    int minDay = Integer.MAX_VALUE;
+    int maxDay = Integer.MIN_VALUE;
+    int minWeek = Integer.MAX_VALUE;
+    int maxWeek = Integer.MIN_VALUE;
+    int minMonth = Integer.MAX_VALUE;
+    int maxMonth = Integer.MIN_VALUE;
+    for (EveritWorklog worklog : worklogs) {
+      minDay = Math.min(minDay, worklog.getDayIndex());
+      maxDay = Math.max(maxDay, worklog.getDayIndex());
+      minWeek = Math.min(minWeek, worklog.getWeekIndex());
+      maxWeek = Math.max(maxWeek, worklog.getWeekIndex());
+      minMonth = Math.min(minMonth, worklog.getMonthIndex());
+      maxMonth = Math.max(maxMonth, worklog.getMonthIndex());
+    }
+    int dayCount = worklogs.isEmpty() ? 0 : (maxDay - minDay) + 1;
+    int weekCount = worklogs.isEmpty() ? 0 : (maxWeek - minWeek) + 1;
+    int monthCount = worklogs.isEmpty() ? 0 : (maxMonth - minMonth) + 1;
+    firstDayIndex = minDay;
+    firstWeekIndex = minWeek;
+    firstMonthIndex = minMonth;
+    daySums = new long[dayCount];
+    realDaySums = new long[dayCount];
+    weekSums = new long[weekCount];
+    realWeekSums = new long[weekCount];
+    monthSums = new long[monthCount];
+    realMonthSums = new long[monthCount];
+  }
+
+  /**
+   * Adds the worklog to the sums.
+   *
+   * @param worklog
+   *          the worklog. It has to be one of the worklogs of the constructor.
+   * @param realWorklog
+   *          <code>true</code> if the worklog is added to the real work sums too.
+   */
+  public void add(final EveritWorklog worklog, final boolean realWorklog) {
+    long seconds = worklog.getMilliseconds() / DateTimeConverterUtil.MILLISECONDS_PER_SECOND;
+    int day = worklog.getDayIndex() - firstDayIndex;
+    int week = worklog.getWeekIndex() - firstWeekIndex;
+    int month = worklog.getMonthIndex() - firstMonthIndex;
+    daySums[day] += seconds;
+    weekSums[week] += seconds;
+    monthSums[month] += seconds;
+    if (realWorklog) {
+      realDaySums[day] += seconds;
+      realWeekSums[week] += seconds;
+      realMonthSums[month] += seconds;
+    }
+  }
+
+  /**
+   * Gives back the formatted sum of the day of the worklog.
+   */
+  public String formatDaySum(final EveritWorklog worklog) {
+    return durationFormatter.exactDuration(getDaySum(worklog));
+  }
+
+  /**
+   * Gives back the formatted sum of the month of the worklog.
+   */
+  public String formatMonthSum(final EveritWorklog worklog) {
+    return durationFormatter.exactDuration(getMonthSum(worklog));
+  }
+
+  /**
+   * Gives back the formatted real work sum of the day of the worklog.
+   */
+  public String formatRealDaySum(final EveritWorklog worklog) {
+    return durationFormatter.exactDuration(getRealDaySum(worklog));
+  }
+
+  /**
+   * Gives back the formatted real work sum of the month of the worklog.
+   */
+  public String formatRealMonthSum(final EveritWorklog worklog) {
+    return durationFormatter.exactDuration(getRealMonthSum(worklog));
+  }
+
+  /**
+   * Gives back the formatted real work sum of the week of the worklog.
+   */
+  public String formatRealWeekSum(final EveritWorklog worklog) {
+    return durationFormatter.exactDuration(getRealWeekSum(worklog));
+  }
+
+  /**
+   * Gives back the formatted sum of the week of the worklog.
+   */
+  public String formatWeekSum(final EveritWorklog worklog) {
+    return durationFormatter.exactDuration(getWeekSum(worklog));
+  }
+
+  /**
+   * Gives back the sum of the day of the worklog in seconds.
+   */
+  public long getDaySum(final EveritWorklog worklog) {
+    return daySums[worklog.getDayIndex() - firstDayIndex];
+  }
+
+  /**
+   * Gives back the sum of the month of the worklog in seconds.
+   */
+  public long getMonthSum(final EveritWorklog worklog) {
+    return monthSums[worklog.getMonthIndex() - firstMonthIndex];
+  }
+
+  /**
+   * Gives back the real work sum of the day of the worklog in seconds.
+   */
+  public long getRealDaySum(final EveritWorklog worklog) {
+    return realDaySums[worklog.getDayIndex() - firstDayIndex];
+  }
+
+  /**
+   * Gives back the real work sum of the month of the worklog in seconds.
+   */
+  public long getRealMonthSum(final EveritWorklog worklog) {
+    return realMonthSums[worklog.getMonthIndex() - firstMonthIndex];
+  }
+
+  /**
+   * Gives back the real work sum of the week of the worklog in seconds.
+   */
+  public long getRealWeekSum(final EveritWorklog worklog) {
+    return realWeekSums[worklog.getWeekIndex() - firstWeekIndex];
+  }
+
+  /**
+   * Gives back the sum of the week of the worklog in seconds.
+   */
+  public long getWeekSum(final EveritWorklog worklog) {
+    return weekSums[worklog.getWeekIndex() - firstWeekIndex];
+  }
+}
@@ -75,6 +75,8 @@ public class WorklogDetailsDTO {
 
     public static final String WORKLOG_CREATED = "worklogCreated";
 
+    public static final String WORKLOG_ID = "worklogId";
+
     public static final String WORKLOG_START_DATE = "worklogStartDate";
 
     public static final String WORKLOG_TIME_WORKED = "worklogTimeWorked";
@@ -139,6 +141,8 @@ public class WorklogDetailsDTO {
 
   private Timestamp worklogCreated;
 
+  private Long worklogId;
+
   private Timestamp worklogStartDate;
 
   private Long worklogTimeWorked;
@@ -269,6 +273,10 @@ public class WorklogDetailsDTO {
     return (Timestamp) worklogCreated.clone();
   }
 
+  public Long getWorklogId() {
+    return worklogId;
+  }
+
   /**
    * Gets worklog start date.
    */
@@ -401,6 +409,10 @@ public class WorklogDetailsDTO {
     this.worklogCreated = worklogCreated;
   }
 
+  public void setWorklogId(final Long worklogId) {
+    this.worklogId = worklogId;
+  }
+
   public void setWorklogStartDate(final Timestamp worklogStartDate) {
     this.worklogStartDate = worklogStartDate;
   }
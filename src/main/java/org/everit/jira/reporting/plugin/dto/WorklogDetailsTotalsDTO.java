@@ -0,0 +1,45 @@
+/*
+ * Copyright (C) 2011 Everit Kft. (http://www.everit.org)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.everit.jira.reporting.plugin.dto;
+
+/**
+ * Contains the worklog count and the grand total of the worklog details report.
+ */
+public class WorklogDetailsTotalsDTO {
+
+  private Long grandTotal = 0L;
+
+  private Long worklogDetailsCount = 0L;
+
+  public Long getGrandTotal() {
+    return grandTotal;
+  }
+
+  public Long getWorklogDetailsCount() {
+    return worklogDetailsCount;
+  }
+
+  public WorklogDetailsTotalsDTO grandTotal(final Long grandTotal) {
+    this.grandTotal = grandTotal;
+    return this;
+  }
+
+  public WorklogDetailsTotalsDTO worklogDetailsCount(final Long worklogDetailsCount) {
+    this.worklogDetailsCount = worklogDetailsCount;
+    return this;
+  }
+
+}
@@ -15,34 +15,39 @@
  */
 package org.everit.jira.reporting.plugin.export;
 
-import java.sql.Timestamp;
 import java.util.List;
 
-import org.apache.poi.hssf.usermodel.HSSFCell;
-import org.apache.poi.hssf.usermodel.HSSFCellStyle;
-import org.apache.poi.hssf.usermodel.HSSFFont;
-import org.apache.poi.hssf.usermodel.HSSFRow;
-import org.apache.poi.hssf.usermodel.HSSFSheet;
 import org.apache.poi.hssf.usermodel.HSSFWorkbook;
+import org.apache.poi.ss.usermodel.Cell;
 import org.apache.poi.ss.usermodel.CellStyle;
 import org.apache.poi.ss.usermodel.Font;
+import org.apache.poi.ss.usermodel.Row;
+import org.apache.poi.ss.usermodel.Sheet;
+import org.apache.poi.ss.usermodel.Workbook;
+import org.apache.poi.xssf.streaming.SXSSFWorkbook;
 import org.everit.jira.querydsl.support.QuerydslSupport;
 import org.everit.jira.reporting.plugin.dto.ReportSearchParam;
 import org.everit.jira.settings.dto.TimeTrackerUserSettings;
 import org.everit.jira.timetracker.plugin.DurationFormatter;
-import org.everit.jira.timetracker.plugin.util.DateTimeConverterUtil;
+import org.everit.jira.timetracker.plugin.util.FormatterRegistry;
 
 import com.atlassian.jira.component.ComponentAccessor;
 import com.atlassian.jira.util.I18nHelper;
 
 /**
- * Helper class to export list reports to XLS.
+ * Helper class to export list reports to XLS or XLSX.
  */
 public abstract class AbstractExportListReport {
 
-  private HSSFCellStyle bodyCellStyle;
+  /**
+   * The number of the rows kept in memory by the XLSX workbook. The older rows are flushed to a
+   * temporary file.
+   */
+  public static final int XLSX_ROW_ACCESS_WINDOW_SIZE = 100;
+
+  private CellStyle bodyCellStyle;
 
-  private HSSFCellStyle headerCellStyle;
+  private CellStyle headerCellStyle;
 
   protected I18nHelper i18nHelper;
 
@@ -78,29 +83,29 @@ public abstract class AbstractExportListReport {
     i18nHelper = ComponentAccessor.getJiraAuthenticationContext().getI18nHelper();
   }
 
-  protected abstract void appendContent(HSSFWorkbook workbook);
+  protected abstract void appendContent(Workbook workbook);
 
-  private void appendNotBrowsalbeProjectsSheet(final HSSFWorkbook workbook) {
+  private void appendNotBrowsalbeProjectsSheet(final Workbook workbook) {
     if (!notBrowsableProjectKeys.isEmpty()) {
-      HSSFSheet noBrowsableProjectsSheet = workbook.createSheet("No Browsable Projects");
+      Sheet noBrowsableProjectsSheet = workbook.createSheet("No Browsable Projects");
       int rowIndex = 0;
-      HSSFRow headerRow = noBrowsableProjectsSheet.createRow(rowIndex++);
+      Row headerRow = noBrowsableProjectsSheet.createRow(rowIndex++);
       insertHeaderCell(headerRow, 0, i18nHelper.getText("jtrp.report.projectKeys"));
       for (String projectKey : notBrowsableProjectKeys) {
-        HSSFRow bodyRow = noBrowsableProjectsSheet.createRow(rowIndex++);
+        Row bodyRow = noBrowsableProjectsSheet.createRow(rowIndex++);
         insertBodyCell(bodyRow, 0, projectKey);
       }
     }
   }
 
-  private void createBodyCellStyle(final HSSFWorkbook workbook) {
+  private void createBodyCellStyle(final Workbook workbook) {
     bodyCellStyle = workbook.createCellStyle();
     bodyCellStyle.setWrapText(true);
   }
 
-  private void createHeaderCellStyle(final HSSFWorkbook workbook) {
+  private void createHeaderCellStyle(final Workbook workbook) {
     headerCellStyle = workbook.createCellStyle();
-    HSSFFont headerFont = workbook.createFont();
+    Font headerFont = workbook.createFont();
     headerFont.setBoldweight(Font.BOLDWEIGHT_BOLD);
     headerCellStyle.setFont(headerFont);
     headerCellStyle.setAlignment(CellStyle.ALIGN_CENTER);
@@ -112,66 +117,34 @@ public abstract class AbstractExportListReport {
    */
   public HSSFWorkbook exportToXLS() {
     HSSFWorkbook workbook = new HSSFWorkbook();
-    createHeaderCellStyle(workbook);
-    createBodyCellStyle(workbook);
-
-    appendContent(workbook);
-
-    appendNotBrowsalbeProjectsSheet(workbook);
-
+    fillWorkbook(workbook);
     return workbook;
   }
 
   /**
-   * Insert body cell to workbook. The cell value is "v1; v2; v3".
-   *
-   * @param bodyRow
-   *          the row where to insert cell.
-   * @param columnIndex
-   *          the columns in row.
-   * @param value
-   *          the List that contains cell value.
-   * @return the next column index.
+   * Export list report to a streaming Workbook (XLSX). Only the last
+   * {@link #XLSX_ROW_ACCESS_WINDOW_SIZE} rows are kept in memory, so the caller has to call
+   * {@link SXSSFWorkbook#dispose()} after the workbook is written to delete the temporary files.
    */
-  protected int insertBodyCell(final HSSFRow bodyRow, final int columnIndex,
-      final List<String> value) {
-    int newColumnIndex = columnIndex;
-    HSSFCell cell = bodyRow.createCell(newColumnIndex++);
-    cell.setCellStyle(bodyCellStyle);
-    String cValue = "";
-    if (value.size() == 1) {
-      cValue = value.get(0);
-    } else {
-      StringBuffer sb = new StringBuffer();
-      for (String v : value) {
-        sb.append(v);
-        sb.append(", ");
-      }
-      cValue = sb.toString();
+  public SXSSFWorkbook exportToXLSX() {
+    SXSSFWorkbook workbook = new SXSSFWorkbook(XLSX_ROW_ACCESS_WINDOW_SIZE);
+    workbook.setCompressTempFiles(true);
+    try {
+      fillWorkbook(workbook);
+    } catch (RuntimeException e) {
+      workbook.dispose();
+      throw e;
     }
-    cell.setCellValue(cValue);
-    return newColumnIndex;
+    return workbook;
   }
 
-  /**
-   * Insert body cell to workbook.
-   *
-   * @param bodyRow
-   *          the row where to insert cell.
-   * @param columnIndex
-   *          the columns in row.
-   * @param value
-   *          the List that contains cell value.
-   * @return the next column index.
-   */
-  protected int insertBodyCell(final HSSFRow bodyRow, final int columnIndex, final String value) {
-    int newColumnIndex = columnIndex;
-    HSSFCell cell = bodyRow.createCell(newColumnIndex++);
-    cell.setCellStyle(bodyCellStyle);
-    if (value != null) {
-      cell.setCellValue(value);
-    }
-    return newColumnIndex;
+  private void fillWorkbook(final Workbook workbook) {
+    createHeaderCellStyle(workbook);
+    createBodyCellStyle(workbook);
+
+    appendContent(workbook);
+
+    appendNotBrowsalbeProjectsSheet(workbook);
   }
 
   /**
@@ -182,16 +155,15 @@ public abstract class AbstractExportListReport {
    * @param columnIndex
    *          the columns in row.
    * @param value
-   *          the List that contains cell value.
+   *          the cell value.
    * @return the next column index.
    */
-  protected int insertBodyCell(final HSSFRow bodyRow, final int columnIndex,
-      final Timestamp value) {
+  protected int insertBodyCell(final Row bodyRow, final int columnIndex, final String value) {
     int newColumnIndex = columnIndex;
-    HSSFCell cell = bodyRow.createCell(newColumnIndex++);
+    Cell cell = bodyRow.createCell(newColumnIndex++);
     cell.setCellStyle(bodyCellStyle);
     if (value != null) {
-      cell.setCellValue(DateTimeConverterUtil.dateAndTimeToString(value));
+      cell.setCellValue(value);
     }
     return newColumnIndex;
   }
@@ -207,10 +179,10 @@ public abstract class AbstractExportListReport {
    *          the cell value.
    * @return the next column index.
    */
-  protected int insertHeaderCell(final HSSFRow headerRow, final int columnIndex,
+  protected int insertHeaderCell(final Row headerRow, final int columnIndex,
       final String value) {
     int newColumnIndex = columnIndex;
-    HSSFCell cell = headerRow.createCell(newColumnIndex++);
+    Cell cell = headerRow.createCell(newColumnIndex++);
     cell.setCellStyle(headerCellStyle);
     cell.setCellValue(value);
     return newColumnIndex;
@@ -227,10 +199,10 @@ public abstract class AbstractExportListReport {
    *          the cell value.
    * @return the next column index.
    */
-  protected int insertHeaderCellInSec(final HSSFRow headerRow, final int columnIndex,
+  protected int insertHeaderCellInSec(final Row headerRow, final int columnIndex,
       final String value) {
     int newColumnIndex = columnIndex;
-    HSSFCell cell = headerRow.createCell(newColumnIndex++);
+    Cell cell = headerRow.createCell(newColumnIndex++);
     cell.setCellStyle(headerCellStyle);
     if (userSettings.getWorklogTimeInSeconds()) {
       cell.setCellValue(value + " (s)");
@@ -247,7 +219,7 @@ public abstract class AbstractExportListReport {
    *          worklog in seconds
    */
   protected String worklogInSec(final Long worklog) {
-    DurationFormatter durationFormatter = new DurationFormatter();
+    DurationFormatter durationFormatter = FormatterRegistry.getDurationFormatter();
     isWorklogInSec = true;
     if (!userSettings.getWorklogTimeInSeconds()) {
       isWorklogInSec = false;
@@ -72,7 +72,10 @@ public class ExcelToCsvConverter {
     }
   }
 
-  private String escapeEmbeddedCharacters(final String field) {
+  /**
+   * Escape the separator, new line and quote characters of a CSV field.
+   */
+  static String escapeEmbeddedCharacters(final String field) {
     StringBuffer buffer;
     if (field.contains("\"")) {
       buffer = new StringBuffer(field.replaceAll("\"", "\\\"\\\""));
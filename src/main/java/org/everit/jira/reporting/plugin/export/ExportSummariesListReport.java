@@ -17,9 +17,9 @@ package org.everit.jira.reporting.plugin.export;
 
 import java.util.List;
 
-import org.apache.poi.hssf.usermodel.HSSFRow;
-import org.apache.poi.hssf.usermodel.HSSFSheet;
-import org.apache.poi.hssf.usermodel.HSSFWorkbook;
+import org.apache.poi.ss.usermodel.Row;
+import org.apache.poi.ss.usermodel.Sheet;
+import org.apache.poi.ss.usermodel.Workbook;
 import org.everit.jira.querydsl.support.QuerydslSupport;
 import org.everit.jira.reporting.plugin.column.IssueSummaryColumns;
 import org.everit.jira.reporting.plugin.column.ProjectSummaryColumns;
@@ -50,8 +50,8 @@ public class ExportSummariesListReport extends AbstractExportListReport {
     super(querydslSupport, reportSearchParam, notBrowsableProjectKeys, userSettings);
   }
 
-  private void addIssueSummarySheet(final HSSFWorkbook workbook) {
-    HSSFSheet issueSummarySheet = workbook.createSheet("Issue Summary");
+  private void addIssueSummarySheet(final Workbook workbook) {
+    Sheet issueSummarySheet = workbook.createSheet("Issue Summary");
     int rowIndex = 0;
 
     rowIndex = insertIssueSummaryHeaderRow(rowIndex, issueSummarySheet);
@@ -65,8 +65,8 @@ public class ExportSummariesListReport extends AbstractExportListReport {
     }
   }
 
-  private void addProjectSummarySheet(final HSSFWorkbook workbook) {
-    HSSFSheet projectSummarySheet = workbook.createSheet("Project Summary");
+  private void addProjectSummarySheet(final Workbook workbook) {
+    Sheet projectSummarySheet = workbook.createSheet("Project Summary");
     int rowIndex = 0;
 
     rowIndex = insertProjectSummaryHeaderRow(rowIndex, projectSummarySheet);
@@ -80,8 +80,8 @@ public class ExportSummariesListReport extends AbstractExportListReport {
     }
   }
 
-  private void addUserSummarySheet(final HSSFWorkbook workbook) {
-    HSSFSheet userSummarySheet = workbook.createSheet("User Summary");
+  private void addUserSummarySheet(final Workbook workbook) {
+    Sheet userSummarySheet = workbook.createSheet("User Summary");
     int rowIndex = 0;
 
     rowIndex = insertUserSummaryHeaderRow(rowIndex, userSummarySheet);
@@ -95,19 +95,19 @@ public class ExportSummariesListReport extends AbstractExportListReport {
   }
 
   @Override
-  protected void appendContent(final HSSFWorkbook workbook) {
+  protected void appendContent(final Workbook workbook) {
     addProjectSummarySheet(workbook);
     addIssueSummarySheet(workbook);
     addUserSummarySheet(workbook);
 
   }
 
-  private int insertIssueSummaryBodyRow(final int rowIndex, final HSSFSheet issueSummarySheet,
+  private int insertIssueSummaryBodyRow(final int rowIndex, final Sheet issueSummarySheet,
       final IssueSummaryDTO issueSummaryDTO) {
     int newRowIndex = rowIndex;
     int columnIndex = 0;
 
-    HSSFRow row = issueSummarySheet.createRow(newRowIndex++);
+    Row row = issueSummarySheet.createRow(newRowIndex++);
 
     columnIndex = insertBodyCell(row, columnIndex, issueSummaryDTO.getIssueKey());
     columnIndex = insertBodyCell(row, columnIndex, issueSummaryDTO.getIssueSummary());
@@ -127,11 +127,11 @@ public class ExportSummariesListReport extends AbstractExportListReport {
   }
 
   private int insertIssueSummaryHeaderRow(final int rowIndex,
-      final HSSFSheet issueSummarySheet) {
+      final Sheet issueSummarySheet) {
     int newRowIndex = rowIndex;
     int columnIndex = 0;
 
-    HSSFRow row = issueSummarySheet.createRow(newRowIndex++);
+    Row row = issueSummarySheet.createRow(newRowIndex++);
 
     columnIndex = insertHeaderCell(row, columnIndex,
         i18nHelper.getText(ISSUE_SUMMARY_PREFIX + IssueSummaryColumns.ISSUE));
@@ -157,12 +157,12 @@ public class ExportSummariesListReport extends AbstractExportListReport {
     return newRowIndex;
   }
 
-  private int insertProjectSummaryBodyRow(final int rowIndex, final HSSFSheet projectSummarySheet,
+  private int insertProjectSummaryBodyRow(final int rowIndex, final Sheet projectSummarySheet,
       final ProjectSummaryDTO projectSummaryDTO) {
     int newRowIndex = rowIndex;
     int columnIndex = 0;
 
-    HSSFRow row = projectSummarySheet.createRow(newRowIndex++);
+    Row row = projectSummarySheet.createRow(newRowIndex++);
 
     columnIndex = insertBodyCell(row, columnIndex, projectSummaryDTO.getProjectName());
     columnIndex = insertBodyCell(row, columnIndex, projectSummaryDTO.getProjectKey());
@@ -179,11 +179,11 @@ public class ExportSummariesListReport extends AbstractExportListReport {
   }
 
   private int insertProjectSummaryHeaderRow(final int rowIndex,
-      final HSSFSheet projectSummarySheet) {
+      final Sheet projectSummarySheet) {
     int newRowIndex = rowIndex;
     int columnIndex = 0;
 
-    HSSFRow row = projectSummarySheet.createRow(newRowIndex++);
+    Row row = projectSummarySheet.createRow(newRowIndex++);
 
     columnIndex = insertHeaderCell(row, columnIndex,
         i18nHelper.getText(PROJECT_SUMMARY_PREFIX + ProjectSummaryColumns.PROJECT));
@@ -201,12 +201,12 @@ public class ExportSummariesListReport extends AbstractExportListReport {
     return newRowIndex;
   }
 
-  private int insertUserSummaryBodyRow(final int rowIndex, final HSSFSheet userSummarySheet,
+  private int insertUserSummaryBodyRow(final int rowIndex, final Sheet userSummarySheet,
       final UserSummaryDTO userSummaryDTO) {
     int newRowIndex = rowIndex;
     int columnIndex = 0;
 
-    HSSFRow row = userSummarySheet.createRow(newRowIndex++);
+    Row row = userSummarySheet.createRow(newRowIndex++);
 
     columnIndex = insertBodyCell(row, columnIndex, userSummaryDTO.getUserDisplayName());
     insertBodyCell(row, columnIndex, worklogInSec(userSummaryDTO.getWorkloggedTimeSum()));
@@ -214,11 +214,11 @@ public class ExportSummariesListReport extends AbstractExportListReport {
   }
 
   private int insertUserSummaryHeaderRow(final int rowIndex,
-      final HSSFSheet userSummarySheet) {
+      final Sheet userSummarySheet) {
     int newRowIndex = rowIndex;
     int columnIndex = 0;
 
-    HSSFRow row = userSummarySheet.createRow(newRowIndex++);
+    Row row = userSummarySheet.createRow(newRowIndex++);
 
     columnIndex = insertHeaderCell(row, columnIndex,
         i18nHelper.getText(USER_SUMMARY_PREFIX + UserSummaryColumns.USER));
@@ -0,0 +1,142 @@
+/*
+ * Copyright (C) 2011 Everit Kft. (http://www.everit.org)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.everit.jira.reporting.plugin.export;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import javax.ws.rs.core.StreamingOutput;
+
+import org.everit.jira.core.util.TimeZoneContext;
+import org.everit.jira.querydsl.support.QuerydslSupport;
+import org.everit.jira.reporting.plugin.dto.OrderBy;
+import org.everit.jira.reporting.plugin.dto.ReportSearchParam;
+import org.everit.jira.settings.dto.TimeTrackerUserSettings;
+
+import com.atlassian.jira.component.ComponentAccessor;
+import com.atlassian.jira.util.I18nHelper;
+
+/**
+ * Writes the worklog details report as CSV directly to the response stream. The worklogs are read
+ * in chunks by a {@link WorklogDetailsRowIterator}, so the memory usage does not depend on the row
+ * count.
+ */
+public class StreamingWorklogDetailsCsvExport implements StreamingOutput {
+
+  private static final String DEFAULT_SEPARATOR = ",";
+
+  private final WorklogDetailsExportLines exportLines;
+
+  private boolean firstLine = true;
+
+  private final I18nHelper i18nHelper;
+
+  private int lineWidth;
+
+  private final List<String> notBrowsableProjectKeys;
+
+  private final OrderBy orderBy;
+
+  private final QuerydslSupport querydslSupport;
+
+  private final ReportSearchParam reportSearchParam;
+
+  /**
+   * Simple constructor.
+   *
+   * @param querydslSupport
+   *          the {@link QuerydslSupport} instance.
+   * @param selectedWorklogDetailsColumns
+   *          the list of the selected columns.
+   * @param reportSearchParam
+   *          the {@link ReportSearchParam} object, that contains parameters to filter condition.
+   * @param notBrowsableProjectKeys
+   *          the list of not browsable project keys.
+   * @param orderBy
+   *          the {@link OrderBy} object.
+   * @param userSettings
+   *          the user settings.
+   */
+  public StreamingWorklogDetailsCsvExport(final QuerydslSupport querydslSupport,
+      final List<String> selectedWorklogDetailsColumns, final ReportSearchParam reportSearchParam,
+      final List<String> notBrowsableProjectKeys, final OrderBy orderBy,
+      final TimeTrackerUserSettings userSettings) {
+    this.querydslSupport = querydslSupport;
+    this.reportSearchParam = reportSearchParam;
+    this.notBrowsableProjectKeys = notBrowsableProjectKeys;
+    this.orderBy = orderBy;
+    i18nHelper = ComponentAccessor.getJiraAuthenticationContext().getI18nHelper();
+    exportLines = new WorklogDetailsExportLines(selectedWorklogDetailsColumns, userSettings,
+        i18nHelper, TimeZoneContext.current());
+  }
+
+  @Override
+  public void write(final OutputStream output) throws IOException {
+    BufferedWriter writer =
+        new BufferedWriter(new OutputStreamWriter(output, StandardCharsets.UTF_8));
+    // every line is padded to the widest line like the CSV converted from the XLS export
+    lineWidth = exportLines.getColumnCount();
+    if (!notBrowsableProjectKeys.isEmpty()) {
+      lineWidth = Math.max(lineWidth, 1);
+    }
+    writeLine(writer, exportLines.createHeaderLine());
+
+    WorklogDetailsRowIterator worklogDetails =
+        new WorklogDetailsRowIterator(querydslSupport, reportSearchParam, orderBy);
+    while (worklogDetails.hasNext()) {
+      writeLine(writer, exportLines.createBodyLine(worklogDetails.next()));
+    }
+
+    if (!notBrowsableProjectKeys.isEmpty()) {
+      List<String> headerLine = new ArrayList<>();
+      headerLine.add(i18nHelper.getText("jtrp.report.projectKeys"));
+      writeLine(writer, headerLine);
+      for (String projectKey : notBrowsableProjectKeys) {
+        List<String> line = new ArrayList<>();
+        line.add(projectKey);
+        writeLine(writer, line);
+      }
+    }
+    writer.flush();
+  }
+
+  private void writeLine(final BufferedWriter writer, final List<String> line)
+      throws IOException {
+    StringBuilder buffer = new StringBuilder();
+    for (int i = 0; i < lineWidth; i++) {
+      if (i < line.size()) {
+        String csvLineElement = line.get(i);
+        if (csvLineElement != null) {
+          buffer.append(ExcelToCsvConverter.escapeEmbeddedCharacters(csvLineElement));
+        }
+      }
+      if (i < (lineWidth - 1)) {
+        buffer.append(DEFAULT_SEPARATOR);
+      }
+    }
+    if (!firstLine) {
+      writer.newLine();
+    }
+    firstLine = false;
+    writer.write(buffer.toString().trim());
+  }
+
+}
@@ -0,0 +1,236 @@
+/*
+ * Copyright (C) 2011 Everit Kft. (http://www.everit.org)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.everit.jira.reporting.plugin.export;
+
+import org.everit.jira.reporting.plugin.column.WorklogDetailsColumns;
+import org.everit.jira.reporting.plugin.dto.WorklogDetailsDTO;
+
+/**
+ * The columns of the worklog details export in the order of the exported file. The XLS and the
+ * streaming CSV export are both driven by this definition, so they contain the same cells.
+ */
+enum WorklogDetailsExportColumn {
+
+  PROJECT(WorklogDetailsColumns.PROJECT, ValueType.TEXT) {
+    @Override
+    Object getValue(final WorklogDetailsDTO worklogDetailsDTO) {
+      return worklogDetailsDTO.getProjectName();
+    }
+  },
+
+  PROJECT_DESCRIPTION(WorklogDetailsColumns.PROJECT_DESCRIPTION, ValueType.TEXT) {
+    @Override
+    Object getValue(final WorklogDetailsDTO worklogDetailsDTO) {
+      return worklogDetailsDTO.getProjectDescription();
+    }
+  },
+
+  ISSUE_KEY(WorklogDetailsColumns.ISSUE_KEY, ValueType.TEXT) {
+    @Override
+    Object getValue(final WorklogDetailsDTO worklogDetailsDTO) {
+      return worklogDetailsDTO.getIssueKey();
+    }
+  },
+
+  ISSUE_SUMMARY(WorklogDetailsColumns.ISSUE_SUMMARY, ValueType.TEXT) {
+    @Override
+    Object getValue(final WorklogDetailsDTO worklogDetailsDTO) {
+      return worklogDetailsDTO.getIssueSummary();
+    }
+  },
+
+  TYPE(WorklogDetailsColumns.TYPE, ValueType.TEXT) {
+    @Override
+    Object getValue(final WorklogDetailsDTO worklogDetailsDTO) {
+      return worklogDetailsDTO.getIssueTypeName();
+    }
+  },
+
+  STATUS(WorklogDetailsColumns.STATUS, ValueType.TEXT) {
+    @Override
+    Object getValue(final WorklogDetailsDTO worklogDetailsDTO) {
+      return worklogDetailsDTO.getIssueStatusName();
+    }
+  },
+
+  PRIORITY(WorklogDetailsColumns.PRIORITY, ValueType.TEXT) {
+    @Override
+    Object getValue(final WorklogDetailsDTO worklogDetailsDTO) {
+      return worklogDetailsDTO.getPriorityName();
+    }
+  },
+
+  ASSIGNEE(WorklogDetailsColumns.ASSIGNEE, ValueType.TEXT) {
+    @Override
+    Object getValue(final WorklogDetailsDTO worklogDetailsDTO) {
+      return worklogDetailsDTO.getIssueAssignee();
+    }
+  },
+
+  REPORTER(WorklogDetailsColumns.REPORTER, ValueType.TEXT) {
+    @Override
+    Object getValue(final WorklogDetailsDTO worklogDetailsDTO) {
+      return worklogDetailsDTO.getIssueReporter();
+    }
+  },
+
+  ESTIMATED(WorklogDetailsColumns.ESTIMATED, ValueType.DURATION) {
+    @Override
+    Object getValue(final WorklogDetailsDTO worklogDetailsDTO) {
+      return worklogDetailsDTO.getIssueOriginalEstimate();
+    }
+  },
+
+  REMAINING(WorklogDetailsColumns.REMAINING, ValueType.DURATION) {
+    @Override
+    Object getValue(final WorklogDetailsDTO worklogDetailsDTO) {
+      return worklogDetailsDTO.getIssueRemainingEstimate();
+    }
+  },
+
+  CREATED(WorklogDetailsColumns.CREATED, ValueType.TIMESTAMP) {
+    @Override
+    Object getValue(final WorklogDetailsDTO worklogDetailsDTO) {
+      return worklogDetailsDTO.getIssueCreated();
+    }
+  },
+
+  UPDATED(WorklogDetailsColumns.UPDATED, ValueType.TIMESTAMP) {
+    @Override
+    Object getValue(final WorklogDetailsDTO worklogDetailsDTO) {
+      return worklogDetailsDTO.getIssueUpdated();
+    }
+  },
+
+  COMPONENTS(WorklogDetailsColumns.COMPONENTS, ValueType.LIST) {
+    @Override
+    Object getValue(final WorklogDetailsDTO worklogDetailsDTO) {
+      return worklogDetailsDTO.getIssueComponents();
+    }
+  },
+
+  AFFECTED_VERIONS(WorklogDetailsColumns.AFFECTED_VERIONS, ValueType.LIST) {
+    @Override
+    Object getValue(final WorklogDetailsDTO worklogDetailsDTO) {
+      return worklogDetailsDTO.getIssueAffectedVersions();
+    }
+  },
+
+  FIX_VERSIONS(WorklogDetailsColumns.FIX_VERSIONS, ValueType.LIST) {
+    @Override
+    Object getValue(final WorklogDetailsDTO worklogDetailsDTO) {
+      return worklogDetailsDTO.getIssueFixedVersions();
+    }
+  },
+
+  RESOLUTION(WorklogDetailsColumns.RESOLUTION, ValueType.TEXT) {
+    @Override
+    Object getValue(final WorklogDetailsDTO worklogDetailsDTO) {
+      return worklogDetailsDTO.getResolutionName();
+    }
+  },
+
+  WORKLOG_DESCRIPTION(WorklogDetailsColumns.WORKLOG_DESCRIPTION, ValueType.TEXT) {
+    @Override
+    Object getValue(final WorklogDetailsDTO worklogDetailsDTO) {
+      return worklogDetailsDTO.getWorklogBody();
+    }
+  },
+
+  ISSUE_EPIC_NAME(WorklogDetailsColumns.ISSUE_EPIC_NAME, ValueType.TEXT) {
+    @Override
+    Object getValue(final WorklogDetailsDTO worklogDetailsDTO) {
+      return worklogDetailsDTO.getIssueEpicName();
+    }
+  },
+
+  ISSUE_EPIC_LINK(WorklogDetailsColumns.ISSUE_EPIC_LINK, ValueType.TEXT) {
+    @Override
+    Object getValue(final WorklogDetailsDTO worklogDetailsDTO) {
+      return worklogDetailsDTO.getIssueEpicLink();
+    }
+  },
+
+  USER(WorklogDetailsColumns.USER, ValueType.TEXT) {
+    @Override
+    Object getValue(final WorklogDetailsDTO worklogDetailsDTO) {
+      return worklogDetailsDTO.getWorklogUser();
+    }
+  },
+
+  START_TIME(WorklogDetailsColumns.START_TIME, ValueType.TIMESTAMP) {
+    @Override
+    Object getValue(final WorklogDetailsDTO worklogDetailsDTO) {
+      return worklogDetailsDTO.getWorklogStartDate();
+    }
+  },
+
+  TIME_SPENT(WorklogDetailsColumns.TIME_SPENT, ValueType.DURATION) {
+    @Override
+    Object getValue(final WorklogDetailsDTO worklogDetailsDTO) {
+      return worklogDetailsDTO.getWorklogTimeWorked();
+    }
+  },
+
+  WORKLOG_CREATED(WorklogDetailsColumns.WORKLOG_CREATED, ValueType.TIMESTAMP) {
+    @Override
+    Object getValue(final WorklogDetailsDTO worklogDetailsDTO) {
+      return worklogDetailsDTO.getWorklogCreated();
+    }
+  },
+
+  WORKLOG_UPDATED(WorklogDetailsColumns.WORKLOG_UPDATED, ValueType.TIMESTAMP) {
+    @Override
+    Object getValue(final WorklogDetailsDTO worklogDetailsDTO) {
+      return worklogDetailsDTO.getWorklogUpdated();
+    }
+  };
+
+  /**
+   * The type of a column value, that decides how the value is formatted.
+   */
+  enum ValueType {
+    DURATION, LIST, TEXT, TIMESTAMP
+  }
+
+  private final String columnName;
+
+  private final ValueType valueType;
+
+  WorklogDetailsExportColumn(final String columnName, final ValueType valueType) {
+    this.columnName = columnName;
+    this.valueType = valueType;
+  }
+
+  String getColumnName() {
+    return columnName;
+  }
+
+  /**
+   * Gives back the unformatted value of the column.
+   *
+   * @param worklogDetailsDTO
+   *          the exported worklog.
+   * @return a {@link String}, a {@link java.util.List}, a {@link java.sql.Timestamp} or a
+   *         {@link Long} duration in seconds depending on the {@link #getValueType() value type}.
+   */
+  abstract Object getValue(WorklogDetailsDTO worklogDetailsDTO);
+
+  ValueType getValueType() {
+    return valueType;
+  }
+
+}
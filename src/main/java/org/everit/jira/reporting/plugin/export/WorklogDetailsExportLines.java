@@ -0,0 +1,153 @@
+/*
+ * Copyright (C) 2011 Everit Kft. (http://www.everit.org)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.everit.jira.reporting.plugin.export;
+
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.everit.jira.core.util.TimeZoneContext;
+import org.everit.jira.reporting.plugin.dto.WorklogDetailsDTO;
+import org.everit.jira.reporting.plugin.export.WorklogDetailsExportColumn.ValueType;
+import org.everit.jira.settings.dto.TimeTrackerUserSettings;
+import org.everit.jira.timetracker.plugin.DurationFormatter;
+import org.everit.jira.timetracker.plugin.util.DateTimeConverterUtil;
+import org.everit.jira.timetracker.plugin.util.FormatterRegistry;
+
+import com.atlassian.jira.util.I18nHelper;
+
+/**
+ * Creates the header and the body lines of the worklog details export from the selected
+ * {@link WorklogDetailsExportColumn columns}. The timestamps are converted to the time zone of the
+ * user.
+ */
+final class WorklogDetailsExportLines {
+
+  private static final String WORKLOG_DETAILS_PREFIX = "jtrp.report.export.wd.col.";
+
+  private final List<WorklogDetailsExportColumn> columns = new ArrayList<>();
+
+  private final DurationFormatter durationFormatter;
+
+  private final I18nHelper i18nHelper;
+
+  private final TimeZoneContext timeZoneContext;
+
+  private final boolean worklogInSec;
+
+  /**
+   * Simple constructor.
+   *
+   * @param selectedWorklogDetailsColumns
+   *          the list of the selected columns.
+   * @param userSettings
+   *          the user settings.
+   * @param i18nHelper
+   *          the {@link I18nHelper} of the header texts.
+   * @param timeZoneContext
+   *          the time zones of the request.
+   */
+  WorklogDetailsExportLines(final List<String> selectedWorklogDetailsColumns,
+      final TimeTrackerUserSettings userSettings, final I18nHelper i18nHelper,
+      final TimeZoneContext timeZoneContext) {
+    for (WorklogDetailsExportColumn column : WorklogDetailsExportColumn.values()) {
+      if (selectedWorklogDetailsColumns.contains(column.getColumnName())) {
+        columns.add(column);
+      }
+    }
+    this.i18nHelper = i18nHelper;
+    this.timeZoneContext = timeZoneContext;
+    worklogInSec = userSettings.getWorklogTimeInSeconds();
+    durationFormatter = FormatterRegistry.getDurationFormatter();
+  }
+
+  /**
+   * Creates the values of a body line. The <code>null</code> values stand for empty cells.
+   *
+   * @param worklogDetailsDTO
+   *          the exported worklog.
+   * @return the values in the order of the selected columns.
+   */
+  List<String> createBodyLine(final WorklogDetailsDTO worklogDetailsDTO) {
+    List<String> line = new ArrayList<>(columns.size());
+    for (WorklogDetailsExportColumn column : columns) {
+      line.add(format(column.getValueType(), column.getValue(worklogDetailsDTO)));
+    }
+    return line;
+  }
+
+  /**
+   * Creates the values of the header line.
+   *
+   * @return the column names in the order of the selected columns.
+   */
+  List<String> createHeaderLine() {
+    List<String> line = new ArrayList<>(columns.size());
+    for (WorklogDetailsExportColumn column : columns) {
+      String value = i18nHelper.getText(WORKLOG_DETAILS_PREFIX + column.getColumnName());
+      if (worklogInSec && (column.getValueType() == ValueType.DURATION)) {
+        value += " (s)";
+      }
+      line.add(value);
+    }
+    return line;
+  }
+
+  @SuppressWarnings("unchecked")
+  private String format(final ValueType valueType, final Object value) {
+    switch (valueType) {
+      case DURATION:
+        return formatDuration((Long) value);
+      case LIST:
+        return formatList((List<String>) value);
+      case TIMESTAMP:
+        Timestamp userTimestamp =
+            DateTimeConverterUtil.addTimeZoneToTimestamp((Timestamp) value, timeZoneContext);
+        return userTimestamp == null
+            ? null
+            : DateTimeConverterUtil.dateAndTimeToString(userTimestamp);
+      default:
+        return (String) value;
+    }
+  }
+
+  private String formatDuration(final Long duration) {
+    if (duration == null) {
+      return "";
+    }
+    if (worklogInSec) {
+      return duration.toString();
+    }
+    return durationFormatter.exactDuration(duration);
+  }
+
+  private String formatList(final List<String> values) {
+    if (values.size() == 1) {
+      return values.get(0);
+    }
+    StringBuilder sb = new StringBuilder();
+    for (String value : values) {
+      sb.append(value);
+      sb.append(", ");
+    }
+    return sb.toString();
+  }
+
+  int getColumnCount() {
+    return columns.size();
+  }
+
+}
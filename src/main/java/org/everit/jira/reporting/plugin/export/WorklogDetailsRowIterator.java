@@ -0,0 +1,107 @@
+/*
+ * Copyright (C) 2011 Everit Kft. (http://www.everit.org)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.everit.jira.reporting.plugin.export;
+
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+import org.everit.jira.querydsl.support.QuerydslSupport;
+import org.everit.jira.reporting.plugin.dto.OrderBy;
+import org.everit.jira.reporting.plugin.dto.ReportSearchParam;
+import org.everit.jira.reporting.plugin.dto.WorklogDetailsDTO;
+import org.everit.jira.reporting.plugin.query.WorklogDetailsReportQueryBuilder;
+
+/**
+ * Iterates over the worklogs of the worklog details report. The worklogs are selected in chunks of
+ * {@link #FETCH_SIZE} rows paged by the keyset cursor of the previous chunk, or by offset if the
+ * order column is not seekable, so only one chunk is kept in memory.
+ */
+final class WorklogDetailsRowIterator implements Iterator<WorklogDetailsDTO> {
+
+  /**
+   * The number of the worklogs selected by one query.
+   */
+  static final int FETCH_SIZE = 1000;
+
+  private Iterator<WorklogDetailsDTO> chunk = Collections.emptyIterator();
+
+  private String cursor;
+
+  private boolean lastChunk;
+
+  private long offset;
+
+  private final OrderBy orderBy;
+
+  private final QuerydslSupport querydslSupport;
+
+  private final ReportSearchParam reportSearchParam;
+
+  /**
+   * Simple constructor.
+   *
+   * @param querydslSupport
+   *          the {@link QuerydslSupport} instance.
+   * @param reportSearchParam
+   *          the {@link ReportSearchParam} object, that contains parameters to filter condition.
+   *          The paging parameters of it are overwritten by every chunk.
+   * @param orderBy
+   *          the {@link OrderBy} object.
+   */
+  WorklogDetailsRowIterator(final QuerydslSupport querydslSupport,
+      final ReportSearchParam reportSearchParam, final OrderBy orderBy) {
+    this.querydslSupport = querydslSupport;
+    this.reportSearchParam = reportSearchParam;
+    this.orderBy = orderBy;
+  }
+
+  private void fetchChunk() {
+    reportSearchParam.limit((long) FETCH_SIZE)
+        .offset(offset)
+        .cursor(cursor);
+    WorklogDetailsReportQueryBuilder queryBuilder =
+        new WorklogDetailsReportQueryBuilder(reportSearchParam, orderBy);
+    List<WorklogDetailsDTO> worklogDetails = querydslSupport.execute(queryBuilder.buildQuery());
+    lastChunk = worklogDetails.size() < FETCH_SIZE;
+    offset += worklogDetails.size();
+    cursor = queryBuilder.getNextCursor();
+    chunk = worklogDetails.iterator();
+  }
+
+  @Override
+  public boolean hasNext() {
+    while (!chunk.hasNext() && !lastChunk) {
+      fetchChunk();
+    }
+    return chunk.hasNext();
+  }
+
+  @Override
+  public WorklogDetailsDTO next() {
+    if (!hasNext()) {
+      throw new NoSuchElementException();
+    }
+    return chunk.next();
+  }
+
+  @Override
+  public void remove() {
+    throw new UnsupportedOperationException();
+  }
+
+}
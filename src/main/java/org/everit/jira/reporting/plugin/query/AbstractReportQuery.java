@@ -50,8 +50,8 @@ import com.atlassian.jira.component.ComponentAccessor;
 import com.atlassian.jira.entity.Entity;
 import com.atlassian.jira.issue.IssueRelationConstants;
 import com.atlassian.jira.user.ApplicationUser;
-import com.querydsl.core.types.PathMetadata;
-import com.querydsl.core.types.PathType;
+import com.querydsl.core.types.Template;
+import com.querydsl.core.types.TemplateFactory;
 import com.querydsl.core.types.dsl.BooleanExpression;
 import com.querydsl.core.types.dsl.Expressions;
 import com.querydsl.core.types.dsl.NumberPath;
@@ -69,6 +69,37 @@ import com.querydsl.sql.SQLQuery;
  */
 public abstract class AbstractReportQuery<T> {
 
+  /**
+   * The maximum number of issue ids in one IN list. Oracle does not accept more than 1000
+   * expressions in a list, so a bigger issue id filter is split to more IN lists.
+   */
+  private static final int ISSUE_ID_CHUNK_SIZE = 1000;
+
+  /**
+   * Creates the IN condition of the issue ids. The ids are written into the SQL as numeric
+   * literals instead of bound parameters, so a big filter does not exceed the parameter limit of
+   * the JDBC drivers (2100 on SQL Server, 32767 on PostgreSQL).
+   *
+   * @param issueIdPath
+   *          the issue id column.
+   * @param issueIds
+   *          the issue ids. At most {@value #ISSUE_ID_CHUNK_SIZE}.
+   */
+  private static BooleanExpression issueIdInLiterals(final NumberPath<Long> issueIdPath,
+      final List<Long> issueIds) {
+    StringBuilder sb = new StringBuilder("{0} in (");
+    for (int i = 0; i < issueIds.size(); i++) {
+      if (i > 0) {
+        sb.append(", ");
+      }
+      sb.append(issueIds.get(i).longValue());
+    }
+    sb.append(')');
+    // own factory, so the one-off templates are not kept in the cache of the default factory
+    Template template = new TemplateFactory('\\').create(sb.toString());
+    return Expressions.booleanTemplate(template, issueIdPath);
+  }
+
   protected BooleanExpression expressionFalse;
 
   protected BooleanExpression expressionTrue;
@@ -177,55 +208,6 @@ public abstract class AbstractReportQuery<T> {
     }
   }
 
-  /**
-   * Build count query.
-   */
-  public QuerydslCallable<Long> buildCountQuery() {
-    if (((reportSearchParam.issueKeys == null) && (reportSearchParam.issueIds == null))
-        || reportSearchParam.groupsHasNoMembers) {
-      return new QuerydslCallable<Long>() {
-        @Override
-        public Long call(final Connection connection, final Configuration configuration)
-            throws SQLException {
-          return 0L;
-        }
-      };
-    }
-    return getCountQuery();
-  }
-
-  /**
-   * Build grand total query.
-   */
-  public QuerydslCallable<Long> buildGrandTotalQuery() {
-    return new QuerydslCallable<Long>() {
-      @Override
-      public Long call(final Connection connection, final Configuration configuration)
-          throws SQLException {
-        if (((reportSearchParam.issueKeys == null) && (reportSearchParam.issueIds == null))
-            || reportSearchParam.groupsHasNoMembers) {
-          return 0L;
-        }
-        NumberPath<Long> worklogTimeSumPath = Expressions.numberPath(Long.class,
-            new PathMetadata(null, "worklogTimeSum", PathType.VARIABLE));
-
-        SQLQuery<Long> fromQuery = new SQLQuery<Long>(connection, configuration)
-            .select(qWorklog.timeworked.sum().as(worklogTimeSumPath));
-
-        appendBaseFromAndJoin(fromQuery);
-        appendBaseWhere(fromQuery);
-        fromQuery.groupBy(qWorklog.id);
-
-        SQLQuery<Long> query = new SQLQuery<Long>(connection, configuration)
-            .select(worklogTimeSumPath.sum())
-            .from(fromQuery.as("fromSum"));
-
-        Long grandTotal = query.fetchOne();
-        return grandTotal == null ? Long.valueOf(0L) : grandTotal;
-      }
-    };
-  }
-
   /**
    * Build query.
    */
@@ -496,7 +478,13 @@ public abstract class AbstractReportQuery<T> {
           .join(subQueryProject).on(subQueryIssue.project.eq(subQueryProject.id))
           .where(predicate)));
     } else if (!reportSearchParam.issueIds.isEmpty()) {
-      return where.and(qIssue.id.in(reportSearchParam.issueIds));
+      List<Long> issueIds = reportSearchParam.issueIds;
+      BooleanExpression predicate = expressionFalse;
+      for (int i = 0; i < issueIds.size(); i += ISSUE_ID_CHUNK_SIZE) {
+        List<Long> chunk = issueIds.subList(i, Math.min(i + ISSUE_ID_CHUNK_SIZE, issueIds.size()));
+        predicate = predicate.or(AbstractReportQuery.issueIdInLiterals(qIssue.id, chunk));
+      }
+      return where.and(predicate);
     }
     return where;
   }
@@ -629,8 +617,6 @@ public abstract class AbstractReportQuery<T> {
     return where.and(nullExpressions.or(roleLevelExpression).or(groupLevelExpression));
   }
 
-  protected abstract QuerydslCallable<Long> getCountQuery();
-
   protected abstract QuerydslCallable<List<T>> getQuery();
 
 }
@@ -0,0 +1,57 @@
+/*
+ * Copyright (C) 2011 Everit Kft. (http://www.everit.org)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.everit.jira.reporting.plugin.query;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+
+import org.everit.jira.querydsl.support.QuerydslCallable;
+import org.everit.jira.reporting.plugin.dto.ReportSearchParam;
+
+import com.querydsl.sql.Configuration;
+
+/**
+ * Base of the summary report queries. A summary report is paged by the count of its rows.
+ *
+ * @param <T>
+ *          the type of the summary rows.
+ */
+public abstract class AbstractSummaryReportQuery<T> extends AbstractReportQuery<T> {
+
+  protected AbstractSummaryReportQuery(final ReportSearchParam reportSearchParam) {
+    super(reportSearchParam);
+  }
+
+  /**
+   * Build count query.
+   */
+  public QuerydslCallable<Long> buildCountQuery() {
+    if (((reportSearchParam.issueKeys == null) && (reportSearchParam.issueIds == null))
+        || reportSearchParam.groupsHasNoMembers) {
+      return new QuerydslCallable<Long>() {
+        @Override
+        public Long call(final Connection connection, final Configuration configuration)
+            throws SQLException {
+          return 0L;
+        }
+      };
+    }
+    return getCountQuery();
+  }
+
+  protected abstract QuerydslCallable<Long> getCountQuery();
+
+}
@@ -40,7 +40,7 @@ import com.querydsl.sql.SQLQuery;
 /**
  * Queries for issue summary report.
  */
-public class IssueSummaryReportQueryBuilder extends AbstractReportQuery<IssueSummaryDTO> {
+public class IssueSummaryReportQueryBuilder extends AbstractSummaryReportQuery<IssueSummaryDTO> {
 
   public IssueSummaryReportQueryBuilder(final ReportSearchParam reportSearchParam) {
     super(reportSearchParam);
@@ -22,20 +22,35 @@ import java.util.List;
 import org.everit.jira.querydsl.schema.QComponent;
 import org.everit.jira.querydsl.support.QuerydslCallable;
 import org.everit.jira.reporting.plugin.dto.PickerComponentDTO;
+import org.everit.jira.reporting.plugin.dto.PickerSearchParam;
 
+import com.querydsl.core.BooleanBuilder;
 import com.querydsl.core.types.Projections;
 import com.querydsl.sql.Configuration;
 import com.querydsl.sql.SQLQuery;
 
 /**
- * Query for gets versions to picker.
+ * Query for gets components to picker.
  */
 public class PickerComponentQuery implements QuerydslCallable<List<PickerComponentDTO>> {
 
+  private PickerSearchParam pickerSearchParam;
+
   private QComponent qComponent;
 
   public PickerComponentQuery() {
+    this(new PickerSearchParam());
+  }
+
+  /**
+   * Constructor with typeahead search param.
+   *
+   * @param pickerSearchParam
+   *          the limit and the projects of the search.
+   */
+  public PickerComponentQuery(final PickerSearchParam pickerSearchParam) {
     qComponent = new QComponent("component");
+    this.pickerSearchParam = pickerSearchParam;
   }
 
   @Override
@@ -43,17 +58,23 @@ public class PickerComponentQuery implements QuerydslCallable<List<PickerCompone
       final Configuration configuration)
           throws SQLException {
 
-    List<PickerComponentDTO> result = new SQLQuery<PickerComponentDTO>(connection, configuration)
-        .select(Projections.bean(PickerComponentDTO.class,
-            qComponent.cname.as(PickerComponentDTO.AliasNames.COMPONENT_NAME)))
-        .from(qComponent)
-        .groupBy(qComponent.cname)
-        .orderBy(qComponent.cname.asc())
-        .fetch();
-
-    result.add(0, PickerComponentDTO.createNoComponent());
+    BooleanBuilder where = new BooleanBuilder();
+    if (!pickerSearchParam.projectIds.isEmpty()) {
+      where.and(qComponent.project.in(pickerSearchParam.projectIds));
+    }
 
-    return result;
+    SQLQuery<PickerComponentDTO> query = new SQLQuery<PickerComponentDTO>(connection,
+        configuration)
+            .select(Projections.bean(PickerComponentDTO.class,
+                qComponent.cname.as(PickerComponentDTO.AliasNames.COMPONENT_NAME)))
+            .from(qComponent)
+            .where(where)
+            .groupBy(qComponent.cname)
+            .orderBy(qComponent.cname.asc());
+    if (pickerSearchParam.limit != null) {
+      query.limit(pickerSearchParam.limit);
+    }
+    return query.fetch();
   }
 
 }
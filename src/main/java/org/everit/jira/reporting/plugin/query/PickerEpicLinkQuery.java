@@ -27,9 +27,12 @@ import org.everit.jira.querydsl.schema.QJiraissue;
 import org.everit.jira.querydsl.schema.QProject;
 import org.everit.jira.querydsl.support.QuerydslCallable;
 import org.everit.jira.reporting.plugin.dto.PickerEpicLinkDTO;
+import org.everit.jira.reporting.plugin.dto.PickerSearchParam;
 import org.everit.jira.reporting.plugin.query.util.QueryUtil;
 
+import com.querydsl.core.BooleanBuilder;
 import com.querydsl.core.types.Projections;
+import com.querydsl.core.types.dsl.StringExpression;
 import com.querydsl.sql.Configuration;
 import com.querydsl.sql.SQLExpressions;
 import com.querydsl.sql.SQLQuery;
@@ -39,6 +42,8 @@ import com.querydsl.sql.SQLQuery;
  */
 public class PickerEpicLinkQuery implements QuerydslCallable<List<PickerEpicLinkDTO>> {
 
+  private PickerSearchParam pickerSearchParam;
+
   private QCustomfield qCustomfield;
 
   private QCustomfieldvalue qCustomfieldValue;
@@ -57,6 +62,17 @@ public class PickerEpicLinkQuery implements QuerydslCallable<List<PickerEpicLink
    * Simple constructor.
    */
   public PickerEpicLinkQuery() {
+    this(new PickerSearchParam());
+  }
+
+  /**
+   * Constructor with typeahead search param.
+   *
+   * @param pickerSearchParam
+   *          the limit and the projects of the search.
+   */
+  public PickerEpicLinkQuery(final PickerSearchParam pickerSearchParam) {
+    this.pickerSearchParam = pickerSearchParam;
     qIssuelink = new QIssuelink("issuelink");
     qIssuelinktype = new QIssuelinktype("issuelinktype");
     qCustomfieldValue = new QCustomfieldvalue("customfieldvalue");
@@ -71,12 +87,18 @@ public class PickerEpicLinkQuery implements QuerydslCallable<List<PickerEpicLink
       final Configuration configuration)
           throws SQLException {
 
-    List<PickerEpicLinkDTO> result = new SQLQuery<PickerEpicLinkDTO>(connection, configuration)
-        .select(Projections.bean(PickerEpicLinkDTO.class,
-            qIssue.id.as(PickerEpicLinkDTO.AliasNames.EPIC_LINK_ID),
-            qCustomfieldValue.stringvalue.as(PickerEpicLinkDTO.AliasNames.EPIC_NAME),
-            QueryUtil.createIssueKeyExpression(qIssue, qProject)
-                .as(PickerEpicLinkDTO.AliasNames.ISSUE_KEY)))
+    StringExpression issueKey = QueryUtil.createIssueKeyExpression(qIssue, qProject);
+    BooleanBuilder where = new BooleanBuilder();
+    if (!pickerSearchParam.projectIds.isEmpty()) {
+      where.and(qIssue.project.in(pickerSearchParam.projectIds));
+    }
+
+    SQLQuery<PickerEpicLinkDTO> query = new SQLQuery<PickerEpicLinkDTO>(connection,
+        configuration)
+            .select(Projections.bean(PickerEpicLinkDTO.class,
+                qIssue.id.as(PickerEpicLinkDTO.AliasNames.EPIC_LINK_ID),
+                qCustomfieldValue.stringvalue.as(PickerEpicLinkDTO.AliasNames.EPIC_NAME),
+                issueKey.as(PickerEpicLinkDTO.AliasNames.ISSUE_KEY)))
         .from(qIssue)
         .innerJoin(qProject).on(qProject.id.eq(qIssue.project))
         .innerJoin(qCustomfieldValue).on(qCustomfieldValue.issue.eq(qIssue.id))
@@ -88,11 +110,13 @@ public class PickerEpicLinkQuery implements QuerydslCallable<List<PickerEpicLink
             .innerJoin(qIssuelinktype).on(qIssuelinktype.id.eq(qIssuelink.linktype)
                 .and(qIssuelinktype.linkname.eq("Epic-Story Link")))
             .where(qSubIssue.id.eq(qIssue.id))
-            .exists())
-        .orderBy(qCustomfieldValue.stringvalue.asc())
-        .fetch();
-
-    return result;
+            .exists(),
+            where)
+        .orderBy(qCustomfieldValue.stringvalue.asc());
+    if (pickerSearchParam.limit != null) {
+      query.limit(pickerSearchParam.limit);
+    }
+    return query.fetch();
   }
 
 }
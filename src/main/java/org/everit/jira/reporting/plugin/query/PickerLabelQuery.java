@@ -19,10 +19,13 @@ import java.sql.Connection;
 import java.sql.SQLException;
 import java.util.List;
 
+import org.everit.jira.querydsl.schema.QJiraissue;
 import org.everit.jira.querydsl.schema.QLabel;
 import org.everit.jira.querydsl.support.QuerydslCallable;
 import org.everit.jira.reporting.plugin.dto.PickerLabelDTO;
+import org.everit.jira.reporting.plugin.dto.PickerSearchParam;
 
+import com.querydsl.core.BooleanBuilder;
 import com.querydsl.core.types.Projections;
 import com.querydsl.sql.Configuration;
 import com.querydsl.sql.SQLQuery;
@@ -32,25 +35,49 @@ import com.querydsl.sql.SQLQuery;
  */
 public class PickerLabelQuery implements QuerydslCallable<List<PickerLabelDTO>> {
 
+  private PickerSearchParam pickerSearchParam;
+
+  private QJiraissue qIssue;
+
   private QLabel qLabel;
 
   public PickerLabelQuery() {
+    this(new PickerSearchParam());
+  }
+
+  /**
+   * Constructor with typeahead search param.
+   *
+   * @param pickerSearchParam
+   *          the limit and the projects of the search.
+   */
+  public PickerLabelQuery(final PickerSearchParam pickerSearchParam) {
     qLabel = new QLabel("label");
+    qIssue = new QJiraissue("issue");
+    this.pickerSearchParam = pickerSearchParam;
   }
 
   @Override
   public List<PickerLabelDTO> call(final Connection connection, final Configuration configuration)
       throws SQLException {
 
-    List<PickerLabelDTO> result = new SQLQuery<PickerLabelDTO>(connection, configuration)
+    SQLQuery<PickerLabelDTO> query = new SQLQuery<PickerLabelDTO>(connection, configuration)
         .select(Projections.bean(PickerLabelDTO.class,
             qLabel.label.as(PickerLabelDTO.AliasNames.LABEL_NAME)))
-        .from(qLabel)
-        .groupBy(qLabel.label)
-        .orderBy(qLabel.label.asc())
-        .fetch();
+        .from(qLabel);
 
-    return result;
+    BooleanBuilder where = new BooleanBuilder();
+    if (!pickerSearchParam.projectIds.isEmpty()) {
+      query.innerJoin(qIssue).on(qIssue.id.eq(qLabel.issue));
+      where.and(qIssue.project.in(pickerSearchParam.projectIds));
+    }
+    query.where(where)
+        .groupBy(qLabel.label)
+        .orderBy(qLabel.label.asc());
+    if (pickerSearchParam.limit != null) {
+      query.limit(pickerSearchParam.limit);
+    }
+    return query.fetch();
   }
 
 }
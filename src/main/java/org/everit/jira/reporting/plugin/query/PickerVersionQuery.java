@@ -21,8 +21,10 @@ import java.util.List;
 
 import org.everit.jira.querydsl.schema.QProjectversion;
 import org.everit.jira.querydsl.support.QuerydslCallable;
+import org.everit.jira.reporting.plugin.dto.PickerSearchParam;
 import org.everit.jira.reporting.plugin.dto.PickerVersionDTO;
 
+import com.querydsl.core.BooleanBuilder;
 import com.querydsl.core.types.Projections;
 import com.querydsl.sql.Configuration;
 import com.querydsl.sql.SQLQuery;
@@ -60,35 +62,45 @@ public class PickerVersionQuery implements QuerydslCallable<List<PickerVersionDT
     }
   }
 
-  private PickerVersionQueryType pickerVersionQueryType;
+  private PickerSearchParam pickerSearchParam;
 
   private QProjectversion qProjectversion;
 
-  public PickerVersionQuery(final PickerVersionQueryType pickerVersionQueryType) {
+  public PickerVersionQuery() {
+    this(new PickerSearchParam());
+  }
+
+  /**
+   * Constructor with typeahead search param.
+   *
+   * @param pickerSearchParam
+   *          the limit and the projects of the search.
+   */
+  public PickerVersionQuery(final PickerSearchParam pickerSearchParam) {
     qProjectversion = new QProjectversion("p_version");
-    this.pickerVersionQueryType = pickerVersionQueryType;
+    this.pickerSearchParam = pickerSearchParam;
   }
 
   @Override
   public List<PickerVersionDTO> call(final Connection connection, final Configuration configuration)
       throws SQLException {
 
-    List<PickerVersionDTO> result = new SQLQuery<PickerVersionDTO>(connection, configuration)
+    BooleanBuilder where = new BooleanBuilder();
+    if (!pickerSearchParam.projectIds.isEmpty()) {
+      where.and(qProjectversion.project.in(pickerSearchParam.projectIds));
+    }
+
+    SQLQuery<PickerVersionDTO> query = new SQLQuery<PickerVersionDTO>(connection, configuration)
         .select(Projections.bean(PickerVersionDTO.class,
             qProjectversion.vname.as(PickerVersionDTO.AliasNames.VERSION_NAME)))
         .from(qProjectversion)
+        .where(where)
         .groupBy(qProjectversion.vname)
-        .orderBy(qProjectversion.vname.asc())
-        .fetch();
-
-    if (PickerVersionQueryType.AFFECTED_VERSION.equals(pickerVersionQueryType)) {
-      result.add(0, PickerVersionDTO.createNoVersion());
-    } else if (PickerVersionQueryType.FIX_VERSION.equals(pickerVersionQueryType)) {
-      result.add(0, PickerVersionDTO.createUnReleasedVersion());
-      result.add(0, PickerVersionDTO.createReleasedVersion());
-      result.add(0, PickerVersionDTO.createNoVersion());
+        .orderBy(qProjectversion.vname.asc());
+    if (pickerSearchParam.limit != null) {
+      query.limit(pickerSearchParam.limit);
     }
-    return result;
+    return query.fetch();
   }
 
 }
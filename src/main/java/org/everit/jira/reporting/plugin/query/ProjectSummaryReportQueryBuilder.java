@@ -17,19 +17,25 @@ package org.everit.jira.reporting.plugin.query;
 
 import java.sql.Connection;
 import java.sql.SQLException;
+import java.util.ArrayList;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 import org.everit.jira.querydsl.schema.QProject;
 import org.everit.jira.querydsl.support.QuerydslCallable;
 import org.everit.jira.reporting.plugin.dto.ProjectSummaryDTO;
 import org.everit.jira.reporting.plugin.dto.ReportSearchParam;
+import org.everit.jira.timetracker.plugin.dto.ChartData;
+import org.everit.jira.timetracker.plugin.util.DateTimeConverterUtil;
 
 import com.querydsl.core.Tuple;
 import com.querydsl.core.types.PathMetadata;
 import com.querydsl.core.types.PathType;
 import com.querydsl.core.types.Projections;
 import com.querydsl.core.types.dsl.Expressions;
+import com.querydsl.core.types.dsl.NumberExpression;
 import com.querydsl.core.types.dsl.NumberPath;
 import com.querydsl.sql.Configuration;
 import com.querydsl.sql.SQLExpressions;
@@ -38,12 +44,93 @@ import com.querydsl.sql.SQLQuery;
 /**
  * Queries for project summary report.
  */
-public class ProjectSummaryReportQueryBuilder extends AbstractReportQuery<ProjectSummaryDTO> {
+public class ProjectSummaryReportQueryBuilder
+    extends AbstractSummaryReportQuery<ProjectSummaryDTO> {
+
+  private static long toMilliseconds(final Long worklogged) {
+    return worklogged == null
+        ? 0L
+        : worklogged * DateTimeConverterUtil.MILLISECONDS_PER_SECOND;
+  }
 
   public ProjectSummaryReportQueryBuilder(final ReportSearchParam reportSearchParam) {
     super(reportSearchParam);
   }
 
+  /**
+   * Build the query of the chart data. The worklogged time is summed per project in the database,
+   * so the query returns one row per project instead of every worklog. Only the issues without
+   * issue security level are summed, the secured issues are selected by the
+   * {@link #buildSecuredIssueChartDataQuery()}.
+   *
+   * @return the {@link ChartData} list ordered by the project key. The durations are in
+   *         milliseconds.
+   */
+  public QuerydslCallable<List<ChartData>> buildChartDataQuery() {
+    return new QuerydslCallable<List<ChartData>>() {
+      @Override
+      public List<ChartData> call(final Connection connection,
+          final Configuration configuration) throws SQLException {
+        if (reportSearchParam.groupsHasNoMembers) {
+          return Collections.emptyList();
+        }
+        NumberExpression<Long> workloggedSum = qWorklog.timeworked.sum();
+
+        SQLQuery<Tuple> query = new SQLQuery<Tuple>(connection, configuration)
+            .select(qProject.pkey, workloggedSum);
+
+        appendBaseFromAndJoin(query);
+        appendBaseWhere(query);
+        query.where(qIssue.security.isNull())
+            .groupBy(qProject.id, qProject.pkey)
+            .orderBy(qProject.pkey.asc());
+
+        List<ChartData> result = new ArrayList<>();
+        for (Tuple tuple : query.fetch()) {
+          result.add(new ChartData(tuple.get(qProject.pkey),
+              toMilliseconds(tuple.get(workloggedSum))));
+        }
+        return result;
+      }
+    };
+  }
+
+  /**
+   * Build the query of the chart data of the issues with issue security level. The worklogged time
+   * is summed per issue, so the browse permission of the logged user can be checked per issue
+   * before the sums are added to the chart.
+   *
+   * @return the {@link ChartData} of the secured issues by the issue ids. The durations are in
+   *         milliseconds.
+   */
+  public QuerydslCallable<Map<Long, ChartData>> buildSecuredIssueChartDataQuery() {
+    return new QuerydslCallable<Map<Long, ChartData>>() {
+      @Override
+      public Map<Long, ChartData> call(final Connection connection,
+          final Configuration configuration) throws SQLException {
+        if (reportSearchParam.groupsHasNoMembers) {
+          return Collections.emptyMap();
+        }
+        NumberExpression<Long> workloggedSum = qWorklog.timeworked.sum();
+
+        SQLQuery<Tuple> query = new SQLQuery<Tuple>(connection, configuration)
+            .select(qIssue.id, qProject.pkey, workloggedSum);
+
+        appendBaseFromAndJoin(query);
+        appendBaseWhere(query);
+        query.where(qIssue.security.isNotNull())
+            .groupBy(qIssue.id, qProject.pkey);
+
+        Map<Long, ChartData> result = new HashMap<>();
+        for (Tuple tuple : query.fetch()) {
+          result.put(tuple.get(qIssue.id), new ChartData(tuple.get(qProject.pkey),
+              toMilliseconds(tuple.get(workloggedSum))));
+        }
+        return result;
+      }
+    };
+  }
+
   @Override
   protected QuerydslCallable<Long> getCountQuery() {
     return new QuerydslCallable<Long>() {
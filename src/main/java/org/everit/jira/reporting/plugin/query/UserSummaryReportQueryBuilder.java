@@ -39,7 +39,7 @@ import com.querydsl.sql.SQLQuery;
 /**
  * Queries for user summary report.
  */
-public class UserSummaryReportQueryBuilder extends AbstractReportQuery<UserSummaryDTO> {
+public class UserSummaryReportQueryBuilder extends AbstractSummaryReportQuery<UserSummaryDTO> {
 
   public UserSummaryReportQueryBuilder(final ReportSearchParam reportSearchParam) {
     super(reportSearchParam);
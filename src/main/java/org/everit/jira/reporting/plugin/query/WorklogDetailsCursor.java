@@ -0,0 +1,218 @@
+/*
+ * Copyright (C) 2011 Everit Kft. (http://www.everit.org)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.everit.jira.reporting.plugin.query;
+
+import java.nio.charset.StandardCharsets;
+import java.sql.Timestamp;
+
+/**
+ * The keyset (seek) position of a worklog details page. Contains the order column value and the
+ * worklog id of the first or the last row of a page. The token form is hexadecimal, so it can be
+ * used in URLs and in HTML attributes without escaping.
+ */
+public final class WorklogDetailsCursor {
+
+  private static final int HEX_RADIX = 16;
+
+  private static final char ISSUE_KEY_SEPARATOR = '-';
+
+  private static final int MAX_NANOS = 999999999;
+
+  private static final String SEPARATOR = "~";
+
+  private static final String TIMESTAMP_SEPARATOR = ":";
+
+  private static final int TOKEN_PARTS = 5;
+
+  private static final int VALUE_INDEX = 4;
+
+  private static final int WORKLOG_ID_INDEX = 3;
+
+  /**
+   * Parses the token.
+   *
+   * @param token
+   *          the token created by {@link #toToken()}.
+   * @return the cursor or <code>null</code> if the token is <code>null</code> or not valid.
+   */
+  public static WorklogDetailsCursor parse(final String token) {
+    if ((token == null) || token.isEmpty() || ((token.length() % 2) != 0)) {
+      return null;
+    }
+    byte[] bytes = new byte[token.length() / 2];
+    for (int i = 0; i < bytes.length; i++) {
+      int high = Character.digit(token.charAt(i * 2), HEX_RADIX);
+      int low = Character.digit(token.charAt((i * 2) + 1), HEX_RADIX);
+      if ((high < 0) || (low < 0)) {
+        return null;
+      }
+      bytes[i] = (byte) ((high << 4) + low);
+    }
+    String[] parts = new String(bytes, StandardCharsets.UTF_8).split(SEPARATOR, TOKEN_PARTS);
+    if (parts.length != TOKEN_PARTS) {
+      return null;
+    }
+    try {
+      return new WorklogDetailsCursor("N".equals(parts[0]), parts[1], "ASC".equals(parts[2]),
+          Long.parseLong(parts[WORKLOG_ID_INDEX]), parts[VALUE_INDEX]);
+    } catch (NumberFormatException e) {
+      return null;
+    }
+  }
+
+  /**
+   * Creates the cursor value of a timestamp order column. The value keeps the nanoseconds, so the
+   * seek condition compares the same value that the database returned.
+   *
+   * @param timestamp
+   *          the column value of the row.
+   * @return the value in string form or <code>null</code> if the timestamp is <code>null</code>.
+   */
+  public static String toTimestampValue(final Timestamp timestamp) {
+    if (timestamp == null) {
+      return null;
+    }
+    return timestamp.getTime() + TIMESTAMP_SEPARATOR + timestamp.getNanos();
+  }
+
+  private final boolean asc;
+
+  private final String columnName;
+
+  private final boolean next;
+
+  private final String value;
+
+  private final long worklogId;
+
+  /**
+   * Simple constructor.
+   *
+   * @param next
+   *          <code>true</code> if the cursor points to the next page (after the last row),
+   *          <code>false</code> if it points to the previous page (before the first row).
+   * @param columnName
+   *          the name of the order column.
+   * @param asc
+   *          the order is ascending or not.
+   * @param worklogId
+   *          the worklog id of the row.
+   * @param value
+   *          the order column value of the row in string form.
+   */
+  public WorklogDetailsCursor(final boolean next, final String columnName, final boolean asc,
+      final long worklogId, final String value) {
+    this.next = next;
+    this.columnName = columnName;
+    this.asc = asc;
+    this.worklogId = worklogId;
+    this.value = value;
+  }
+
+  public String getColumnName() {
+    return columnName;
+  }
+
+  /**
+   * Gives back the issue number of an issue key order column value.
+   *
+   * @return the issue number or <code>null</code> if the value is not an issue key.
+   */
+  public Long getIssueNumValue() {
+    int separatorIndex = value.lastIndexOf(ISSUE_KEY_SEPARATOR);
+    if (separatorIndex <= 0) {
+      return null;
+    }
+    String issueNum = value.substring(separatorIndex + 1);
+    if (issueNum.isEmpty() || !Character.isDigit(issueNum.charAt(0))) {
+      return null;
+    }
+    try {
+      return Long.valueOf(issueNum);
+    } catch (NumberFormatException e) {
+      return null;
+    }
+  }
+
+  /**
+   * Gives back the project key of an issue key order column value.
+   *
+   * @return the project key or <code>null</code> if the value is not an issue key.
+   */
+  public String getProjectKeyValue() {
+    if (getIssueNumValue() == null) {
+      return null;
+    }
+    return value.substring(0, value.lastIndexOf(ISSUE_KEY_SEPARATOR));
+  }
+
+  /**
+   * Gives back the value of a timestamp order column.
+   *
+   * @return the timestamp or <code>null</code> if the value is not created by
+   *         {@link #toTimestampValue(Timestamp)}.
+   */
+  public Timestamp getTimestampValue() {
+    String[] millisAndNanos = value.split(TIMESTAMP_SEPARATOR, -1);
+    if (millisAndNanos.length != 2) {
+      return null;
+    }
+    try {
+      long millis = Long.parseLong(millisAndNanos[0]);
+      int nanos = Integer.parseInt(millisAndNanos[1]);
+      if ((nanos < 0) || (nanos > MAX_NANOS)) {
+        return null;
+      }
+      Timestamp timestamp = new Timestamp(millis);
+      timestamp.setNanos(nanos);
+      return timestamp;
+    } catch (NumberFormatException e) {
+      return null;
+    }
+  }
+
+  public String getValue() {
+    return value;
+  }
+
+  public long getWorklogId() {
+    return worklogId;
+  }
+
+  public boolean isAsc() {
+    return asc;
+  }
+
+  public boolean isNext() {
+    return next;
+  }
+
+  /**
+   * Creates the token form of the cursor.
+   */
+  public String toToken() {
+    String plain = (next ? "N" : "P") + SEPARATOR + columnName + SEPARATOR
+        + (asc ? "ASC" : "DESC") + SEPARATOR + worklogId + SEPARATOR + value;
+    byte[] bytes = plain.getBytes(StandardCharsets.UTF_8);
+    StringBuilder sb = new StringBuilder(bytes.length * 2);
+    for (byte b : bytes) {
+      sb.append(Character.forDigit((b >> 4) & 0xF, HEX_RADIX))
+          .append(Character.forDigit(b & 0xF, HEX_RADIX));
+    }
+    return sb.toString();
+  }
+
+}
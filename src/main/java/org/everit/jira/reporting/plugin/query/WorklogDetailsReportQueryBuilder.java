@@ -17,14 +17,16 @@ package org.everit.jira.reporting.plugin.query;
 
 import java.sql.Connection;
 import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.ConcurrentSkipListSet;
 
 import org.everit.jira.querydsl.schema.QComponent;
-import org.everit.jira.querydsl.schema.QCustomfield;
 import org.everit.jira.querydsl.schema.QCustomfieldvalue;
 import org.everit.jira.querydsl.schema.QIssuelink;
 import org.everit.jira.querydsl.schema.QIssuelinktype;
@@ -36,26 +38,33 @@ import org.everit.jira.reporting.plugin.column.WorklogDetailsColumns;
 import org.everit.jira.reporting.plugin.dto.OrderBy;
 import org.everit.jira.reporting.plugin.dto.ReportSearchParam;
 import org.everit.jira.reporting.plugin.dto.WorklogDetailsDTO;
+import org.everit.jira.reporting.plugin.dto.WorklogDetailsTotalsDTO;
+import org.everit.jira.reporting.plugin.query.util.EpicNameCustomFieldCache;
 import org.everit.jira.reporting.plugin.query.util.QueryUtil;
 
 import com.atlassian.jira.entity.Entity;
 import com.atlassian.jira.issue.IssueRelationConstants;
+import com.querydsl.core.Tuple;
 import com.querydsl.core.group.GroupBy;
 import com.querydsl.core.types.Expression;
 import com.querydsl.core.types.Order;
 import com.querydsl.core.types.OrderSpecifier;
+import com.querydsl.core.types.Path;
 import com.querydsl.core.types.PathMetadata;
 import com.querydsl.core.types.PathType;
 import com.querydsl.core.types.Projections;
 import com.querydsl.core.types.QBean;
 import com.querydsl.core.types.dsl.BooleanExpression;
 import com.querydsl.core.types.dsl.CaseBuilder;
+import com.querydsl.core.types.dsl.ComparableExpression;
 import com.querydsl.core.types.dsl.Expressions;
+import com.querydsl.core.types.dsl.NumberExpression;
 import com.querydsl.core.types.dsl.NumberPath;
 import com.querydsl.core.types.dsl.SimpleExpression;
 import com.querydsl.core.types.dsl.StringExpression;
+import com.querydsl.core.types.dsl.StringPath;
+import com.querydsl.core.types.dsl.Wildcard;
 import com.querydsl.sql.Configuration;
-import com.querydsl.sql.SQLExpressions;
 import com.querydsl.sql.SQLQuery;
 
 /**
@@ -63,9 +72,18 @@ import com.querydsl.sql.SQLQuery;
  */
 public class WorklogDetailsReportQueryBuilder extends AbstractReportQuery<WorklogDetailsDTO> {
 
-  private SimpleExpression<String> epicLink;
+  /**
+   * The issue id column of the {@link #selectEpics} query.
+   */
+  private static final NumberPath<Long> EPIC_ISSUE_ID =
+      Expressions.numberPath(Long.class, "epicIssueId");
+
+  private static final String EPIC_STORY_LINK = "Epic-Story Link";
 
-  private SimpleExpression<String> epicName;
+  /**
+   * The epic name column of the {@link #selectEpics} query.
+   */
+  private static final StringPath EPIC_VALUE = Expressions.stringPath("epicValue");
 
   private SimpleExpression<String> issueAssigneeExpression;
 
@@ -73,11 +91,46 @@ public class WorklogDetailsReportQueryBuilder extends AbstractReportQuery<Worklo
 
   private SimpleExpression<String> issueReporterExpression;
 
+  private String nextCursor;
+
   private OrderBy orderBy;
 
   private HashMap<String, Expression<?>> orderByMap;
 
-  private QCustomfieldvalue qCustomfieldValue = new QCustomfieldvalue("customfieldvalue");
+  /**
+   * The derived table of the epic names. Joined only if the result is ordered by an epic column.
+   */
+  private Path<Object> orderEpics = Expressions.path(Object.class, "orderEpics");
+
+  /**
+   * The derived table of the user display names. Joined only if the result is ordered by a user
+   * column.
+   */
+  private Path<Object> orderUserDisplayNames = Expressions.path(Object.class, "orderUserNames");
+
+  private String prevCursor;
+
+  /**
+   * The second order columns of the orders that are stored in two columns. The issue key is
+   * ordered by the project key and the issue number, so an index of the columns can serve the
+   * order and the seek instead of the concatenated key.
+   */
+  private HashMap<String, Expression<?>> secondaryOrderByMap;
+
+  /**
+   * The seekable order columns with string values. These columns cannot be null.
+   */
+  private HashMap<String, ComparableExpression<String>> stringKeysetMap;
+
+  /**
+   * The seekable order columns with timestamp values. These columns cannot be null.
+   */
+  private HashMap<String, ComparableExpression<Timestamp>> timestampKeysetMap;
+
+  /**
+   * The user key columns of the orders by user display name.
+   */
+  private HashMap<String, StringPath> userOrderByMap;
 
   private SimpleExpression<String> worklogAuthorExpression;
 
@@ -92,8 +145,6 @@ public class WorklogDetailsReportQueryBuilder extends AbstractReportQuery<Worklo
   public WorklogDetailsReportQueryBuilder(final ReportSearchParam reportSearchParam,
       final OrderBy orderBy) {
     super(reportSearchParam);
-    epicLink = epicLinkExpression();
-    epicName = epicNameExpression();
 
     if (orderBy != null) {
       this.orderBy = orderBy;
@@ -103,6 +154,54 @@ public class WorklogDetailsReportQueryBuilder extends AbstractReportQuery<Worklo
 
     createExpressions();
     createOrderByMap();
+    createKeysetMaps();
+  }
+
+  /**
+   * Build the query of the worklog count and the grand total. Both totals are calculated by one
+   * aggregate statement over the same filter as the page query.
+   */
+  public QuerydslCallable<WorklogDetailsTotalsDTO> buildTotalsQuery() {
+    if (((reportSearchParam.issueKeys == null) && (reportSearchParam.issueIds == null))
+        || reportSearchParam.groupsHasNoMembers) {
+      return new QuerydslCallable<WorklogDetailsTotalsDTO>() {
+        @Override
+        public WorklogDetailsTotalsDTO call(final Connection connection,
+            final Configuration configuration) throws SQLException {
+          return new WorklogDetailsTotalsDTO();
+        }
+      };
+    }
+    return new QuerydslCallable<WorklogDetailsTotalsDTO>() {
+      @Override
+      public WorklogDetailsTotalsDTO call(final Connection connection,
+          final Configuration configuration) throws SQLException {
+        NumberPath<Long> worklogTimeSumPath = Expressions.numberPath(Long.class,
+            new PathMetadata(null, "worklogTimeSum", PathType.VARIABLE));
+
+        SQLQuery<Long> fromQuery = new SQLQuery<Long>(connection, configuration)
+            .select(qWorklog.timeworked.sum().as(worklogTimeSumPath));
+
+        appendBaseFromAndJoin(fromQuery);
+        appendBaseWhere(fromQuery);
+        fromQuery.groupBy(qWorklog.id);
+
+        NumberExpression<Long> grandTotalExpression = worklogTimeSumPath.sum();
+        Tuple totals = new SQLQuery<Tuple>(connection, configuration)
+            .select(Wildcard.count, grandTotalExpression)
+            .from(fromQuery.as("fromTotals"))
+            .fetchOne();
+
+        WorklogDetailsTotalsDTO result = new WorklogDetailsTotalsDTO();
+        if (totals != null) {
+          Long count = totals.get(Wildcard.count);
+          Long grandTotal = totals.get(grandTotalExpression);
+          result.worklogDetailsCount(count == null ? Long.valueOf(0L) : count)
+              .grandTotal(grandTotal == null ? Long.valueOf(0L) : grandTotal);
+        }
+        return result;
+      }
+    };
   }
 
   private ConcurrentSkipListSet<Long> collectIssueIds(final List<WorklogDetailsDTO> result) {
@@ -113,50 +212,150 @@ public class WorklogDetailsReportQueryBuilder extends AbstractReportQuery<Worklo
     return issueIds;
   }
 
+  private void createCursors(final String columnName, final boolean asc,
+      final List<WorklogDetailsDTO> result) {
+    nextCursor = null;
+    prevCursor = null;
+    if (result.isEmpty()) {
+      return;
+    }
+    WorklogDetailsDTO first = result.get(0);
+    WorklogDetailsDTO last = result.get(result.size() - 1);
+    String firstValue = getKeysetValue(columnName, first);
+    String lastValue = getKeysetValue(columnName, last);
+    if ((firstValue != null) && (first.getWorklogId() != null)) {
+      prevCursor = new WorklogDetailsCursor(false, columnName, asc, first.getWorklogId(),
+          firstValue).toToken();
+    }
+    if ((lastValue != null) && (last.getWorklogId() != null)) {
+      nextCursor = new WorklogDetailsCursor(true, columnName, asc, last.getWorklogId(),
+          lastValue).toToken();
+    }
+  }
+
+  /**
+   * Creates the expressions of the user columns. The user keys are selected and the display names
+   * are resolved after the fetch (see {@link #resolveUserDisplayNames}), so there is no subquery
+   * per result row.
+   */
   private void createExpressions() {
     issueKey = QueryUtil.createIssueKeyExpression(qIssue, qProject);
 
-    issueAssigneeExpression = new CaseBuilder()
-        .when(QueryUtil.selectDisplayNameForUserExist(qIssue.assignee))
-        .then(QueryUtil.selectDisplayNameForUserByUserKey(qIssue.assignee))
-        .otherwise(qIssue.assignee)
-        .as(WorklogDetailsDTO.AliasNames.ISSUE_ASSIGNEE);
-
-    issueReporterExpression = new CaseBuilder()
-        .when(QueryUtil.selectDisplayNameForUserExist(qIssue.reporter))
-        .then(QueryUtil.selectDisplayNameForUserByUserKey(qIssue.reporter))
-        .otherwise(qIssue.reporter)
-        .as(WorklogDetailsDTO.AliasNames.ISSUE_REPORTER);
-
-    worklogAuthorExpression = new CaseBuilder()
-        .when(QueryUtil.selectDisplayNameForUserExist(qWorklog.author))
-        .then(QueryUtil.selectDisplayNameForUserByUserKey(qWorklog.author))
-        .otherwise(qWorklog.author)
-        .as(WorklogDetailsDTO.AliasNames.WORKLOG_USER);
+    issueAssigneeExpression = qIssue.assignee.as(WorklogDetailsDTO.AliasNames.ISSUE_ASSIGNEE);
+
+    issueReporterExpression = qIssue.reporter.as(WorklogDetailsDTO.AliasNames.ISSUE_REPORTER);
+
+    worklogAuthorExpression = qWorklog.author.as(WorklogDetailsDTO.AliasNames.WORKLOG_USER);
+  }
+
+  /**
+   * Creates the seek condition of the issue key order. The leading range condition of the project
+   * key lets the database seek in an index of the project key.
+   */
+  private BooleanExpression createIssueKeyKeysetCondition(final WorklogDetailsCursor cursor,
+      final boolean after) {
+    String projectKey = cursor.getProjectKeyValue();
+    Long issueNum = cursor.getIssueNumValue();
+    long worklogId = cursor.getWorklogId();
+    if (after) {
+      return qProject.pkey.goe(projectKey)
+          .and(qProject.pkey.gt(projectKey)
+              .or(qIssue.issuenum.gt(issueNum))
+              .or(qIssue.issuenum.eq(issueNum).and(qWorklog.id.gt(worklogId))));
+    }
+    return qProject.pkey.loe(projectKey)
+        .and(qProject.pkey.lt(projectKey)
+            .or(qIssue.issuenum.lt(issueNum))
+            .or(qIssue.issuenum.eq(issueNum).and(qWorklog.id.lt(worklogId))));
+  }
+
+  /**
+   * Creates the seek condition of the cursor. The worklog id is the tiebreaker of the equal order
+   * column values. The issue key is compared by the project key and the issue number.
+   */
+  private BooleanExpression createKeysetCondition(final WorklogDetailsCursor cursor) {
+    boolean after = cursor.isAsc() == cursor.isNext();
+    String columnName = cursor.getColumnName();
+    if (WorklogDetailsColumns.ISSUE_KEY.equals(columnName)) {
+      return createIssueKeyKeysetCondition(cursor, after);
+    }
+    ComparableExpression<Timestamp> timestampExpression = timestampKeysetMap.get(columnName);
+    if (timestampExpression != null) {
+      return createKeysetCondition(timestampExpression, cursor.getTimestampValue(),
+          cursor.getWorklogId(), after);
+    }
+    return createKeysetCondition(stringKeysetMap.get(columnName), cursor.getValue(),
+        cursor.getWorklogId(), after);
+  }
+
+  private <V extends Comparable<?>> BooleanExpression createKeysetCondition(
+      final ComparableExpression<V> expression, final V value, final long worklogId,
+      final boolean after) {
+    if (after) {
+      return expression.gt(value)
+          .or(expression.eq(value).and(qWorklog.id.gt(worklogId)));
+    }
+    return expression.lt(value)
+        .or(expression.eq(value).and(qWorklog.id.lt(worklogId)));
+  }
+
+  private void createKeysetMaps() {
+    stringKeysetMap = new HashMap<>();
+    stringKeysetMap.put(WorklogDetailsColumns.ISSUE_KEY, qProject.pkey);
+    stringKeysetMap.put(WorklogDetailsColumns.PROJECT, qProject.pname);
+
+    timestampKeysetMap = new HashMap<>();
+    timestampKeysetMap.put(WorklogDetailsColumns.CREATED, qIssue.created);
+    timestampKeysetMap.put(WorklogDetailsColumns.START_TIME, qWorklog.startdate);
+    timestampKeysetMap.put(WorklogDetailsColumns.UPDATED, qIssue.updated);
+    timestampKeysetMap.put(WorklogDetailsColumns.WORKLOG_CREATED, qWorklog.created);
+    timestampKeysetMap.put(WorklogDetailsColumns.WORKLOG_UPDATED, qWorklog.updated);
   }
 
   private void createOrderByMap() {
+    userOrderByMap = new HashMap<>();
+    userOrderByMap.put(WorklogDetailsColumns.ASSIGNEE, qIssue.assignee);
+    userOrderByMap.put(WorklogDetailsColumns.REPORTER, qIssue.reporter);
+    userOrderByMap.put(WorklogDetailsColumns.USER, qWorklog.author);
+
+    StringPath orderDisplayName = Expressions.stringPath(orderUserDisplayNames,
+        QueryUtil.DISPLAY_NAME.getMetadata().getName());
+
     orderByMap = new HashMap<>();
-    orderByMap.put(WorklogDetailsColumns.ASSIGNEE, issueAssigneeExpression);
+    orderByMap.put(WorklogDetailsColumns.ASSIGNEE, new CaseBuilder()
+        .when(orderDisplayName.isNotNull())
+        .then(orderDisplayName)
+        .otherwise(qIssue.assignee));
     orderByMap.put(WorklogDetailsColumns.CREATED, qIssue.created);
     orderByMap.put(WorklogDetailsColumns.ESTIMATED, qIssue.timeoriginalestimate);
-    orderByMap.put(WorklogDetailsColumns.ISSUE_KEY, issueKey);
+    orderByMap.put(WorklogDetailsColumns.ISSUE_KEY, qProject.pkey);
     orderByMap.put(WorklogDetailsColumns.ISSUE_SUMMARY, qIssue.summary);
     orderByMap.put(WorklogDetailsColumns.PRIORITY, qPriority.sequence);
     orderByMap.put(WorklogDetailsColumns.PROJECT, qProject.pname);
     orderByMap.put(WorklogDetailsColumns.REMAINING, qIssue.timeestimate);
-    orderByMap.put(WorklogDetailsColumns.REPORTER, issueReporterExpression);
+    orderByMap.put(WorklogDetailsColumns.REPORTER, new CaseBuilder()
+        .when(orderDisplayName.isNotNull())
+        .then(orderDisplayName)
+        .otherwise(qIssue.reporter));
     orderByMap.put(WorklogDetailsColumns.RESOLUTION, qResolution.sequence);
     orderByMap.put(WorklogDetailsColumns.START_TIME, qWorklog.startdate);
     orderByMap.put(WorklogDetailsColumns.STATUS, qIssuestatus.sequence);
     orderByMap.put(WorklogDetailsColumns.TIME_SPENT, qWorklog.timeworked);
     orderByMap.put(WorklogDetailsColumns.TYPE, qIssuetype.sequence);
     orderByMap.put(WorklogDetailsColumns.UPDATED, qIssue.updated);
-    orderByMap.put(WorklogDetailsColumns.USER, worklogAuthorExpression);
+    orderByMap.put(WorklogDetailsColumns.USER, new CaseBuilder()
+        .when(orderDisplayName.isNotNull())
+        .then(orderDisplayName)
+        .otherwise(qWorklog.author));
     orderByMap.put(WorklogDetailsColumns.WORKLOG_CREATED, qWorklog.created);
     orderByMap.put(WorklogDetailsColumns.WORKLOG_UPDATED, qWorklog.updated);
-    orderByMap.put(WorklogDetailsColumns.ISSUE_EPIC_NAME, epicName);
-    orderByMap.put(WorklogDetailsColumns.ISSUE_EPIC_LINK, epicLink);
+    StringPath orderEpicValue =
+        Expressions.stringPath(orderEpics, EPIC_VALUE.getMetadata().getName());
+    orderByMap.put(WorklogDetailsColumns.ISSUE_EPIC_NAME, orderEpicValue);
+    orderByMap.put(WorklogDetailsColumns.ISSUE_EPIC_LINK, orderEpicValue);
+
+    secondaryOrderByMap = new HashMap<>();
+    secondaryOrderByMap.put(WorklogDetailsColumns.ISSUE_KEY, qIssue.issuenum);
   }
 
   private QBean<WorklogDetailsDTO> createQuerySelectProjection() {
@@ -185,42 +384,23 @@ public class WorklogDetailsReportQueryBuilder extends AbstractReportQuery<Worklo
         qWorklog.startdate.as(WorklogDetailsDTO.AliasNames.WORKLOG_START_DATE),
         qWorklog.created.as(WorklogDetailsDTO.AliasNames.WORKLOG_CREATED),
         qWorklog.updated.as(WorklogDetailsDTO.AliasNames.WORKLOG_UPDATED),
-        worklogAuthorExpression,
-        epicLink,
-        epicName);
-
-  }
-
-  private SimpleExpression<String> epicLinkExpression() {
-    QIssuelink qIssueLink = new QIssuelink("issueLink");
-    return epicProjection(qIssueLink.destination.eq(qIssue.id), qIssueLink)
-        .as(WorklogDetailsDTO.AliasNames.ISSUE_EPIC_LINK);
-  }
+        qWorklog.id.as(WorklogDetailsDTO.AliasNames.WORKLOG_ID),
+        worklogAuthorExpression);
 
-  private SimpleExpression<String> epicNameExpression() {
-    QIssuelink qIssueLink = new QIssuelink("issueLink");
-    return epicProjection(qIssueLink.source.eq(qIssue.id), qIssueLink)
-        .as(WorklogDetailsDTO.AliasNames.ISSUE_EPIC_NAME);
   }
 
-  private SQLQuery<String> epicProjection(final BooleanExpression epicExpression,
-      final QIssuelink qIssueLink) {
-    QCustomfield qCustomfield = new QCustomfield("customfield");
-
-    QIssuelinktype qIssueLinkType = new QIssuelinktype("issueLinkType");
-    return SQLExpressions.select(qCustomfieldValue.stringvalue)
-        .from(qIssueLink)
-        .join(qIssueLinkType).on(qIssueLink.linktype.eq(qIssueLinkType.id))
-        .join(qCustomfieldValue).on(qIssueLink.source.eq(qCustomfieldValue.issue))
-        .join(qCustomfield).on(qCustomfield.id.eq(qCustomfieldValue.customfield))
-        .where(epicExpression
-            .and(qIssueLinkType.linkname.eq("Epic-Story Link"))
-            .and(qCustomfield.cfname.eq("Epic Name")))
-        .groupBy(qCustomfieldValue.stringvalue);
+  private String displayName(final Map<String, String> displayNames, final String userKey) {
+    String displayName = displayNames.get(userKey);
+    if (displayName == null) {
+      return userKey;
+    }
+    return displayName;
   }
 
   private void extendResult(final Connection connection, final Configuration configuration,
       final List<WorklogDetailsDTO> result) {
+    resolveUserDisplayNames(connection, configuration, result);
+
     ConcurrentSkipListSet<Long> collectIssueIds = collectIssueIds(result);
 
     Map<Long, List<String>> issueComponents = selectIssueComponents(connection, configuration,
@@ -232,6 +412,12 @@ public class WorklogDetailsReportQueryBuilder extends AbstractReportQuery<Worklo
     Map<Long, List<String>> issueAffectedVersions = selectAffectedVersions(connection,
         configuration, collectIssueIds);
 
+    List<Long> epicNameFieldIds = EpicNameCustomFieldCache.getIds(connection, configuration);
+    Map<Long, String> issueEpicLinks = selectEpics(connection, configuration, true,
+        epicNameFieldIds, collectIssueIds);
+    Map<Long, String> issueEpicNames = selectEpics(connection, configuration, false,
+        epicNameFieldIds, collectIssueIds);
+
     for (WorklogDetailsDTO worklogDetailsDTO : result) {
       Long issueId = worklogDetailsDTO.getIssueId();
 
@@ -249,33 +435,58 @@ public class WorklogDetailsReportQueryBuilder extends AbstractReportQuery<Worklo
       if (fixedVersions != null) {
         worklogDetailsDTO.setIssueFixedVersions(fixedVersions);
       }
+
+      worklogDetailsDTO.setIssueEpicLink(issueEpicLinks.get(issueId));
+      worklogDetailsDTO.setIssueEpicName(issueEpicNames.get(issueId));
     }
 
   }
 
-  @Override
-  protected QuerydslCallable<Long> getCountQuery() {
-    return new QuerydslCallable<Long>() {
-      @Override
-      public Long call(final Connection connection, final Configuration configuration)
-          throws SQLException {
-        NumberPath<Long> worklogCountPath = Expressions.numberPath(Long.class,
-            new PathMetadata(null, "worklogCount", PathType.VARIABLE));
-
-        SQLQuery<Long> fromQuery = new SQLQuery<Long>(connection, configuration)
-            .select(qWorklog.id.count().as(worklogCountPath));
-
-        appendBaseFromAndJoin(fromQuery);
-        appendBaseWhere(fromQuery);
-        fromQuery.groupBy(qWorklog.id);
+  /**
+   * Gives back the value of the seekable order column of the row in string form.
+   *
+   * @return the value or <code>null</code> if the column is not seekable.
+   */
+  private String getKeysetValue(final String columnName, final WorklogDetailsDTO row) {
+    if (stringKeysetMap.containsKey(columnName)) {
+      if (WorklogDetailsColumns.ISSUE_KEY.equals(columnName)) {
+        return row.getIssueKey();
+      }
+      return row.getProjectName();
+    }
+    Timestamp value = null;
+    if (WorklogDetailsColumns.CREATED.equals(columnName)) {
+      value = row.getIssueCreated();
+    } else if (WorklogDetailsColumns.START_TIME.equals(columnName)) {
+      value = row.getWorklogStartDate();
+    } else if (WorklogDetailsColumns.UPDATED.equals(columnName)) {
+      value = row.getIssueUpdated();
+    } else if (WorklogDetailsColumns.WORKLOG_CREATED.equals(columnName)) {
+      value = row.getWorklogCreated();
+    } else if (WorklogDetailsColumns.WORKLOG_UPDATED.equals(columnName)) {
+      value = row.getWorklogUpdated();
+    }
+    return WorklogDetailsCursor.toTimestampValue(value);
+  }
 
-        SQLQuery<Long> query = new SQLQuery<Long>(connection, configuration)
-            .select(worklogCountPath.count())
-            .from(fromQuery.as("fromCount"));
+  /**
+   * Gives back the cursor token of the next page. Available after the {@link #buildQuery()} query
+   * is executed.
+   *
+   * @return the token or <code>null</code> if the order column is not seekable.
+   */
+  public String getNextCursor() {
+    return nextCursor;
+  }
 
-        return query.fetchOne();
-      }
-    };
+  /**
+   * Gives back the cursor token of the previous page. Available after the {@link #buildQuery()}
+   * query is executed.
+   *
+   * @return the token or <code>null</code> if the order column is not seekable.
+   */
+  public String getPrevCursor() {
+    return prevCursor;
   }
 
   @Override
@@ -292,23 +503,66 @@ public class WorklogDetailsReportQueryBuilder extends AbstractReportQuery<Worklo
 
         appendBaseFromAndJoin(query);
         appendBaseWhere(query);
-        appendQueryRange(query);
 
-        Expression<?> expression = orderByMap.get(orderBy.columnName);
+        String columnName = orderBy.columnName;
+        Expression<?> expression = orderByMap.get(columnName);
         Order order = Order.DESC;
         if (expression == null) {
-          expression = orderByMap.get(OrderBy.DEFAULT.columnName);
+          columnName = OrderBy.DEFAULT.columnName;
+          expression = orderByMap.get(columnName);
           order = Order.ASC;
         } else {
           if (orderBy.asc) {
             order = Order.ASC;
           }
         }
-        query.orderBy(new OrderSpecifier(order, expression));
+        boolean asc = order == Order.ASC;
+
+        if (WorklogDetailsColumns.ISSUE_EPIC_LINK.equals(columnName)
+            || WorklogDetailsColumns.ISSUE_EPIC_NAME.equals(columnName)) {
+          List<Long> epicNameFieldIds =
+              EpicNameCustomFieldCache.getIds(connection, configuration);
+          query.leftJoin(selectEpics(new SQLQuery<Void>(),
+              WorklogDetailsColumns.ISSUE_EPIC_LINK.equals(columnName), epicNameFieldIds, null),
+              orderEpics)
+              .on(Expressions.numberPath(Long.class, orderEpics,
+                  EPIC_ISSUE_ID.getMetadata().getName()).eq(qIssue.id));
+        }
+        StringPath orderUserKey = userOrderByMap.get(columnName);
+        if (orderUserKey != null) {
+          query.leftJoin(QueryUtil.selectUserDisplayNames(), orderUserDisplayNames)
+              .on(Expressions.stringPath(orderUserDisplayNames,
+                  QueryUtil.USER_KEY.getMetadata().getName()).eq(orderUserKey));
+        }
+
+        WorklogDetailsCursor cursor = resolveCursor(columnName, asc);
+        Order queryOrder = order;
+        if (cursor == null) {
+          appendQueryRange(query);
+        } else {
+          query.where(createKeysetCondition(cursor));
+          if (reportSearchParam.limit != null) {
+            query.limit(reportSearchParam.limit);
+          }
+          if (!cursor.isNext()) {
+            // the previous page is selected backward from the first row
+            queryOrder = asc ? Order.DESC : Order.ASC;
+          }
+        }
+        query.orderBy(new OrderSpecifier(queryOrder, expression));
+        Expression<?> secondaryExpression = secondaryOrderByMap.get(columnName);
+        if (secondaryExpression != null) {
+          query.orderBy(new OrderSpecifier(queryOrder, secondaryExpression));
+        }
+        query.orderBy(new OrderSpecifier<>(queryOrder, qWorklog.id));
 
         List<WorklogDetailsDTO> result = query.fetch();
+        if (queryOrder != order) {
+          Collections.reverse(result);
+        }
 
         extendResult(connection, configuration, result);
+        createCursors(columnName, asc, result);
 
         return result;
       }
@@ -316,6 +570,59 @@ public class WorklogDetailsReportQueryBuilder extends AbstractReportQuery<Worklo
     };
   }
 
+  /**
+   * Gives back the cursor of the search parameter if it belongs to the current order and the order
+   * column is seekable.
+   */
+  private WorklogDetailsCursor resolveCursor(final String columnName, final boolean asc) {
+    if (!stringKeysetMap.containsKey(columnName) && !timestampKeysetMap.containsKey(columnName)) {
+      return null;
+    }
+    WorklogDetailsCursor cursor = WorklogDetailsCursor.parse(reportSearchParam.cursor);
+    if ((cursor == null) || !columnName.equals(cursor.getColumnName())
+        || (cursor.isAsc() != asc)) {
+      return null;
+    }
+    if (timestampKeysetMap.containsKey(columnName) && (cursor.getTimestampValue() == null)) {
+      return null;
+    }
+    if (WorklogDetailsColumns.ISSUE_KEY.equals(columnName)
+        && (cursor.getIssueNumValue() == null)) {
+      return null;
+    }
+    return cursor;
+  }
+
+  /**
+   * Replaces the user keys of the result with the display names. The distinct user keys of the
+   * result are resolved by one query (per {@value QueryUtil#USER_KEY_CHUNK_SIZE} users).
+   */
+  private void resolveUserDisplayNames(final Connection connection,
+      final Configuration configuration, final List<WorklogDetailsDTO> result) {
+    HashSet<String> userKeys = new HashSet<>();
+    for (WorklogDetailsDTO worklogDetailsDTO : result) {
+      userKeys.add(worklogDetailsDTO.getIssueAssignee());
+      userKeys.add(worklogDetailsDTO.getIssueReporter());
+      userKeys.add(worklogDetailsDTO.getWorklogUser());
+    }
+    userKeys.remove(null);
+    if (userKeys.isEmpty()) {
+      return;
+    }
+
+    Map<String, String> displayNames =
+        QueryUtil.fetchUserDisplayNames(connection, configuration, userKeys);
+
+    for (WorklogDetailsDTO worklogDetailsDTO : result) {
+      worklogDetailsDTO.setIssueAssignee(
+          displayName(displayNames, worklogDetailsDTO.getIssueAssignee()));
+      worklogDetailsDTO.setIssueReporter(
+          displayName(displayNames, worklogDetailsDTO.getIssueReporter()));
+      worklogDetailsDTO.setWorklogUser(
+          displayName(displayNames, worklogDetailsDTO.getWorklogUser()));
+    }
+  }
+
   private Map<Long, List<String>> selectAffectedVersions(final Connection connection,
       final Configuration configuration, final Set<Long> issueIds) {
     QJiraissue qIssue = new QJiraissue("na_issue");
@@ -334,6 +641,56 @@ public class WorklogDetailsReportQueryBuilder extends AbstractReportQuery<Worklo
         .transform(GroupBy.groupBy(qIssue.id).as(GroupBy.list(qProjectversion.vname)));
   }
 
+  /**
+   * Selects the epic names of the issues by one query.
+   *
+   * @param epicLink
+   *          <code>true</code> to select the name of the epic of the issues, <code>false</code> to
+   *          select the name of the issues that are epics.
+   * @return the epic names by issue id.
+   */
+  private Map<Long, String> selectEpics(final Connection connection,
+      final Configuration configuration, final boolean epicLink,
+      final List<Long> epicNameFieldIds, final Set<Long> issueIds) {
+    Map<Long, String> result = new HashMap<>();
+    if (epicNameFieldIds.isEmpty() || issueIds.isEmpty()) {
+      return result;
+    }
+    List<Tuple> rows = selectEpics(new SQLQuery<Void>(connection, configuration), epicLink,
+        epicNameFieldIds, issueIds).fetch();
+    for (Tuple row : rows) {
+      result.put(row.get(0, Long.class), row.get(1, String.class));
+    }
+    return result;
+  }
+
+  /**
+   * Selects the issue ids ({@link #EPIC_ISSUE_ID}) and the epic names ({@link #EPIC_VALUE}).
+   * Without issue ids the query can be joined as a derived table.
+   */
+  private SQLQuery<Tuple> selectEpics(final SQLQuery<?> query, final boolean epicLink,
+      final List<Long> epicNameFieldIds, final Set<Long> issueIds) {
+    QIssuelink qIssueLink = new QIssuelink("epicIssueLink");
+    QIssuelinktype qIssueLinkType = new QIssuelinktype("epicIssueLinkType");
+    QCustomfieldvalue qCustomfieldValue = new QCustomfieldvalue("epicCustomfieldValue");
+    NumberPath<Long> issueIdPath = epicLink
+        ? qIssueLink.destination
+        : qIssueLink.source;
+
+    BooleanExpression where = qIssueLinkType.linkname.eq(EPIC_STORY_LINK)
+        .and(qCustomfieldValue.customfield.in(epicNameFieldIds));
+    if (issueIds != null) {
+      where = where.and(issueIdPath.in(issueIds));
+    }
+    return query
+        .select(issueIdPath.as(EPIC_ISSUE_ID), qCustomfieldValue.stringvalue.min().as(EPIC_VALUE))
+        .from(qIssueLink)
+        .join(qIssueLinkType).on(qIssueLink.linktype.eq(qIssueLinkType.id))
+        .join(qCustomfieldValue).on(qIssueLink.source.eq(qCustomfieldValue.issue))
+        .where(where)
+        .groupBy(issueIdPath);
+  }
+
   private Map<Long, List<String>> selectIssueComponents(final Connection connection,
       final Configuration configuration, final Set<Long> issueIds) {
     QJiraissue qIssue = new QJiraissue("na_issue");
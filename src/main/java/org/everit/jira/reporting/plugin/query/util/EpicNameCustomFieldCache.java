@@ -0,0 +1,110 @@
+/*
+ * Copyright (C) 2011 Everit Kft. (http://www.everit.org)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.everit.jira.reporting.plugin.query.util;
+
+import java.sql.Connection;
+import java.util.Collections;
+import java.util.List;
+
+import org.everit.jira.querydsl.schema.QCustomfield;
+
+import com.querydsl.sql.Configuration;
+import com.querydsl.sql.SQLQuery;
+
+/**
+ * Cache of the ids of the "Epic Name" custom fields. The epic queries filter the custom field
+ * values by these ids instead of joining the custom field table and matching the name per row.
+ * The time to live limits the staleness if the custom field is created or deleted (for example
+ * JIRA Agile is installed).
+ */
+public final class EpicNameCustomFieldCache {
+
+  /**
+   * The cached custom field ids.
+   */
+  private static final class Entry {
+
+    private final long expiration;
+
+    private final List<Long> ids;
+
+    Entry(final List<Long> ids, final long expiration) {
+      this.ids = ids;
+      this.expiration = expiration;
+    }
+
+    boolean isExpired(final long now) {
+      return now >= expiration;
+    }
+  }
+
+  private static volatile Entry cache;
+
+  /**
+   * The name of the epic name custom field.
+   */
+  public static final String EPIC_NAME = "Epic Name";
+
+  /**
+   * The time to live of the cached ids in milliseconds.
+   */
+  public static final long TIME_TO_LIVE = 600000L;
+
+  /**
+   * Removes the cached ids.
+   */
+  public static void clear() {
+    cache = null;
+  }
+
+  /**
+   * Gives back the ids of the "Epic Name" custom fields. Queries the ids if not cached or expired.
+   *
+   * @return the ids. Empty list if there is no "Epic Name" custom field.
+   */
+  public static List<Long> getIds(final Connection connection,
+      final Configuration configuration) {
+    return EpicNameCustomFieldCache.getIds(connection, configuration, System.currentTimeMillis());
+  }
+
+  /**
+   * Gives back the ids of the "Epic Name" custom fields at the given time. Queries the ids if not
+   * cached or expired.
+   *
+   * @param now
+   *          the current time in milliseconds.
+   * @return the ids. Empty list if there is no "Epic Name" custom field.
+   */
+  public static List<Long> getIds(final Connection connection,
+      final Configuration configuration, final long now) {
+    Entry entry = cache;
+    if ((entry != null) && !entry.isExpired(now)) {
+      return entry.ids;
+    }
+    QCustomfield qCustomfield = new QCustomfield("epicNameField");
+    List<Long> ids = new SQLQuery<Long>(connection, configuration)
+        .select(qCustomfield.id)
+        .from(qCustomfield)
+        .where(qCustomfield.cfname.eq(EPIC_NAME))
+        .fetch();
+    ids = Collections.unmodifiableList(ids);
+    cache = new Entry(ids, now + TIME_TO_LIVE);
+    return ids;
+  }
+
+  private EpicNameCustomFieldCache() {
+  }
+}
@@ -15,16 +15,26 @@
  */
 package org.everit.jira.reporting.plugin.query.util;
 
+import java.sql.Connection;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
 import org.everit.jira.querydsl.schema.QAppUser;
 import org.everit.jira.querydsl.schema.QCwdDirectory;
 import org.everit.jira.querydsl.schema.QCwdUser;
 import org.everit.jira.querydsl.schema.QJiraissue;
 import org.everit.jira.querydsl.schema.QProject;
 
+import com.querydsl.core.Tuple;
 import com.querydsl.core.types.dsl.BooleanExpression;
 import com.querydsl.core.types.dsl.CaseBuilder;
+import com.querydsl.core.types.dsl.Expressions;
 import com.querydsl.core.types.dsl.StringExpression;
 import com.querydsl.core.types.dsl.StringPath;
+import com.querydsl.sql.Configuration;
 import com.querydsl.sql.SQLExpressions;
 import com.querydsl.sql.SQLQuery;
 
@@ -33,6 +43,22 @@ import com.querydsl.sql.SQLQuery;
  */
 public final class QueryUtil {
 
+  /**
+   * The display name column of the {@link #selectUserDisplayNames()} query.
+   */
+  public static final StringPath DISPLAY_NAME = Expressions.stringPath("displayName");
+
+  /**
+   * The user key column of the {@link #selectUserDisplayNames()} query.
+   */
+  public static final StringPath USER_KEY = Expressions.stringPath("userKey");
+
+  /**
+   * The maximum number of user keys in one query of the
+   * {@link #fetchUserDisplayNames(Connection, Configuration, Collection)}.
+   */
+  public static final int USER_KEY_CHUNK_SIZE = 1000;
+
   /**
    * Create issue key String expression.
    */
@@ -42,6 +68,33 @@ public final class QueryUtil {
     return issueKey;
   }
 
+  /**
+   * Fetches the display names of the given users. The users are selected by one query per
+   * {@value #USER_KEY_CHUNK_SIZE} user keys.
+   *
+   * @param userKeys
+   *          the keys of the selected users.
+   * @return the display names by the user keys. The users without display name are missing.
+   */
+  public static Map<String, String> fetchUserDisplayNames(final Connection connection,
+      final Configuration configuration, final Collection<String> userKeys) {
+    Map<String, String> displayNames = new HashMap<>();
+    List<String> userKeyList = new ArrayList<>(userKeys);
+    for (int from = 0; from < userKeyList.size(); from += USER_KEY_CHUNK_SIZE) {
+      List<String> chunk = userKeyList.subList(from,
+          Math.min(from + USER_KEY_CHUNK_SIZE, userKeyList.size()));
+      List<Tuple> rows =
+          selectUserDisplayNames(new SQLQuery<Void>(connection, configuration), chunk).fetch();
+      for (Tuple row : rows) {
+        String displayName = row.get(1, String.class);
+        if (displayName != null) {
+          displayNames.put(row.get(0, String.class), displayName);
+        }
+      }
+    }
+    return displayNames;
+  }
+
   /**
    * Select user displayName for user.
    *
@@ -125,6 +178,39 @@ public final class QueryUtil {
         .exists();
   }
 
+  /**
+   * Select the user keys ({@link #USER_KEY}) and the display names ({@link #DISPLAY_NAME}) of the
+   * users as a subquery. The display name comes from the directory with the lowest position, like
+   * in the {@link #selectDisplayNameForUserByUserKey(StringPath)}. The subquery can be joined once
+   * as a derived table instead of the correlated subqueries per result row.
+   */
+  public static SQLQuery<Tuple> selectUserDisplayNames() {
+    return selectUserDisplayNames(new SQLQuery<Void>(), null);
+  }
+
+  private static SQLQuery<Tuple> selectUserDisplayNames(final SQLQuery<?> query,
+      final Collection<String> userKeys) {
+    QCwdUser qCwdUser = new QCwdUser("dnUser");
+    QAppUser qAppUser = new QAppUser("dnAppUser");
+    QCwdDirectory qCwdDirectory = new QCwdDirectory("dnDirectory");
+    QCwdDirectory qCwdDirectoryMin = new QCwdDirectory("dnDirMin");
+    QCwdUser qCwdUserMin = new QCwdUser("dnUserMin");
+    BooleanExpression where = qCwdDirectory.directoryPosition.eq(
+        SQLExpressions.select(qCwdDirectoryMin.directoryPosition.min())
+            .from(qCwdDirectoryMin)
+            .join(qCwdUserMin).on(qCwdUserMin.directoryId.eq(qCwdDirectoryMin.id))
+            .where(qCwdUserMin.lowerUserName.eq(qAppUser.lowerUserName)));
+    if (userKeys != null) {
+      where = where.and(qAppUser.userKey.in(userKeys));
+    }
+    return query
+        .select(qAppUser.userKey.as(USER_KEY), qCwdUser.displayName.as(DISPLAY_NAME))
+        .from(qAppUser)
+        .join(qCwdUser).on(qCwdUser.lowerUserName.eq(qAppUser.lowerUserName))
+        .join(qCwdDirectory).on(qCwdUser.directoryId.eq(qCwdDirectory.id))
+        .where(where);
+  }
+
   private QueryUtil() {
   }
 }
@@ -17,6 +17,7 @@ package org.everit.jira.reporting.plugin.rest;
 
 import java.io.ByteArrayOutputStream;
 import java.io.IOException;
+import java.io.OutputStream;
 import java.text.SimpleDateFormat;
 import java.util.Date;
 
@@ -28,8 +29,10 @@ import javax.ws.rs.Produces;
 import javax.ws.rs.QueryParam;
 import javax.ws.rs.core.MediaType;
 import javax.ws.rs.core.Response;
+import javax.ws.rs.core.StreamingOutput;
 
 import org.apache.poi.hssf.usermodel.HSSFWorkbook;
+import org.apache.poi.xssf.streaming.SXSSFWorkbook;
 import org.everit.jira.analytics.AnalyticsSender;
 import org.everit.jira.analytics.event.ExportSummaryReportEvent;
 import org.everit.jira.analytics.event.ExportWorklogDetailsReportEvent;
@@ -41,9 +44,11 @@ import org.everit.jira.reporting.plugin.dto.ConvertedSearchParam;
 import org.everit.jira.reporting.plugin.dto.DownloadWorklogDetailsParam;
 import org.everit.jira.reporting.plugin.dto.FilterCondition;
 import org.everit.jira.reporting.plugin.dto.OrderBy;
+import org.everit.jira.reporting.plugin.export.AbstractExportListReport;
 import org.everit.jira.reporting.plugin.export.ExcelToCsvConverter;
 import org.everit.jira.reporting.plugin.export.ExportSummariesListReport;
 import org.everit.jira.reporting.plugin.export.ExportWorklogDetailsListReport;
+import org.everit.jira.reporting.plugin.export.StreamingWorklogDetailsCsvExport;
 import org.everit.jira.reporting.plugin.util.ConverterUtil;
 import org.everit.jira.settings.TimeTrackerSettingsHelper;
 
@@ -59,6 +64,8 @@ public class DownloadReportResource {
 
   private static final String XLS_FILE_EXTENSION = "xls";
 
+  private static final String XLSX_FILE_EXTENSION = "xlsx";
+
   private final AnalyticsSender analyticsSender;
 
   private String pluginId;
@@ -86,7 +93,7 @@ public class DownloadReportResource {
       final String fileExtension) {
     try (ByteArrayOutputStream bos = new ByteArrayOutputStream()) {
       new ExcelToCsvConverter(workbook).printCSV(bos);
-      return buildResponse(bos, fileName, fileExtension);
+      return buildResponse(bos.toByteArray(), fileName, fileExtension);
     } catch (IOException e) {
       return Response.serverError().build();
     }
@@ -96,22 +103,42 @@ public class DownloadReportResource {
       final String fileExtension) {
     try (ByteArrayOutputStream bos = new ByteArrayOutputStream()) {
       workbbok.write(bos);
-      return buildResponse(bos, fileName, fileExtension);
+      return buildResponse(bos.toByteArray(), fileName, fileExtension);
     } catch (IOException e) {
       return Response.serverError().build();
     }
   }
 
-  private Response buildResponse(final ByteArrayOutputStream bos, final String fileName,
+  private Response buildResponse(final Object entity, final String fileName,
       final String fileExtension) {
     String timeStamp = new SimpleDateFormat("yyyyMMddhhmm").format(new Date());
-    return Response.ok(bos.toByteArray(), MediaType.APPLICATION_OCTET_STREAM)
+    return Response.ok(entity, MediaType.APPLICATION_OCTET_STREAM)
         .header("Content-Disposition",
             "attachment; filename=\"" + fileName + timeStamp + "." + fileExtension + "\"")
         .build();
   }
 
+  private Response buildXlsxResponse(final AbstractExportListReport exportListReport,
+      final String fileName, final String fileExtension) {
+    StreamingOutput streamingOutput = new StreamingOutput() {
+      @Override
+      public void write(final OutputStream output) throws IOException {
+        SXSSFWorkbook workbook = exportListReport.exportToXLSX();
+        try {
+          workbook.write(output);
+        } finally {
+          workbook.dispose();
+        }
+      }
+    };
+    return buildResponse(streamingOutput, fileName, fileExtension);
+  }
+
   private HSSFWorkbook createSummaryExcel(final String json) {
+    return createSummaryExport(json).exportToXLS();
+  }
+
+  private ExportSummariesListReport createSummaryExport(final String json) {
     FilterCondition filterCondition = new Gson()
         .fromJson(json, FilterCondition.class);
 
@@ -121,35 +148,40 @@ public class DownloadReportResource {
     ExportSummariesListReport exportSummariesListReport =
         new ExportSummariesListReport(querydslSupport, converSearchParam.reportSearchParam,
             converSearchParam.notBrowsableProjectKeys, settingsHelper.loadUserSettings());
-
-    HSSFWorkbook workbook = exportSummariesListReport.exportToXLS();
-    return workbook;
+    return exportSummariesListReport;
   }
 
-  private HSSFWorkbook createWorkBook(final String orderByString,
-      final DownloadWorklogDetailsParam downloadWorklogDetailsParam) {
+  private StreamingWorklogDetailsCsvExport createWorklogDetailsCsvExport(
+      final String orderByString, final DownloadWorklogDetailsParam downloadWorklogDetailsParam) {
     ConvertedSearchParam converSearchParam = ConverterUtil
         .convertFilterConditionToConvertedSearchParam(downloadWorklogDetailsParam.filterCondition,
             settingsHelper);
     OrderBy orderBy = ConverterUtil.convertToOrderBy(orderByString);
-    HSSFWorkbook workbook =
-        createWorklogDetailsExcel(downloadWorklogDetailsParam, converSearchParam, orderBy);
-    return workbook;
+    return new StreamingWorklogDetailsCsvExport(querydslSupport,
+        downloadWorklogDetailsParam.selectedWorklogDetailsColumns,
+        converSearchParam.reportSearchParam,
+        converSearchParam.notBrowsableProjectKeys,
+        orderBy, settingsHelper.loadUserSettings());
   }
 
-  private HSSFWorkbook createWorklogDetailsExcel(
-      final DownloadWorklogDetailsParam downloadWorklogDetailsParam,
-      final ConvertedSearchParam converSearchParam, final OrderBy orderBy) {
+  private HSSFWorkbook createWorkBook(final String orderByString,
+      final DownloadWorklogDetailsParam downloadWorklogDetailsParam) {
+    return createWorklogDetailsExport(orderByString, downloadWorklogDetailsParam).exportToXLS();
+  }
 
+  private ExportWorklogDetailsListReport createWorklogDetailsExport(final String orderByString,
+      final DownloadWorklogDetailsParam downloadWorklogDetailsParam) {
+    ConvertedSearchParam converSearchParam = ConverterUtil
+        .convertFilterConditionToConvertedSearchParam(downloadWorklogDetailsParam.filterCondition,
+            settingsHelper);
+    OrderBy orderBy = ConverterUtil.convertToOrderBy(orderByString);
     ExportWorklogDetailsListReport exportWorklogDetailsListReport =
         new ExportWorklogDetailsListReport(querydslSupport,
             downloadWorklogDetailsParam.selectedWorklogDetailsColumns,
             converSearchParam.reportSearchParam,
             converSearchParam.notBrowsableProjectKeys,
             orderBy, settingsHelper.loadUserSettings());
-
-    HSSFWorkbook workbook = exportWorklogDetailsListReport.exportToXLS();
-    return workbook;
+    return exportWorklogDetailsListReport;
   }
 
   /**
@@ -194,6 +226,27 @@ public class DownloadReportResource {
     return buildCsvResponse(workbook, "summaries-report", CSV_FILE_EXTENSION);
   }
 
+  /**
+   * Download summaries reports (project-, issue-, user summary) as streaming XLSX workbook.
+   *
+   * @param json
+   *          the json string from which the object is to be deserialized to {@link FilterCondition}
+   *          object.
+   * @return the XLSX_FILE_EXTENSION document, streamed while the rows are written.
+   */
+  @GET
+  @Consumes(MediaType.APPLICATION_JSON)
+  @Produces(MediaType.APPLICATION_OCTET_STREAM)
+  @Path("/downloadSummariesReportAsXLSX")
+  public Response downloadSummariesReportAsXLSX(
+      @QueryParam("json") @DefaultValue("{}") final String json) {
+    ExportSummariesListReport exportSummariesListReport = createSummaryExport(json);
+    ExportSummaryReportEvent exportSummaryReportEvent =
+        new ExportSummaryReportEvent(pluginId, ExportSummaryReportEvent.EVENT_ACTION_XLSX);
+    analyticsSender.send(exportSummaryReportEvent);
+    return buildXlsxResponse(exportSummariesListReport, "summaries-report", XLSX_FILE_EXTENSION);
+  }
+
   /**
    * Download worklog details report.
    *
@@ -222,7 +275,7 @@ public class DownloadReportResource {
    * @param json
    *          the json string from which the object is to be deserialized to
    *          {@link DownloadWorklogDetailsParam} object.
-   * @return the generated CSV_FILE_EXTENSION file.
+   * @return the CSV_FILE_EXTENSION file, streamed while the worklogs are read.
    */
   @GET
   @Consumes(MediaType.APPLICATION_JSON)
@@ -233,9 +286,34 @@ public class DownloadReportResource {
       @QueryParam("orderBy") final String orderByString) {
     DownloadWorklogDetailsParam downloadWorklogDetailsParam = new Gson()
         .fromJson(json, DownloadWorklogDetailsParam.class);
-    HSSFWorkbook workbook = createWorkBook(orderByString, downloadWorklogDetailsParam);
+    StreamingWorklogDetailsCsvExport csvExport =
+        createWorklogDetailsCsvExport(orderByString, downloadWorklogDetailsParam);
     sendWorklogDetailsAnalytics(WorkLogDetailsExportFormat.CSV, downloadWorklogDetailsParam);
-    return buildCsvResponse(workbook, "worklog-details-report", CSV_FILE_EXTENSION);
+    return buildResponse(csvExport, "worklog-details-report", CSV_FILE_EXTENSION);
+  }
+
+  /**
+   * Download worklog details report as streaming XLSX workbook.
+   *
+   * @param json
+   *          the json string from which the object is to be deserialized to
+   *          {@link DownloadWorklogDetailsParam} object.
+   * @return the XLSX_FILE_EXTENSION document, streamed while the worklogs are read.
+   */
+  @GET
+  @Consumes(MediaType.APPLICATION_JSON)
+  @Produces(MediaType.APPLICATION_OCTET_STREAM)
+  @Path("/downloadWorklogDetailsReportAsXLSX")
+  public Response downloadWorklogDetailsReportAsXLSX(
+      @QueryParam("json") @DefaultValue("{}") final String json,
+      @QueryParam("orderBy") final String orderByString) {
+    DownloadWorklogDetailsParam downloadWorklogDetailsParam = new Gson()
+        .fromJson(json, DownloadWorklogDetailsParam.class);
+    ExportWorklogDetailsListReport exportWorklogDetailsListReport =
+        createWorklogDetailsExport(orderByString, downloadWorklogDetailsParam);
+    sendWorklogDetailsAnalytics(WorkLogDetailsExportFormat.XLSX, downloadWorklogDetailsParam);
+    return buildXlsxResponse(exportWorklogDetailsListReport, "worklog-details-report",
+        XLSX_FILE_EXTENSION);
   }
 
   private void sendWorklogDetailsAnalytics(final WorkLogDetailsExportFormat exportFormat,
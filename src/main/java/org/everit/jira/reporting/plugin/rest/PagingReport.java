@@ -39,7 +39,7 @@ import org.everit.jira.reporting.plugin.dto.UserSummaryReportDTO;
 import org.everit.jira.reporting.plugin.dto.WorklogDetailsReportDTO;
 import org.everit.jira.reporting.plugin.util.ConverterUtil;
 import org.everit.jira.settings.TimeTrackerSettingsHelper;
-import org.everit.jira.timetracker.plugin.DurationFormatter;
+import org.everit.jira.timetracker.plugin.util.FormatterRegistry;
 
 import com.atlassian.jira.component.ComponentAccessor;
 import com.atlassian.jira.datetime.DateTimeFormatter;
@@ -82,7 +82,7 @@ public class PagingReport {
 
   private void appendRequiredContextParameters(final Map<String, Object> contextParameters,
       final FilterCondition filterCondition) {
-    contextParameters.put("durationFormatter", new DurationFormatter());
+    contextParameters.put("durationFormatter", FormatterRegistry.getDurationFormatter());
     contextParameters.put("filterCondition", filterCondition);
 
     contextParameters.put("dateTimeFormatterDate", getDateTimeFormatterDate());
@@ -226,6 +226,12 @@ public class PagingReport {
    *          the {@link FilterCondition} in JSON format.
    * @param selectedColumnsJson
    *          the JSON array from the selected columns.
+   * @param cursor
+   *          the keyset cursor token of the previous or the next page. Optional. If the cursor
+   *          belongs to the order the page is selected by the cursor instead of the offset.
+   * @param totalsToken
+   *          the token of the totals of the first page. Optional. If it belongs to the filter the
+   *          worklog count and the grand total are not queried again.
    *
    * @return the page content in HTML.
    */
@@ -235,7 +241,9 @@ public class PagingReport {
   public Response pageWorklogDetails(
       @QueryParam("filterConditionJson") final String filterConditionJson,
       @QueryParam("selectedColumnsJson") final String selectedColumnsJson,
-      @QueryParam("orderBy") final String orderByString) {
+      @QueryParam("orderBy") final String orderByString,
+      @QueryParam("cursor") final String cursor,
+      @QueryParam("totalsToken") final String totalsToken) {
     FilterCondition filterCondition = convertJsonToFilterCondition(filterConditionJson);
 
     String[] selectedColumns = gson.fromJson(selectedColumnsJson, String[].class);
@@ -245,6 +253,9 @@ public class PagingReport {
 
     OrderBy orderBy = ConverterUtil.convertToOrderBy(orderByString);
 
+    converSearchParam.reportSearchParam.cursor(cursor)
+        .totalsToken(totalsToken);
+
     WorklogDetailsReportDTO worklogDetailsReport =
         reportingPlugin.getWorklogDetailsReport(converSearchParam.reportSearchParam, orderBy);
 
@@ -15,37 +15,106 @@
  */
 package org.everit.jira.reporting.plugin.rest;
 
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
+import java.util.Locale;
 
 import javax.ws.rs.GET;
 import javax.ws.rs.Path;
 import javax.ws.rs.Produces;
 import javax.ws.rs.QueryParam;
+import javax.ws.rs.core.CacheControl;
+import javax.ws.rs.core.Context;
+import javax.ws.rs.core.EntityTag;
 import javax.ws.rs.core.MediaType;
+import javax.ws.rs.core.Request;
 import javax.ws.rs.core.Response;
+import javax.ws.rs.core.Response.ResponseBuilder;
 
 import org.everit.jira.querydsl.support.QuerydslSupport;
 import org.everit.jira.querydsl.support.ri.QuerydslSupportImpl;
 import org.everit.jira.reporting.plugin.dto.PickerComponentDTO;
 import org.everit.jira.reporting.plugin.dto.PickerEpicLinkDTO;
 import org.everit.jira.reporting.plugin.dto.PickerLabelDTO;
+import org.everit.jira.reporting.plugin.dto.PickerSearchParam;
 import org.everit.jira.reporting.plugin.dto.PickerVersionDTO;
 import org.everit.jira.reporting.plugin.query.PickerComponentQuery;
 import org.everit.jira.reporting.plugin.query.PickerEpicLinkQuery;
 import org.everit.jira.reporting.plugin.query.PickerLabelQuery;
 import org.everit.jira.reporting.plugin.query.PickerVersionQuery;
 import org.everit.jira.reporting.plugin.query.PickerVersionQuery.PickerVersionQueryType;
+import org.everit.jira.reporting.plugin.util.PickerDataCache;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import com.atlassian.jira.component.ComponentAccessor;
+
 /**
  * Responsible to define - and call implemented - list methods to pickers.
+ * <p>
+ * The list methods accept the optional <code>q</code> (case insensitive prefix of the name),
+ * <code>limit</code> (maximum number of the results) and <code>projectIds</code> parameters for
+ * typeahead search.
+ * Without <code>projectIds</code> the full list is read from the {@link PickerDataCache} and the
+ * prefix and the limit are applied on it, so the typeahead requests do not reach the database.
+ * With <code>projectIds</code> the projects are queried and the prefix is applied on the result.
+ * The cached lists are served with an entity tag, so the browser revalidates the list and gets
+ * back a 304 (Not Modified) response if the list not changed.
  */
 @Path("/picker")
 public class PickerResource {
 
+  /**
+   * Matches a picker list element to the prefix of the search.
+   *
+   * @param <T>
+   *          the type of the list elements.
+   */
+  private abstract static class PrefixMatcher<T> {
+
+    abstract boolean matches(T value, String prefix);
+  }
+
+  private static final PrefixMatcher<PickerComponentDTO> COMPONENT_MATCHER =
+      new PrefixMatcher<PickerComponentDTO>() {
+        @Override
+        boolean matches(final PickerComponentDTO value, final String prefix) {
+          return PickerResource.startsWithIgnoreCase(value.getName(), prefix);
+        }
+      };
+
+  private static final PrefixMatcher<PickerEpicLinkDTO> EPIC_LINK_MATCHER =
+      new PrefixMatcher<PickerEpicLinkDTO>() {
+        @Override
+        boolean matches(final PickerEpicLinkDTO value, final String prefix) {
+          return PickerResource.startsWithIgnoreCase(value.getEpicName(), prefix)
+              || PickerResource.startsWithIgnoreCase(value.getIssueKey(), prefix);
+        }
+      };
+
+  private static final PrefixMatcher<PickerLabelDTO> LABEL_MATCHER =
+      new PrefixMatcher<PickerLabelDTO>() {
+        @Override
+        boolean matches(final PickerLabelDTO value, final String prefix) {
+          return PickerResource.startsWithIgnoreCase(value.getName(), prefix);
+        }
+      };
+
   private static final Logger LOGGER = LoggerFactory.getLogger(PickerResource.class);
 
+  private static final PrefixMatcher<PickerVersionDTO> VERSION_MATCHER =
+      new PrefixMatcher<PickerVersionDTO>() {
+        @Override
+        boolean matches(final PickerVersionDTO value, final String prefix) {
+          return PickerResource.startsWithIgnoreCase(value.getName(), prefix);
+        }
+      };
+
+  private static boolean startsWithIgnoreCase(final String name, final String prefix) {
+    return (name != null) && name.regionMatches(true, 0, prefix, 0, prefix.length());
+  }
+
   private QuerydslSupport querydslSupport;
 
   /**
@@ -59,65 +128,252 @@ public class PickerResource {
     }
   }
 
+  private Response buildBadRequestResponse(final String message) {
+    return Response.status(Response.Status.BAD_REQUEST)
+        .entity(message)
+        .type(MediaType.TEXT_PLAIN)
+        .build();
+  }
+
+  private Response buildCachedResponse(final Request request, final PickerDataCache.Data<?> data,
+      final List<?> collection, final PickerSearchParam pickerSearchParam, final Object variant) {
+    Locale locale = ComponentAccessor.getJiraAuthenticationContext().getLocale();
+    String variantKey = String.valueOf(variant) + '-' + pickerSearchParam.prefix + '-'
+        + pickerSearchParam.limit + '-' + locale;
+    EntityTag entityTag =
+        new EntityTag(data.getHash() + '-' + Integer.toHexString(variantKey.hashCode()));
+    CacheControl cacheControl = new CacheControl();
+    cacheControl.setPrivate(true);
+    cacheControl.setNoCache(true);
+
+    ResponseBuilder notModified = request.evaluatePreconditions(entityTag);
+    if (notModified != null) {
+      return notModified.tag(entityTag)
+          .cacheControl(cacheControl)
+          .build();
+    }
+    return Response.ok(collection)
+        .tag(entityTag)
+        .cacheControl(cacheControl)
+        .build();
+  }
+
   private Response buildResponse(final List<?> collection) {
     return Response.ok(collection)
         .build();
   }
 
+  private PickerSearchParam createPickerSearchParam(final String q, final Long limit,
+      final List<Long> projectIds) {
+    return new PickerSearchParam()
+        .prefix(q)
+        .limit(limit)
+        .projectIds(projectIds);
+  }
+
+  /**
+   * Creates the search param of the project query. The limit is passed to the query only if no
+   * prefix is given, because the prefix is applied on the query result.
+   */
+  private PickerSearchParam createProjectSearchParam(final PickerSearchParam pickerSearchParam) {
+    return new PickerSearchParam()
+        .limit(hasPrefix(pickerSearchParam) ? null : pickerSearchParam.limit)
+        .projectIds(pickerSearchParam.projectIds);
+  }
+
+  /**
+   * Collects the static entries and the values that match the prefix, until the limit is reached.
+   */
+  private <T> List<T> filter(final List<T> staticEntries, final List<T> values,
+      final PickerSearchParam pickerSearchParam, final PrefixMatcher<T> prefixMatcher) {
+    List<T> entries = new ArrayList<>(staticEntries);
+    entries.addAll(values);
+    if (!pickerSearchParam.isRestricted()) {
+      return entries;
+    }
+    boolean hasPrefix = hasPrefix(pickerSearchParam);
+    long limit = pickerSearchParam.limit == null
+        ? Long.MAX_VALUE
+        : pickerSearchParam.limit;
+    List<T> result = new ArrayList<>();
+    for (T entry : entries) {
+      if (result.size() >= limit) {
+        break;
+      }
+      if (!hasPrefix || prefixMatcher.matches(entry, pickerSearchParam.prefix)) {
+        result.add(entry);
+      }
+    }
+    return result;
+  }
+
+  private boolean hasPrefix(final PickerSearchParam pickerSearchParam) {
+    return (pickerSearchParam.prefix != null) && !pickerSearchParam.prefix.isEmpty();
+  }
+
+  private boolean isInvalidLimit(final Long limit) {
+    return (limit != null) && (limit < 0);
+  }
+
   /**
    * List all components that defined in JIRA system. If no components return empty list response.
+   *
+   * @param request
+   *          the HTTP request.
+   * @param q
+   *          the prefix of the component names. Optional.
+   * @param limit
+   *          the maximum number of the components. Optional, must not be negative.
+   * @param projectIds
+   *          the projects of the components. Optional.
    */
   @GET
   @Produces(MediaType.APPLICATION_JSON)
   @Path("/listComponents")
-  public Response listComponents() {
-    List<PickerComponentDTO> components = querydslSupport.execute(new PickerComponentQuery());
+  public Response listComponents(@Context final Request request,
+      @QueryParam("q") final String q, @QueryParam("limit") final Long limit,
+      @QueryParam("projectIds") final List<Long> projectIds) {
+    if (isInvalidLimit(limit)) {
+      return buildBadRequestResponse("The limit must not be negative.");
+    }
+    PickerSearchParam pickerSearchParam = createPickerSearchParam(q, limit, projectIds);
+    List<PickerComponentDTO> staticComponents =
+        Collections.singletonList(PickerComponentDTO.createNoComponent());
 
-    return buildResponse(components);
+    if (!pickerSearchParam.projectIds.isEmpty()) {
+      List<PickerComponentDTO> components = querydslSupport
+          .execute(new PickerComponentQuery(createProjectSearchParam(pickerSearchParam)));
+      return buildResponse(
+          filter(staticComponents, components, pickerSearchParam, COMPONENT_MATCHER));
+    }
+    PickerDataCache.Data<PickerComponentDTO> data = PickerDataCache.get(
+        PickerDataCache.COMPONENTS, querydslSupport, new PickerComponentQuery());
+    return buildCachedResponse(request, data,
+        filter(staticComponents, data.getValues(), pickerSearchParam, COMPONENT_MATCHER),
+        pickerSearchParam, null);
   }
 
   /**
    * List epic links.
+   *
+   * @param request
+   *          the HTTP request.
+   * @param q
+   *          the prefix of the epic names or the issue keys. Optional.
+   * @param limit
+   *          the maximum number of the epic links. Optional, must not be negative.
+   * @param projectIds
+   *          the projects of the epics. Optional.
    */
   @GET
   @Produces(MediaType.APPLICATION_JSON)
   @Path("/listEpicLinks")
-  public Response listEpicLinks() {
-    List<PickerEpicLinkDTO> epicLinks = querydslSupport.execute(new PickerEpicLinkQuery());
+  public Response listEpicLinks(@Context final Request request,
+      @QueryParam("q") final String q, @QueryParam("limit") final Long limit,
+      @QueryParam("projectIds") final List<Long> projectIds) {
+    if (isInvalidLimit(limit)) {
+      return buildBadRequestResponse("The limit must not be negative.");
+    }
+    PickerSearchParam pickerSearchParam = createPickerSearchParam(q, limit, projectIds);
+    List<PickerEpicLinkDTO> staticEpicLinks = Collections.emptyList();
 
-    return buildResponse(epicLinks);
+    if (!pickerSearchParam.projectIds.isEmpty()) {
+      List<PickerEpicLinkDTO> epicLinks = querydslSupport
+          .execute(new PickerEpicLinkQuery(createProjectSearchParam(pickerSearchParam)));
+      return buildResponse(
+          filter(staticEpicLinks, epicLinks, pickerSearchParam, EPIC_LINK_MATCHER));
+    }
+    PickerDataCache.Data<PickerEpicLinkDTO> data = PickerDataCache.get(
+        PickerDataCache.EPIC_LINKS, querydslSupport, new PickerEpicLinkQuery());
+    return buildCachedResponse(request, data,
+        filter(staticEpicLinks, data.getValues(), pickerSearchParam, EPIC_LINK_MATCHER),
+        pickerSearchParam, null);
   }
 
   /**
    * List labels.
+   *
+   * @param request
+   *          the HTTP request.
+   * @param q
+   *          the prefix of the labels. Optional.
+   * @param limit
+   *          the maximum number of the labels. Optional, must not be negative.
+   * @param projectIds
+   *          the projects of the labeled issues. Optional.
    */
   @GET
   @Produces(MediaType.APPLICATION_JSON)
   @Path("/listLabels")
-  public Response listLables() {
-    List<PickerLabelDTO> labels = querydslSupport.execute(new PickerLabelQuery());
+  public Response listLables(@Context final Request request,
+      @QueryParam("q") final String q, @QueryParam("limit") final Long limit,
+      @QueryParam("projectIds") final List<Long> projectIds) {
+    if (isInvalidLimit(limit)) {
+      return buildBadRequestResponse("The limit must not be negative.");
+    }
+    PickerSearchParam pickerSearchParam = createPickerSearchParam(q, limit, projectIds);
+    List<PickerLabelDTO> staticLabels = Collections.emptyList();
 
-    return buildResponse(labels);
+    if (!pickerSearchParam.projectIds.isEmpty()) {
+      List<PickerLabelDTO> labels = querydslSupport
+          .execute(new PickerLabelQuery(createProjectSearchParam(pickerSearchParam)));
+      return buildResponse(filter(staticLabels, labels, pickerSearchParam, LABEL_MATCHER));
+    }
+    PickerDataCache.Data<PickerLabelDTO> data = PickerDataCache.get(
+        PickerDataCache.LABELS, querydslSupport, new PickerLabelQuery());
+    return buildCachedResponse(request, data,
+        filter(staticLabels, data.getValues(), pickerSearchParam, LABEL_MATCHER),
+        pickerSearchParam, null);
   }
 
   /**
    * List versions.
    *
+   * @param request
+   *          the HTTP request.
    * @param pickerVersionQueryType
    *          the type name, that define how to modify list (add static no versions to result or
    *          not).
+   * @param q
+   *          the prefix of the version names. Optional.
+   * @param limit
+   *          the maximum number of the versions. Optional, must not be negative.
+   * @param projectIds
+   *          the projects of the versions. Optional.
    * @return the versions. If no one return empty list response.
    */
   @GET
   @Produces(MediaType.APPLICATION_JSON)
   @Path("/listVersions")
-  public Response listVersions(
-      @QueryParam("pickerVersionQueryType") final String pickerVersionQueryType) {
+  public Response listVersions(@Context final Request request,
+      @QueryParam("pickerVersionQueryType") final String pickerVersionQueryType,
+      @QueryParam("q") final String q, @QueryParam("limit") final Long limit,
+      @QueryParam("projectIds") final List<Long> projectIds) {
+    if (isInvalidLimit(limit)) {
+      return buildBadRequestResponse("The limit must not be negative.");
+    }
     PickerVersionQueryType type =
         PickerVersionQueryType.getPickerVersionQueryType(pickerVersionQueryType);
+    PickerSearchParam pickerSearchParam = createPickerSearchParam(q, limit, projectIds);
+    List<PickerVersionDTO> staticVersions = new ArrayList<>();
+    if (PickerVersionQueryType.AFFECTED_VERSION.equals(type)) {
+      staticVersions.add(PickerVersionDTO.createNoVersion());
+    } else if (PickerVersionQueryType.FIX_VERSION.equals(type)) {
+      staticVersions.add(PickerVersionDTO.createNoVersion());
+      staticVersions.add(PickerVersionDTO.createReleasedVersion());
+      staticVersions.add(PickerVersionDTO.createUnReleasedVersion());
+    }
 
-    List<PickerVersionDTO> versions = querydslSupport.execute(new PickerVersionQuery(type));
-
-    return buildResponse(versions);
+    if (!pickerSearchParam.projectIds.isEmpty()) {
+      List<PickerVersionDTO> versions = querydslSupport
+          .execute(new PickerVersionQuery(createProjectSearchParam(pickerSearchParam)));
+      return buildResponse(filter(staticVersions, versions, pickerSearchParam, VERSION_MATCHER));
+    }
+    PickerDataCache.Data<PickerVersionDTO> data = PickerDataCache.get(
+        PickerDataCache.VERSIONS, querydslSupport, new PickerVersionQuery());
+    return buildCachedResponse(request, data,
+        filter(staticVersions, data.getValues(), pickerSearchParam, VERSION_MATCHER),
+        pickerSearchParam, type);
   }
+
 }
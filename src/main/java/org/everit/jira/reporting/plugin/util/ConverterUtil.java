@@ -43,10 +43,9 @@ import com.atlassian.jira.bc.filter.DefaultSearchRequestService;
 import com.atlassian.jira.bc.issue.search.SearchService;
 import com.atlassian.jira.bc.issue.search.SearchService.ParseResult;
 import com.atlassian.jira.component.ComponentAccessor;
-import com.atlassian.jira.issue.Issue;
 import com.atlassian.jira.issue.search.SearchException;
+import com.atlassian.jira.issue.search.SearchProvider;
 import com.atlassian.jira.issue.search.SearchRequest;
-import com.atlassian.jira.issue.search.SearchResults;
 import com.atlassian.jira.jql.parser.JqlParseException;
 import com.atlassian.jira.permission.ProjectPermissions;
 import com.atlassian.jira.project.Project;
@@ -55,7 +54,6 @@ import com.atlassian.jira.security.PermissionManager;
 import com.atlassian.jira.security.groups.GroupManager;
 import com.atlassian.jira.user.ApplicationUser;
 import com.atlassian.jira.user.util.UserManager;
-import com.atlassian.jira.web.bean.PagerFilter;
 import com.google.gson.Gson;
 
 /**
@@ -411,20 +409,15 @@ public final class ConverterUtil {
     JiraAuthenticationContext authenticationContext = ComponentAccessor
         .getJiraAuthenticationContext();
     User loggedInUser = authenticationContext.getLoggedInUser();
-    List<Long> issuesKeys = new ArrayList<>();
     SearchService searchService = ComponentAccessor.getComponentOfType(SearchService.class);
     ParseResult parseResult = searchService.parseQuery(loggedInUser, jql);
-    if (parseResult.isValid()) {
-      SearchResults results = searchService.search(loggedInUser,
-          parseResult.getQuery(), PagerFilter.getUnlimitedFilter());
-      List<Issue> issues = results.getIssues();
-      for (Issue issue : issues) {
-        issuesKeys.add(issue.getId());
-      }
-    } else {
+    if (!parseResult.isValid()) {
       throw new JqlParseException(null, parseResult.getErrors().toString());
     }
-    return issuesKeys;
+    SearchProvider searchProvider = ComponentAccessor.getComponentOfType(SearchProvider.class);
+    IssueIdCollector issueIdCollector = new IssueIdCollector();
+    searchProvider.search(parseResult.getQuery(), loggedInUser, issueIdCollector);
+    return issueIdCollector.getIssueIds();
   }
 
   private static ArrayList<String> getUserNamesFromGroup(final List<String> groupNames) {
@@ -0,0 +1,66 @@
+/*
+ * Copyright (C) 2011 Everit Kft. (http://www.everit.org)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.everit.jira.reporting.plugin.util;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.apache.lucene.index.IndexReader;
+import org.apache.lucene.search.Collector;
+import org.apache.lucene.search.FieldCache;
+import org.apache.lucene.search.Scorer;
+
+import com.atlassian.jira.issue.index.DocumentConstants;
+
+/**
+ * Lucene {@link Collector} that collects only the ids of the matching issues. The ids are read
+ * from the field cache of the index segments, so no issue document or {@link
+ * com.atlassian.jira.issue.Issue} object is loaded.
+ */
+public class IssueIdCollector extends Collector {
+
+  private final List<Long> issueIds = new ArrayList<>();
+
+  private String[] segmentIssueIds;
+
+  @Override
+  public boolean acceptsDocsOutOfOrder() {
+    return true;
+  }
+
+  @Override
+  public void collect(final int doc) throws IOException {
+    String issueId = segmentIssueIds[doc];
+    if (issueId != null) {
+      issueIds.add(Long.valueOf(issueId));
+    }
+  }
+
+  public List<Long> getIssueIds() {
+    return issueIds;
+  }
+
+  @Override
+  public void setNextReader(final IndexReader reader, final int docBase) throws IOException {
+    segmentIssueIds = FieldCache.DEFAULT.getStrings(reader, DocumentConstants.ISSUE_ID);
+  }
+
+  @Override
+  public void setScorer(final Scorer scorer) throws IOException {
+  }
+
+}
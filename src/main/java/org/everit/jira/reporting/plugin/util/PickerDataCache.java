@@ -0,0 +1,166 @@
+/*
+ * Copyright (C) 2011 Everit Kft. (http://www.everit.org)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.everit.jira.reporting.plugin.util;
+
+import java.io.UnsupportedEncodingException;
+import java.security.NoSuchAlgorithmException;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.everit.jira.querydsl.support.QuerydslCallable;
+import org.everit.jira.querydsl.support.QuerydslSupport;
+import org.everit.jira.timetracker.plugin.util.HashUtil;
+
+import com.google.gson.Gson;
+
+/**
+ * Cache of the picker lists (labels, components, versions and epic links). The lists are read
+ * with full table queries, so they are loaded once and reused until a change event arrives (see
+ * {@link org.everit.jira.reporting.plugin.PickerDataCacheInvalidator}). The time to live limits
+ * the staleness where no event arrives (for example on the other nodes of a cluster).
+ */
+public final class PickerDataCache {
+
+  /**
+   * A cached picker list.
+   *
+   * @param <T>
+   *          the type of the list elements.
+   */
+  public static final class Data<T> {
+
+    private final long expiration;
+
+    private final String hash;
+
+    private final List<T> values;
+
+    Data(final List<T> values, final String hash, final long expiration) {
+      this.values = Collections.unmodifiableList(values);
+      this.hash = hash;
+      this.expiration = expiration;
+    }
+
+    /**
+     * Gives back the hash of the content of the list. A reloaded list with the same content has
+     * the same hash, also after a restart or on another node, so the hash can be used as an entity
+     * tag.
+     */
+    public String getHash() {
+      return hash;
+    }
+
+    public List<T> getValues() {
+      return values;
+    }
+
+    boolean isExpired(final long now) {
+      return now >= expiration;
+    }
+  }
+
+  private static final Map<String, Data<?>> CACHE = new ConcurrentHashMap<>();
+
+  /**
+   * The cache key of the components.
+   */
+  public static final String COMPONENTS = "components";
+
+  /**
+   * The cache key of the epic links.
+   */
+  public static final String EPIC_LINKS = "epicLinks";
+
+  private static final AtomicLong INVALIDATION_COUNT = new AtomicLong();
+
+  /**
+   * The cache key of the labels.
+   */
+  public static final String LABELS = "labels";
+
+  /**
+   * The time to live of the lists in milliseconds.
+   */
+  public static final long TIME_TO_LIVE = 300000L;
+
+  /**
+   * The cache key of the versions.
+   */
+  public static final String VERSIONS = "versions";
+
+  /**
+   * Removes all cached lists.
+   */
+  public static void clear() {
+    INVALIDATION_COUNT.incrementAndGet();
+    CACHE.clear();
+  }
+
+  /**
+   * Gives back the cached list of the key. Runs the query if the list is not cached or expired.
+   *
+   * @param key
+   *          the cache key.
+   * @param querydslSupport
+   *          the querydsl support to run the query.
+   * @param query
+   *          the query of the list.
+   * @return the cached list.
+   */
+  @SuppressWarnings("unchecked")
+  public static <T> Data<T> get(final String key, final QuerydslSupport querydslSupport,
+      final QuerydslCallable<List<T>> query) {
+    long now = System.currentTimeMillis();
+    Data<T> data = (Data<T>) CACHE.get(key);
+    if ((data != null) && !data.isExpired(now)) {
+      return data;
+    }
+    long invalidationCount = INVALIDATION_COUNT.get();
+    List<T> values = querydslSupport.execute(query);
+    data = new Data<>(values, hash(values), now + TIME_TO_LIVE);
+    // a list loaded during an invalidation may be stale, so it is not cached
+    if (INVALIDATION_COUNT.get() == invalidationCount) {
+      CACHE.put(key, data);
+    }
+    return data;
+  }
+
+  private static String hash(final List<?> values) {
+    try {
+      return HashUtil.encryptString(new Gson().toJson(values));
+    } catch (NoSuchAlgorithmException | UnsupportedEncodingException e) {
+      throw new IllegalStateException(e);
+    }
+  }
+
+  /**
+   * Removes the cached list of the key.
+   *
+   * @param key
+   *          the cache key.
+   */
+  public static void invalidate(final String key) {
+    INVALIDATION_COUNT.incrementAndGet();
+    CACHE.remove(key);
+  }
+
+  private PickerDataCache() {
+  }
+
+}
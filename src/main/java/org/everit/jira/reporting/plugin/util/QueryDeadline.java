@@ -0,0 +1,152 @@
+/*
+ * Copyright (C) 2011 Everit Kft. (http://www.everit.org)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.everit.jira.reporting.plugin.util;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLTimeoutException;
+import java.sql.Statement;
+import java.util.Collections;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.everit.jira.querydsl.support.QuerydslCallable;
+
+import com.querydsl.sql.Configuration;
+
+/**
+ * The common deadline of the queries of a report request. The JDBC statements of the queries get
+ * the remaining time as query timeout, so the database stops a query at the deadline even if the
+ * waiting thread gave up earlier. Interrupting a thread does not stop a running JDBC statement,
+ * so {@link #cancel()} cancels the statements of the queries.
+ */
+public final class QueryDeadline {
+
+  /**
+   * Registers the statements created by the connection.
+   */
+  private final class StatementRegisteringHandler implements InvocationHandler {
+
+    private final Connection connection;
+
+    StatementRegisteringHandler(final Connection connection) {
+      this.connection = connection;
+    }
+
+    @Override
+    public Object invoke(final Object proxy, final Method method, final Object[] args)
+        throws Throwable {
+      Object result;
+      try {
+        result = method.invoke(connection, args);
+      } catch (InvocationTargetException e) {
+        throw e.getCause();
+      }
+      if (result instanceof Statement) {
+        register((Statement) result);
+      }
+      return result;
+    }
+  }
+
+  private static final int MILLISECONDS_PER_SECOND = 1000;
+
+  private static void cancel(final Statement statement) {
+    try {
+      statement.cancel();
+    } catch (SQLException e) {
+      // the statement is closed already or the driver cannot cancel it
+      return;
+    }
+  }
+
+  private volatile boolean cancelled;
+
+  private final long deadline;
+
+  private final Set<Statement> statements =
+      Collections.newSetFromMap(new ConcurrentHashMap<Statement, Boolean>());
+
+  /**
+   * Constructor.
+   *
+   * @param deadline
+   *          the deadline in milliseconds (see {@link System#currentTimeMillis()}).
+   */
+  public QueryDeadline(final long deadline) {
+    this.deadline = deadline;
+  }
+
+  /**
+   * Cancels the statements of the queries. The statements created after the cancel fail.
+   */
+  public void cancel() {
+    cancelled = true;
+    for (Statement statement : statements) {
+      QueryDeadline.cancel(statement);
+    }
+  }
+
+  /**
+   * Gives back the remaining time until the deadline in milliseconds. Zero if the deadline has
+   * passed.
+   */
+  public long getRemainingMillis() {
+    return Math.max(deadline - System.currentTimeMillis(), 0L);
+  }
+
+  public boolean isCancelled() {
+    return cancelled;
+  }
+
+  private void register(final Statement statement) throws SQLException {
+    long remainingMillis = getRemainingMillis();
+    if (cancelled || (remainingMillis == 0)) {
+      statement.close();
+      throw new SQLTimeoutException("The report query is cancelled or its deadline has passed.");
+    }
+    statements.add(statement);
+    statement.setQueryTimeout(
+        (int) (((remainingMillis + MILLISECONDS_PER_SECOND) - 1) / MILLISECONDS_PER_SECOND));
+    if (cancelled) {
+      QueryDeadline.cancel(statement);
+    }
+  }
+
+  /**
+   * Wraps the query, so its statements are bound to this deadline.
+   *
+   * @param query
+   *          the query.
+   * @return the query that runs the original query with the wrapped connection.
+   */
+  public <R> QuerydslCallable<R> wrap(final QuerydslCallable<R> query) {
+    return new QuerydslCallable<R>() {
+      @Override
+      public R call(final Connection connection, final Configuration configuration)
+          throws SQLException {
+        Connection deadlineConnection = (Connection) Proxy.newProxyInstance(
+            QueryDeadline.class.getClassLoader(), new Class<?>[] { Connection.class },
+            new StatementRegisteringHandler(connection));
+        return query.call(deadlineConnection, configuration);
+      }
+    };
+  }
+}
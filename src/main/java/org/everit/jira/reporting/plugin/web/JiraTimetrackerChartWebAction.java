@@ -20,27 +20,26 @@ import java.io.UnsupportedEncodingException;
 import java.net.URLEncoder;
 import java.text.ParseException;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.Date;
-import java.util.HashMap;
 import java.util.List;
-import java.util.Map;
-import java.util.Map.Entry;
 import java.util.Properties;
 
 import javax.servlet.http.HttpSession;
 
 import org.apache.log4j.Logger;
 import org.everit.jira.analytics.AnalyticsDTO;
-import org.everit.jira.core.EVWorklogManager;
 import org.everit.jira.core.impl.DateTimeServer;
 import org.everit.jira.core.util.TimetrackerUtil;
 import org.everit.jira.reporting.plugin.ReportingCondition;
+import org.everit.jira.reporting.plugin.ReportingPlugin;
+import org.everit.jira.reporting.plugin.dto.ReportSearchParam;
+import org.everit.jira.reporting.plugin.exception.JTRPException;
 import org.everit.jira.reporting.plugin.util.PermissionUtil;
 import org.everit.jira.settings.TimeTrackerSettingsHelper;
 import org.everit.jira.timetracker.plugin.JiraTimetrackerAnalytics;
 import org.everit.jira.timetracker.plugin.PluginCondition;
 import org.everit.jira.timetracker.plugin.dto.ChartData;
-import org.everit.jira.timetracker.plugin.dto.EveritWorklog;
 import org.everit.jira.timetracker.plugin.dto.TimetrackerReportsSessionData;
 import org.everit.jira.timetracker.plugin.util.DateTimeConverterUtil;
 import org.everit.jira.timetracker.plugin.util.ExceptionUtil;
@@ -56,7 +55,10 @@ import com.atlassian.jira.avatar.AvatarService;
 import com.atlassian.jira.component.ComponentAccessor;
 import com.atlassian.jira.datetime.DateTimeStyle;
 import com.atlassian.jira.exception.DataAccessException;
+import com.atlassian.jira.permission.ProjectPermissions;
+import com.atlassian.jira.project.Project;
 import com.atlassian.jira.security.JiraAuthenticationContext;
+import com.atlassian.jira.security.PermissionManager;
 import com.atlassian.jira.user.ApplicationUser;
 import com.atlassian.jira.web.action.JiraWebActionSupport;
 import com.atlassian.velocity.htmlsafe.HtmlSafe;
@@ -153,6 +155,8 @@ public class JiraTimetrackerChartWebAction extends JiraWebActionSupport {
 
   private ReportingCondition reportingCondition;
 
+  private ReportingPlugin reportingPlugin;
+
   private TimeTrackerSettingsHelper settingsHelper;
 
   private String stacktrace = "";
@@ -161,17 +165,15 @@ public class JiraTimetrackerChartWebAction extends JiraWebActionSupport {
 
   private transient ApplicationUser userPickerObject;
 
-  private EVWorklogManager worklogManager;
-
   /**
    * Simple constructor.
    */
   public JiraTimetrackerChartWebAction(final TimeTrackerSettingsHelper settingsHelper,
-      final EVWorklogManager worklogManager) {
+      final ReportingPlugin reportingPlugin) {
     this.settingsHelper = settingsHelper;
     reportingCondition = new ReportingCondition(settingsHelper);
     pluginCondition = new PluginCondition(settingsHelper);
-    this.worklogManager = worklogManager;
+    this.reportingPlugin = reportingPlugin;
   }
 
   private void beforeAction() {
@@ -202,6 +204,37 @@ public class JiraTimetrackerChartWebAction extends JiraWebActionSupport {
     return null;
   }
 
+  /**
+   * Creates the search parameter of the chart: the worklogs of the selected user in the selected
+   * period, in the projects that the logged user can browse.
+   *
+   * @return the {@link ReportSearchParam}, or <code>null</code> if the logged user cannot browse
+   *         any project.
+   */
+  private ReportSearchParam createReportSearchParam() {
+    ApplicationUser loggedUser = getLoggedInApplicationUser();
+    PermissionManager permissionManager = ComponentAccessor.getPermissionManager();
+    List<Long> projectIds = new ArrayList<>();
+    for (Project project : permissionManager.getProjects(ProjectPermissions.BROWSE_PROJECTS,
+        loggedUser)) {
+      projectIds.add(project.getId());
+    }
+    if (projectIds.isEmpty()) {
+      return null;
+    }
+
+    ApplicationUser selectedUser = userPickerObject == null ? loggedUser : userPickerObject;
+    DateTimeServer worklogEndDate =
+        DateTimeServer.getInstanceBasedOnUserTimeZone(lastDate.getUserTimeZone().plusDays(1));
+
+    return new ReportSearchParam()
+        .issueIds(Collections.<Long> emptyList())
+        .projectIds(projectIds)
+        .users(Collections.singletonList(selectedUser.getKey()))
+        .worklogEndDate(worklogEndDate.getSystemTimeZoneDayStartDate())
+        .worklogStartDate(startDate.getSystemTimeZoneDayStartDate());
+  }
+
   @Override
   public String doDefault() throws ParseException {
     String checkConditionsResult = checkConditions();
@@ -242,31 +275,19 @@ public class JiraTimetrackerChartWebAction extends JiraWebActionSupport {
       return INPUT;
     }
 
-    List<EveritWorklog> worklogs = new ArrayList<>();
     try {
-      worklogs.addAll(worklogManager.getWorklogs(currentUser, startDate, lastDate));
+      ReportSearchParam reportSearchParam = createReportSearchParam();
+      if (reportSearchParam == null) {
+        chartDataList = new ArrayList<>();
+      } else {
+        chartDataList = reportingPlugin.getProjectChartData(reportSearchParam);
+      }
       saveDataToSession();
-    } catch (DataAccessException | ParseException e) {
+    } catch (DataAccessException | JTRPException e) {
       LOGGER.error(GET_WORKLOGS_ERROR_MESSAGE, e);
       stacktrace = ExceptionUtil.getStacktrace(e);
       return ERROR;
     }
-
-    Map<String, Long> map = new HashMap<>();
-    for (EveritWorklog worklog : worklogs) {
-      String projectName = worklog.getIssue().split("-")[0];
-      Long newValue = worklog.getMilliseconds();
-      Long oldValue = map.get(projectName);
-      if (oldValue == null) {
-        map.put(projectName, newValue);
-      } else {
-        map.put(projectName, oldValue + newValue);
-      }
-    }
-    chartDataList = new ArrayList<>();
-    for (Entry<String, Long> entry : map.entrySet()) {
-      chartDataList.add(new ChartData(entry.getKey(), entry.getValue()));
-    }
     return SUCCESS;
   }
 
@@ -21,11 +21,9 @@ import java.io.UnsupportedEncodingException;
 import java.net.URLEncoder;
 import java.text.ParseException;
 import java.util.ArrayList;
-import java.util.Calendar;
 import java.util.Collections;
 import java.util.Comparator;
 import java.util.Date;
-import java.util.HashMap;
 import java.util.List;
 import java.util.Properties;
 import java.util.regex.Pattern;
@@ -36,10 +34,13 @@ import org.apache.log4j.Logger;
 import org.everit.jira.analytics.AnalyticsDTO;
 import org.everit.jira.core.EVWorklogManager;
 import org.everit.jira.core.impl.DateTimeServer;
+import org.everit.jira.core.util.IssueKeyMatcher;
 import org.everit.jira.core.util.TimetrackerUtil;
 import org.everit.jira.reporting.plugin.ReportingCondition;
+import org.everit.jira.reporting.plugin.dto.TableReportSummary;
 import org.everit.jira.reporting.plugin.util.PermissionUtil;
 import org.everit.jira.settings.TimeTrackerSettingsHelper;
+import org.everit.jira.settings.dto.TimeTrackerGlobalSettings;
 import org.everit.jira.timetracker.plugin.DurationFormatter;
 import org.everit.jira.timetracker.plugin.JiraTimetrackerAnalytics;
 import org.everit.jira.timetracker.plugin.PluginCondition;
@@ -47,6 +48,7 @@ import org.everit.jira.timetracker.plugin.dto.EveritWorklog;
 import org.everit.jira.timetracker.plugin.dto.TimetrackerReportsSessionData;
 import org.everit.jira.timetracker.plugin.util.DateTimeConverterUtil;
 import org.everit.jira.timetracker.plugin.util.ExceptionUtil;
+import org.everit.jira.timetracker.plugin.util.FormatterRegistry;
 import org.everit.jira.timetracker.plugin.util.PiwikPropertiesUtil;
 import org.everit.jira.timetracker.plugin.util.PropertiesUtil;
 import org.everit.jira.updatenotifier.UpdateNotifier;
@@ -121,8 +123,6 @@ public class JiraTimetrackerTableWebAction extends JiraWebActionSupport {
    */
   private static final Logger LOGGER = Logger.getLogger(JiraTimetrackerTableWebAction.class);
 
-  private static final int MILLISEC_IN_SEC = 1000;
-
   private static final String SELF_WITH_DATE_AND_USER_URL_FORMAT =
       "/secure/JiraTimetrackerTableWebAction.jspa"
           + "?dateFromMil=%s"
@@ -157,8 +157,6 @@ public class JiraTimetrackerTableWebAction extends JiraWebActionSupport {
    */
   private Long dateToFormated;
 
-  private HashMap<Integer, List<Object>> daySum = new HashMap<>();
-
   private DurationFormatter durationFormatter;
 
   public boolean hasBrowseUsersPermission = true;
@@ -176,16 +174,10 @@ public class JiraTimetrackerTableWebAction extends JiraWebActionSupport {
    */
   private String message = "";
 
-  private HashMap<Integer, List<Object>> monthSum = new HashMap<>();
+  private IssueKeyMatcher nonWorkingIssueMatcher = IssueKeyMatcher.EMPTY;
 
   private PluginCondition pluginCondition;
 
-  private final HashMap<Integer, List<Object>> realDaySum = new HashMap<>();
-
-  private final HashMap<Integer, List<Object>> realMonthSum = new HashMap<>();
-
-  private final HashMap<Integer, List<Object>> realWeekSum = new HashMap<>();
-
   private ReportingCondition reportingCondition;
 
   private TimeTrackerSettingsHelper settingsHelper;
@@ -194,9 +186,9 @@ public class JiraTimetrackerTableWebAction extends JiraWebActionSupport {
 
   private DateTimeServer startDate;
 
-  private transient ApplicationUser userPickerObject;
+  private TableReportSummary tableReportSummary;
 
-  private HashMap<Integer, List<Object>> weekSum = new HashMap<>();
+  private transient ApplicationUser userPickerObject;
 
   private EVWorklogManager worklogManager;
 
@@ -217,88 +209,15 @@ public class JiraTimetrackerTableWebAction extends JiraWebActionSupport {
     atlassianWikiRenderer = rendererManager.getRendererForType("atlassian-wiki-renderer");
   }
 
-  private void addToDaySummary(final EveritWorklog worklog) {
-    int dayNo = worklog.getDayNo();
-    ArrayList<Object> list = new ArrayList<>();
-    Long prevDaySum = (daySum.get(dayNo) == null) ? Long.valueOf(0)
-        : (Long) daySum.get(dayNo).get(0);
-    Long sumSec = prevDaySum + (worklog.getMilliseconds() / MILLISEC_IN_SEC);
-    list.add(sumSec);
-    list.add(durationFormatter.exactDuration(sumSec));
-    daySum.put(dayNo, list);
-  }
-
-  private void addToMonthSummary(final EveritWorklog worklog) {
-    int monthNo = worklog.getMonthNo();
-    ArrayList<Object> list = new ArrayList<>();
-    Long prevMonthSum = (monthSum.get(monthNo) == null) ? Long.valueOf(0)
-        : (Long) monthSum.get(monthNo).get(0);
-    Long sumSec = prevMonthSum + (worklog.getMilliseconds() / MILLISEC_IN_SEC);
-    list.add(sumSec);
-    list.add(durationFormatter.exactDuration(sumSec));
-    monthSum.put(monthNo, list);
-  }
-
-  private void addToRealDaySummary(final EveritWorklog worklog, final boolean isRealWorklog) {
-    int dayNo = worklog.getDayNo();
-    ArrayList<Object> realList = new ArrayList<>();
-    Long prevRealDaySum = (realDaySum.get(dayNo) == null) ? Long.valueOf(0)
-        : (Long) realDaySum.get(dayNo).get(0);
-    Long realSumSec = prevRealDaySum;
-    if (isRealWorklog) {
-      realSumSec += (worklog.getMilliseconds() / MILLISEC_IN_SEC);
-    }
-    realList.add(realSumSec);
-    realList.add(durationFormatter.exactDuration(realSumSec));
-    realDaySum.put(dayNo, realList);
-  }
-
-  private void addToRealMonthSummary(final EveritWorklog worklog, final boolean isRealWorklog) {
-    int monthNo = worklog.getMonthNo();
-    ArrayList<Object> realList = new ArrayList<>();
-    Long prevRealMonthSum = realMonthSum.get(monthNo) == null ? Long.valueOf(0)
-        : (Long) realMonthSum.get(monthNo).get(0);
-    Long realSumSec = prevRealMonthSum;
-    if (isRealWorklog) {
-      realSumSec += (worklog.getMilliseconds() / MILLISEC_IN_SEC);
-    }
-    realList.add(realSumSec);
-    realList.add(durationFormatter.exactDuration(realSumSec));
-    realMonthSum.put(monthNo, realList);
-  }
-
-  private void addToRealWeekSummary(final EveritWorklog worklog, final boolean isRealWorklog) {
-    int weekNo = worklog.getWeekNo();
-    ArrayList<Object> realList = new ArrayList<>();
-    Long prevRealWeekSum = realWeekSum.get(weekNo) == null ? Long.valueOf(0)
-        : (Long) realWeekSum.get(weekNo).get(0);
-    Long realSumSec = prevRealWeekSum;
-    if (isRealWorklog) {
-      realSumSec += (worklog.getMilliseconds() / MILLISEC_IN_SEC);
-    }
-    realList.add(realSumSec);
-    realList.add(durationFormatter.exactDuration(realSumSec));
-    realWeekSum.put(weekNo, realList);
-  }
-
-  private void addToWeekSummary(final EveritWorklog worklog) {
-    ArrayList<Object> list = new ArrayList<>();
-    int weekNo = worklog.getWeekNo();
-    Long prevWeekSum = weekSum.get(weekNo) == null ? Long.valueOf(0)
-        : (Long) weekSum.get(weekNo).get(0);
-    Long sumSec = prevWeekSum + (worklog.getMilliseconds() / MILLISEC_IN_SEC);
-    list.add(sumSec);
-    list.add(durationFormatter.exactDuration(sumSec));
-    weekSum.put(weekNo, list);
-  }
-
   private void beforeAction() {
     createDurationFormatter();
 
     loadIssueCollectorSrc();
     normalizeContextPath();
 
-    issuesRegex = settingsHelper.loadGlobalSettings().getNonWorkingIssuePatterns();
+    TimeTrackerGlobalSettings globalSettings = settingsHelper.loadGlobalSettings();
+    nonWorkingIssueMatcher = globalSettings.getNonWorkingIssueMatcher();
+    issuesRegex = nonWorkingIssueMatcher.getPatterns();
 
     hasBrowseUsersPermission =
         PermissionUtil.hasBrowseUserPermission(getLoggedInApplicationUser(),
@@ -327,7 +246,7 @@ public class JiraTimetrackerTableWebAction extends JiraWebActionSupport {
   }
 
   private void createDurationFormatter() {
-    durationFormatter = new DurationFormatter();
+    durationFormatter = FormatterRegistry.getDurationFormatter();
   }
 
   @Override
@@ -383,20 +302,9 @@ public class JiraTimetrackerTableWebAction extends JiraWebActionSupport {
 
     Collections.sort(worklogs, new OrderByDate());
 
+    tableReportSummary = new TableReportSummary(worklogs, durationFormatter);
     for (EveritWorklog worklog : worklogs) {
-      Calendar calendar = Calendar.getInstance();
-      calendar.setTime(worklog.getDate());
-
-      boolean isRealWorklog = isRealWorklog(worklog);
-
-      addToMonthSummary(worklog);
-      addToRealMonthSummary(worklog, isRealWorklog);
-
-      addToWeekSummary(worklog);
-      addToRealWeekSummary(worklog, isRealWorklog);
-
-      addToDaySummary(worklog);
-      addToRealDaySummary(worklog, isRealWorklog);
+      tableReportSummary.add(worklog, isRealWorklog(worklog));
     }
 
     return SUCCESS;
@@ -430,10 +338,6 @@ public class JiraTimetrackerTableWebAction extends JiraWebActionSupport {
     return dateToFormated;
   }
 
-  public HashMap<Integer, List<Object>> getDaySum() {
-    return daySum;
-  }
-
   /**
    * Get end date for date picker.
    */
@@ -486,32 +390,16 @@ public class JiraTimetrackerTableWebAction extends JiraWebActionSupport {
     return message;
   }
 
-  public HashMap<Integer, List<Object>> getMonthSum() {
-    return monthSum;
-  }
-
-  public HashMap<Integer, List<Object>> getRealDaySum() {
-    return realDaySum;
-  }
-
-  public HashMap<Integer, List<Object>> getRealMonthSum() {
-    return realMonthSum;
-  }
-
-  public HashMap<Integer, List<Object>> getRealWeekSum() {
-    return realWeekSum;
-  }
-
   public String getStacktrace() {
     return stacktrace;
   }
 
-  public ApplicationUser getUserPickerObject() {
-    return userPickerObject;
+  public TableReportSummary getTableReportSummary() {
+    return tableReportSummary;
   }
 
-  public HashMap<Integer, List<Object>> getWeekSum() {
-    return weekSum;
+  public ApplicationUser getUserPickerObject() {
+    return userPickerObject;
   }
 
   public List<EveritWorklog> getWorklogs() {
@@ -540,18 +428,8 @@ public class JiraTimetrackerTableWebAction extends JiraWebActionSupport {
   }
 
   private boolean isRealWorklog(final EveritWorklog worklog) {
-    boolean isRealWorklog = true;
-    if (issuesRegex != null) {
-      for (Pattern issuePattern : issuesRegex) {
-        boolean issueMatches = issuePattern.matcher(worklog.getIssue()).matches();
-        // if match not count in summary
-        if (issueMatches) {
-          isRealWorklog = false;
-          break;
-        }
-      }
-    }
-    return isRealWorklog;
+    // if match not count in summary
+    return !nonWorkingIssueMatcher.matches(worklog.getIssue());
   }
 
   private boolean loadDataFromSession() {
@@ -41,6 +41,7 @@ import org.everit.jira.reporting.plugin.dto.IssueSummaryReportDTO;
 import org.everit.jira.reporting.plugin.dto.OrderBy;
 import org.everit.jira.reporting.plugin.dto.ProjectSummaryReportDTO;
 import org.everit.jira.reporting.plugin.dto.ReportingSessionData;
+import org.everit.jira.reporting.plugin.dto.ReportsDTO;
 import org.everit.jira.reporting.plugin.dto.UserForPickerDTO;
 import org.everit.jira.reporting.plugin.dto.UserPickerContainerDTO;
 import org.everit.jira.reporting.plugin.dto.UserSummaryReportDTO;
@@ -54,6 +55,7 @@ import org.everit.jira.timetracker.plugin.DurationFormatter;
 import org.everit.jira.timetracker.plugin.JiraTimetrackerAnalytics;
 import org.everit.jira.timetracker.plugin.PluginCondition;
 import org.everit.jira.timetracker.plugin.util.DateTimeConverterUtil;
+import org.everit.jira.timetracker.plugin.util.FormatterRegistry;
 import org.everit.jira.timetracker.plugin.util.PiwikPropertiesUtil;
 import org.everit.jira.timetracker.plugin.util.PropertiesUtil;
 import org.everit.jira.updatenotifier.UpdateNotifier;
@@ -129,7 +131,7 @@ public class ReportingWebAction extends JiraWebActionSupport {
 
   private boolean defaultCommand = false;
 
-  private DurationFormatter durationFormatter = new DurationFormatter();
+  private DurationFormatter durationFormatter = FormatterRegistry.getDurationFormatter();
 
   public List<SearchRequest> favouriteFilters;
 
@@ -260,20 +262,17 @@ public class ReportingWebAction extends JiraWebActionSupport {
     }
 
     try {
-      worklogDetailsReport =
-          reportingPlugin.getWorklogDetailsReport(convertedSearchParam.reportSearchParam,
-              OrderBy.DEFAULT);
+      ReportsDTO reports =
+          reportingPlugin.getReports(convertedSearchParam.reportSearchParam, OrderBy.DEFAULT);
+      worklogDetailsReport = reports.getWorklogDetailsReport();
       if (worklogDetailsReport.getWorklogDetailsCount() == 0) {
         worklogDetailsEmpty = true;
       }
-      projectSummaryReport =
-          reportingPlugin.getProjectSummaryReport(convertedSearchParam.reportSearchParam);
+      projectSummaryReport = reports.getProjectSummaryReport();
 
-      issueSummaryReport =
-          reportingPlugin.getIssueSummaryReport(convertedSearchParam.reportSearchParam);
+      issueSummaryReport = reports.getIssueSummaryReport();
 
-      userSummaryReport =
-          reportingPlugin.getUserSummaryReport(convertedSearchParam.reportSearchParam);
+      userSummaryReport = reports.getUserSummaryReport();
 
       notBrowsableProjectKeys = convertedSearchParam.notBrowsableProjectKeys;
     } catch (JTRPException e) {
@@ -0,0 +1,185 @@
+/*
+ * Copyright (C) 2011 Everit Kft. (http://www.everit.org)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.everit.jira.settings;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * In-memory cache of the immutable snapshots of the loaded settings. Every invalidation increases
+ * the version of the cache, and a snapshot loaded before an invalidation is never kept, so a load
+ * running parallel with a save can not put back the old values. Only the {@link #MAX_SIZE} least
+ * recently used snapshots are kept, so the cache does not grow with the number of the users.
+ */
+public final class SettingsSnapshotCache {
+
+  /**
+   * The cache key of the global settings.
+   */
+  public static final String GLOBAL_KEY = "global";
+
+  /**
+   * The maximum number of the cached snapshots.
+   */
+  public static final int MAX_SIZE = 1000;
+
+  /**
+   * The cache key of the reporting global settings.
+   */
+  public static final String REPORTING_KEY = "reporting";
+
+  private static final float SNAPSHOTS_LOAD_FACTOR = 0.75f;
+
+  /**
+   * The prefix of the cache keys of the user settings.
+   */
+  public static final String USER_KEY_PREFIX = "user:";
+
+  /**
+   * Gives back the cache key of the settings of the user.
+   *
+   * @param userName
+   *          the name of the user.
+   * @return the cache key.
+   */
+  public static String userKey(final String userName) {
+    return USER_KEY_PREFIX + userName;
+  }
+
+  private final AtomicLong hitCount = new AtomicLong();
+
+  private final AtomicLong missCount = new AtomicLong();
+
+  /**
+   * The least recently used snapshots by cache key.
+   */
+  private final Map<String, Map<?, ?>> snapshots =
+      Collections.synchronizedMap(new LinkedHashMap<String, Map<?, ?>>(MAX_SIZE,
+          SNAPSHOTS_LOAD_FACTOR, true) {
+
+        private static final long serialVersionUID = 2489574630186457014L;
+
+        @Override
+        protected boolean removeEldestEntry(final Entry<String, Map<?, ?>> eldest) {
+          return size() > MAX_SIZE;
+        }
+      });
+
+  private final AtomicLong version = new AtomicLong();
+
+  /**
+   * Creates a snapshot copy of the settings values. The list values are copied to unmodifiable
+   * lists, so the snapshot can not be changed through the returned settings objects.
+   */
+  private <K, V> Map<K, V> createSnapshot(final Map<K, V> values) {
+    Map<K, V> snapshot = new HashMap<>();
+    for (Entry<K, V> entry : values.entrySet()) {
+      V value = entry.getValue();
+      if (value instanceof List) {
+        @SuppressWarnings("unchecked")
+        V listValue = (V) Collections.unmodifiableList(new ArrayList<>((List<?>) value));
+        value = listValue;
+      }
+      snapshot.put(entry.getKey(), value);
+    }
+    return Collections.unmodifiableMap(snapshot);
+  }
+
+  /**
+   * Gives back the cached snapshot.
+   *
+   * @param key
+   *          the cache key.
+   * @return the snapshot or <code>null</code> if it is not cached.
+   */
+  @SuppressWarnings("unchecked")
+  public <K, V> Map<K, V> get(final String key) {
+    Map<K, V> snapshot = (Map<K, V>) snapshots.get(key);
+    if (snapshot == null) {
+      missCount.incrementAndGet();
+    } else {
+      hitCount.incrementAndGet();
+    }
+    return snapshot;
+  }
+
+  public long getHitCount() {
+    return hitCount.get();
+  }
+
+  public long getMissCount() {
+    return missCount.get();
+  }
+
+  /**
+   * Gives back the current version of the cache. It has to be queried before the settings are
+   * loaded and passed to the {@link #put(String, Map, long)} method.
+   */
+  public long getVersion() {
+    return version.get();
+  }
+
+  /**
+   * Removes the snapshot of the key.
+   *
+   * @param key
+   *          the cache key.
+   */
+  public void invalidate(final String key) {
+    version.incrementAndGet();
+    snapshots.remove(key);
+  }
+
+  /**
+   * Removes every snapshot.
+   */
+  public void invalidateAll() {
+    version.incrementAndGet();
+    snapshots.clear();
+  }
+
+  /**
+   * Caches the snapshot of the loaded values if the cache is not invalidated since the values are
+   * loaded.
+   *
+   * @param key
+   *          the cache key.
+   * @param values
+   *          the loaded values.
+   * @param loadedVersion
+   *          the version of the cache before the values are loaded.
+   * @return the snapshot of the values.
+   */
+  public <K, V> Map<K, V> put(final String key, final Map<K, V> values,
+      final long loadedVersion) {
+    Map<K, V> snapshot = createSnapshot(values);
+    if (version.get() == loadedVersion) {
+      snapshots.put(key, snapshot);
+      if (version.get() != loadedVersion) {
+        // invalidated meanwhile
+        snapshots.remove(key);
+      }
+    }
+    return snapshot;
+  }
+
+}
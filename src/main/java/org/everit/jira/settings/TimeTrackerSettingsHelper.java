@@ -24,6 +24,14 @@ import org.everit.jira.settings.dto.TimeTrackerUserSettings;
  * configurations.
  */
 public interface TimeTrackerSettingsHelper {
+  /**
+   * Gives back the version of the settings. The version changes when any settings are saved, so
+   * a value calculated from the settings can be cached with the version.
+   *
+   * @return the settings version.
+   */
+  long getSettingsVersion();
+
   /**
    * Load all timetracker global configuration from the
    * {@link com.atlassian.sal.api.pluginsettings.PluginSettings}.
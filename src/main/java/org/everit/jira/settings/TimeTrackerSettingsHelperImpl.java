@@ -18,7 +18,11 @@ package org.everit.jira.settings;
 import java.io.IOException;
 import java.io.Serializable;
 import java.text.ParseException;
+import java.util.ArrayList;
 import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.Map.Entry;
 import java.util.UUID;
 
@@ -37,8 +41,11 @@ import org.everit.jira.settings.dto.TimeTrackerGlobalSettings;
 import org.everit.jira.settings.dto.TimeTrackerUserSettings;
 import org.everit.jira.settings.dto.UserSettingKey;
 import org.everit.jira.timetracker.plugin.util.DateTimeConverterUtil;
+import org.springframework.beans.factory.DisposableBean;
 import org.springframework.beans.factory.InitializingBean;
 
+import com.atlassian.jira.cluster.ClusterMessageConsumer;
+import com.atlassian.jira.cluster.ClusterMessagingService;
 import com.atlassian.jira.component.ComponentAccessor;
 import com.atlassian.jira.security.JiraAuthenticationContext;
 import com.atlassian.jira.user.ApplicationUser;
@@ -46,15 +53,37 @@ import com.atlassian.sal.api.pluginsettings.PluginSettings;
 import com.atlassian.sal.api.pluginsettings.PluginSettingsFactory;
 
 /**
- * The implementation of {@link TimeTrackerSettingsHelper} interface.
+ * The implementation of {@link TimeTrackerSettingsHelper} interface. The loaded settings are cached
+ * in a {@link SettingsSnapshotCache} until they are saved on this node or on another node of the
+ * cluster.
  */
 public class TimeTrackerSettingsHelperImpl
-    implements TimeTrackerSettingsHelper, InitializingBean, Serializable {
+    implements TimeTrackerSettingsHelper, InitializingBean, DisposableBean,
+    ClusterMessageConsumer, Serializable {
+
+  /**
+   * The cluster message channel of the settings cache invalidation.
+   */
+  public static final String CLUSTER_CHANNEL = "JTTP-SETTINGS";
+
+  /**
+   * The cluster message that invalidates every cached settings.
+   */
+  private static final String CLUSTER_MESSAGE_ALL = "*";
+
+  /**
+   * The maximum length of a cluster message.
+   */
+  private static final int CLUSTER_MESSAGE_MAX_LENGTH = 200;
 
   private static final long serialVersionUID = 8873665767837959963L;
 
   private transient AnalyticsSender analyticsSender;
 
+  private transient ClusterMessagingService clusterMessagingService;
+
+  private final transient SettingsSnapshotCache settingsCache = new SettingsSnapshotCache();
+
   private transient PluginSettingsFactory settingsFactory;
 
   /**
@@ -69,6 +98,7 @@ public class TimeTrackerSettingsHelperImpl
 
   @Override
   public void afterPropertiesSet() throws Exception {
+    registerClusterListener();
     PluginSettings globalSettings = settingsFactory.createGlobalSettings();
     String tempExcludeDates =
         (String) globalSettings.get(JTTPSettingsKey.JTTP_PLUGIN_SETTINGS_KEY_PREFIX
@@ -107,6 +137,7 @@ public class TimeTrackerSettingsHelperImpl
       globalSettings.put(JTTPSettingsKey.JTTP_PLUGIN_SETTINGS_KEY_PREFIX
           + GlobalSettingsKey.INCLUDE_DATES.getSettingsKey(), sb.toString());
     }
+    settingsCache.invalidate(SettingsSnapshotCache.GLOBAL_KEY);
   }
 
   private void checkAnalyticsForActiveFieldDuration(final PluginSettings pluginSettings,
@@ -204,6 +235,14 @@ public class TimeTrackerSettingsHelperImpl
     }
   }
 
+  @Override
+  public void destroy() throws Exception {
+    if (clusterMessagingService != null) {
+      clusterMessagingService.unregisterListener(CLUSTER_CHANNEL, this);
+    }
+    settingsCache.invalidateAll();
+  }
+
   private void generateAndSavePluginUUID() {
     String temppluginUUID = loadGlobalSettings().getPluginUUID();
     if ((temppluginUUID == null) || temppluginUUID.isEmpty()) {
@@ -214,59 +253,138 @@ public class TimeTrackerSettingsHelperImpl
     }
   }
 
-  private PluginSettings getUserPluginSettings() {
+  public SettingsSnapshotCache getSettingsCache() {
+    return settingsCache;
+  }
+
+  @Override
+  public long getSettingsVersion() {
+    return settingsCache.getVersion();
+  }
+
+  private String getUserName() {
     JiraAuthenticationContext authenticationContext = ComponentAccessor
         .getJiraAuthenticationContext();
     ApplicationUser user = authenticationContext.getUser();
+    return user.getName();
+  }
+
+  private PluginSettings getUserPluginSettings(final String userName) {
     PluginSettings pluginSettings = settingsFactory
         .createSettingsForKey(JTTPSettingsKey.JTTP_PLUGIN_SETTINGS_KEY_PREFIX
-            + user.getName());
+            + userName);
     return pluginSettings;
   }
 
+  private void invalidate(final String cacheKey) {
+    settingsCache.invalidate(cacheKey);
+    if (clusterMessagingService != null) {
+      String message = cacheKey.length() <= CLUSTER_MESSAGE_MAX_LENGTH
+          ? cacheKey
+          : CLUSTER_MESSAGE_ALL;
+      clusterMessagingService.sendRemote(CLUSTER_CHANNEL, message);
+    }
+  }
+
   @Override
   public TimeTrackerGlobalSettings loadGlobalSettings() {
-    PluginSettings globalSettings = settingsFactory.createGlobalSettings();
+    long cacheVersion = settingsCache.getVersion();
+    Map<GlobalSettingsKey, Object> values = settingsCache.get(SettingsSnapshotCache.GLOBAL_KEY);
+    if (values == null) {
+      PluginSettings globalSettings = settingsFactory.createGlobalSettings();
+      Map<GlobalSettingsKey, Object> loadedValues = new HashMap<>();
+      for (GlobalSettingsKey settingKey : GlobalSettingsKey.values()) {
+        loadedValues.put(settingKey, globalSettings.get(
+            JTTPSettingsKey.JTTP_PLUGIN_SETTINGS_KEY_PREFIX + settingKey.getSettingsKey()));
+      }
+      values = settingsCache.put(SettingsSnapshotCache.GLOBAL_KEY, loadedValues, cacheVersion);
+    }
     TimeTrackerGlobalSettings timeTrackerGlobalSettings = new TimeTrackerGlobalSettings();
-    for (GlobalSettingsKey settingKey : GlobalSettingsKey.values()) {
-      timeTrackerGlobalSettings.putGlobalSettingValue(settingKey,
-          globalSettings.get(
-              JTTPSettingsKey.JTTP_PLUGIN_SETTINGS_KEY_PREFIX + settingKey.getSettingsKey()));
+    for (Entry<GlobalSettingsKey, Object> value : values.entrySet()) {
+      timeTrackerGlobalSettings.putGlobalSettingValue(value.getKey(),
+          mutableCopy(value.getValue()));
     }
     return timeTrackerGlobalSettings;
   }
 
   @Override
   public ReportingGlobalSettings loadReportingGlobalSettings() {
-    PluginSettings reportingSettings = settingsFactory
-        .createSettingsForKey(JTTPSettingsKey.JTTP_PLUGIN_REPORTING_SETTINGS_KEY_PREFIX);
+    long cacheVersion = settingsCache.getVersion();
+    Map<ReportingSettingKey, Object> values =
+        settingsCache.get(SettingsSnapshotCache.REPORTING_KEY);
+    if (values == null) {
+      PluginSettings reportingSettings = settingsFactory
+          .createSettingsForKey(JTTPSettingsKey.JTTP_PLUGIN_REPORTING_SETTINGS_KEY_PREFIX);
+      Map<ReportingSettingKey, Object> loadedValues = new HashMap<>();
+      for (ReportingSettingKey reportingSettingsKey : ReportingSettingKey.values()) {
+        loadedValues.put(reportingSettingsKey,
+            reportingSettings.get(JTTPSettingsKey.JTTP_PLUGIN_REPORTING_SETTINGS_KEY_PREFIX
+                + reportingSettingsKey.getSettingsKey()));
+      }
+      values =
+          settingsCache.put(SettingsSnapshotCache.REPORTING_KEY, loadedValues, cacheVersion);
+    }
     ReportingGlobalSettings reportingGlobalSettings = new ReportingGlobalSettings();
-    for (ReportingSettingKey reportingSettingsKey : ReportingSettingKey.values()) {
-      reportingGlobalSettings.putSettings(reportingSettingsKey,
-          reportingSettings.get(JTTPSettingsKey.JTTP_PLUGIN_REPORTING_SETTINGS_KEY_PREFIX
-              + reportingSettingsKey.getSettingsKey()));
+    for (Entry<ReportingSettingKey, Object> value : values.entrySet()) {
+      reportingGlobalSettings.putSettings(value.getKey(), mutableCopy(value.getValue()));
     }
     return reportingGlobalSettings;
   }
 
   @Override
   public TimeTrackerUserSettings loadUserSettings() {
-    PluginSettings pluginSettings = getUserPluginSettings();
+    String userName = getUserName();
+    String cacheKey = SettingsSnapshotCache.userKey(userName);
+    long cacheVersion = settingsCache.getVersion();
+    Map<UserSettingKey, String> values = settingsCache.get(cacheKey);
+    if (values == null) {
+      PluginSettings pluginSettings = getUserPluginSettings(userName);
+      Map<UserSettingKey, String> loadedValues = new HashMap<>();
+      for (UserSettingKey settingKey : UserSettingKey.values()) {
+        // FIXME JIRA store everything in string but returns in object
+        loadedValues.put(settingKey, (String) pluginSettings.get(settingKey.getSettingsKey()));
+      }
+      values = settingsCache.put(cacheKey, loadedValues, cacheVersion);
+    }
     TimeTrackerUserSettings timeTrackerUserSettings = new TimeTrackerUserSettings();
-    for (UserSettingKey settingKey : UserSettingKey.values()) {
-      // FIXME JIRA store everything in string but returns in object
-      timeTrackerUserSettings.putUserSettingValue(settingKey,
-          (String) pluginSettings.get(settingKey.getSettingsKey()));
+    for (Entry<UserSettingKey, String> value : values.entrySet()) {
+      timeTrackerUserSettings.putUserSettingValue(value.getKey(), value.getValue());
     }
     return timeTrackerUserSettings;
   }
 
+  private static Object mutableCopy(final Object value) {
+    if (value instanceof List) {
+      return new ArrayList<>((List<?>) value);
+    }
+    return value;
+  }
+
   private void readObject(final java.io.ObjectInputStream stream) throws IOException,
       ClassNotFoundException {
     stream.close();
     throw new java.io.NotSerializableException(getClass().getName());
   }
 
+  @Override
+  public void receive(final String channel, final String message, final String senderId) {
+    if (!CLUSTER_CHANNEL.equals(channel)) {
+      return;
+    }
+    if (CLUSTER_MESSAGE_ALL.equals(message)) {
+      settingsCache.invalidateAll();
+    } else {
+      settingsCache.invalidate(message);
+    }
+  }
+
+  private void registerClusterListener() {
+    clusterMessagingService = ComponentAccessor.getComponent(ClusterMessagingService.class);
+    if (clusterMessagingService != null) {
+      clusterMessagingService.registerListener(CLUSTER_CHANNEL, this);
+    }
+  }
+
   @Override
   public void saveGlobalSettings(final TimeTrackerGlobalSettings pluginSettingsValues) {
     PluginSettings globalSettings = settingsFactory.createGlobalSettings();
@@ -281,6 +399,7 @@ public class TimeTrackerSettingsHelperImpl
           + globalSettingEntry.getKey().getSettingsKey(),
           globalSettingEntry.getValue());
     }
+    invalidate(SettingsSnapshotCache.GLOBAL_KEY);
   }
 
   @Override
@@ -293,12 +412,13 @@ public class TimeTrackerSettingsHelperImpl
           + settingEntry.getKey().getSettingsKey(),
           settingEntry.getValue());
     }
-
+    invalidate(SettingsSnapshotCache.REPORTING_KEY);
   }
 
   @Override
   public void saveUserSettings(final TimeTrackerUserSettings userSettings) {
-    PluginSettings pluginSettings = getUserPluginSettings();
+    String userName = getUserName();
+    PluginSettings pluginSettings = getUserPluginSettings(userName);
     checkAnalyticsForProgressIndicator(pluginSettings,
         userSettings.getUserSettingValue(UserSettingKey.PROGRESS_INDICATOR));
     checkAnalyticsForShowFutureLogWarning(pluginSettings, userSettings.isShowFutureLogWarning());
@@ -310,7 +430,7 @@ public class TimeTrackerSettingsHelperImpl
       pluginSettings.put(settingEntry.getKey().getSettingsKey(),
           settingEntry.getValue());
     }
-
+    invalidate(SettingsSnapshotCache.userKey(userName));
   }
 
 }
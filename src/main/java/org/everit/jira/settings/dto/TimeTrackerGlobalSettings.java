@@ -26,6 +26,7 @@ import java.util.SortedSet;
 import java.util.TreeSet;
 import java.util.regex.Pattern;
 
+import org.everit.jira.core.util.IssueKeyMatcher;
 import org.joda.time.DateTime;
 import org.joda.time.DateTimeZone;
 
@@ -158,20 +159,20 @@ public class TimeTrackerGlobalSettings {
   }
 
   /**
-   * Get the issue patterns.
+   * Get the shared matcher of the issue patterns.
+   */
+  public IssueKeyMatcher getIssueMatcher() {
+    return IssueKeyMatcher.create(
+        (List<?>) pluginSettingsKeyValues.get(GlobalSettingsKey.NON_ESTIMATED_ISSUES));
+  }
+
+  /**
+   * Get the issue patterns. The patterns are compiled once by the shared matcher.
+   *
+   * @return the unmodifiable list of the patterns.
    */
   public List<Pattern> getIssuePatterns() {
-    // TODO in pattern out string
-    List<String> tempIssuePatternList = (List<String>) pluginSettingsKeyValues.get(
-        GlobalSettingsKey.NON_ESTIMATED_ISSUES);
-    List<Pattern> collectorIssuePatterns = new ArrayList<>();
-    if (tempIssuePatternList != null) {
-      // add collector issues
-      for (String tempIssuePattern : tempIssuePatternList) {
-        collectorIssuePatterns.add(Pattern.compile(tempIssuePattern));
-      }
-    }
-    return collectorIssuePatterns;
+    return getIssueMatcher().getPatterns();
   }
 
   /**
@@ -192,19 +193,20 @@ public class TimeTrackerGlobalSettings {
   }
 
   /**
-   * Get the non working issue filters.
+   * Get the shared matcher of the non working issue filters.
+   */
+  public IssueKeyMatcher getNonWorkingIssueMatcher() {
+    return IssueKeyMatcher.create(
+        (List<?>) pluginSettingsKeyValues.get(GlobalSettingsKey.SUMMARY_FILTERS));
+  }
+
+  /**
+   * Get the non working issue filters. The patterns are compiled once by the shared matcher.
+   *
+   * @return the unmodifiable list of the patterns.
    */
   public List<Pattern> getNonWorkingIssuePatterns() {
-    List<String> tempSummaryFilter =
-        (List<String>) pluginSettingsKeyValues.get(GlobalSettingsKey.SUMMARY_FILTERS);
-    List<Pattern> nonWorkingIssuePatterns = new ArrayList<>();
-    if (tempSummaryFilter != null) {
-      // add non working issues
-      for (String tempIssuePattern : tempSummaryFilter) {
-        nonWorkingIssuePatterns.add(Pattern.compile(tempIssuePattern));
-      }
-    }
-    return nonWorkingIssuePatterns;
+    return getNonWorkingIssueMatcher().getPatterns();
   }
 
   /**
@@ -23,11 +23,10 @@ import java.text.DecimalFormat;
 import java.util.LinkedHashMap;
 
 import org.everit.jira.timetracker.plugin.util.DateTimeConverterUtil;
+import org.everit.jira.timetracker.plugin.util.FormatterRegistry;
 
 import com.atlassian.jira.bc.issue.worklog.TimeTrackingConfiguration;
 import com.atlassian.jira.component.ComponentAccessor;
-import com.atlassian.jira.config.properties.ApplicationProperties;
-import com.atlassian.jira.security.JiraAuthenticationContext;
 import com.atlassian.jira.util.I18nHelper;
 import com.atlassian.jira.util.JiraDurationUtils.DaysDurationFormatter;
 import com.atlassian.jira.util.JiraDurationUtils.HoursDurationFormatter;
@@ -66,51 +65,60 @@ public class DurationFormatter implements Serializable {
 
   private static final long serialVersionUID = 8497858288910306739L;
 
+  /**
+   * The application property of the time tracking format.
+   */
+  public static final String TIME_TRACKING_FORMAT_KEY = "jira.timetracking.format";
+
   private static final String WEEK = "w ";
 
   private static final int WEEKIDX = 0;
 
-  private DaysDurationFormatter daysDurationFormatter;
-
-  private long durationInSeconds;
+  private final DaysDurationFormatter daysDurationFormatter;
 
-  private LinkedHashMap<String, Long> fragments = new LinkedHashMap<>();
+  private final HoursDurationFormatter hoursDurationFormatter;
 
-  private HoursDurationFormatter hoursDurationFormatter;
+  private final PrettyDurationFormatter prettyDurationFormatter;
 
-  private PrettyDurationFormatter prettyDurationFormatter;
+  private final String timeFormat;
 
-  private String timeFormat;
+  private final double workDaysPerWeek;
 
-  private double workDaysPerWeek;
-
-  private double workHoursPerDay;
+  private final double workHoursPerDay;
 
   /**
-   * Simple constructor.
+   * Simple constructor. Prefer the shared instance of
+   * {@link FormatterRegistry#getDurationFormatter()}.
    */
   public DurationFormatter() {
+    this(ComponentAccessor.getApplicationProperties()
+        .getDefaultBackedString(TIME_TRACKING_FORMAT_KEY),
+        ComponentAccessor.getComponent(TimeTrackingConfiguration.class),
+        ComponentAccessor.getJiraAuthenticationContext().getI18nHelper());
+  }
 
-    TimeTrackingConfiguration timeTrackingConfiguration =
-        ComponentAccessor.getComponent(TimeTrackingConfiguration.class);
-
-    ApplicationProperties applicationProperties = ComponentAccessor.getApplicationProperties();
-    timeFormat = applicationProperties.getDefaultBackedString("jira.timetracking.format");
-
+  /**
+   * Constructor. The created formatter does not change, so it can be shared between threads.
+   *
+   * @param timeFormat
+   *          the time tracking format of JIRA (pretty, days or hours).
+   * @param timeTrackingConfiguration
+   *          the time tracking configuration (work days per week and work hours per day).
+   * @param i18nHelper
+   *          the i18n helper of the units.
+   */
+  public DurationFormatter(final String timeFormat,
+      final TimeTrackingConfiguration timeTrackingConfiguration, final I18nHelper i18nHelper) {
+    this.timeFormat = timeFormat;
     workDaysPerWeek = timeTrackingConfiguration.getDaysPerWeek().doubleValue();
     workHoursPerDay = timeTrackingConfiguration.getHoursPerDay().doubleValue();
 
-    JiraAuthenticationContext jiraAuthenticationContext =
-        ComponentAccessor.getJiraAuthenticationContext();
-    I18nHelper i18nHelper = jiraAuthenticationContext.getI18nHelper();
-
     daysDurationFormatter = new DaysDurationFormatter(
         new BigDecimal(workHoursPerDay).setScale(2, RoundingMode.HALF_UP), i18nHelper);
     hoursDurationFormatter = new HoursDurationFormatter(i18nHelper);
     prettyDurationFormatter = new PrettyDurationFormatter(
         new BigDecimal(workHoursPerDay).setScale(2, RoundingMode.HALF_UP),
         new BigDecimal(workDaysPerWeek).setScale(2, RoundingMode.HALF_UP), i18nHelper);
-
   }
 
   private boolean appendValue(final StringBuilder rval, final Long value, final String key,
@@ -125,7 +133,8 @@ public class DurationFormatter implements Serializable {
     return false;
   }
 
-  private String buildFromFragments(final boolean needsTilde) {
+  private String buildFromFragments(final LinkedHashMap<String, Long> fragments,
+      final boolean needsTilde) {
     StringBuilder rval = new StringBuilder(needsTilde ? "~" : "");
     boolean nonzeroFragmentVisited = false;
     nonzeroFragmentVisited = appendValue(rval, fragments.get(WEEK), WEEK, nonzeroFragmentVisited);
@@ -139,7 +148,8 @@ public class DurationFormatter implements Serializable {
     }
   }
 
-  private String buildRoundedEstimateString(final int firstNonzeroIdx, final int lastNonzeroIdx) {
+  private String buildRoundedEstimateString(final LinkedHashMap<String, Long> fragments,
+      final int firstNonzeroIdx, final int lastNonzeroIdx) {
     LinkedHashMap<String, Long> truncatedFragments = new LinkedHashMap<>();
     int handledFragmentCount = 0;
     boolean needsTilde = false;
@@ -157,12 +167,12 @@ public class DurationFormatter implements Serializable {
         fragmentCount(firstNonzeroIdx, lastNonzeroIdx, handledFragmentCount, HOURIDX);
     needsTilde = needsTildeValue(firstNonzeroIdx, lastNonzeroIdx, truncatedFragments,
         handledFragmentCount, needsTilde, fragments.get(MIN), MIN);
-    fragments = truncatedFragments;
-    return buildFromFragments(needsTilde);
+    return buildFromFragments(truncatedFragments, needsTilde);
   }
 
-  private String calculateFormattedRemaining() {
-    constructFragmentsOfRemainingEstimate();
+  private String calculateFormattedRemaining(final long durationInSeconds) {
+    LinkedHashMap<String, Long> fragments =
+        constructFragmentsOfRemainingEstimate(durationInSeconds);
     int firstNonzeroIdx = -1;
     int lastNonzeroIdx = 0;
     if (fragments.get(WEEK).longValue() != 0) {
@@ -190,10 +200,11 @@ public class DurationFormatter implements Serializable {
       lastNonzeroIdx = MINIDX;
     }
     lastNonzeroIdx = Math.max(lastNonzeroIdx, firstNonzeroIdx + 1);
-    return buildRoundedEstimateString(firstNonzeroIdx, lastNonzeroIdx);
+    return buildRoundedEstimateString(fragments, firstNonzeroIdx, lastNonzeroIdx);
   }
 
-  private void constructFragmentsOfRemainingEstimate() {
+  private LinkedHashMap<String, Long> constructFragmentsOfRemainingEstimate(
+      final long durationInSeconds) {
     long estimate = durationInSeconds / DateTimeConverterUtil.MINUTES_PER_HOUR;
     double weekInMin =
         workDaysPerWeek * workHoursPerDay * DateTimeConverterUtil.MINUTES_PER_HOUR;
@@ -204,10 +215,12 @@ public class DurationFormatter implements Serializable {
     estimate %= dayInMin;
     long hours = estimate / DateTimeConverterUtil.MINUTES_PER_HOUR;
     long minutes = estimate % DateTimeConverterUtil.MINUTES_PER_HOUR;
+    LinkedHashMap<String, Long> fragments = new LinkedHashMap<>();
     fragments.put("w ", weeks);
     fragments.put("d ", days);
     fragments.put("h ", hours);
     fragments.put("m ", minutes);
+    return fragments;
   }
 
   /**
@@ -218,8 +231,6 @@ public class DurationFormatter implements Serializable {
    * @return the formatted duration string.
    */
   public String exactDuration(final long durationInSeconds) {
-    this.durationInSeconds = durationInSeconds;
-
     com.atlassian.jira.util.JiraDurationUtils.DurationFormatter formatter = null;
     if (TimeFormat.DAYS.equals(timeFormat)) {
       formatter = daysDurationFormatter;
@@ -305,10 +316,8 @@ public class DurationFormatter implements Serializable {
    * @return the formatted duration string.
    */
   public String roundedDuration(final long durationInSeconds) {
-    this.durationInSeconds = durationInSeconds;
     if (TimeFormat.PRETTY.equals(timeFormat)) {
-      constructFragmentsOfRemainingEstimate();
-      return calculateFormattedRemaining();
+      return calculateFormattedRemaining(durationInSeconds);
     } else {
       return exactDuration(durationInSeconds);
     }
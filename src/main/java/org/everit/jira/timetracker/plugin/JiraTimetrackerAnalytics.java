@@ -17,6 +17,10 @@ package org.everit.jira.timetracker.plugin;
 
 import java.io.UnsupportedEncodingException;
 import java.security.NoSuchAlgorithmException;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Map.Entry;
 import java.util.Properties;
 
 import javax.servlet.http.HttpSession;
@@ -37,19 +41,72 @@ import com.atlassian.jira.util.BuildUtilsInfo;
  */
 public final class JiraTimetrackerAnalytics {
 
+  /**
+   * The base URL and its hash.
+   */
+  private static final class HashedBaseUrl {
+
+    private final String baseUrl;
+
+    private final String hash;
+
+    HashedBaseUrl(final String baseUrl, final String hash) {
+      this.baseUrl = baseUrl;
+      this.hash = hash;
+    }
+  }
+
   private static final String BASE_URL = "org.everit.jira.timetracker.plugin.base.url.hash";
 
   private static final String ERROR_BASE_URL_HASH = "errorBaseUrlHash";
 
   private static final String ERROR_USER_ID_HASH = "errorUserIdHash";
 
+  private static volatile HashedBaseUrl hashedBaseUrl;
+
+  private static volatile String jiraVersion;
+
   /**
    * The JiraTimetrackerAnalytics logger.
    */
   private static Logger log = Logger.getLogger(JiraTimetrackerAnalytics.class);
 
+  private static volatile String pluginVersion;
+
   private static final String USER_ID = "org.everit.jira.timetracker.plugin.user.id.hash";
 
+  private static final float USER_ID_HASH_CACHE_LOAD_FACTOR = 0.75f;
+
+  /**
+   * The maximum number of the cached user id hashes.
+   */
+  public static final int USER_ID_HASH_CACHE_SIZE = 1000;
+
+  /**
+   * The least recently used user id hashes by user key.
+   */
+  private static final Map<String, String> USER_ID_HASHES =
+      Collections.synchronizedMap(new LinkedHashMap<String, String>(USER_ID_HASH_CACHE_SIZE,
+          USER_ID_HASH_CACHE_LOAD_FACTOR, true) {
+
+        private static final long serialVersionUID = -2766216185417935146L;
+
+        @Override
+        protected boolean removeEldestEntry(final Entry<String, String> eldest) {
+          return size() > USER_ID_HASH_CACHE_SIZE;
+        }
+      });
+
+  /**
+   * Removes the cached hashes and versions.
+   */
+  public static void clear() {
+    hashedBaseUrl = null;
+    jiraVersion = null;
+    pluginVersion = null;
+    USER_ID_HASHES.clear();
+  }
+
   /**
    * Gets {@link AnalyticsDTO} that contains all required detail to collect usage.
    *
@@ -78,44 +135,64 @@ public final class JiraTimetrackerAnalytics {
   }
 
   /**
-   * Get the base URL.
+   * Get the base URL. The hash is computed again only if the base URL is changed.
    *
    * @return The base URL.
    */
   public static String getBaseUrl() {
-    String baseUrl;
+    String baseUrl = ComponentAccessor
+        .getApplicationProperties()
+        .getString("jira.baseurl");
+    HashedBaseUrl cached = hashedBaseUrl;
+    if ((cached != null) && (baseUrl != null) && baseUrl.equals(cached.baseUrl)) {
+      return cached.hash;
+    }
+    String hash;
     try {
-      baseUrl = HashUtil.encryptString(ComponentAccessor
-          .getApplicationProperties()
-          .getString("jira.baseurl"));
-      return baseUrl;
+      hash = HashUtil.encryptString(baseUrl);
     } catch (NoSuchAlgorithmException | UnsupportedEncodingException e) {
       log.error("Error when try to hash the base URL.", e);
       return ERROR_BASE_URL_HASH;
-
     }
+    hashedBaseUrl = new HashedBaseUrl(baseUrl, hash);
+    return hash;
+  }
 
+  /**
+   * Gives back the number of the cached user id hashes.
+   */
+  public static int getCachedUserIdCount() {
+    return USER_ID_HASHES.size();
   }
 
   /**
-   * Gets JIRA version.
+   * Gets JIRA version. The version does not change while JIRA runs, so it is queried once.
    */
   public static String getJiraVersionFromBuildUtilsInfo() {
-    BuildUtilsInfo component = ComponentAccessor.getComponent(BuildUtilsInfo.class);
-    return component.getVersion();
-
+    String result = jiraVersion;
+    if (result == null) {
+      BuildUtilsInfo component = ComponentAccessor.getComponent(BuildUtilsInfo.class);
+      result = component.getVersion();
+      jiraVersion = result;
+    }
+    return result;
   }
 
   /**
-   * Get the version of the plugin.
+   * Get the version of the plugin. A new plugin version loads this class again, so the version is
+   * queried once.
    *
    * @return The version.
    */
   public static String getPluginVersion() {
-    String pluginVersion = ComponentAccessor.getPluginAccessor()
-        .getPlugin("org.everit.jira.timetracker.plugin")
-        .getPluginInformation().getVersion();
-    return pluginVersion;
+    String result = pluginVersion;
+    if (result == null) {
+      result = ComponentAccessor.getPluginAccessor()
+          .getPlugin("org.everit.jira.timetracker.plugin")
+          .getPluginInformation().getVersion();
+      pluginVersion = result;
+    }
+    return result;
   }
 
   private static String getProperty(final Properties jttpBuildProperties, final String key) {
@@ -124,19 +201,23 @@ public final class JiraTimetrackerAnalytics {
   }
 
   /**
-   * Get the user ID.
+   * Get the user ID. The hashes of the recently used user IDs are cached.
    *
    * @return The user.
    */
   public static String getUserId() {
-    String userId;
+    String userKey = ComponentAccessor.getJiraAuthenticationContext().getUser().getKey();
+    String userId = USER_ID_HASHES.get(userKey);
+    if (userId != null) {
+      return userId;
+    }
     try {
-      userId = HashUtil.encryptString(ComponentAccessor
-          .getJiraAuthenticationContext().getUser().getKey());
+      userId = HashUtil.encryptString(userKey);
     } catch (NoSuchAlgorithmException | UnsupportedEncodingException e) {
       log.error("Error when try to hash the user ID.", e);
       return ERROR_USER_ID_HASH;
     }
+    USER_ID_HASHES.put(userKey, userId);
     return userId;
   }
 
@@ -18,6 +18,7 @@ package org.everit.jira.timetracker.plugin;
 import java.util.Collection;
 import java.util.List;
 
+import org.everit.jira.core.util.AccessDecisionCache;
 import org.everit.jira.settings.TimeTrackerSettingsHelper;
 
 import com.atlassian.jira.component.ComponentAccessor;
@@ -32,14 +33,18 @@ import com.atlassian.jira.user.ApplicationUser;
  */
 public class PluginCondition extends AbstractWebCondition {
 
+  /**
+   * The key of the condition in the {@link AccessDecisionCache}.
+   */
+  private static final String CONDITION_KEY = "plugin";
+
   private TimeTrackerSettingsHelper settingsHelper;
 
   public PluginCondition(final TimeTrackerSettingsHelper settingsHelper) {
     this.settingsHelper = settingsHelper;
   }
 
-  @Override
-  public boolean shouldDisplay(final ApplicationUser user, final JiraHelper jiraHelper) {
+  private boolean isAllowed(final ApplicationUser user) {
     List<String> pluginGroups = settingsHelper.loadGlobalSettings().getPluginGroups();
     if (pluginGroups.isEmpty()) {
       return true;
@@ -54,4 +59,17 @@ public class PluginCondition extends AbstractWebCondition {
     return false;
   }
 
+  @Override
+  public boolean shouldDisplay(final ApplicationUser user, final JiraHelper jiraHelper) {
+    long settingsVersion = settingsHelper.getSettingsVersion();
+    Boolean cachedDecision = AccessDecisionCache.get(CONDITION_KEY, user, settingsVersion);
+    if (cachedDecision != null) {
+      return cachedDecision;
+    }
+    long invalidationCount = AccessDecisionCache.getInvalidationCount();
+    boolean allowed = isAllowed(user);
+    AccessDecisionCache.put(CONDITION_KEY, user, settingsVersion, invalidationCount, allowed);
+    return allowed;
+  }
+
 }
@@ -24,30 +24,64 @@ import java.text.ParseException;
 import java.util.Date;
 
 import org.everit.jira.core.impl.DateTimeServer;
+import org.everit.jira.core.util.TimeZoneContext;
 import org.everit.jira.timetracker.plugin.DurationFormatter;
 import org.everit.jira.timetracker.plugin.util.DateTimeConverterUtil;
+import org.everit.jira.timetracker.plugin.util.FormatterRegistry;
+import org.joda.time.DateTime;
+import org.joda.time.DateTimeConstants;
+import org.joda.time.Days;
+import org.joda.time.LocalDate;
 import org.ofbiz.core.entity.GenericValue;
 
-import com.atlassian.jira.avatar.Avatar;
 import com.atlassian.jira.component.ComponentAccessor;
-import com.atlassian.jira.issue.IssueManager;
-import com.atlassian.jira.issue.MutableIssue;
-import com.atlassian.jira.issue.status.category.StatusCategory;
 import com.atlassian.jira.issue.worklog.Worklog;
-import com.atlassian.jira.permission.ProjectPermissions;
-import com.atlassian.jira.security.PermissionManager;
-import com.atlassian.jira.user.ApplicationUser;
 
 /**
  * The Everit Worklog.
  */
 public class EveritWorklog implements Serializable {
 
+  /**
+   * The first day of the epoch.
+   */
+  private static final LocalDate EPOCH_DAY = new LocalDate(1970, 1, 1);
+
+  /**
+   * The monday of the first week of the epoch.
+   */
+  private static final LocalDate EPOCH_MONDAY = new LocalDate(1969, 12, 29);
+
+  private static final int MONTHS_PER_YEAR = 12;
+
   /**
    * Serial version UID.
    */
   private static final long serialVersionUID = 1L;
 
+  /**
+   * Gives back the number of the days since the epoch.
+   */
+  public static int toDayIndex(final LocalDate localDate) {
+    return Days.daysBetween(EPOCH_DAY, localDate).getDays();
+  }
+
+  /**
+   * Gives back the month index of the date. The months of different years never collide.
+   */
+  public static int toMonthIndex(final LocalDate localDate) {
+    return (localDate.getYear() * MONTHS_PER_YEAR) + (localDate.getMonthOfYear() - 1);
+  }
+
+  /**
+   * Gives back the number of the ISO weeks since the epoch. The days of an ISO week that spans two
+   * years have the same index.
+   */
+  public static int toWeekIndex(final LocalDate localDate) {
+    return Days.daysBetween(EPOCH_MONDAY, localDate.withDayOfWeek(DateTimeConstants.MONDAY))
+        .getDays() / DateTimeConstants.DAYS_PER_WEEK;
+  }
+
   /**
    * The worklog note.
    */
@@ -55,6 +89,11 @@ public class EveritWorklog implements Serializable {
 
   private DateTimeServer date;
 
+  /**
+   * The number of the days since the epoch, in the user time zone.
+   */
+  private int dayIndex;
+
   private int dayNo;
 
   private boolean deleteOwnWorklogs;
@@ -114,6 +153,11 @@ public class EveritWorklog implements Serializable {
    */
   private long milliseconds;
 
+  /**
+   * The number of the months since the year 0, in the user time zone.
+   */
+  private int monthIndex;
+
   private int monthNo;
 
   /**
@@ -131,6 +175,11 @@ public class EveritWorklog implements Serializable {
    */
   private String startTime;
 
+  /**
+   * The number of the ISO weeks since the epoch, in the user time zone.
+   */
+  private int weekIndex;
+
   private int weekNo;
 
   /**
@@ -150,10 +199,52 @@ public class EveritWorklog implements Serializable {
    */
   public EveritWorklog(final GenericValue worklogGv)
       throws ParseException, IllegalArgumentException {
+    this(worklogGv, IssueSnapshot.create(
+        ComponentAccessor.getIssueManager()
+            .getIssueObject(Long.valueOf(worklogGv.getString("issue"))),
+        ComponentAccessor.getPermissionManager(),
+        ComponentAccessor.getJiraAuthenticationContext().getUser()));
+  }
+
+  /**
+   * Constructor with GenericValue and the already resolved issue data.
+   *
+   * @param worklogGv
+   *          GenericValue worklog.
+   * @param issueSnapshot
+   *          the resolved data of the worklog issue.
+   * @throws ParseException
+   *           If can't parse the date.
+   * @throws IllegalArgumentException
+   *           If can't parse the date.
+   */
+  public EveritWorklog(final GenericValue worklogGv, final IssueSnapshot issueSnapshot)
+      throws ParseException, IllegalArgumentException {
+    this(worklogGv, issueSnapshot, TimeZoneContext.current());
+  }
+
+  /**
+   * Constructor with GenericValue, the already resolved issue data and the time zones of the
+   * request.
+   *
+   * @param worklogGv
+   *          GenericValue worklog.
+   * @param issueSnapshot
+   *          the resolved data of the worklog issue.
+   * @param timeZoneContext
+   *          the time zones of the request.
+   * @throws ParseException
+   *           If can't parse the date.
+   * @throws IllegalArgumentException
+   *           If can't parse the date.
+   */
+  public EveritWorklog(final GenericValue worklogGv, final IssueSnapshot issueSnapshot,
+      final TimeZoneContext timeZoneContext)
+      throws ParseException, IllegalArgumentException {
     worklogId = worklogGv.getLong("id");
     startTime = worklogGv.getString("startdate");
     date = DateTimeServer.getInstanceBasedOnSystemTimeZone(
-        DateTimeConverterUtil.stringToDateAndTime(startTime).getTime());
+        DateTimeConverterUtil.stringToDateAndTime(startTime).getTime(), timeZoneContext);
     startTime =
         DateTimeConverterUtil.dateTimeToString(date.getUserTimeZoneDate());
     startDate =
@@ -161,25 +252,16 @@ public class EveritWorklog implements Serializable {
     weekNo = date.getUserTimeZone().getWeekOfWeekyear();
     monthNo = date.getUserTimeZone().getMonthOfYear() + 1;
     dayNo = date.getUserTimeZone().getDayOfYear();
+    calculateIndexes(date.getUserTimeZone());
     issueId = Long.valueOf(worklogGv.getString("issue"));
-    IssueManager issueManager = ComponentAccessor.getIssueManager();
-    MutableIssue issueObject = issueManager.getIssueObject(issueId);
-    issue = issueObject.getKey();
-    issueSummary = issueObject.getSummary();
-    if (StatusCategory.COMPLETE
-        .equals(issueObject.getStatusObject().getSimpleStatus().getStatusCategory().getKey())) {
-      isClosed = true;
-    }
-    issueTypeName = issueObject.getIssueTypeObject().getName();
-    Avatar avatar = issueObject.getIssueTypeObject().getAvatar();
-    if (avatar != null) {
-      issueAvatarId = avatar.getId();
-    }
-    issueTypeIconUrl = issueObject.getIssueTypeObject().getIconUrl();
-    if (issueObject.getParentObject() != null) {
-      issueParent = issueObject.getParentObject().getKey();
-    }
-    Long issueEstimate = issueObject.getEstimate();
+    issue = issueSnapshot.getIssueKey();
+    issueSummary = issueSnapshot.getIssueSummary();
+    isClosed = issueSnapshot.isClosed();
+    issueTypeName = issueSnapshot.getIssueTypeName();
+    issueAvatarId = issueSnapshot.getIssueAvatarId();
+    issueTypeIconUrl = issueSnapshot.getIssueTypeIconUrl();
+    issueParent = issueSnapshot.getIssueParent();
+    Long issueEstimate = issueSnapshot.getEstimate();
     if ((issueEstimate != null) && (issueEstimate > 0)) {
       isMoreEstimatedTime = true;
     } else {
@@ -191,7 +273,7 @@ public class EveritWorklog implements Serializable {
     if (body == null) {
       body = "";
     }
-    DurationFormatter durationFormatter = new DurationFormatter();
+    DurationFormatter durationFormatter = FormatterRegistry.getDurationFormatter();
     long timeSpentInSec = worklogGv.getLong("timeworked").longValue();
     milliseconds = timeSpentInSec
         * DateTimeConverterUtil.MILLISECONDS_PER_SECOND;
@@ -201,14 +283,8 @@ public class EveritWorklog implements Serializable {
     roundedRemaining = durationFormatter.roundedDuration(issueEstimate);
     exactRemaining = durationFormatter.exactDuration(issueEstimate);
 
-    PermissionManager permissionManager = ComponentAccessor.getPermissionManager();
-    ApplicationUser loggedUser = ComponentAccessor.getJiraAuthenticationContext().getUser();
-    deleteOwnWorklogs =
-        permissionManager.hasPermission(ProjectPermissions.DELETE_OWN_WORKLOGS, issueObject,
-            loggedUser);
-    editOwnWorklogs =
-        permissionManager.hasPermission(ProjectPermissions.EDIT_OWN_WORKLOGS, issueObject,
-            loggedUser);
+    deleteOwnWorklogs = issueSnapshot.isDeleteOwnWorklogs();
+    editOwnWorklogs = issueSnapshot.isEditOwnWorklogs();
   }
 
   /**
@@ -229,6 +305,7 @@ public class EveritWorklog implements Serializable {
     weekNo = date.getUserTimeZone().getWeekOfWeekyear();
     monthNo = date.getUserTimeZone().getMonthOfYear() + 1;
     dayNo = date.getUserTimeZone().getDayOfYear();
+    calculateIndexes(date.getUserTimeZone());
     issue = worklog.getIssue().getKey();
     issueSummary = worklog.getIssue().getSummary();
     body = worklog.getComment();
@@ -242,6 +319,12 @@ public class EveritWorklog implements Serializable {
     endTime = DateTimeConverterUtil.countEndTime(startTime, milliseconds);
   }
 
+  private void calculateIndexes(final DateTime userTimeZoneDate) {
+    LocalDate localDate = userTimeZoneDate.toLocalDate();
+    dayIndex = EveritWorklog.toDayIndex(localDate);
+    weekIndex = EveritWorklog.toWeekIndex(localDate);
+    monthIndex = EveritWorklog.toMonthIndex(localDate);
+  }
   public String getBody() {
     return body;
   }
@@ -250,6 +333,10 @@ public class EveritWorklog implements Serializable {
     return date.getUserTimeZoneDate();
   }
 
+  public int getDayIndex() {
+    return dayIndex;
+  }
+
   public int getDayNo() {
     return dayNo;
   }
@@ -302,6 +389,10 @@ public class EveritWorklog implements Serializable {
     return milliseconds;
   }
 
+  public int getMonthIndex() {
+    return monthIndex;
+  }
+
   public int getMonthNo() {
     return monthNo;
   }
@@ -318,6 +409,10 @@ public class EveritWorklog implements Serializable {
     return startTime;
   }
 
+  public int getWeekIndex() {
+    return weekIndex;
+  }
+
   public int getWeekNo() {
     return weekNo;
   }
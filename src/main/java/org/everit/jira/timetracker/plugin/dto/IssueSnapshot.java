@@ -0,0 +1,157 @@
+/*
+ * Copyright (C) 2011 Everit Kft. (http://www.everit.org)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.everit.jira.timetracker.plugin.dto;
+
+import com.atlassian.jira.avatar.Avatar;
+import com.atlassian.jira.issue.Issue;
+import com.atlassian.jira.issue.issuetype.IssueType;
+import com.atlassian.jira.issue.status.category.StatusCategory;
+import com.atlassian.jira.permission.ProjectPermissions;
+import com.atlassian.jira.project.Project;
+import com.atlassian.jira.security.PermissionManager;
+import com.atlassian.jira.user.ApplicationUser;
+
+/**
+ * The issue and permission data what an {@link EveritWorklog} needs. Resolved once per issue and
+ * shared by every worklog of the same issue.
+ */
+public final class IssueSnapshot {
+
+  /**
+   * Creates the snapshot of the given issue for the given user.
+   *
+   * @param issueObject
+   *          the issue. Cannot be <code>null</code>.
+   * @param permissionManager
+   *          the {@link PermissionManager} instance.
+   * @param loggedUser
+   *          the logged user.
+   * @return the snapshot.
+   */
+  public static IssueSnapshot create(final Issue issueObject,
+      final PermissionManager permissionManager, final ApplicationUser loggedUser) {
+    IssueSnapshot snapshot = new IssueSnapshot();
+    snapshot.issueId = issueObject.getId();
+    snapshot.issueKey = issueObject.getKey();
+    snapshot.issueSummary = issueObject.getSummary();
+    snapshot.project = issueObject.getProjectObject();
+    snapshot.closed = StatusCategory.COMPLETE
+        .equals(issueObject.getStatusObject().getSimpleStatus().getStatusCategory().getKey());
+    IssueType issueType = issueObject.getIssueTypeObject();
+    snapshot.issueTypeName = issueType.getName();
+    Avatar avatar = issueType.getAvatar();
+    if (avatar != null) {
+      snapshot.issueAvatarId = avatar.getId();
+    }
+    snapshot.issueTypeIconUrl = issueType.getIconUrl();
+    if (issueObject.getParentObject() != null) {
+      snapshot.issueParent = issueObject.getParentObject().getKey();
+    }
+    snapshot.estimate = issueObject.getEstimate();
+    snapshot.browsable =
+        permissionManager.hasPermission(ProjectPermissions.BROWSE_PROJECTS, issueObject,
+            loggedUser);
+    snapshot.deleteOwnWorklogs =
+        permissionManager.hasPermission(ProjectPermissions.DELETE_OWN_WORKLOGS, issueObject,
+            loggedUser);
+    snapshot.editOwnWorklogs =
+        permissionManager.hasPermission(ProjectPermissions.EDIT_OWN_WORKLOGS, issueObject,
+            loggedUser);
+    return snapshot;
+  }
+
+  private boolean browsable;
+
+  private boolean closed;
+
+  private boolean deleteOwnWorklogs;
+
+  private boolean editOwnWorklogs;
+
+  private Long estimate;
+
+  private Long issueAvatarId;
+
+  private Long issueId;
+
+  private String issueKey;
+
+  private String issueParent = "";
+
+  private String issueSummary;
+
+  private String issueTypeIconUrl;
+
+  private String issueTypeName;
+
+  private Project project;
+
+  private IssueSnapshot() {
+  }
+
+  public Long getEstimate() {
+    return estimate;
+  }
+
+  public Long getIssueAvatarId() {
+    return issueAvatarId;
+  }
+
+  public Long getIssueId() {
+    return issueId;
+  }
+
+  public String getIssueKey() {
+    return issueKey;
+  }
+
+  public String getIssueParent() {
+    return issueParent;
+  }
+
+  public String getIssueSummary() {
+    return issueSummary;
+  }
+
+  public String getIssueTypeIconUrl() {
+    return issueTypeIconUrl;
+  }
+
+  public String getIssueTypeName() {
+    return issueTypeName;
+  }
+
+  public Project getProject() {
+    return project;
+  }
+
+  public boolean isBrowsable() {
+    return browsable;
+  }
+
+  public boolean isClosed() {
+    return closed;
+  }
+
+  public boolean isDeleteOwnWorklogs() {
+    return deleteOwnWorklogs;
+  }
+
+  public boolean isEditOwnWorklogs() {
+    return editOwnWorklogs;
+  }
+
+}
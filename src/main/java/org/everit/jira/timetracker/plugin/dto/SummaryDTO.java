@@ -16,19 +16,23 @@
 package org.everit.jira.timetracker.plugin.dto;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Calendar;
 import java.util.Date;
 import java.util.List;
 import java.util.Set;
 import java.util.concurrent.TimeUnit;
-import java.util.regex.Pattern;
 
 import org.everit.jira.core.SupportManager;
 import org.everit.jira.core.TimetrackerManager;
+import org.everit.jira.core.dto.PeriodSummary;
 import org.everit.jira.core.impl.DateTimeServer;
+import org.everit.jira.core.util.IssueKeyMatcher;
 import org.everit.jira.timetracker.plugin.DurationFormatter;
 import org.everit.jira.timetracker.plugin.util.DateTimeConverterUtil;
+import org.everit.jira.timetracker.plugin.util.FormatterRegistry;
 import org.joda.time.DateTime;
+import org.joda.time.Interval;
 
 import com.atlassian.jira.bc.issue.worklog.TimeTrackingConfiguration;
 import com.atlassian.jira.component.ComponentAccessor;
@@ -64,14 +68,14 @@ public final class SummaryDTO {
 
     private final Set<DateTime> includeDatesAsSet;
 
-    private final List<Pattern> issuePatterns;
-
     private double monthExpectedWorkSeconds;
 
     private Long monthFilteredSummaryInSecond;
 
     private long monthSummaryInSecounds;
 
+    private final IssueKeyMatcher nonWorkingIssueMatcher;
+
     private final SupportManager supportManager;
 
     private final TimetrackerManager timetrackerManager;
@@ -100,8 +104,8 @@ public final class SummaryDTO {
      *          the set of excludes dates from timetracker configuration.
      * @param includeDatesAsSet
      *          the set of include dates from timetracker configuration.
-     * @param issuePatterns
-     *          the list of issue patterns from timetracker configuration.
+     * @param nonWorkingIssueMatcher
+     *          the matcher of the non-working issue patterns from timetracker configuration.
      */
     public SummaryDTOBuilder(final TimeTrackingConfiguration timeTrackingConfiguration,
         final TimetrackerManager timetrackerManager,
@@ -109,14 +113,14 @@ public final class SummaryDTO {
         final DateTimeServer date,
         final Set<DateTime> excludeDatesAsSet,
         final Set<DateTime> includeDatesAsSet,
-        final List<Pattern> issuePatterns) {
-      durationFormatter = new DurationFormatter();
+        final IssueKeyMatcher nonWorkingIssueMatcher) {
+      durationFormatter = FormatterRegistry.getDurationFormatter();
       this.timeTrackingConfiguration = timeTrackingConfiguration;
       this.supportManager = supportManager;
       this.timetrackerManager = timetrackerManager;
       this.excludeDatesAsSet = excludeDatesAsSet;
       this.includeDatesAsSet = includeDatesAsSet;
-      this.issuePatterns = issuePatterns;
+      this.nonWorkingIssueMatcher = nonWorkingIssueMatcher;
       this.date = date;
     }
 
@@ -189,48 +193,44 @@ public final class SummaryDTO {
     }
 
     private void calculateFilteredAndNotFilteredSummarySeconds(final DateTimeServer date,
-        final List<Pattern> issuesRegex) {
+        final IssueKeyMatcher issueMatcher) {
       DateTime currentDayStart = DateTimeConverterUtil.setDateToDayStart(date.getUserTimeZone());
       Calendar currentStartCalendar = createNewCalendarWithWeekStart();
       currentStartCalendar.setTime(currentDayStart.toDate());
       currentStartCalendar.setTimeZone(date.getUserTimeZone().getZone().toTimeZone());
 
-      // calculate day summary
-      DateTime startDateTime = currentDayStart.toDateTime();
-      DateTime endDateTime = startDateTime.plusDays(1);
-      daySummaryInSeconds = supportManager.summary(
-          startDateTime.toDate(), endDateTime.toDate(), null);
-      if (isIssuePatternsNotEmpty()) {
-        dayFilteredSummaryInSecond = supportManager.summary(
-            startDateTime.toDate(), endDateTime.toDate(), issuesRegex);
-      }
-      // calculate weeksummary
+      // day period
+      Interval day = new Interval(currentDayStart, currentDayStart.plusDays(1));
+      // week period
       Calendar weekStart = (Calendar) currentStartCalendar.clone();
       while (weekStart.get(Calendar.DAY_OF_WEEK) != weekStart.getFirstDayOfWeek()) {
         weekStart.add(Calendar.DATE, -1); // Substract 1 day until first day of week.
       }
-      startDateTime = new DateTime(weekStart.getTimeInMillis());
-      endDateTime = startDateTime.plusDays(DateTimeConverterUtil.DAYS_PER_WEEK);
-
-      weekSummaryInSecond =
-          supportManager.summary(startDateTime.toDate(), endDateTime.toDate(), null);
-      if (isIssuePatternsNotEmpty()) {
-        weekFilteredSummaryInSecond = supportManager.summary(
-            startDateTime.toDate(), endDateTime.toDate(), issuesRegex);
-      }
-      // calculate month summary
-      startDateTime = currentDayStart.withDayOfMonth(1);
-
+      DateTime weekStartDateTime = new DateTime(weekStart.getTimeInMillis());
+      Interval week = new Interval(weekStartDateTime,
+          weekStartDateTime.plusDays(DateTimeConverterUtil.DAYS_PER_WEEK));
+      // month period
       Calendar monthEndCalendar = (Calendar) currentStartCalendar.clone();
       monthEndCalendar.set(Calendar.DAY_OF_MONTH,
           monthEndCalendar.getActualMaximum(Calendar.DAY_OF_MONTH));
       monthEndCalendar.add(Calendar.DAY_OF_MONTH, 1);
-      endDateTime = new DateTime(monthEndCalendar.getTimeInMillis());
-      monthSummaryInSecounds =
-          supportManager.summary(startDateTime.toDate(), endDateTime.toDate(), null);
+      Interval month = new Interval(currentDayStart.withDayOfMonth(1),
+          new DateTime(monthEndCalendar.getTimeInMillis()));
+
+      // the week can overlap the previous or the next month, so all periods are summed from the
+      // same worklog list
+      List<PeriodSummary> summaries =
+          supportManager.summaries(Arrays.asList(day, week, month), issueMatcher);
+      PeriodSummary daySummary = summaries.get(0);
+      PeriodSummary weekSummary = summaries.get(1);
+      PeriodSummary monthSummary = summaries.get(2);
+      daySummaryInSeconds = daySummary.getSummaryInSeconds();
+      weekSummaryInSecond = weekSummary.getSummaryInSeconds();
+      monthSummaryInSecounds = monthSummary.getSummaryInSeconds();
       if (isIssuePatternsNotEmpty()) {
-        monthFilteredSummaryInSecond =
-            supportManager.summary(startDateTime.toDate(), endDateTime.toDate(), issuesRegex);
+        dayFilteredSummaryInSecond = daySummary.getFilteredSummaryInSeconds();
+        weekFilteredSummaryInSecond = weekSummary.getFilteredSummaryInSeconds();
+        monthFilteredSummaryInSecond = monthSummary.getFilteredSummaryInSeconds();
       }
     }
 
@@ -318,7 +318,7 @@ public final class SummaryDTO {
      * Creates {@link SummaryDTO} object.
      */
     public SummaryDTO createSummaryDTO() {
-      calculateFilteredAndNotFilteredSummarySeconds(date, issuePatterns);
+      calculateFilteredAndNotFilteredSummarySeconds(date, nonWorkingIssueMatcher);
 
       double hoursPerDay = timeTrackingConfiguration.getHoursPerDay().doubleValue();
       dayExpectedWorkSeconds = hoursPerDay * SECOND_IN_HOUR;
@@ -461,7 +461,7 @@ public final class SummaryDTO {
     }
 
     private boolean isIssuePatternsNotEmpty() {
-      return (issuePatterns != null) && !issuePatterns.isEmpty();
+      return !nonWorkingIssueMatcher.isEmpty();
     }
   }
 
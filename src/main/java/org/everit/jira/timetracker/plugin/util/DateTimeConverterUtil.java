@@ -19,7 +19,6 @@ import java.sql.Timestamp;
 import java.text.DateFormat;
 import java.text.DateFormatSymbols;
 import java.text.ParseException;
-import java.text.SimpleDateFormat;
 import java.util.Calendar;
 import java.util.Date;
 import java.util.Locale;
@@ -30,8 +29,8 @@ import java.util.regex.Pattern;
 
 import org.everit.jira.core.impl.DateTimeServer;
 import org.everit.jira.core.impl.WorklogComponent;
+import org.everit.jira.core.util.TimeZoneContext;
 import org.everit.jira.core.util.TimetrackerUtil;
-import org.everit.jira.timetracker.plugin.DurationFormatter;
 import org.everit.jira.timetracker.plugin.exception.WorklogException;
 import org.joda.time.DateTime;
 import org.joda.time.format.DateTimeFormat;
@@ -40,7 +39,6 @@ import com.atlassian.jira.component.ComponentAccessor;
 import com.atlassian.jira.config.properties.APKeys;
 import com.atlassian.jira.config.properties.ApplicationProperties;
 import com.atlassian.jira.datetime.DateTimeFormatter;
-import com.atlassian.jira.datetime.DateTimeFormatterFactory;
 import com.atlassian.jira.datetime.DateTimeStyle;
 import com.atlassian.jira.security.JiraAuthenticationContext;
 
@@ -64,6 +62,9 @@ public final class DateTimeConverterUtil {
    */
   public static final int DAYS_PER_WEEK = 7;
 
+  private static final org.joda.time.format.DateTimeFormatter FIX_DATE_FORMATTER =
+      DateTimeFormat.forPattern(DateTimeConverterUtil.FIX_DATE_TIME_FORMAT);
+
   /**
    * The fix date time format for exclude and include dates.
    */
@@ -131,6 +132,8 @@ public final class DateTimeConverterUtil {
    */
   public static final String TIME24HOURS_PATTERN = "([01]?[0-9]|2[0-3]):[0-5][0-9]";
 
+  private static final TimeZone UTC = TimeZone.getTimeZone("UTC");
+
   private static final int YEAR_1900 = 1900;
 
   /**
@@ -142,11 +145,28 @@ public final class DateTimeConverterUtil {
    * @return The new Timestamp in user TimeZone.
    */
   public static Timestamp addTimeZoneToTimestamp(final Timestamp systemTimestamp) {
+    return DateTimeConverterUtil.addTimeZoneToTimestamp(systemTimestamp,
+        TimeZoneContext.current());
+  }
+
+  /**
+   * Convert the Timestamp to system timezone, cahnge the Timezone o user timezone and convert back
+   * to a new Timestamp.
+   *
+   * @param systemTimestamp
+   *          The original Timesatamp in system TimeZone.
+   * @param timeZoneContext
+   *          The time zones of the request.
+   * @return The new Timestamp in user TimeZone.
+   */
+  public static Timestamp addTimeZoneToTimestamp(final Timestamp systemTimestamp,
+      final TimeZoneContext timeZoneContext) {
     if (systemTimestamp == null) {
       return null;
     }
     DateTimeServer converter =
-        DateTimeServer.getInstanceBasedOnSystemTimeZone(systemTimestamp.getTime());
+        DateTimeServer.getInstanceBasedOnSystemTimeZone(systemTimestamp.getTime(),
+            timeZoneContext);
     return new Timestamp(converter.getUserTimeZoneDate().getTime());
   }
 
@@ -221,8 +241,8 @@ public final class DateTimeConverterUtil {
   public static String dateAndTimeToString(final Date dateAndTime) {
     String dateTimeFormat =
         DateTimeConverterUtil.getJiraDefaultDateAndTimeJavaFormat(APKeys.JIRA_LF_DATE_COMPLETE);
-    DateFormat formatterDateAndTime =
-        new SimpleDateFormat(dateTimeFormat, DateTimeConverterUtil.getLoggedUserLocal());
+    DateFormat formatterDateAndTime = FormatterRegistry.getDateFormat(dateTimeFormat,
+        DateTimeConverterUtil.getLoggedUserLocal(), null);
     String stringDateAndTime = formatterDateAndTime.format(dateAndTime);
     return stringDateAndTime;
   }
@@ -247,8 +267,8 @@ public final class DateTimeConverterUtil {
    * @return The result string.
    */
   public static String dateTimeToStringWithFixFormat(final Date date) {
-    DateFormat formatterDate = new SimpleDateFormat(FIX_TIME_FORMAT);
-    formatterDate.setTimeZone(TimeZone.getTimeZone("UTC"));
+    DateFormat formatterDate = FormatterRegistry.getDateFormat(FIX_TIME_FORMAT,
+        Locale.getDefault(), UTC);
     return formatterDate.format(date);
   }
 
@@ -260,9 +280,7 @@ public final class DateTimeConverterUtil {
    * @return The result time.
    */
   public static String dateToFixFormatString(final DateTime date) {
-    org.joda.time.format.DateTimeFormatter formatterDate =
-        DateTimeFormat.forPattern(FIX_DATE_TIME_FORMAT);
-    String dateString = formatterDate.print(date);
+    String dateString = FIX_DATE_FORMATTER.print(date);
     return dateString;
   }
 
@@ -276,8 +294,8 @@ public final class DateTimeConverterUtil {
   public static String dateToString(final Date date) {
     String dateFormat =
         DateTimeConverterUtil.getJiraDefaultDateAndTimeJavaFormat(APKeys.JIRA_LF_DATE_DMY);
-    DateFormat formatterDate =
-        new SimpleDateFormat(dateFormat, DateTimeConverterUtil.getLoggedUserLocal());
+    DateFormat formatterDate = FormatterRegistry.getDateFormat(dateFormat,
+        DateTimeConverterUtil.getLoggedUserLocal(), null);
     String dateString = formatterDate.format(date);
     return dateString;
   }
@@ -292,8 +310,8 @@ public final class DateTimeConverterUtil {
    *           If can't parse the date.
    */
   public static Date fixFormatStringToDate(final String dateString) throws ParseException {
-    DateFormat formatterDate = new SimpleDateFormat(FIX_DATE_TIME_FORMAT);
-    formatterDate.setTimeZone(TimeZone.getTimeZone("UTC"));
+    DateFormat formatterDate = FormatterRegistry.getDateFormat(FIX_DATE_TIME_FORMAT,
+        Locale.getDefault(), UTC);
     Date date = formatterDate.parse(dateString);
     return date;
   }
@@ -309,8 +327,8 @@ public final class DateTimeConverterUtil {
    */
   public static Date fixFormatStringToDateWithValidation(final String dateString)
       throws ParseException {
-    DateFormat formatterDate = new SimpleDateFormat(FIX_DATE_TIME_FORMAT);
-    formatterDate.setTimeZone(TimeZone.getTimeZone("UTC"));
+    DateFormat formatterDate = FormatterRegistry.getDateFormat(FIX_DATE_TIME_FORMAT,
+        Locale.getDefault(), UTC);
     Date date = formatterDate.parse(dateString);
     if (!dateString.equals(formatterDate.format(date))) {
       throw new ParseException("Invalid date value:" + dateString, 0);
@@ -333,13 +351,7 @@ public final class DateTimeConverterUtil {
   }
 
   private static DateTimeFormatter getDateTimeTimeFormatter() {
-    DateTimeFormatterFactory dateTimeFormatterFactory =
-        ComponentAccessor.getComponent(DateTimeFormatterFactory.class);
-    return dateTimeFormatterFactory
-        .formatter()
-        .forLoggedInUser()
-        .withSystemZone()
-        .withStyle(DateTimeStyle.TIME);
+    return FormatterRegistry.getTimeFormatter();
   }
 
   private static String getJiraDefaultDateAndTimeJavaFormat(final String formatKey) {
@@ -459,8 +471,8 @@ public final class DateTimeConverterUtil {
    *           If can't parse the date.
    */
   public static Date stringTimeToDateTimeWithFixFormat(final String time) throws ParseException {
-    DateFormat formatterDate = new SimpleDateFormat(FIX_TIME_FORMAT);
-    formatterDate.setTimeZone(TimeZone.getTimeZone("UTC"));
+    DateFormat formatterDate = FormatterRegistry.getDateFormat(FIX_TIME_FORMAT,
+        Locale.getDefault(), UTC);
     return formatterDate.parse(time);
   }
 
@@ -477,7 +489,7 @@ public final class DateTimeConverterUtil {
   public static String stringTimeToString(final String time) throws ParseException {
     long seconds = DateTimeConverterUtil.stringTimeToDateTimeWithFixFormat(
         time).getTime() / MILLISEC_IN_SECOND;
-    String result = new DurationFormatter().exactDuration(seconds);
+    String result = FormatterRegistry.getDurationFormatter().exactDuration(seconds);
     return result;
   }
 
@@ -493,8 +505,8 @@ public final class DateTimeConverterUtil {
   public static Date stringToDate(final String dateString) throws ParseException {
     String dateFormat =
         DateTimeConverterUtil.getJiraDefaultDateAndTimeJavaFormat(APKeys.JIRA_LF_DATE_DMY);
-    DateFormat formatterDate =
-        new SimpleDateFormat(dateFormat, DateTimeConverterUtil.getLoggedUserLocal());
+    DateFormat formatterDate = FormatterRegistry.getDateFormat(dateFormat,
+        DateTimeConverterUtil.getLoggedUserLocal(), null);
     Date date = formatterDate.parse(dateString);
     return date;
   }
@@ -588,8 +600,8 @@ public final class DateTimeConverterUtil {
    *           if can't parse the date.
    */
   public static Date stringToDateAndTime(final String dateAndTimeString) throws ParseException {
-    DateFormat formatterDateAndTime =
-        new SimpleDateFormat(DATE_TIME_FORMAT, DateTimeConverterUtil.getLoggedUserLocal());
+    DateFormat formatterDateAndTime = FormatterRegistry.getDateFormat(DATE_TIME_FORMAT,
+        DateTimeConverterUtil.getLoggedUserLocal(), null);
     Date date = formatterDateAndTime.parse(dateAndTimeString);
     return date;
   }
@@ -0,0 +1,185 @@
+/*
+ * Copyright (C) 2011 Everit Kft. (http://www.everit.org)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.everit.jira.timetracker.plugin.util;
+
+import java.text.DateFormat;
+import java.text.SimpleDateFormat;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TimeZone;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.everit.jira.timetracker.plugin.DurationFormatter;
+
+import com.atlassian.jira.bc.issue.worklog.TimeTrackingConfiguration;
+import com.atlassian.jira.component.ComponentAccessor;
+import com.atlassian.jira.config.properties.APKeys;
+import com.atlassian.jira.config.properties.ApplicationProperties;
+import com.atlassian.jira.datetime.DateTimeFormatter;
+import com.atlassian.jira.datetime.DateTimeFormatterFactory;
+import com.atlassian.jira.datetime.DateTimeStyle;
+import com.atlassian.jira.security.JiraAuthenticationContext;
+import com.atlassian.jira.util.I18nHelper;
+
+/**
+ * Registry of the reusable formatters. Building a worklog or an exported row needs the same
+ * formatters again and again, so they are built once and reused.
+ * <ul>
+ * <li>The {@link DurationFormatter} and the JIRA {@link DateTimeFormatter} are immutable, they
+ * are shared between the threads. They are keyed by every input what they are built from (locale,
+ * i18n helper, time tracking configuration and format properties), so a changed configuration
+ * builds a new formatter.</li>
+ * <li>The {@link SimpleDateFormat} is not thread-safe, so every thread has its own instances,
+ * keyed by the pattern, the locale and the time zone.</li>
+ * </ul>
+ */
+public final class FormatterRegistry {
+
+  /**
+   * The cache size above the cache is cleared.
+   */
+  private static final int CLEANUP_THRESHOLD = 100;
+
+  private static final ThreadLocal<Map<String, DateFormat>> DATE_FORMATS =
+      new ThreadLocal<Map<String, DateFormat>>();
+
+  private static final Map<List<Object>, DurationFormatter> DURATION_FORMATTERS =
+      new ConcurrentHashMap<>();
+
+  private static final Map<List<Object>, DateTimeFormatter> TIME_FORMATTERS =
+      new ConcurrentHashMap<>();
+
+  /**
+   * Removes all cached formatters.
+   */
+  public static void clear() {
+    DURATION_FORMATTERS.clear();
+    TIME_FORMATTERS.clear();
+    DATE_FORMATS.remove();
+  }
+
+  private static DateTimeFormatter createTimeFormatter(
+      final DateTimeFormatterFactory dateTimeFormatterFactory) {
+    return dateTimeFormatterFactory
+        .formatter()
+        .forLoggedInUser()
+        .withSystemZone()
+        .withStyle(DateTimeStyle.TIME);
+  }
+
+  /**
+   * Gives back the date format of the current thread. The returned format must not be passed to
+   * other threads and must not be modified.
+   *
+   * @param pattern
+   *          the {@link SimpleDateFormat} pattern.
+   * @param locale
+   *          the locale of the format.
+   * @param timeZone
+   *          the time zone of the format. If <code>null</code> the default time zone is used.
+   * @return the date format.
+   */
+  public static DateFormat getDateFormat(final String pattern, final Locale locale,
+      final TimeZone timeZone) {
+    Map<String, DateFormat> dateFormats = DATE_FORMATS.get();
+    if (dateFormats == null) {
+      dateFormats = new HashMap<>();
+      DATE_FORMATS.set(dateFormats);
+    }
+    TimeZone zone = timeZone == null ? TimeZone.getDefault() : timeZone;
+    String key = pattern + '|' + locale + '|' + zone.getID();
+    DateFormat dateFormat = dateFormats.get(key);
+    if (dateFormat == null) {
+      dateFormat = new SimpleDateFormat(pattern, locale);
+      dateFormat.setTimeZone(zone);
+      FormatterRegistry.putLimited(dateFormats, key, dateFormat);
+    }
+    return dateFormat;
+  }
+
+  /**
+   * Gives back the duration formatter of the logged user and the current time tracking
+   * configuration.
+   *
+   * @return the shared duration formatter.
+   */
+  public static DurationFormatter getDurationFormatter() {
+    String timeFormat = ComponentAccessor.getApplicationProperties()
+        .getDefaultBackedString(DurationFormatter.TIME_TRACKING_FORMAT_KEY);
+    TimeTrackingConfiguration timeTrackingConfiguration =
+        ComponentAccessor.getComponent(TimeTrackingConfiguration.class);
+    I18nHelper i18nHelper = ComponentAccessor.getJiraAuthenticationContext().getI18nHelper();
+    List<Object> key = Arrays.<Object> asList(timeFormat,
+        timeTrackingConfiguration.getDaysPerWeek(), timeTrackingConfiguration.getHoursPerDay(),
+        i18nHelper, i18nHelper.getLocale());
+    DurationFormatter durationFormatter = DURATION_FORMATTERS.get(key);
+    if (durationFormatter == null) {
+      durationFormatter =
+          new DurationFormatter(timeFormat, timeTrackingConfiguration, i18nHelper);
+      FormatterRegistry.putLimited(DURATION_FORMATTERS, key, durationFormatter);
+    }
+    return durationFormatter;
+  }
+
+  /**
+   * Gives back the {@link DateTimeStyle#TIME} formatter of the logged user in the system time
+   * zone.
+   *
+   * @return the shared time formatter.
+   */
+  public static DateTimeFormatter getTimeFormatter() {
+    DateTimeFormatterFactory dateTimeFormatterFactory =
+        ComponentAccessor.getComponent(DateTimeFormatterFactory.class);
+    JiraAuthenticationContext authenticationContext =
+        ComponentAccessor.getJiraAuthenticationContext();
+    if (authenticationContext == null) {
+      return FormatterRegistry.createTimeFormatter(dateTimeFormatterFactory);
+    }
+    ApplicationProperties applicationProperties = ComponentAccessor.getApplicationProperties();
+    String timeFormat = null;
+    String defaultTimeZone = null;
+    if (applicationProperties != null) {
+      timeFormat = applicationProperties.getDefaultBackedString(APKeys.JIRA_LF_DATE_TIME);
+      defaultTimeZone = applicationProperties.getString(APKeys.JIRA_DEFAULT_TIMEZONE);
+    }
+    List<Object> key = Arrays.<Object> asList(dateTimeFormatterFactory,
+        authenticationContext.getLocale(), timeFormat, defaultTimeZone,
+        TimeZone.getDefault().getID());
+    DateTimeFormatter timeFormatter = TIME_FORMATTERS.get(key);
+    if (timeFormatter == null) {
+      timeFormatter = FormatterRegistry.createTimeFormatter(dateTimeFormatterFactory);
+      FormatterRegistry.putLimited(TIME_FORMATTERS, key, timeFormatter);
+    }
+    return timeFormatter;
+  }
+
+  private static <K, V> void putLimited(final Map<K, V> cache, final K key, final V value) {
+    if (cache.size() >= CLEANUP_THRESHOLD) {
+      cache.clear();
+    }
+    cache.put(key, value);
+  }
+
+  /**
+   * Private constructor.
+   */
+  private FormatterRegistry() {
+  }
+
+}
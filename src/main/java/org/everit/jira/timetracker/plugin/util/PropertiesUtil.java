@@ -37,10 +37,29 @@ public final class PropertiesUtil {
   private static final String JTTP_PROPERTIES = "jttp_build.properties";
 
   /**
-   * Gets jttp_buil.properties.
+   * The loaded jttp_build.properties. The file is part of the plugin, so it is loaded only once.
+   */
+  private static volatile Properties jttpBuildProperties;
+
+  /**
+   * Gets jttp_buil.properties. The file is loaded on the first call, the later calls give back the
+   * same instance, so the returned properties must not be modified.
    *
    */
   public static Properties getJttpBuildProperties() {
+    Properties result = jttpBuildProperties;
+    if (result == null) {
+      result = PropertiesUtil.loadJttpBuildProperties();
+      if (result != null) {
+        jttpBuildProperties = result;
+      } else {
+        result = new Properties();
+      }
+    }
+    return result;
+  }
+
+  private static Properties loadJttpBuildProperties() {
     InputStream inputStream = null;
     Properties properties = new Properties();
     try {
@@ -56,7 +75,7 @@ public final class PropertiesUtil {
       properties.load(inputStream);
 
     } catch (IOException e) {
-      return new Properties();
+      return null;
     } finally {
       if (inputStream != null) {
         try {
@@ -23,7 +23,8 @@ import java.util.Collections;
 import java.util.Date;
 import java.util.List;
 import java.util.Properties;
-import java.util.regex.Pattern;
+import java.util.SortedSet;
+import java.util.TreeSet;
 
 import org.apache.commons.lang.time.DateUtils;
 import org.apache.log4j.Logger;
@@ -48,6 +49,7 @@ import org.everit.jira.timetracker.plugin.dto.WorklogValues;
 import org.everit.jira.timetracker.plugin.exception.WorklogException;
 import org.everit.jira.timetracker.plugin.util.DateTimeConverterUtil;
 import org.everit.jira.timetracker.plugin.util.ExceptionUtil;
+import org.everit.jira.timetracker.plugin.util.FormatterRegistry;
 import org.everit.jira.timetracker.plugin.util.PiwikPropertiesUtil;
 import org.everit.jira.timetracker.plugin.util.PropertiesUtil;
 import org.everit.jira.timetracker.plugin.util.TimeAutoCompleteUtil;
@@ -166,7 +168,7 @@ public class JiraTimetrackerWebAction extends JiraWebActionSupport {
 
   private boolean defaultCommand = false;
 
-  private DurationFormatter durationFormatter = new DurationFormatter();
+  private DurationFormatter durationFormatter = FormatterRegistry.getDurationFormatter();
 
   private String editAllIds;
 
@@ -184,7 +186,7 @@ public class JiraTimetrackerWebAction extends JiraWebActionSupport {
   /**
    * List of the logged days of the date variable current months.
    */
-  private List<String> loggedDays = new ArrayList<>();
+  private SortedSet<Integer> loggedDays = new TreeSet<>();
 
   /**
    * The message.
@@ -288,7 +290,7 @@ public class JiraTimetrackerWebAction extends JiraWebActionSupport {
         timeTrackingConfiguration, timetrackerManager, supportManager,
         DateTimeServer.getInstanceBasedOnUserTimeZone(currentTimeInUserTimeZone),
         globalSettings.getExcludeDates(),
-        globalSettings.getIncludeDates(), globalSettings.getNonWorkingIssuePatterns())
+        globalSettings.getIncludeDates(), globalSettings.getNonWorkingIssueMatcher())
             .createSummaryDTO();
   }
 
@@ -536,7 +538,7 @@ public class JiraTimetrackerWebAction extends JiraWebActionSupport {
     beforeActions();
 
     loggedDays = timetrackerManager
-        .getLoggedDaysOfTheMonth(
+        .getLoggedDayNumbersOfTheMonth(
             DateTimeServer.getInstanceBasedOnUserTimeZone(currentTimeInUserTimeZone));
     try {
       loadWorklogs();
@@ -580,7 +582,7 @@ public class JiraTimetrackerWebAction extends JiraWebActionSupport {
     }
     // success or input result
     loggedDays = timetrackerManager
-        .getLoggedDaysOfTheMonth(
+        .getLoggedDayNumbersOfTheMonth(
             DateTimeServer.getInstanceBasedOnUserTimeZone(currentTimeInUserTimeZone));
     try {
       loadWorklogs();
@@ -726,15 +728,14 @@ public class JiraTimetrackerWebAction extends JiraWebActionSupport {
   }
 
   public boolean getIssueRegexIsNotEmpty() {
-    List<Pattern> nonWorkingIssuePatterns = globalSettings.getNonWorkingIssuePatterns();
-    return !nonWorkingIssuePatterns.isEmpty();
+    return !globalSettings.getNonWorkingIssueMatcher().isEmpty();
   }
 
   public IssueRenderContext getIssueRenderContext() {
     return issueRenderContext;
   }
 
-  public List<String> getLoggedDays() {
+  public SortedSet<Integer> getLoggedDays() {
     return loggedDays;
   }
 
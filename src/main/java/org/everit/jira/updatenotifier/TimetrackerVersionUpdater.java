@@ -16,11 +16,13 @@
 package org.everit.jira.updatenotifier;
 
 import java.io.IOException;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 import org.apache.commons.httpclient.HttpClient;
 import org.apache.commons.httpclient.HttpMethod;
 import org.apache.commons.httpclient.HttpStatus;
 import org.apache.commons.httpclient.methods.GetMethod;
+import org.apache.commons.httpclient.params.HttpConnectionManagerParams;
 import org.everit.jira.updatenotifier.exception.UpdateException;
 import org.everit.jira.updatenotifier.json.JiraMarketplaceJSONDTO;
 
@@ -29,34 +31,68 @@ import com.atlassian.jira.util.BuildUtilsInfo;
 import com.google.gson.Gson;
 
 /**
- * The JTTP version updater class.
+ * The JTTP version updater class. Queries the latest version from the marketplace. It is called by
+ * the {@link VersionCheckComponent} in the background, never on a request thread.
  */
 public class TimetrackerVersionUpdater {
 
-  private static final String MARKETPLACE_URL_FIRST_PART =
-      "https://marketplace.atlassian.com/rest/2/addons/org.everit.jira.timetracker.plugin?application=jira&applicationBuild=";
+  /**
+   * The default timeout of the marketplace connection and response in milliseconds.
+   */
+  public static final int DEFAULT_TIMEOUT_IN_MILLISEC = 10000;
+
+  /**
+   * The base URL of the marketplace.
+   */
+  public static final String MARKETPLACE_BASE_URL = "https://marketplace.atlassian.com";
+
+  private static final String MARKETPLACE_URL_PATH =
+      "/rest/2/addons/org.everit.jira.timetracker.plugin?application=jira&applicationBuild=";
 
   private static final String MARKETPLACE_URL_WITH_VERSION_PARAMETER = "&withVersion=true";
 
   private static final long ONE_DAY_IN_MILISEC = 86400000L;
 
+  private static final AtomicBoolean UPDATE_RUNNING = new AtomicBoolean();
+
   private int buildNumber;
 
+  private final String marketplaceBaseUrl;
+
+  private final int timeoutInMillisec;
+
   private UpdateNotifier updateNotifier;
 
   public TimetrackerVersionUpdater(final UpdateNotifier updateNotifier) {
+    this(updateNotifier, MARKETPLACE_BASE_URL, DEFAULT_TIMEOUT_IN_MILLISEC);
+  }
+
+  /**
+   * Constructor.
+   *
+   * @param updateNotifier
+   *          the store of the update information.
+   * @param marketplaceBaseUrl
+   *          the base URL of the marketplace (scheme, host and port). Tests can give a local
+   *          endpoint.
+   * @param timeoutInMillisec
+   *          the timeout of the connection and the response in milliseconds.
+   */
+  public TimetrackerVersionUpdater(final UpdateNotifier updateNotifier,
+      final String marketplaceBaseUrl, final int timeoutInMillisec) {
     buildNumber = ComponentAccessor.getComponent(BuildUtilsInfo.class).getApplicationBuildNumber();
     this.updateNotifier = updateNotifier;
+    this.marketplaceBaseUrl = marketplaceBaseUrl;
+    this.timeoutInMillisec = timeoutInMillisec;
   }
 
-  private synchronized void update() {
-    if (!updateRequired()) {
-      return;
-    }
-    updateNotifier.putLastUpdateTime(System.currentTimeMillis());
+  private String queryLatestVersion() {
     HttpClient httpClient = new HttpClient();
+    HttpConnectionManagerParams params = httpClient.getHttpConnectionManager().getParams();
+    params.setConnectionTimeout(timeoutInMillisec);
+    params.setSoTimeout(timeoutInMillisec);
     HttpMethod method = new GetMethod(
-        MARKETPLACE_URL_FIRST_PART
+        marketplaceBaseUrl + MARKETPLACE_URL_PATH
             + buildNumber + MARKETPLACE_URL_WITH_VERSION_PARAMETER);
     method.addRequestHeader("accept", "application/json");
     String response;
@@ -70,16 +106,31 @@ public class TimetrackerVersionUpdater {
       response = method.getResponseBodyAsString();
     } catch (IOException e) {
       throw new UpdateException("Update JTTP latest version failed. ", e);
+    } finally {
+      method.releaseConnection();
     }
     Gson gson = new Gson();
     JiraMarketplaceJSONDTO fromJson = gson.fromJson(response, JiraMarketplaceJSONDTO.class);
-    String latestVersion = fromJson.getEmbedded().getVersion().getName();
-    updateNotifier.putLatestVersion(latestVersion);
+    return fromJson.getEmbedded().getVersion().getName();
+  }
+
+  private void update() {
+    if (!UPDATE_RUNNING.compareAndSet(false, true)) {
+      return;
+    }
+    try {
+      if (updateRequired()) {
+        updateNotifier.putLastUpdateTime(System.currentTimeMillis());
+        updateNotifier.putLatestVersion(queryLatestVersion());
+      }
+    } finally {
+      UPDATE_RUNNING.set(false);
+    }
   }
 
   /**
    * Get the latest version from marketplace if the last update is older than one day. The new
-   * version store in the {@link UpdateNotifier} class.
+   * version store in the {@link UpdateNotifier} class. Does nothing if an other update is running.
    *
    * @throws {@link
    *           UpdateException} if the update failed.
@@ -19,17 +19,12 @@ import org.everit.jira.settings.TimeTrackerSettingsHelper;
 import org.everit.jira.settings.dto.TimeTrackerGlobalSettings;
 import org.everit.jira.settings.dto.TimeTrackerUserSettings;
 import org.everit.jira.timetracker.plugin.JiraTimetrackerAnalytics;
-import org.everit.jira.updatenotifier.exception.UpdateException;
-import org.slf4j.Logger;
-import org.slf4j.LoggerFactory;
 
 /**
  * Helper class for store update information in the plugin.
  */
 public class UpdateNotifier {
 
-  private static final Logger LOGGER = LoggerFactory.getLogger(UpdateNotifier.class);
-
   private TimeTrackerSettingsHelper settingsHelper;
 
   /**
@@ -40,27 +35,19 @@ public class UpdateNotifier {
   }
 
   /**
-   * Get the latest JTTP version from global settings.
+   * Get the last update time of the latest JTTP version from global settings.
    */
   public Long getLastUpdateTime() {
     return settingsHelper.loadGlobalSettings().getLastUpdate();
   }
 
   /**
-   * Get the latest JTTP version, if necessary query it from the marketplace.
+   * Get the latest JTTP version stored by the last version check. The marketplace is never queried
+   * from here, it is done by the {@link VersionCheckComponent} in the background.
    *
-   * @return the latest JTTP version.
+   * @return the latest JTTP version or <code>null</code> if the version is not checked yet.
    */
   public String getLatestVersion() {
-    try {
-      new TimetrackerVersionUpdater(this).updateLatestVersion();
-    } catch (UpdateException e) {
-      LOGGER.error("Version update failed", e);
-    }
-    return getLatestVersionWithoutUpdate();
-  }
-
-  private String getLatestVersionWithoutUpdate() {
     return settingsHelper.loadGlobalSettings().getLatestVersion();
   }
 
@@ -93,7 +80,7 @@ public class UpdateNotifier {
    */
   public void putDisableNotifierForVersion() {
     TimeTrackerUserSettings userSettings =
-        new TimeTrackerUserSettings().userCanceledUpdate(getLatestVersionWithoutUpdate());
+        new TimeTrackerUserSettings().userCanceledUpdate(getLatestVersion());
     settingsHelper.saveUserSettings(userSettings);
   }
 
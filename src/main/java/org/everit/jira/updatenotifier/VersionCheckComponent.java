@@ -0,0 +1,88 @@
+/*
+ * Copyright (C) 2011 Everit Kft. (http://www.everit.org)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.everit.jira.updatenotifier;
+
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+import org.everit.jira.settings.TimeTrackerSettingsHelper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.InitializingBean;
+
+/**
+ * Checks the latest JTTP version on the marketplace in the background. The check runs every hour,
+ * but the marketplace is queried only if the last query is older than one day. The pages read
+ * the stored version only, so no request waits on the marketplace.
+ */
+public class VersionCheckComponent implements InitializingBean, DisposableBean {
+
+  /**
+   * Version check command.
+   */
+  private static class VersionCheck implements Runnable {
+
+    private final TimeTrackerSettingsHelper settingsHelper;
+
+    VersionCheck(final TimeTrackerSettingsHelper settingsHelper) {
+      this.settingsHelper = settingsHelper;
+    }
+
+    @Override
+    public void run() {
+      try {
+        new TimetrackerVersionUpdater(new UpdateNotifier(settingsHelper)).updateLatestVersion();
+      } catch (RuntimeException e) {
+        // the next run tries again, the executor must not stop
+        LOGGER.error("Version update failed", e);
+      }
+    }
+  }
+
+  private static final int CHECK_PERIOD_IN_MINUTES = 60;
+
+  private static final int INITIAL_DELAY_IN_MINUTES = 1;
+
+  private static final Logger LOGGER = LoggerFactory.getLogger(VersionCheckComponent.class);
+
+  private final ScheduledExecutorService scheduledExecutorService = Executors
+      .newScheduledThreadPool(1);
+
+  private final TimeTrackerSettingsHelper settingsHelper;
+
+  private ScheduledFuture<?> versionCheckFuture;
+
+  public VersionCheckComponent(final TimeTrackerSettingsHelper settingsHelper) {
+    this.settingsHelper = settingsHelper;
+  }
+
+  @Override
+  public void afterPropertiesSet() throws Exception {
+    versionCheckFuture = scheduledExecutorService.scheduleWithFixedDelay(
+        new VersionCheck(settingsHelper),
+        INITIAL_DELAY_IN_MINUTES, CHECK_PERIOD_IN_MINUTES, TimeUnit.MINUTES);
+  }
+
+  @Override
+  public void destroy() throws Exception {
+    scheduledExecutorService.shutdown();
+    versionCheckFuture.cancel(true);
+  }
+
+}
@@ -1152,7 +1152,7 @@ const MAX_ELEMENTS_DISPLAYED = 100; // EQUAL TO JIRA.Issues.SearcherGroupListDia
     return true;
   }
   
-  reporting.getWorklogDetailsPage = function(offset, column, order) {
+  reporting.getWorklogDetailsPage = function(offset, column, order, cursor) {
     var url = contextPath + "/rest/jttp-rest/1/paging-report/pageWorklogDetails?filterConditionJson=";
     var filterConditionJson = jQuery('#filterConditionJson').val();
     var filterCondition = JSON.parse(filterConditionJson);
@@ -1162,7 +1162,10 @@ const MAX_ELEMENTS_DISPLAYED = 100; // EQUAL TO JIRA.Issues.SearcherGroupListDia
     var selectedColumnsJson = JSON.stringify(selectedWorklogDetailsColumns);
     var $detailsModule = jQuery('#detailsModule');
     $detailsModule.addClass("pending");
-    jQuery.get(url + filterConditionJson + "&selectedColumnsJson=" + selectedColumnsJson + "&orderBy=" + column + "-" + order, function(data) {
+    var cursorParam = cursor ? "&cursor=" + encodeURIComponent(cursor) : "";
+    var totalsToken = jQuery('#worklogDetailsTotalsToken').val();
+    var totalsTokenParam = totalsToken ? "&totalsToken=" + encodeURIComponent(totalsToken) : "";
+    jQuery.get(url + filterConditionJson + "&selectedColumnsJson=" + selectedColumnsJson + "&orderBy=" + column + "-" + order + cursorParam + totalsTokenParam, function(data) {
       $detailsModule.replaceWith(data);
     }).done(function() {
       initWorklogDetailsColumns();
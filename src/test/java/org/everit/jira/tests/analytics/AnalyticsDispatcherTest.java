@@ -0,0 +1,170 @@
+/*
+ * Copyright (C) 2011 Everit Kft. (http://www.everit.org)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.everit.jira.tests.analytics;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import org.everit.jira.analytics.AnalyticsDispatcher;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpHandler;
+import com.sun.net.httpserver.HttpServer;
+
+public class AnalyticsDispatcherTest {
+
+  /**
+   * Local stand-in of the analytics host. Records the method, the query and the body of the
+   * requests.
+   */
+  private class RecordingHandler implements HttpHandler {
+
+    @Override
+    public void handle(final HttpExchange exchange) throws IOException {
+      ByteArrayOutputStream body = new ByteArrayOutputStream();
+      try (InputStream in = exchange.getRequestBody()) {
+        byte[] buffer = new byte[BUFFER_SIZE];
+        int read = in.read(buffer);
+        while (read >= 0) {
+          body.write(buffer, 0, read);
+          read = in.read(buffer);
+        }
+      }
+      requests.add(exchange.getRequestMethod() + " " + exchange.getRequestURI().getRawQuery()
+          + " " + new String(body.toByteArray(), StandardCharsets.UTF_8));
+      exchange.sendResponseHeaders(HTTP_NO_CONTENT, -1);
+      exchange.close();
+    }
+  }
+
+  private static final int BUFFER_SIZE = 1024;
+
+  private static final int HTTP_NO_CONTENT = 204;
+
+  private static final long WAIT_IN_MILLISEC = 5000;
+
+  private AnalyticsDispatcher dispatcher;
+
+  private final List<String> requests = new CopyOnWriteArrayList<>();
+
+  private HttpServer server;
+
+  private String url;
+
+  @After
+  public void after() {
+    if (dispatcher != null) {
+      dispatcher.stop();
+    }
+    server.stop(0);
+  }
+
+  @Before
+  public void before() throws IOException {
+    server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+    server.createContext("/piwik.php", new RecordingHandler());
+    server.start();
+    url = "http://127.0.0.1:" + server.getAddress().getPort() + "/piwik.php";
+  }
+
+  @Test
+  public void testBatchDelivery() throws InterruptedException {
+    dispatcher = new AnalyticsDispatcher(10, 10, 1000);
+    dispatcher.offer(url + "?e_a=1");
+    dispatcher.offer(url + "?e_a=2");
+    dispatcher.offer(url + "?e_a=3");
+    dispatcher.start();
+    waitForSent(3);
+
+    Assert.assertEquals(1, requests.size());
+    Assert.assertEquals("POST null {\"requests\":[\"?e_a=1\",\"?e_a=2\",\"?e_a=3\"]}",
+        requests.get(0));
+    Assert.assertEquals(0, dispatcher.getQueueDepth());
+    Assert.assertEquals(0, dispatcher.getFailedCount());
+  }
+
+  @Test
+  public void testDropOldestWhenFull() throws InterruptedException {
+    dispatcher = new AnalyticsDispatcher(2, 10, 1000);
+    dispatcher.offer(url + "?e_a=1");
+    dispatcher.offer(url + "?e_a=2");
+    dispatcher.offer(url + "?e_a=3");
+    Assert.assertEquals(2, dispatcher.getQueueDepth());
+    Assert.assertEquals(1, dispatcher.getDroppedCount());
+
+    dispatcher.start();
+    waitForSent(2);
+    Assert.assertFalse(requests.get(0).contains("e_a=1"));
+  }
+
+  @Test
+  public void testRestart() throws InterruptedException {
+    dispatcher = new AnalyticsDispatcher(10, 10, 1000);
+    dispatcher.start();
+    dispatcher.offer(url + "?e_a=1");
+    waitForSent(1);
+
+    dispatcher.stop();
+    dispatcher.start();
+    dispatcher.offer(url + "?e_a=2");
+    waitForSent(2);
+
+    Assert.assertEquals("GET e_a=2 ", requests.get(1));
+    Assert.assertEquals(0, dispatcher.getFailedCount());
+  }
+
+  @Test
+  public void testSingleDelivery() throws InterruptedException {
+    dispatcher = new AnalyticsDispatcher(10, 10, 1000);
+    dispatcher.start();
+    dispatcher.offer(url + "?e_a=1");
+    waitForSent(1);
+
+    Assert.assertEquals("GET e_a=1 ", requests.get(0));
+  }
+
+  @Test
+  public void testUnreachableHost() throws InterruptedException {
+    server.stop(0);
+    dispatcher = new AnalyticsDispatcher(10, 10, 1000);
+    dispatcher.start();
+    dispatcher.offer(url + "?e_a=1");
+    long deadline = System.currentTimeMillis() + WAIT_IN_MILLISEC;
+    while ((dispatcher.getFailedCount() < 1) && (System.currentTimeMillis() < deadline)) {
+      Thread.sleep(10);
+    }
+    Assert.assertEquals(1, dispatcher.getFailedCount());
+    Assert.assertEquals(0, dispatcher.getSentCount());
+  }
+
+  private void waitForSent(final long count) throws InterruptedException {
+    long deadline = System.currentTimeMillis() + WAIT_IN_MILLISEC;
+    while ((dispatcher.getSentCount() < count) && (System.currentTimeMillis() < deadline)) {
+      Thread.sleep(10);
+    }
+    Assert.assertEquals(count, dispatcher.getSentCount());
+  }
+
+}
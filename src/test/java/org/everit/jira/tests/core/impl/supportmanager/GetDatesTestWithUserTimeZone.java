@@ -31,18 +31,16 @@ import java.util.regex.Pattern;
 import org.everit.jira.core.SupportManager;
 import org.everit.jira.core.impl.DateTimeServer;
 import org.everit.jira.core.impl.SupportComponent;
+import org.everit.jira.core.util.BrowsableProjectsCache;
 import org.everit.jira.reporting.plugin.dto.MissingsWorklogsDTO;
 import org.everit.jira.settings.dto.TimeTrackerGlobalSettings;
 import org.joda.time.DateTime;
 import org.joda.time.DateTimeZone;
 import org.junit.Assert;
 import org.junit.Test;
-import org.mockito.ArgumentMatcher;
 import org.mockito.Matchers;
 import org.mockito.Mockito;
 import org.ofbiz.core.entity.EntityCondition;
-import org.ofbiz.core.entity.EntityExpr;
-import org.ofbiz.core.entity.EntityOperator;
 import org.ofbiz.core.entity.GenericEntityException;
 import org.ofbiz.core.entity.GenericValue;
 import org.ofbiz.core.entity.model.ModelEntity;
@@ -93,6 +91,11 @@ public class GetDatesTestWithUserTimeZone {
       }
       return String.valueOf(object);
     }
+
+    @Override
+    public Timestamp getTimestamp(final String key) {
+      return (Timestamp) values.get(key);
+    }
   }
 
   private static final String NOWORK_ISSUE_KEY = "NOWORK-1";
@@ -119,15 +122,18 @@ public class GetDatesTestWithUserTimeZone {
 
   private DateTimeZone useTimeZOne = DateTimeZone.forID("America/Denver");
 
-  private GenericValue createDummyGenericValue(final long issueId, final long timeworked) {
+  private GenericValue createDummyGenericValue(final long issueId, final long timeworked,
+      final DateTime day) {
     HashMap<String, Object> values = new HashMap<>();
     values.put("issue", issueId);
     values.put("timeworked", timeworked);
+    values.put("startdate", new Timestamp(day.plusHours(1).getMillis()));
     return new DummyGenericValue(values);
 
   }
 
   private void initMockComponentWorker() {
+    BrowsableProjectsCache.clear();
     timeTrackerGlobalSettings = new TimeTrackerGlobalSettings();
     DateTime date = new DateTime(1452124800000L, DateTimeZone.UTC); // 2016.01.07
     today = date.toDateTime(); // Thursday
@@ -213,139 +219,21 @@ public class GetDatesTestWithUserTimeZone {
   private OfBizDelegator mockOfbizDelagator(final MockIssue noworkIssue,
       final MockIssue workIssue) {
     OfBizDelegator ofBizDelegator = Mockito.mock(OfBizDelegator.class, Mockito.RETURNS_DEEP_STUBS);
-    Mockito.when(ofBizDelegator.findByAnd(Matchers.anyString(),
-        Matchers.argThat(new ArgumentMatcher<List<EntityCondition>>() {
-          @Override
-          public boolean matches(final Object argument) {
-            if (argument == null) {
-              return false;
-            }
-            List<EntityCondition> exprList = (List<EntityCondition>) argument;
-            for (EntityCondition expression : exprList) {
-              EntityExpr expr = (EntityExpr) expression;
-              if ("startdate".equals(expr.getLhs())
-                  && EntityOperator.GREATER_THAN_EQUAL_TO.equals(expr.getOperator())
-                  && ((today.getMillis()) == ((Timestamp) expr.getRhs()).getTime())) {
-                return true;
-              }
-            }
-            return false;
-          }
-        })))
-        .thenReturn(
-            new ArrayList<>(Arrays.asList(createDummyGenericValue(workIssue.getId(), 3600L))));
-    Mockito.when(ofBizDelegator.findByAnd(Matchers.anyString(),
-        Matchers.argThat(new ArgumentMatcher<List<EntityCondition>>() {
-          @Override
-          public boolean matches(final Object argument) {
-            if (argument == null) {
-              return false;
-            }
-            List<EntityCondition> exprList = (List<EntityCondition>) argument;
-            for (EntityCondition expression : exprList) {
-              EntityExpr expr = (EntityExpr) expression;
-              if ("startdate".equals(expr.getLhs())
-                  && EntityOperator.GREATER_THAN_EQUAL_TO.equals(expr.getOperator())
-                  && ((todayPlus1.getMillis()) == ((Timestamp) expr.getRhs())
-                      .getTime())) {
-                return true;
-              }
-            }
-            return false;
-          }
-        })))
-        .thenReturn(new ArrayList<>(Arrays.asList(
-            createDummyGenericValue(workIssue.getId(), 1000L),
-            createDummyGenericValue(noworkIssue.getId(), 2000L)))); // not enough worklog
-    Mockito.when(ofBizDelegator.findByAnd(Matchers.anyString(),
-        Matchers.argThat(new ArgumentMatcher<List<EntityCondition>>() {
-          @Override
-          public boolean matches(final Object argument) {
-            if (argument == null) {
-              return false;
-            }
-            List<EntityCondition> exprList = (List<EntityCondition>) argument;
-            for (EntityCondition expression : exprList) {
-              EntityExpr expr = (EntityExpr) expression;
-              if ("startdate".equals(expr.getLhs())
-                  && EntityOperator.GREATER_THAN_EQUAL_TO.equals(expr.getOperator())
-                  && ((todayPlus2.getMillis()) == ((Timestamp) expr.getRhs())
-                      .getTime())) {
-                return true;
-              }
-            }
-            return false;
-          }
-        })))
-        .thenReturn(new ArrayList<>(Arrays.asList(
-            createDummyGenericValue(noworkIssue.getId(), 2600L),
-            createDummyGenericValue(workIssue.getId(), 1000L))));// enough but with non work issue
-    Mockito.when(ofBizDelegator.findByAnd(Matchers.anyString(),
-        Matchers.argThat(new ArgumentMatcher<List<EntityCondition>>() {
-          @Override
-          public boolean matches(final Object argument) {
-            if (argument == null) {
-              return false;
-            }
-            List<EntityCondition> exprList = (List<EntityCondition>) argument;
-            for (EntityCondition expression : exprList) {
-              EntityExpr expr = (EntityExpr) expression;
-              if ("startdate".equals(expr.getLhs())
-                  && EntityOperator.GREATER_THAN_EQUAL_TO.equals(expr.getOperator())
-                  && ((todayPlus3.getMillis()) == ((Timestamp) expr.getRhs())
-                      .getTime())) {
-                return true;
-              }
-            }
-            return false;
-          }
-        })))
+    Mockito.when(ofBizDelegator.findByCondition(Matchers.eq("IssueWorklogView"),
+        Matchers.any(EntityCondition.class), Matchers.anyCollectionOf(String.class),
+        Matchers.anyListOf(String.class)))
         .thenReturn(new ArrayList<>(Arrays.asList(
-            createDummyGenericValue(workIssue.getId(), 500L),
-            createDummyGenericValue(workIssue.getId(), 100L),
-            createDummyGenericValue(workIssue.getId(), 2000L)))); // not enough worklog
-    Mockito.when(ofBizDelegator.findByAnd(Matchers.anyString(),
-        Matchers.argThat(new ArgumentMatcher<List<EntityCondition>>() {
-          @Override
-          public boolean matches(final Object argument) {
-            if (argument == null) {
-              return false;
-            }
-            List<EntityCondition> exprList = (List<EntityCondition>) argument;
-            for (EntityCondition expression : exprList) {
-              EntityExpr expr = (EntityExpr) expression;
-              if ("startdate".equals(expr.getLhs())
-                  && EntityOperator.GREATER_THAN_EQUAL_TO.equals(expr.getOperator())
-                  && ((todayPlus4.getMillis()) == ((Timestamp) expr.getRhs())
-                      .getTime())) {
-                return true;
-              }
-            }
-            return false;
-          }
-        })))
-        .thenReturn(null);
-    Mockito.when(ofBizDelegator.findByAnd(Matchers.anyString(),
-        Matchers.argThat(new ArgumentMatcher<List<EntityCondition>>() {
-          @Override
-          public boolean matches(final Object argument) {
-            if (argument == null) {
-              return false;
-            }
-            List<EntityCondition> exprList = (List<EntityCondition>) argument;
-            for (EntityCondition expression : exprList) {
-              EntityExpr expr = (EntityExpr) expression;
-              if ("startdate".equals(expr.getLhs())
-                  && EntityOperator.GREATER_THAN_EQUAL_TO.equals(expr.getOperator())
-                  && ((todayPlus5.getMillis()) == ((Timestamp) expr.getRhs())
-                      .getTime())) {
-                return true;
-              }
-            }
-            return false;
-          }
-        })))
-        .thenReturn(null);
+            createDummyGenericValue(workIssue.getId(), 3600L, today),
+            // not enough worklog
+            createDummyGenericValue(workIssue.getId(), 1000L, todayPlus1),
+            createDummyGenericValue(noworkIssue.getId(), 2000L, todayPlus1),
+            // enough but with non work issue
+            createDummyGenericValue(noworkIssue.getId(), 2600L, todayPlus2),
+            createDummyGenericValue(workIssue.getId(), 1000L, todayPlus2),
+            // not enough worklog
+            createDummyGenericValue(workIssue.getId(), 500L, todayPlus3),
+            createDummyGenericValue(workIssue.getId(), 100L, todayPlus3),
+            createDummyGenericValue(workIssue.getId(), 2000L, todayPlus3))));
     return ofBizDelegator;
   }
 
@@ -0,0 +1,260 @@
+/*
+ * Copyright (C) 2011 Everit Kft. (http://www.everit.org)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.everit.jira.tests.core.impl.supportmanager;
+
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Pattern;
+
+import org.everit.jira.core.SupportManager;
+import org.everit.jira.core.dto.PeriodSummary;
+import org.everit.jira.core.impl.SupportComponent;
+import org.everit.jira.core.util.BrowsableProjectsCache;
+import org.everit.jira.core.util.IssueKeyMatcher;
+import org.joda.time.DateTime;
+import org.joda.time.DateTimeZone;
+import org.joda.time.Interval;
+import org.junit.Assert;
+import org.junit.Test;
+import org.mockito.Matchers;
+import org.mockito.Mockito;
+import org.ofbiz.core.entity.EntityCondition;
+import org.ofbiz.core.entity.GenericValue;
+import org.ofbiz.core.entity.model.ModelEntity;
+
+import com.atlassian.jira.issue.Issue;
+import com.atlassian.jira.issue.IssueManager;
+import com.atlassian.jira.issue.MutableIssue;
+import com.atlassian.jira.issue.status.SimpleStatus;
+import com.atlassian.jira.issue.status.Status;
+import com.atlassian.jira.issue.status.category.StatusCategory;
+import com.atlassian.jira.mock.component.MockComponentWorker;
+import com.atlassian.jira.ofbiz.OfBizDelegator;
+import com.atlassian.jira.permission.ProjectPermissions;
+import com.atlassian.jira.project.Project;
+import com.atlassian.jira.security.JiraAuthenticationContext;
+import com.atlassian.jira.security.PermissionManager;
+import com.atlassian.jira.security.groups.GroupManager;
+import com.atlassian.jira.security.roles.ProjectRoleManager;
+import com.atlassian.jira.user.ApplicationUser;
+import com.atlassian.jira.user.MockApplicationUser;
+
+public class SummariesTest {
+
+  static class DummyGenericValue extends GenericValue {
+    private static final long serialVersionUID = -2407263391817011537L;
+
+    final Map<String, Object> values;
+
+    @SuppressWarnings("deprecation")
+    public DummyGenericValue(final Map<String, Object> values) {
+      super(new ModelEntity());
+      this.values = Collections.unmodifiableMap(new HashMap<>(values));
+    }
+
+    @Override
+    public boolean equals(final Object obj) {
+      if (this == obj) {
+        return true;
+      }
+      if (!super.equals(obj)) {
+        return false;
+      }
+      if (getClass() != obj.getClass()) {
+        return false;
+      }
+      DummyGenericValue other = (DummyGenericValue) obj;
+      if (values == null) {
+        if (other.values != null) {
+          return false;
+        }
+      } else if (!values.equals(other.values)) {
+        return false;
+      }
+      return true;
+    }
+
+    @Override
+    public Long getLong(final String key) {
+      Object object = values.get(key);
+      if (object == null) {
+        return null;
+      }
+      return Long.valueOf(object.toString());
+    }
+
+    @Override
+    public String getString(final String key) {
+      Object object = values.get(key);
+      if (object == null) {
+        return null;
+      }
+      return String.valueOf(object);
+    }
+
+    @Override
+    public Timestamp getTimestamp(final String key) {
+      return (Timestamp) values.get(key);
+    }
+
+    @Override
+    public int hashCode() {
+      final int prime = 31;
+      int result = super.hashCode();
+      result = (prime * result) + ((values == null) ? 0 : values.hashCode());
+      return result;
+    }
+  }
+
+  private static final DateTime DAY = new DateTime(2016, 3, 31, 0, 0, DateTimeZone.UTC);
+
+  private static final String GROUPLEVEL_FOR_USER = "test";
+
+  private OfBizDelegator ofBizDelegator;
+
+  private MutableIssue noWorkIssue = createIssue(1, "NOWORK-1");
+
+  private MutableIssue workIssue = createIssue(2, "WORK-1");
+
+  private GenericValue createDummyGenericValue(final long issueId, final long timeworked,
+      final String grouplevel, final DateTime startDate) {
+    HashMap<String, Object> values = new HashMap<>();
+    values.put("issue", issueId);
+    values.put("grouplevel", grouplevel);
+    values.put("timeworked", timeworked);
+    values.put("startdate", new Timestamp(startDate.getMillis()));
+    return new DummyGenericValue(values);
+  }
+
+  private MutableIssue createIssue(final long id, final String key) {
+    StatusCategory statusCategory =
+        Mockito.mock(StatusCategory.class, Mockito.RETURNS_DEEP_STUBS);
+    Mockito.when(statusCategory.getKey()).thenReturn(StatusCategory.IN_PROGRESS);
+
+    SimpleStatus simpleStatus = Mockito.mock(SimpleStatus.class, Mockito.RETURNS_DEEP_STUBS);
+    Mockito.when(simpleStatus.getStatusCategory()).thenReturn(statusCategory);
+
+    Status status = Mockito.mock(Status.class, Mockito.RETURNS_DEEP_STUBS);
+    Mockito.when(status.getSimpleStatus()).thenReturn(simpleStatus);
+
+    MutableIssue issue = Mockito.mock(MutableIssue.class, Mockito.RETURNS_DEEP_STUBS);
+    Mockito.when(issue.getId()).thenReturn(id);
+    Mockito.when(issue.getKey()).thenReturn(key);
+    Mockito.when(issue.getStatusObject()).thenReturn(status);
+    Mockito.when(issue.getParentObject()).thenReturn(null);
+    return issue;
+  }
+
+  private void initMockComponentWorker(final List<GenericValue> worklogs) {
+    BrowsableProjectsCache.clear();
+    MockComponentWorker mockComponentWorker = new MockComponentWorker();
+
+    JiraAuthenticationContext jiraAuthenticationContext =
+        Mockito.mock(JiraAuthenticationContext.class, Mockito.RETURNS_DEEP_STUBS);
+    MockApplicationUser user = new MockApplicationUser("userKey", "username");
+    Mockito.when(jiraAuthenticationContext.getUser())
+        .thenReturn(user);
+
+    PermissionManager permissionManager =
+        Mockito.mock(PermissionManager.class, Mockito.RETURNS_DEEP_STUBS);
+    Mockito.when(permissionManager.getProjects(Matchers.anyInt(),
+        Matchers.any(ApplicationUser.class)))
+        .thenReturn(new ArrayList<Project>());
+    Mockito.when(
+        permissionManager.hasPermission(Matchers.eq(ProjectPermissions.BROWSE_PROJECTS),
+            Matchers.any(Issue.class),
+            Matchers.eq(user)))
+        .thenReturn(true);
+    IssueManager issueManager = Mockito.mock(IssueManager.class, Mockito.RETURNS_DEEP_STUBS);
+    Mockito.when(issueManager.getIssueObjects(Matchers.anyCollectionOf(Long.class)))
+        .thenReturn(Arrays.asList(workIssue, noWorkIssue));
+
+    GroupManager groupManager = Mockito.mock(GroupManager.class, Mockito.RETURNS_DEEP_STUBS);
+    Mockito.when(groupManager.getGroupNamesForUser(Matchers.any(ApplicationUser.class)))
+        .thenReturn(new ArrayList<>(Arrays.asList(GROUPLEVEL_FOR_USER)));
+
+    ProjectRoleManager projectRoleManager =
+        Mockito.mock(ProjectRoleManager.class, Mockito.RETURNS_DEEP_STUBS);
+
+    ofBizDelegator = Mockito.mock(OfBizDelegator.class, Mockito.RETURNS_DEEP_STUBS);
+    Mockito.when(ofBizDelegator.findByCondition(Matchers.eq("IssueWorklogView"),
+        Matchers.any(EntityCondition.class), Matchers.anyCollectionOf(String.class),
+        Matchers.anyListOf(String.class)))
+        .thenReturn(worklogs);
+
+    mockComponentWorker.addMock(JiraAuthenticationContext.class, jiraAuthenticationContext)
+        .addMock(PermissionManager.class, permissionManager)
+        .addMock(IssueManager.class, issueManager)
+        .addMock(GroupManager.class, groupManager)
+        .addMock(ProjectRoleManager.class, projectRoleManager)
+        .addMock(OfBizDelegator.class, ofBizDelegator)
+        .init();
+  }
+
+  @Test
+  public void testSummaries() {
+    initMockComponentWorker(
+        new ArrayList<>(
+            Arrays.asList(
+                createDummyGenericValue(workIssue.getId(), 1600, null, DAY.plusHours(1)),
+                createDummyGenericValue(noWorkIssue.getId(), 2600, null, DAY.plusHours(2)),
+                createDummyGenericValue(workIssue.getId(), 4600, GROUPLEVEL_FOR_USER,
+                    DAY.minusDays(1)),
+                createDummyGenericValue(workIssue.getId(), 4600, "empty_group",
+                    DAY.plusHours(3)),
+                createDummyGenericValue(noWorkIssue.getId(), 5600, GROUPLEVEL_FOR_USER,
+                    DAY.plusDays(1)))));
+
+    SupportManager supportManager = new SupportComponent(null);
+
+    Interval day = new Interval(DAY, DAY.plusDays(1));
+    Interval week = new Interval(DAY.minusDays(3), DAY.plusDays(4));
+    Interval month = new Interval(DAY.withDayOfMonth(1), DAY.plusDays(1));
+    List<PeriodSummary> summaries = supportManager.summaries(Arrays.asList(day, week, month),
+        IssueKeyMatcher.create(Arrays.asList(Pattern.compile(noWorkIssue.getKey()))));
+
+    Mockito.verify(ofBizDelegator, Mockito.times(1)).findByCondition(Matchers.anyString(),
+        Matchers.any(EntityCondition.class), Matchers.anyCollectionOf(String.class),
+        Matchers.anyListOf(String.class));
+
+    Assert.assertEquals(3, summaries.size());
+    Assert.assertEquals(4200L, summaries.get(0).getSummaryInSeconds());
+    Assert.assertEquals(1600L, summaries.get(0).getFilteredSummaryInSeconds());
+    Assert.assertEquals(14400L, summaries.get(1).getSummaryInSeconds());
+    Assert.assertEquals(6200L, summaries.get(1).getFilteredSummaryInSeconds());
+    Assert.assertEquals(8800L, summaries.get(2).getSummaryInSeconds());
+    Assert.assertEquals(6200L, summaries.get(2).getFilteredSummaryInSeconds());
+  }
+
+  @Test
+  public void testSummariesWithoutWorklogs() {
+    initMockComponentWorker(Collections.<GenericValue> emptyList());
+
+    SupportManager supportManager = new SupportComponent(null);
+
+    List<PeriodSummary> summaries = supportManager.summaries(
+        Arrays.asList(new Interval(DAY, DAY.plusDays(1))), IssueKeyMatcher.EMPTY);
+
+    Assert.assertEquals(1, summaries.size());
+    Assert.assertEquals(0L, summaries.get(0).getSummaryInSeconds());
+    Assert.assertEquals(0L, summaries.get(0).getFilteredSummaryInSeconds());
+  }
+}
@@ -26,6 +26,7 @@ import java.util.regex.Pattern;
 
 import org.everit.jira.core.SupportManager;
 import org.everit.jira.core.impl.SupportComponent;
+import org.everit.jira.core.util.BrowsableProjectsCache;
 import org.junit.Assert;
 import org.junit.Test;
 import org.mockito.Matchers;
@@ -127,6 +128,7 @@ public class SummaryTest {
   }
 
   private void initMockComponentWorker(final List<GenericValue> worklogs) {
+    BrowsableProjectsCache.clear();
     MockComponentWorker mockComponentWorker = new MockComponentWorker();
 
     JiraAuthenticationContext jiraAuthenticationContext =
@@ -26,6 +26,7 @@ import java.util.Locale;
 import java.util.Set;
 
 import org.everit.jira.core.impl.TimetrackerComponent;
+import org.everit.jira.core.util.BrowsableProjectsCache;
 import org.everit.jira.core.util.TimetrackerUtil;
 import org.everit.jira.settings.TimeTrackerSettingsHelper;
 import org.everit.jira.settings.dto.TimeTrackerGlobalSettings;
@@ -70,6 +71,7 @@ public class FirstMissingWorklogsDateTest {
 
   public void initMockComponents(final long hasNoWorklogDate, final String userTimeZone,
       final TimeZoneTypes jttpTimeZoneSettings) {
+    BrowsableProjectsCache.clear();
     MockComponentWorker mockComponentWorker = new MockComponentWorker();
 
     PermissionManager permissionManager =
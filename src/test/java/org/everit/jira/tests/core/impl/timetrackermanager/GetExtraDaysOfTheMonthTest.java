@@ -24,6 +24,7 @@ import java.util.Locale;
 
 import org.everit.jira.core.TimetrackerManager;
 import org.everit.jira.core.impl.TimetrackerComponent;
+import org.everit.jira.core.util.BrowsableProjectsCache;
 import org.everit.jira.tests.util.converterUtilForTests;
 import org.joda.time.DateTime;
 import org.joda.time.DateTimeZone;
@@ -52,6 +53,7 @@ public class GetExtraDaysOfTheMonthTest {
 
   @Before
   public void before() {
+    BrowsableProjectsCache.clear();
     timetrackerManager = new TimetrackerComponent(null, null);
 
     MockComponentWorker mockComponentWorker = new MockComponentWorker();
@@ -15,26 +15,24 @@
  */
 package org.everit.jira.tests.core.impl.timetrackermanager;
 
-import java.text.ParseException;
-import java.text.SimpleDateFormat;
+import java.sql.Timestamp;
 import java.util.ArrayList;
 import java.util.Arrays;
-import java.util.Date;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Locale;
+import java.util.Map;
 
 import org.everit.jira.core.impl.DateTimeServer;
 import org.everit.jira.core.impl.TimetrackerComponent;
-import org.everit.jira.timetracker.plugin.util.DateTimeConverterUtil;
+import org.everit.jira.core.util.BrowsableProjectsCache;
 import org.joda.time.DateTime;
+import org.joda.time.DateTimeZone;
 import org.junit.Assert;
 import org.junit.Test;
-import org.mockito.ArgumentMatcher;
 import org.mockito.Matchers;
 import org.mockito.Mockito;
 import org.ofbiz.core.entity.EntityCondition;
-import org.ofbiz.core.entity.EntityExpr;
-import org.ofbiz.core.entity.EntityOperator;
 import org.ofbiz.core.entity.GenericEntityException;
 import org.ofbiz.core.entity.GenericValue;
 
@@ -56,7 +54,14 @@ public class GetLoggedDaysOfTheMonthTest {
 
   private TimetrackerComponent timetrackerComponent = new TimetrackerComponent(null, null);
 
-  public void initMockComponents(final Date dateOfMonth) {
+  private GenericValue createWorklog(final DateTime startDate) {
+    Map<String, Object> fields = new HashMap<>();
+    fields.put("startdate", new Timestamp(startDate.getMillis()));
+    return new MockGenericValue("IssueWorklogView", fields);
+  }
+
+  public void initMockComponents(final List<GenericValue> worklogs) {
+    BrowsableProjectsCache.clear();
     MockComponentWorker mockComponentWorker = new MockComponentWorker();
 
     PermissionManager permissionManager =
@@ -95,35 +100,11 @@ public class GetLoggedDaysOfTheMonthTest {
     mockComponentWorker.addMock(I18nHelper.class, i18nHelper);
     mockComponentWorker.addMock(BeanFactory.class, mockBeanFactory);
 
-    MockGenericValue mockGenericValue = new MockGenericValue("none");
     OfBizDelegator ofBizDelegator = Mockito.mock(OfBizDelegator.class, Mockito.RETURNS_DEEP_STUBS);
-    ArrayList<GenericValue> genericValues =
-        new ArrayList<>(Arrays.asList((GenericValue) mockGenericValue));
-    Mockito.when(ofBizDelegator.findByAnd(Matchers.eq("IssueWorklogView"),
-        Matchers.argThat(new ArgumentMatcher<List<EntityCondition>>() {
-          @Override
-          public boolean matches(final Object argument) {
-            if (argument == null) {
-              return false;
-            }
-            List<EntityCondition> exprList = (List<EntityCondition>) argument;
-            SimpleDateFormat sdf = new SimpleDateFormat("yyyy-MM");
-            for (EntityCondition expression : exprList) {
-              EntityExpr expr = (EntityExpr) expression;
-              try {
-                if ("startdate".equals(expr.getLhs())
-                    && EntityOperator.GREATER_THAN_EQUAL_TO.equals(expr.getOperator())
-                    && !sdf.format(dateOfMonth)
-                        .equals(sdf.format(sdf.parse(expr.getRhs().toString())))) {
-                  return true;
-                }
-              } catch (ParseException e) {
-              }
-            }
-            return false;
-          }
-        })))
-        .thenReturn(genericValues);
+    Mockito.when(ofBizDelegator.findByCondition(Matchers.eq("IssueWorklogView"),
+        Matchers.any(EntityCondition.class), Matchers.anyCollectionOf(String.class),
+        Matchers.anyListOf(String.class)))
+        .thenReturn(worklogs);
     mockComponentWorker.addMock(OfBizDelegator.class, ofBizDelegator);
 
     mockComponentWorker.init();
@@ -131,43 +112,37 @@ public class GetLoggedDaysOfTheMonthTest {
 
   @Test
   public void testGetLoggedDaysOfMonth() throws GenericEntityException {
-    DateTime dateOfMonth = new DateTime();
-    dateOfMonth = dateOfMonth.withMonthOfYear(1);
-    initMockComponents(DateTimeConverterUtil.convertDateTimeToDate(dateOfMonth));
+    DateTime dateOfMonth = new DateTime(2016, 1, 20, 10, 0, DateTimeZone.UTC);
+    initMockComponents(Arrays.asList(
+        createWorklog(new DateTime(2016, 1, 1, 0, 0, DateTimeZone.UTC)),
+        createWorklog(new DateTime(2016, 1, 15, 8, 0, DateTimeZone.UTC)),
+        createWorklog(new DateTime(2016, 1, 15, 12, 0, DateTimeZone.UTC)),
+        createWorklog(new DateTime(2016, 1, 31, 23, 59, DateTimeZone.UTC))));
 
     DateTimeServer dateOfMonthServer = DateTimeServer.getInstanceBasedOnUserTimeZone(dateOfMonth);
-    List<String> loggedDaysOfTheMonth =
-        timetrackerComponent.getLoggedDaysOfTheMonth(dateOfMonthServer);
-
-    Assert.assertEquals(31, loggedDaysOfTheMonth.size());
-
-    dateOfMonth = dateOfMonth.withMonthOfYear(4);
-    initMockComponents(DateTimeConverterUtil.convertDateTimeToDate(dateOfMonth));
-
-    dateOfMonthServer = DateTimeServer.getInstanceBasedOnUserTimeZone(dateOfMonth);
-    loggedDaysOfTheMonth =
-        timetrackerComponent.getLoggedDaysOfTheMonth(dateOfMonthServer);
-
-    Assert.assertEquals(30, loggedDaysOfTheMonth.size());
 
-    dateOfMonth = dateOfMonth.withMonthOfYear(2);
-    dateOfMonth = dateOfMonth.withYear(2016);
-    initMockComponents(DateTimeConverterUtil.convertDateTimeToDate(dateOfMonth));
-
-    dateOfMonthServer = DateTimeServer.getInstanceBasedOnUserTimeZone(dateOfMonth);
-    loggedDaysOfTheMonth =
-        timetrackerComponent.getLoggedDaysOfTheMonth(dateOfMonthServer);
-
-    Assert.assertEquals(29, loggedDaysOfTheMonth.size());
+    Assert.assertEquals(Arrays.asList(1, 15, 31),
+        new ArrayList<>(timetrackerComponent.getLoggedDayNumbersOfTheMonth(dateOfMonthServer)));
+    Assert.assertEquals(Arrays.asList("1", "15", "31"),
+        timetrackerComponent.getLoggedDaysOfTheMonth(dateOfMonthServer));
+  }
 
-    dateOfMonth = dateOfMonth.withMonthOfYear(2);
-    dateOfMonth = dateOfMonth.withYear(2015);
-    initMockComponents(DateTimeConverterUtil.convertDateTimeToDate(dateOfMonth));
+  @Test
+  public void testGetLoggedDaysOfMonthDaylightSaving() throws GenericEntityException {
+    // DST starts on 2016.03.27 in Budapest
+    DateTimeZone budapest = DateTimeZone.forID("Europe/Budapest");
+    DateTime dateOfMonth = new DateTime(2016, 3, 10, 10, 0, budapest);
+    initMockComponents(Arrays.asList(
+        // 2016.02.29 23:30 in UTC
+        createWorklog(new DateTime(2016, 3, 1, 0, 30, budapest)),
+        // 2016.03.27 22:30 in UTC
+        createWorklog(new DateTime(2016, 3, 28, 0, 30, budapest)),
+        // 2016.03.31 22:30 in UTC
+        createWorklog(new DateTime(2016, 4, 1, 0, 30, budapest).minusHours(1))));
 
-    dateOfMonthServer = DateTimeServer.getInstanceBasedOnUserTimeZone(dateOfMonth);
-    loggedDaysOfTheMonth =
-        timetrackerComponent.getLoggedDaysOfTheMonth(dateOfMonthServer);
+    DateTimeServer dateOfMonthServer = DateTimeServer.getInstanceBasedOnUserTimeZone(dateOfMonth);
 
-    Assert.assertEquals(28, loggedDaysOfTheMonth.size());
+    Assert.assertEquals(Arrays.asList(1, 28, 31),
+        new ArrayList<>(timetrackerComponent.getLoggedDayNumbersOfTheMonth(dateOfMonthServer)));
   }
 }
@@ -30,6 +30,7 @@ import java.util.Map;
 import org.easymock.EasyMock;
 import org.everit.jira.core.impl.DateTimeServer;
 import org.everit.jira.core.impl.WorklogComponent;
+import org.everit.jira.core.util.BrowsableProjectsCache;
 import org.everit.jira.settings.TimeTrackerSettingsHelper;
 import org.everit.jira.settings.dto.TimeTrackerGlobalSettings;
 import org.everit.jira.settings.dto.TimeZoneTypes;
@@ -144,6 +145,7 @@ public class GetWorklogsTest {
 
   @Before
   public void before() throws ParseException {
+    BrowsableProjectsCache.clear();
     MockComponentWorker mockComponentWorker = new MockComponentWorker();
 
     // mocked components
@@ -286,6 +288,8 @@ public class GetWorklogsTest {
         .thenReturn((MutableIssue) dummyWorklog.getIssue());
     Mockito.when(issueManager.getIssueObject(mockIssue.getId()))
         .thenReturn(mockIssue);
+    Mockito.when(issueManager.getIssueObjects(Matchers.anyCollectionOf(Long.class)))
+        .thenReturn(Arrays.asList((MutableIssue) dummyWorklog.getIssue(), mockIssue));
     mockComponentWorker.addMock(IssueManager.class, issueManager);
 
     BigDecimal daysPerWeek = new BigDecimal(5);
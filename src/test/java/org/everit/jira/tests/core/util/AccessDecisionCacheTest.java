@@ -0,0 +1,124 @@
+/*
+ * Copyright (C) 2011 Everit Kft. (http://www.everit.org)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.everit.jira.tests.core.util;
+
+import java.util.Arrays;
+
+import org.everit.jira.core.util.AccessDecisionCache;
+import org.everit.jira.settings.TimeTrackerSettingsHelper;
+import org.everit.jira.settings.dto.TimeTrackerGlobalSettings;
+import org.everit.jira.timetracker.plugin.PluginCondition;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Mockito;
+
+import com.atlassian.jira.mock.component.MockComponentWorker;
+import com.atlassian.jira.security.groups.GroupManager;
+import com.atlassian.jira.user.MockApplicationUser;
+
+public class AccessDecisionCacheTest {
+
+  private GroupManager groupManager;
+
+  private PluginCondition pluginCondition;
+
+  private TimeTrackerSettingsHelper settingsHelper;
+
+  private MockApplicationUser user;
+
+  @Before
+  public void before() {
+    AccessDecisionCache.clear();
+    user = new MockApplicationUser("conditionUser", "conditionUser_username");
+
+    settingsHelper = Mockito.mock(TimeTrackerSettingsHelper.class);
+    Mockito.when(settingsHelper.getSettingsVersion()).thenReturn(1L);
+    Mockito.when(settingsHelper.loadGlobalSettings()).thenReturn(
+        new TimeTrackerGlobalSettings().pluginGroups(Arrays.asList("jttp-users")));
+
+    groupManager = Mockito.mock(GroupManager.class);
+    Mockito.when(groupManager.getGroupNamesForUser(user))
+        .thenReturn(Arrays.asList("jira-users", "jttp-users"));
+
+    new MockComponentWorker()
+        .addMock(GroupManager.class, groupManager)
+        .init();
+
+    pluginCondition = new PluginCondition(settingsHelper);
+  }
+
+  @Test
+  public void testAnonymousNotCached() {
+    AccessDecisionCache.put("plugin", null, 1L, AccessDecisionCache.getInvalidationCount(), true);
+
+    Assert.assertNull(AccessDecisionCache.get("plugin", null, 1L));
+  }
+
+  @Test
+  public void testClear() {
+    Assert.assertTrue(pluginCondition.shouldDisplay(user, null));
+    AccessDecisionCache.clear();
+    Assert.assertTrue(pluginCondition.shouldDisplay(user, null));
+
+    Mockito.verify(groupManager, Mockito.times(2)).getGroupNamesForUser(user);
+  }
+
+  @Test
+  public void testDecisionCached() {
+    Assert.assertTrue(pluginCondition.shouldDisplay(user, null));
+    Assert.assertTrue(pluginCondition.shouldDisplay(user, null));
+
+    Mockito.verify(settingsHelper, Mockito.times(1)).loadGlobalSettings();
+    Mockito.verify(groupManager, Mockito.times(1)).getGroupNamesForUser(user);
+  }
+
+  @Test
+  public void testDecisionMadeBeforeClearNotCached() {
+    long invalidationCount = AccessDecisionCache.getInvalidationCount();
+    AccessDecisionCache.clear();
+    AccessDecisionCache.put("plugin", user, 1L, invalidationCount, true);
+
+    Assert.assertNull(AccessDecisionCache.get("plugin", user, 1L));
+  }
+
+  @Test
+  public void testLeastRecentlyUsedRemoved() {
+    long invalidationCount = AccessDecisionCache.getInvalidationCount();
+    AccessDecisionCache.put("first", user, 1L, invalidationCount, true);
+    AccessDecisionCache.put("second", user, 1L, invalidationCount, true);
+    for (int i = 0; i < (AccessDecisionCache.MAX_SIZE - 1); i++) {
+      Assert.assertNotNull(AccessDecisionCache.get("first", user, 1L));
+      AccessDecisionCache.put("condition" + i, user, 1L, invalidationCount, true);
+    }
+
+    Assert.assertNotNull(AccessDecisionCache.get("first", user, 1L));
+    Assert.assertNull(AccessDecisionCache.get("second", user, 1L));
+  }
+
+  @Test
+  public void testSettingsVersionChanged() {
+    Assert.assertTrue(pluginCondition.shouldDisplay(user, null));
+
+    Mockito.when(settingsHelper.getSettingsVersion()).thenReturn(2L);
+    Mockito.when(settingsHelper.loadGlobalSettings()).thenReturn(
+        new TimeTrackerGlobalSettings().pluginGroups(Arrays.asList("jttp-admins")));
+
+    Assert.assertFalse(pluginCondition.shouldDisplay(user, null));
+    Assert.assertFalse(pluginCondition.shouldDisplay(user, null));
+    Mockito.verify(groupManager, Mockito.times(2)).getGroupNamesForUser(user);
+  }
+}
@@ -0,0 +1,97 @@
+/*
+ * Copyright (C) 2011 Everit Kft. (http://www.everit.org)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.everit.jira.tests.core.util;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.everit.jira.core.util.BrowsableProjectsCache;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Mockito;
+import org.mockito.invocation.InvocationOnMock;
+import org.mockito.stubbing.Answer;
+
+import com.atlassian.jira.mock.component.MockComponentWorker;
+import com.atlassian.jira.project.MockProject;
+import com.atlassian.jira.project.Project;
+import com.atlassian.jira.security.PermissionManager;
+import com.atlassian.jira.security.Permissions;
+import com.atlassian.jira.user.MockApplicationUser;
+
+public class BrowsableProjectsCacheTest {
+
+  private PermissionManager permissionManager;
+
+  private MockApplicationUser user;
+
+  @Before
+  public void before() {
+    BrowsableProjectsCache.clear();
+    user = new MockApplicationUser("cacheUser", "cacheUser_username");
+
+    List<Project> projects = new ArrayList<>();
+    projects.add(new MockProject(1));
+    projects.add(new MockProject(2));
+    permissionManager = Mockito.mock(PermissionManager.class, Mockito.RETURNS_DEEP_STUBS);
+    Mockito.when(permissionManager.getProjects(Permissions.BROWSE, user))
+        .thenReturn(projects);
+
+    new MockComponentWorker()
+        .addMock(PermissionManager.class, permissionManager)
+        .init();
+  }
+
+  @Test
+  public void testClear() {
+    BrowsableProjectsCache.getProjectIds(user);
+    BrowsableProjectsCache.clear();
+    BrowsableProjectsCache.getProjectIds(user);
+
+    Mockito.verify(permissionManager, Mockito.times(2)).getProjects(Permissions.BROWSE, user);
+  }
+
+  @Test
+  public void testClearDuringLoad() {
+    final List<Project> projects = new ArrayList<>();
+    projects.add(new MockProject(1));
+    Mockito.when(permissionManager.getProjects(Permissions.BROWSE, user))
+        .thenAnswer(new Answer<List<Project>>() {
+          @Override
+          public List<Project> answer(final InvocationOnMock invocation) throws Throwable {
+            BrowsableProjectsCache.clear();
+            return projects;
+          }
+        });
+
+    Assert.assertEquals(Arrays.asList(1L), BrowsableProjectsCache.getProjectIds(user));
+    BrowsableProjectsCache.getProjectIds(user);
+
+    Mockito.verify(permissionManager, Mockito.times(2)).getProjects(Permissions.BROWSE, user);
+  }
+
+  @Test
+  public void testGetProjectIdsCached() {
+    List<Long> first = BrowsableProjectsCache.getProjectIds(user);
+    List<Long> second = BrowsableProjectsCache.getProjectIds(user);
+
+    Assert.assertEquals(Arrays.asList(1L, 2L), first);
+    Assert.assertSame(first, second);
+    Mockito.verify(permissionManager, Mockito.times(1)).getProjects(Permissions.BROWSE, user);
+  }
+}
@@ -0,0 +1,113 @@
+/*
+ * Copyright (C) 2011 Everit Kft. (http://www.everit.org)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.everit.jira.tests.core.util;
+
+import java.math.BigDecimal;
+import java.text.DateFormat;
+import java.util.Locale;
+import java.util.TimeZone;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.easymock.EasyMock;
+import org.everit.jira.timetracker.plugin.DurationFormatter;
+import org.everit.jira.timetracker.plugin.util.DateTimeConverterUtil;
+import org.everit.jira.timetracker.plugin.util.FormatterRegistry;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Matchers;
+import org.mockito.Mockito;
+
+import com.atlassian.jira.bc.issue.worklog.TimeTrackingConfiguration;
+import com.atlassian.jira.config.properties.ApplicationProperties;
+import com.atlassian.jira.mock.component.MockComponentWorker;
+import com.atlassian.jira.security.JiraAuthenticationContext;
+
+public class FormatterRegistryTest {
+
+  private void initMocks(final int hoursPerDay) {
+    TimeTrackingConfiguration ttConfig = EasyMock.createNiceMock(TimeTrackingConfiguration.class);
+    EasyMock.expect(ttConfig.getDaysPerWeek()).andReturn(new BigDecimal(5)).anyTimes();
+    EasyMock.expect(ttConfig.getHoursPerDay()).andReturn(new BigDecimal(hoursPerDay))
+        .anyTimes();
+    EasyMock.replay(ttConfig);
+
+    ApplicationProperties mockApplicationProperties =
+        Mockito.mock(ApplicationProperties.class, Mockito.RETURNS_DEEP_STUBS);
+    Mockito.when(mockApplicationProperties
+        .getDefaultBackedString(Matchers.matches("jira.timetracking.format")))
+        .thenReturn("pretty");
+
+    JiraAuthenticationContext mockJiraAuthenticationContext =
+        Mockito.mock(JiraAuthenticationContext.class, Mockito.RETURNS_DEEP_STUBS);
+
+    new MockComponentWorker()
+        .addMock(TimeTrackingConfiguration.class, ttConfig)
+        .addMock(ApplicationProperties.class, mockApplicationProperties)
+        .addMock(JiraAuthenticationContext.class, mockJiraAuthenticationContext)
+        .init();
+  }
+
+  @Before
+  public void setUp() {
+    FormatterRegistry.clear();
+  }
+
+  @Test
+  public void testDateFormatPerThread() throws InterruptedException {
+    final TimeZone utc = TimeZone.getTimeZone("UTC");
+    DateFormat first = FormatterRegistry.getDateFormat("yyyy-MM-dd", Locale.ENGLISH, utc);
+    Assert.assertSame(first,
+        FormatterRegistry.getDateFormat("yyyy-MM-dd", Locale.ENGLISH, utc));
+    Assert.assertNotSame(first,
+        FormatterRegistry.getDateFormat("yyyy-MM-dd", Locale.ENGLISH, null));
+
+    final AtomicReference<DateFormat> otherThreadFormat = new AtomicReference<>();
+    Thread thread = new Thread(new Runnable() {
+      @Override
+      public void run() {
+        otherThreadFormat
+            .set(FormatterRegistry.getDateFormat("yyyy-MM-dd", Locale.ENGLISH, utc));
+      }
+    });
+    thread.start();
+    thread.join();
+    Assert.assertNotNull(otherThreadFormat.get());
+    Assert.assertNotSame(first, otherThreadFormat.get());
+  }
+
+  @Test
+  public void testDurationFormatterReused() {
+    initMocks(8);
+    DurationFormatter first = FormatterRegistry.getDurationFormatter();
+    Assert.assertSame(first, FormatterRegistry.getDurationFormatter());
+    Assert.assertEquals("1d 2h", first.exactDuration(10 * 3600));
+
+    initMocks(6);
+    DurationFormatter changed = FormatterRegistry.getDurationFormatter();
+    Assert.assertNotSame(first, changed);
+    Assert.assertEquals("1d 4h", changed.exactDuration(10 * 3600));
+  }
+
+  @Test
+  public void testFixFormatConversions() throws Exception {
+    Assert.assertEquals(1483228800000L,
+        DateTimeConverterUtil.fixFormatStringToDate("2017-01-01").getTime());
+    Assert.assertEquals(90 * 60 * 1000L,
+        DateTimeConverterUtil.stringTimeToDateTimeWithFixFormat("01:30").getTime());
+  }
+
+}
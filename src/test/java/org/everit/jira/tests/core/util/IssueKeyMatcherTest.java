@@ -0,0 +1,86 @@
+/*
+ * Copyright (C) 2011 Everit Kft. (http://www.everit.org)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.everit.jira.tests.core.util;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.regex.Pattern;
+
+import org.everit.jira.core.util.IssueKeyMatcher;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class IssueKeyMatcherTest {
+
+  @Test
+  public void testBackReference() {
+    IssueKeyMatcher matcher =
+        IssueKeyMatcher.create(Arrays.asList("(A)-\\1", "(B+)-(1)\\2"));
+
+    Assert.assertTrue(matcher.matches("A-A"));
+    Assert.assertTrue(matcher.matches("BB-11"));
+    Assert.assertFalse(matcher.matches("A-B"));
+    Assert.assertFalse(matcher.matches("BB-12"));
+  }
+
+  @Test
+  public void testCache() {
+    IssueKeyMatcher matcher = IssueKeyMatcher.create(Arrays.asList("TEST-.*", "OTHER-1"));
+
+    Assert.assertSame(matcher,
+        IssueKeyMatcher.create(Arrays.asList(Pattern.compile("TEST-.*"),
+            Pattern.compile("OTHER-1"))));
+    Assert.assertNotSame(matcher, IssueKeyMatcher.create(Arrays.asList("TEST-.*")));
+  }
+
+  @Test
+  public void testDuplicatedNamedGroup() {
+    IssueKeyMatcher matcher =
+        IssueKeyMatcher.create(Arrays.asList("(?<project>TEST)-1", "(?<project>OTHER)-.*"));
+
+    Assert.assertTrue(matcher.matches("TEST-1"));
+    Assert.assertTrue(matcher.matches("OTHER-5"));
+    Assert.assertFalse(matcher.matches("TEST-2"));
+    Assert.assertEquals(2, matcher.getPatterns().size());
+  }
+
+  @Test
+  public void testEmpty() {
+    Assert.assertSame(IssueKeyMatcher.EMPTY, IssueKeyMatcher.create(null));
+    Assert.assertSame(IssueKeyMatcher.EMPTY,
+        IssueKeyMatcher.create(new ArrayList<Pattern>()));
+    Assert.assertTrue(IssueKeyMatcher.EMPTY.isEmpty());
+    Assert.assertFalse(IssueKeyMatcher.EMPTY.matches("TEST-1"));
+  }
+
+  @Test
+  public void testMatches() {
+    List<Pattern> patterns =
+        Arrays.asList(Pattern.compile("TEST-.*"), Pattern.compile("OTHER-1|OTHER-2"));
+    IssueKeyMatcher matcher = IssueKeyMatcher.create(patterns);
+
+    Assert.assertFalse(matcher.isEmpty());
+    Assert.assertEquals(Arrays.asList("TEST-.*", "OTHER-1|OTHER-2"), matcher.getSources());
+    Assert.assertEquals("OTHER-1|OTHER-2", matcher.getPatterns().get(1).pattern());
+    Assert.assertTrue(matcher.matches("TEST-1"));
+    Assert.assertTrue(matcher.matches("TEST-1"));
+    Assert.assertTrue(matcher.matches("OTHER-2"));
+    Assert.assertFalse(matcher.matches("OTHER-3"));
+    Assert.assertFalse(matcher.matches("XTEST-1"));
+    Assert.assertFalse(matcher.matches(null));
+  }
+}
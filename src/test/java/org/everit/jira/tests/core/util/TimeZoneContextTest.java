@@ -0,0 +1,58 @@
+/*
+ * Copyright (C) 2011 Everit Kft. (http://www.everit.org)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.everit.jira.tests.core.util;
+
+import org.everit.jira.core.impl.DateTimeServer;
+import org.everit.jira.core.util.TimeZoneContext;
+import org.joda.time.DateTimeZone;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class TimeZoneContextTest {
+
+  @Test
+  public void testBindAndRestore() {
+    Assert.assertNull(TimeZoneContext.getBound());
+
+    TimeZoneContext previous = TimeZoneContext.bind();
+    Assert.assertNull(previous);
+    TimeZoneContext bound = TimeZoneContext.getBound();
+    Assert.assertNotNull(bound);
+    Assert.assertSame(bound, TimeZoneContext.current());
+
+    TimeZoneContext nestedPrevious = TimeZoneContext.bind();
+    Assert.assertSame(bound, nestedPrevious);
+    TimeZoneContext.restore(nestedPrevious);
+    Assert.assertSame(bound, TimeZoneContext.getBound());
+
+    TimeZoneContext.restore(previous);
+    Assert.assertNull(TimeZoneContext.getBound());
+  }
+
+  @Test
+  public void testDateTimeServerUsesContext() {
+    DateTimeZone userTimeZone = DateTimeZone.forID("Etc/GMT+3");
+    TimeZoneContext timeZoneContext = TimeZoneContext.of(userTimeZone, DateTimeZone.UTC);
+
+    DateTimeServer dateTimeServer =
+        DateTimeServer.getInstanceBasedOnUserTimeZone(1483236000000L, timeZoneContext);
+
+    Assert.assertEquals(userTimeZone, dateTimeServer.getUserTimeZone().getZone());
+    Assert.assertEquals(DateTimeZone.UTC, dateTimeServer.getSystemTimeZone().getZone());
+    Assert.assertEquals(1483236000000L, dateTimeServer.getSystemTimeZone().getMillis());
+  }
+
+}
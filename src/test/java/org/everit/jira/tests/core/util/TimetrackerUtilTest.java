@@ -26,6 +26,7 @@ import java.util.Locale;
 import java.util.Set;
 import java.util.regex.Pattern;
 
+import org.everit.jira.core.util.BrowsableProjectsCache;
 import org.everit.jira.core.util.TimetrackerUtil;
 import org.everit.jira.tests.core.DummyDateTimeFromatter;
 import org.everit.jira.timetracker.plugin.dto.WorklogValues;
@@ -88,6 +89,7 @@ public class TimetrackerUtilTest {
 
   public void initMockComponents(final Date containsWorklogDate,
       final Date notContainsWorklogDate) {
+    BrowsableProjectsCache.clear();
     MockComponentWorker mockComponentWorker = new MockComponentWorker();
 
     PermissionManager permissionManager =
@@ -25,6 +25,7 @@ import java.util.List;
 import java.util.Locale;
 import java.util.Map;
 
+import org.everit.jira.core.util.BrowsableProjectsCache;
 import org.everit.jira.core.util.WorklogUtil;
 import org.junit.Assert;
 import org.junit.Before;
@@ -94,6 +95,7 @@ public class WorklogUtilTest {
 
   @Before
   public void before() {
+    BrowsableProjectsCache.clear();
     startDate = Calendar.getInstance();
     endDate = (Calendar) startDate.clone();
     endDate.set(Calendar.YEAR, 2000);
@@ -0,0 +1,148 @@
+/*
+ * Copyright (C) 2011 Everit Kft. (http://www.everit.org)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.everit.jira.tests.reporting.plugin;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import org.everit.jira.querydsl.support.QuerydslCallable;
+import org.everit.jira.querydsl.support.QuerydslSupport;
+import org.everit.jira.reporting.plugin.PickerDataCacheInvalidator;
+import org.everit.jira.reporting.plugin.util.PickerDataCache;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Mockito;
+import org.mockito.invocation.InvocationOnMock;
+import org.mockito.stubbing.Answer;
+
+import com.atlassian.event.api.EventPublisher;
+import com.atlassian.jira.event.issue.IssueEvent;
+import com.atlassian.jira.event.type.EventType;
+import com.atlassian.jira.issue.CustomFieldManager;
+import com.atlassian.jira.issue.Issue;
+import com.atlassian.jira.issue.fields.CustomField;
+import com.atlassian.jira.issue.issuetype.IssueType;
+import com.atlassian.jira.issue.label.Label;
+import com.atlassian.jira.mock.component.MockComponentWorker;
+
+public class PickerDataCacheInvalidatorTest {
+
+  private CustomField epicNameField;
+
+  private PickerDataCacheInvalidator invalidator;
+
+  private QuerydslCallable<List<String>> query;
+
+  private QuerydslSupport querydslSupport;
+
+  private final List<String> values = new ArrayList<>();
+
+  private Issue createIssue(final String issueTypeName) {
+    Issue issue = Mockito.mock(Issue.class);
+    IssueType issueType = Mockito.mock(IssueType.class);
+    Mockito.when(issueType.getName()).thenReturn(issueTypeName);
+    Mockito.when(issue.getIssueTypeObject()).thenReturn(issueType);
+    Mockito.when(issue.getLabels()).thenReturn(Collections.<Label> emptySet());
+    return issue;
+  }
+
+  private IssueEvent createIssueEvent(final Long eventTypeId, final Issue issue) {
+    IssueEvent event = Mockito.mock(IssueEvent.class);
+    Mockito.when(event.getEventTypeId()).thenReturn(eventTypeId);
+    Mockito.when(event.getIssue()).thenReturn(issue);
+    return event;
+  }
+
+  private PickerDataCache.Data<String> getEpicLinks() {
+    return PickerDataCache.get(PickerDataCache.EPIC_LINKS, querydslSupport, query);
+  }
+
+  @SuppressWarnings("unchecked")
+  @Before
+  public void setUp() {
+    PickerDataCache.clear();
+    values.clear();
+    values.add("EPIC-1");
+    querydslSupport = Mockito.mock(QuerydslSupport.class);
+    query = Mockito.mock(QuerydslCallable.class);
+    Mockito.when(querydslSupport.execute(query)).thenAnswer(new Answer<List<String>>() {
+      @Override
+      public List<String> answer(final InvocationOnMock invocation) throws Throwable {
+        return new ArrayList<>(values);
+      }
+    });
+
+    epicNameField = Mockito.mock(CustomField.class);
+    CustomFieldManager customFieldManager = Mockito.mock(CustomFieldManager.class);
+    Mockito.when(customFieldManager.getCustomFieldObjectsByName("Epic Name"))
+        .thenReturn(Arrays.asList(epicNameField));
+    new MockComponentWorker()
+        .addMock(CustomFieldManager.class, customFieldManager)
+        .init();
+
+    invalidator = new PickerDataCacheInvalidator(Mockito.mock(EventPublisher.class));
+  }
+
+  @Test
+  public void testCreatedEpicInvalidates() {
+    getEpicLinks();
+    invalidator.onIssueEvent(createIssueEvent(EventType.ISSUE_CREATED_ID, createIssue("Epic")));
+    getEpicLinks();
+    Mockito.verify(querydslSupport, Mockito.times(2)).execute(query);
+  }
+
+  @Test
+  public void testCreatedIssueWithEpicNameInvalidates() {
+    getEpicLinks();
+    Issue issue = createIssue("Story");
+    Mockito.when(issue.getCustomFieldValue(epicNameField)).thenReturn("Epic name");
+    invalidator.onIssueEvent(createIssueEvent(EventType.ISSUE_CREATED_ID, issue));
+    getEpicLinks();
+    Mockito.verify(querydslSupport, Mockito.times(2)).execute(query);
+  }
+
+  @Test
+  public void testCreatedTaskKeepsEpicLinks() {
+    getEpicLinks();
+    invalidator.onIssueEvent(createIssueEvent(EventType.ISSUE_CREATED_ID, createIssue("Task")));
+    getEpicLinks();
+    Mockito.verify(querydslSupport, Mockito.times(1)).execute(query);
+  }
+
+  @Test
+  public void testHashFollowsContent() {
+    String hash = getEpicLinks().getHash();
+    PickerDataCache.clear();
+    Assert.assertEquals(hash, getEpicLinks().getHash());
+
+    values.add("EPIC-2");
+    PickerDataCache.clear();
+    Assert.assertNotEquals(hash, getEpicLinks().getHash());
+    Mockito.verify(querydslSupport, Mockito.times(3)).execute(query);
+  }
+
+  @Test
+  public void testMovedIssueInvalidates() {
+    getEpicLinks();
+    invalidator.onIssueEvent(createIssueEvent(EventType.ISSUE_MOVED_ID, createIssue("Task")));
+    getEpicLinks();
+    Mockito.verify(querydslSupport, Mockito.times(2)).execute(query);
+  }
+
+}
@@ -0,0 +1,339 @@
+/*
+ * Copyright (C) 2011 Everit Kft. (http://www.everit.org)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.everit.jira.tests.reporting.plugin;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.everit.jira.querydsl.support.QuerydslCallable;
+import org.everit.jira.querydsl.support.QuerydslSupport;
+import org.everit.jira.reporting.plugin.ReportingPluginImpl;
+import org.everit.jira.reporting.plugin.dto.OrderBy;
+import org.everit.jira.reporting.plugin.dto.ProjectSummaryReportDTO;
+import org.everit.jira.reporting.plugin.dto.ReportSearchParam;
+import org.everit.jira.reporting.plugin.exception.JTRPException;
+import org.everit.jira.tests.reporting.plugin.query.RecordingConnection;
+import org.everit.jira.timetracker.plugin.dto.ChartData;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Matchers;
+import org.mockito.Mockito;
+import org.mockito.invocation.InvocationOnMock;
+import org.mockito.stubbing.Answer;
+
+import com.atlassian.jira.issue.IssueManager;
+import com.atlassian.jira.issue.MutableIssue;
+import com.atlassian.jira.mock.component.MockComponentWorker;
+import com.atlassian.jira.permission.ProjectPermissions;
+import com.atlassian.jira.security.JiraAuthenticationContext;
+import com.atlassian.jira.security.PermissionManager;
+import com.atlassian.jira.security.groups.GroupManager;
+import com.atlassian.jira.user.ApplicationUser;
+import com.querydsl.sql.Configuration;
+import com.querydsl.sql.PostgreSQLTemplates;
+
+public class ReportingPluginImplTest {
+
+  /**
+   * Runs the queries with the test connection and records the threads that run them.
+   */
+  private final class ExecuteAnswer implements Answer<Object> {
+
+    @Override
+    public Object answer(final InvocationOnMock invocation) throws Throwable {
+      QuerydslCallable<?> query = (QuerydslCallable<?>) invocation.getArguments()[0];
+      boolean requestThread =
+          Thread.currentThread().equals(ReportingPluginImplTest.this.requestThread);
+      if (requestThread) {
+        requestThreadQueryCount.incrementAndGet();
+      } else {
+        int running = runningExecutorQueryCount.incrementAndGet();
+        int max = maxRunningExecutorQueryCount.get();
+        while ((running > max) && !maxRunningExecutorQueryCount.compareAndSet(max, running)) {
+          max = maxRunningExecutorQueryCount.get();
+        }
+      }
+      try {
+        Thread.sleep(queryMillis);
+        return query.call(connection, configuration);
+      } catch (SQLException e) {
+        throw new RuntimeException(e);
+      } finally {
+        if (!requestThread) {
+          runningExecutorQueryCount.decrementAndGet();
+        }
+        finishedQueries.countDown();
+      }
+    }
+  }
+
+  private static final String KEY_REPORT_TIMEOUT = "jtrp.plugin.report.timeout";
+
+  private static final long TEST_TIMEOUT_SECONDS = 10;
+
+  private final AtomicInteger cancelledStatementCount = new AtomicInteger();
+
+  private final CountDownLatch cancelLatch = new CountDownLatch(1);
+
+  private Configuration configuration;
+
+  private Connection connection;
+
+  private CountDownLatch finishedQueries;
+
+  private IssueManager issueManager;
+
+  private final AtomicInteger maxRunningExecutorQueryCount = new AtomicInteger();
+
+  private PermissionManager permissionManager;
+
+  private ReportingPluginImpl plugin;
+
+  private long queryMillis;
+
+  private final List<Integer> queryTimeouts =
+      Collections.synchronizedList(new ArrayList<Integer>());
+
+  private QuerydslSupport querydslSupport;
+
+  private Thread requestThread;
+
+  private final AtomicInteger requestThreadQueryCount = new AtomicInteger();
+
+  private final AtomicInteger runningExecutorQueryCount = new AtomicInteger();
+
+  /**
+   * Creates a connection. The statements of the SQL that contains the blocking part block until
+   * they are cancelled, the other statements fail.
+   */
+  private Connection createBlockingConnection(final String blockingSqlPart) throws SQLException {
+    Connection blockingConnection = Mockito.mock(Connection.class);
+    Mockito.when(blockingConnection.prepareStatement(Matchers.anyString())).thenAnswer(
+        new Answer<PreparedStatement>() {
+          @Override
+          public PreparedStatement answer(final InvocationOnMock invocation) throws Throwable {
+            String sql = (String) invocation.getArguments()[0];
+            return createStatement(sql.contains(blockingSqlPart));
+          }
+        });
+    return blockingConnection;
+  }
+
+  private MutableIssue createIssue(final long issueId, final boolean browsable) {
+    MutableIssue issue = Mockito.mock(MutableIssue.class);
+    Mockito.when(issue.getId()).thenReturn(issueId);
+    Mockito.when(permissionManager.hasPermission(Matchers.eq(ProjectPermissions.BROWSE_PROJECTS),
+        Matchers.same(issue), Matchers.any(ApplicationUser.class))).thenReturn(browsable);
+    return issue;
+  }
+
+  private ReportingPluginImpl createPlugin(final long reportQueryTimeout) {
+    plugin = new ReportingPluginImpl(querydslSupport, reportQueryTimeout);
+    return plugin;
+  }
+
+  private ReportSearchParam createReportSearchParam() {
+    return new ReportSearchParam()
+        .issueIds(Collections.<Long> emptyList())
+        .projectIds(Arrays.asList(10L))
+        .limit(25L)
+        .offset(0L);
+  }
+
+  private PreparedStatement createStatement(final boolean blocking) throws SQLException {
+    PreparedStatement statement = Mockito.mock(PreparedStatement.class);
+    Mockito.doAnswer(new Answer<Void>() {
+      @Override
+      public Void answer(final InvocationOnMock invocation) throws Throwable {
+        queryTimeouts.add((Integer) invocation.getArguments()[0]);
+        return null;
+      }
+    }).when(statement).setQueryTimeout(Matchers.anyInt());
+    Mockito.doAnswer(new Answer<Void>() {
+      @Override
+      public Void answer(final InvocationOnMock invocation) throws Throwable {
+        cancelledStatementCount.incrementAndGet();
+        cancelLatch.countDown();
+        return null;
+      }
+    }).when(statement).cancel();
+    Mockito.when(statement.executeQuery()).thenAnswer(new Answer<Object>() {
+      @Override
+      public Object answer(final InvocationOnMock invocation) throws Throwable {
+        if (!blocking) {
+          throw new SQLException("failed");
+        }
+        try {
+          cancelLatch.await(TEST_TIMEOUT_SECONDS, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+          Thread.currentThread().interrupt();
+        }
+        throw new SQLException("cancelled");
+      }
+    });
+    return statement;
+  }
+
+  @Before
+  public void setUp() {
+    configuration = new Configuration(new PostgreSQLTemplates());
+    requestThread = Thread.currentThread();
+    querydslSupport = Mockito.mock(QuerydslSupport.class);
+    Mockito.when(querydslSupport.execute(Matchers.any(QuerydslCallable.class)))
+        .thenAnswer(new ExecuteAnswer());
+
+    ApplicationUser user = Mockito.mock(ApplicationUser.class);
+    Mockito.when(user.getKey()).thenReturn("user");
+    JiraAuthenticationContext authenticationContext =
+        Mockito.mock(JiraAuthenticationContext.class);
+    Mockito.when(authenticationContext.getUser()).thenReturn(user);
+    GroupManager groupManager = Mockito.mock(GroupManager.class);
+    Mockito.when(groupManager.getGroupNamesForUser(user))
+        .thenReturn(Collections.singletonList("jira-users"));
+    issueManager = Mockito.mock(IssueManager.class);
+    permissionManager = Mockito.mock(PermissionManager.class);
+    new MockComponentWorker()
+        .addMock(JiraAuthenticationContext.class, authenticationContext)
+        .addMock(GroupManager.class, groupManager)
+        .addMock(IssueManager.class, issueManager)
+        .addMock(PermissionManager.class, permissionManager)
+        .init();
+  }
+
+  @After
+  public void tearDown() throws Exception {
+    if (plugin != null) {
+      plugin.destroy();
+    }
+  }
+
+  @Test
+  public void testDeadlineCancelsStatements() throws Exception {
+    connection = createBlockingConnection("");
+    finishedQueries = new CountDownLatch(2);
+    createPlugin(300L).afterPropertiesSet();
+
+    try {
+      plugin.getProjectSummaryReport(createReportSearchParam());
+      Assert.fail("Expected timeout");
+    } catch (JTRPException e) {
+      Assert.assertEquals(KEY_REPORT_TIMEOUT, e.getMessage());
+    }
+
+    // interrupting the threads does not stop JDBC, the statements have to be cancelled
+    Assert.assertTrue(finishedQueries.await(TEST_TIMEOUT_SECONDS, TimeUnit.SECONDS));
+    Assert.assertTrue(cancelledStatementCount.get() > 0);
+    Assert.assertFalse(queryTimeouts.isEmpty());
+    for (Integer queryTimeout : queryTimeouts) {
+      Assert.assertEquals(Integer.valueOf(1), queryTimeout);
+    }
+  }
+
+  @Test
+  public void testFailedQueryCancelsOtherQueries() throws Exception {
+    connection = createBlockingConnection("fromCount");
+    finishedQueries = new CountDownLatch(2);
+    createPlugin(TimeUnit.SECONDS.toMillis(TEST_TIMEOUT_SECONDS * 2)).afterPropertiesSet();
+
+    try {
+      plugin.getProjectSummaryReport(createReportSearchParam());
+      Assert.fail("Expected failure");
+    } catch (RuntimeException e) {
+      Assert.assertFalse(e instanceof JTRPException);
+    }
+
+    // the count query is stopped before the deadline
+    Assert.assertTrue(finishedQueries.await(TEST_TIMEOUT_SECONDS, TimeUnit.SECONDS));
+  }
+
+  @Test
+  public void testParallelismBoundedPerRequest() throws Exception {
+    ReportSearchParam reportSearchParam = createReportSearchParam()
+        .issueIds(null)
+        .issueKeys(null);
+    queryMillis = 100;
+    // the worklog details, the totals and the result and count of the three summaries
+    finishedQueries = new CountDownLatch(8);
+    createPlugin(TimeUnit.SECONDS.toMillis(TEST_TIMEOUT_SECONDS)).afterPropertiesSet();
+
+    Assert.assertNotNull(plugin.getReports(reportSearchParam, OrderBy.DEFAULT));
+
+    Assert.assertTrue(finishedQueries.await(TEST_TIMEOUT_SECONDS, TimeUnit.SECONDS));
+    Assert.assertTrue(maxRunningExecutorQueryCount.get() <= 2);
+    Assert.assertTrue(requestThreadQueryCount.get() > 0);
+  }
+
+  @Test
+  public void testQueriesRunInRequestThreadWithoutExecutor() throws SQLException {
+    RecordingConnection recordingConnection = new RecordingConnection();
+    recordingConnection.addResult("fromCount", new Object[] { 0L });
+    connection = recordingConnection.getConnection();
+    finishedQueries = new CountDownLatch(2);
+    createPlugin(TimeUnit.SECONDS.toMillis(TEST_TIMEOUT_SECONDS));
+
+    ProjectSummaryReportDTO report =
+        plugin.getProjectSummaryReport(createReportSearchParam());
+
+    Assert.assertEquals(Long.valueOf(0L), report.getProjectSummaryCount());
+    Assert.assertEquals(0, finishedQueries.getCount());
+    Assert.assertEquals(2, requestThreadQueryCount.get());
+    Assert.assertEquals(0, maxRunningExecutorQueryCount.get());
+    List<String> statements = recordingConnection.getStatements();
+    Assert.assertEquals(2, statements.size());
+    for (int i = 0; i < statements.size(); i++) {
+      ArgumentCaptor<Integer> queryTimeout = ArgumentCaptor.forClass(Integer.class);
+      Mockito.verify(recordingConnection.getPreparedStatement(i))
+          .setQueryTimeout(queryTimeout.capture());
+      Assert.assertTrue(queryTimeout.getValue() > 0);
+      Assert.assertTrue(queryTimeout.getValue() <= TEST_TIMEOUT_SECONDS);
+    }
+  }
+
+  @Test
+  public void testSecuredIssuesLoadedTogether() {
+    RecordingConnection recordingConnection = new RecordingConnection();
+    recordingConnection.addResult("issue.security is null", new Object[] { "ABC", 10L });
+    recordingConnection.addResult("issue.security is not null",
+        new Object[] { 100L, "ABC", 5L },
+        new Object[] { 101L, "DEF", 7L });
+    connection = recordingConnection.getConnection();
+    finishedQueries = new CountDownLatch(2);
+    Mockito.when(issueManager.getIssueObjects(Matchers.anyCollectionOf(Long.class)))
+        .thenReturn(Arrays.asList(createIssue(100L, true), createIssue(101L, false)));
+    createPlugin(TimeUnit.SECONDS.toMillis(TEST_TIMEOUT_SECONDS));
+
+    List<ChartData> chartData = plugin.getProjectChartData(createReportSearchParam());
+
+    Assert.assertEquals(1, chartData.size());
+    Assert.assertEquals("ABC", chartData.get(0).getProjectId());
+    Assert.assertEquals(Long.valueOf(15000L), chartData.get(0).getDuration());
+    Mockito.verify(issueManager, Mockito.times(1))
+        .getIssueObjects(Matchers.anyCollectionOf(Long.class));
+    Mockito.verify(issueManager, Mockito.never()).getIssueObject(Matchers.anyLong());
+  }
+
+}
@@ -0,0 +1,144 @@
+/*
+ * Copyright (C) 2011 Everit Kft. (http://www.everit.org)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.everit.jira.tests.reporting.plugin.dto;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.everit.jira.reporting.plugin.dto.TableReportSummary;
+import org.everit.jira.timetracker.plugin.DurationFormatter;
+import org.everit.jira.timetracker.plugin.dto.EveritWorklog;
+import org.joda.time.LocalDate;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Mockito;
+
+/**
+ * Sums the worklogs of the last days of 2015 and the first days of 2016. The week from 2015-12-28
+ * to 2016-01-03 is the 53rd ISO week of 2015.
+ */
+public class TableReportSummaryTest {
+
+  private static final int SECONDS_PER_HOUR = 3600;
+
+  private static final int SECONDS_PER_MINUTE = 60;
+
+  private TableReportSummary summary;
+
+  private List<EveritWorklog> worklogs;
+
+  private List<Boolean> boundaries(final String indexName) {
+    List<Boolean> result = new ArrayList<>();
+    for (int i = 0; i < worklogs.size(); i++) {
+      boolean last = i == (worklogs.size() - 1);
+      // the same condition as the summary rows of the table_report_list.vm
+      result.add(last || (index(indexName, worklogs.get(i))
+          != index(indexName, worklogs.get(i + 1))));
+    }
+    return result;
+  }
+
+  private EveritWorklog createWorklog(final LocalDate date, final long seconds) {
+    EveritWorklog worklog = Mockito.mock(EveritWorklog.class);
+    Mockito.when(worklog.getDayIndex()).thenReturn(EveritWorklog.toDayIndex(date));
+    Mockito.when(worklog.getWeekIndex()).thenReturn(EveritWorklog.toWeekIndex(date));
+    Mockito.when(worklog.getMonthIndex()).thenReturn(EveritWorklog.toMonthIndex(date));
+    Mockito.when(worklog.getMilliseconds()).thenReturn(seconds * 1000);
+    return worklog;
+  }
+
+  private int index(final String indexName, final EveritWorklog worklog) {
+    if ("day".equals(indexName)) {
+      return worklog.getDayIndex();
+    }
+    if ("week".equals(indexName)) {
+      return worklog.getWeekIndex();
+    }
+    return worklog.getMonthIndex();
+  }
+
+  @Before
+  public void setUp() {
+    worklogs = Arrays.asList(
+        createWorklog(new LocalDate(2015, 12, 30), SECONDS_PER_HOUR),
+        createWorklog(new LocalDate(2015, 12, 31), 2 * SECONDS_PER_HOUR),
+        createWorklog(new LocalDate(2015, 12, 31), 30 * SECONDS_PER_MINUTE),
+        createWorklog(new LocalDate(2016, 1, 1), 3 * SECONDS_PER_HOUR),
+        createWorklog(new LocalDate(2016, 1, 4), 4 * SECONDS_PER_HOUR));
+    summary = new TableReportSummary(worklogs, Mockito.mock(DurationFormatter.class));
+    for (int i = 0; i < worklogs.size(); i++) {
+      // the 30 minutes worklog is not real work
+      summary.add(worklogs.get(i), i != 2);
+    }
+  }
+
+  @Test
+  public void testDaySums() {
+    long[] expected = new long[] { 3600, 9000, 9000, 10800, 14400 };
+    long[] expectedReal = new long[] { 3600, 7200, 7200, 10800, 14400 };
+    for (int i = 0; i < worklogs.size(); i++) {
+      Assert.assertEquals(expected[i], summary.getDaySum(worklogs.get(i)));
+      Assert.assertEquals(expectedReal[i], summary.getRealDaySum(worklogs.get(i)));
+    }
+  }
+
+  @Test
+  public void testIndexesAtYearBoundary() {
+    LocalDate lastDay = new LocalDate(2015, 12, 31);
+    LocalDate firstDay = new LocalDate(2016, 1, 1);
+    Assert.assertEquals(0, EveritWorklog.toDayIndex(new LocalDate(1970, 1, 1)));
+    Assert.assertEquals(1, EveritWorklog.toDayIndex(firstDay) - EveritWorklog.toDayIndex(lastDay));
+    Assert.assertEquals(EveritWorklog.toWeekIndex(new LocalDate(2015, 12, 28)),
+        EveritWorklog.toWeekIndex(new LocalDate(2016, 1, 3)));
+    Assert.assertEquals(EveritWorklog.toWeekIndex(new LocalDate(2016, 1, 3)) + 1,
+        EveritWorklog.toWeekIndex(new LocalDate(2016, 1, 4)));
+    Assert.assertEquals(EveritWorklog.toMonthIndex(lastDay) + 1,
+        EveritWorklog.toMonthIndex(firstDay));
+    // the first days of the years have the same day of year, but not the same index
+    Assert.assertNotEquals(EveritWorklog.toDayIndex(new LocalDate(2015, 1, 1)),
+        EveritWorklog.toDayIndex(firstDay));
+  }
+
+  @Test
+  public void testMonthSums() {
+    long[] expected = new long[] { 12600, 12600, 12600, 25200, 25200 };
+    long[] expectedReal = new long[] { 10800, 10800, 10800, 25200, 25200 };
+    for (int i = 0; i < worklogs.size(); i++) {
+      Assert.assertEquals(expected[i], summary.getMonthSum(worklogs.get(i)));
+      Assert.assertEquals(expectedReal[i], summary.getRealMonthSum(worklogs.get(i)));
+    }
+  }
+
+  @Test
+  public void testSummaryRowBoundaries() {
+    Assert.assertEquals(Arrays.asList(true, false, true, true, true), boundaries("day"));
+    Assert.assertEquals(Arrays.asList(false, false, false, true, true), boundaries("week"));
+    Assert.assertEquals(Arrays.asList(false, false, true, false, true), boundaries("month"));
+  }
+
+  @Test
+  public void testWeekSums() {
+    long[] expected = new long[] { 23400, 23400, 23400, 23400, 14400 };
+    long[] expectedReal = new long[] { 21600, 21600, 21600, 21600, 14400 };
+    for (int i = 0; i < worklogs.size(); i++) {
+      Assert.assertEquals(expected[i], summary.getWeekSum(worklogs.get(i)));
+      Assert.assertEquals(expectedReal[i], summary.getRealWeekSum(worklogs.get(i)));
+    }
+  }
+
+}
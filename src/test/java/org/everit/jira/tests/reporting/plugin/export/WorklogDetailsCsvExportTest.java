@@ -0,0 +1,156 @@
+/*
+ * Copyright (C) 2011 Everit Kft. (http://www.everit.org)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.everit.jira.tests.reporting.plugin.export;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import org.everit.jira.querydsl.support.QuerydslCallable;
+import org.everit.jira.querydsl.support.QuerydslSupport;
+import org.everit.jira.reporting.plugin.column.WorklogDetailsColumns;
+import org.everit.jira.reporting.plugin.dto.OrderBy;
+import org.everit.jira.reporting.plugin.dto.ReportSearchParam;
+import org.everit.jira.reporting.plugin.dto.WorklogDetailsDTO;
+import org.everit.jira.reporting.plugin.export.ExcelToCsvConverter;
+import org.everit.jira.reporting.plugin.export.ExportWorklogDetailsListReport;
+import org.everit.jira.reporting.plugin.export.StreamingWorklogDetailsCsvExport;
+import org.everit.jira.settings.dto.TimeTrackerUserSettings;
+import org.everit.jira.timetracker.plugin.util.FormatterRegistry;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Matchers;
+import org.mockito.Mockito;
+import org.mockito.invocation.InvocationOnMock;
+import org.mockito.stubbing.Answer;
+
+import com.atlassian.jira.bc.issue.worklog.TimeTrackingConfiguration;
+import com.atlassian.jira.config.properties.ApplicationProperties;
+import com.atlassian.jira.mock.component.MockComponentWorker;
+import com.atlassian.jira.security.JiraAuthenticationContext;
+import com.atlassian.jira.util.I18nHelper;
+
+public class WorklogDetailsCsvExportTest {
+
+  private static final List<String> SELECTED_COLUMNS =
+      Arrays.asList(WorklogDetailsColumns.PROJECT, WorklogDetailsColumns.ISSUE_KEY,
+          WorklogDetailsColumns.ISSUE_SUMMARY, WorklogDetailsColumns.ESTIMATED,
+          WorklogDetailsColumns.COMPONENTS, WorklogDetailsColumns.FIX_VERSIONS,
+          WorklogDetailsColumns.WORKLOG_DESCRIPTION, WorklogDetailsColumns.USER,
+          WorklogDetailsColumns.START_TIME, WorklogDetailsColumns.TIME_SPENT);
+
+  private void assertSameCsv(final List<WorklogDetailsDTO> worklogDetails,
+      final List<String> notBrowsableProjectKeys) throws IOException {
+    QuerydslSupport querydslSupport = Mockito.mock(QuerydslSupport.class);
+    Mockito.doReturn(worklogDetails).when(querydslSupport)
+        .execute(Matchers.any(QuerydslCallable.class));
+    TimeTrackerUserSettings userSettings =
+        new TimeTrackerUserSettings().worklogTimeInSeconds(true);
+
+    ExportWorklogDetailsListReport xlsExport = new ExportWorklogDetailsListReport(
+        querydslSupport, SELECTED_COLUMNS, new ReportSearchParam(), notBrowsableProjectKeys,
+        OrderBy.DEFAULT, userSettings);
+    ByteArrayOutputStream expected = new ByteArrayOutputStream();
+    new ExcelToCsvConverter(xlsExport.exportToXLS()).printCSV(expected);
+
+    StreamingWorklogDetailsCsvExport csvExport = new StreamingWorklogDetailsCsvExport(
+        querydslSupport, SELECTED_COLUMNS, new ReportSearchParam(), notBrowsableProjectKeys,
+        OrderBy.DEFAULT, userSettings);
+    ByteArrayOutputStream actual = new ByteArrayOutputStream();
+    csvExport.write(actual);
+
+    Assert.assertEquals(new String(expected.toByteArray(), StandardCharsets.UTF_8),
+        new String(actual.toByteArray(), StandardCharsets.UTF_8));
+  }
+
+  private WorklogDetailsDTO createWorklogDetails(final String issueKey, final String body,
+      final List<String> components) {
+    WorklogDetailsDTO worklogDetailsDTO = new WorklogDetailsDTO();
+    worklogDetailsDTO.setProjectName("Project");
+    worklogDetailsDTO.setIssueKey(issueKey);
+    worklogDetailsDTO.setIssueSummary("Summary of " + issueKey);
+    worklogDetailsDTO.setIssueComponents(components);
+    worklogDetailsDTO.setIssueFixedVersions(Collections.<String> emptyList());
+    worklogDetailsDTO.setWorklogBody(body);
+    worklogDetailsDTO.setWorklogUser("admin");
+    worklogDetailsDTO.setWorklogTimeWorked(3600L);
+    return worklogDetailsDTO;
+  }
+
+  @Before
+  public void setUp() {
+    FormatterRegistry.clear();
+
+    TimeTrackingConfiguration timeTrackingConfiguration =
+        Mockito.mock(TimeTrackingConfiguration.class);
+    Mockito.when(timeTrackingConfiguration.getDaysPerWeek()).thenReturn(new BigDecimal(5));
+    Mockito.when(timeTrackingConfiguration.getHoursPerDay()).thenReturn(new BigDecimal(8));
+
+    ApplicationProperties applicationProperties =
+        Mockito.mock(ApplicationProperties.class, Mockito.RETURNS_DEEP_STUBS);
+    Mockito.when(applicationProperties.getDefaultBackedString(Matchers.anyString()))
+        .thenReturn("pretty");
+
+    I18nHelper i18nHelper = Mockito.mock(I18nHelper.class);
+    Mockito.when(i18nHelper.getText(Matchers.anyString())).thenAnswer(new Answer<String>() {
+      @Override
+      public String answer(final InvocationOnMock invocation) throws Throwable {
+        return "text of " + invocation.getArguments()[0];
+      }
+    });
+    JiraAuthenticationContext authenticationContext =
+        Mockito.mock(JiraAuthenticationContext.class);
+    Mockito.when(authenticationContext.getI18nHelper()).thenReturn(i18nHelper);
+
+    new MockComponentWorker()
+        .addMock(TimeTrackingConfiguration.class, timeTrackingConfiguration)
+        .addMock(ApplicationProperties.class, applicationProperties)
+        .addMock(JiraAuthenticationContext.class, authenticationContext)
+        .init();
+  }
+
+  @Test
+  public void testNoWorklogs() throws IOException {
+    assertSameCsv(Collections.<WorklogDetailsDTO> emptyList(),
+        Collections.<String> emptyList());
+    assertSameCsv(Collections.<WorklogDetailsDTO> emptyList(), Arrays.asList("SECRET"));
+  }
+
+  @Test
+  public void testNotBrowsableProjects() throws IOException {
+    List<WorklogDetailsDTO> worklogDetails = new ArrayList<>();
+    worklogDetails.add(createWorklogDetails("TEST-1", "work", Arrays.asList("Backend")));
+    assertSameCsv(worklogDetails, Arrays.asList("SECRET", "HIDDEN"));
+  }
+
+  @Test
+  public void testWorklogs() throws IOException {
+    List<WorklogDetailsDTO> worklogDetails = new ArrayList<>();
+    worklogDetails.add(createWorklogDetails("TEST-1", "plain text", Arrays.asList("Backend")));
+    worklogDetails.add(createWorklogDetails("TEST-2", "comma, \"quote\"\nand new line",
+        Arrays.asList("Backend", "Frontend")));
+    worklogDetails.add(createWorklogDetails("TEST-3", null,
+        Collections.<String> emptyList()));
+    assertSameCsv(worklogDetails, Collections.<String> emptyList());
+  }
+
+}
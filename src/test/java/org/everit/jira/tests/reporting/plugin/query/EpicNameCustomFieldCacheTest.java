@@ -0,0 +1,92 @@
+/*
+ * Copyright (C) 2011 Everit Kft. (http://www.everit.org)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.everit.jira.tests.reporting.plugin.query;
+
+import java.sql.SQLException;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import org.everit.jira.reporting.plugin.query.util.EpicNameCustomFieldCache;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.querydsl.sql.Configuration;
+import com.querydsl.sql.PostgreSQLTemplates;
+
+public class EpicNameCustomFieldCacheTest {
+
+  private static final long NOW = 1000000L;
+
+  private Configuration configuration;
+
+  private RecordingConnection connection;
+
+  private List<Long> getIds(final long now) {
+    return EpicNameCustomFieldCache.getIds(connection.getConnection(), configuration, now);
+  }
+
+  @Before
+  public void setUp() throws SQLException {
+    configuration = new Configuration(new PostgreSQLTemplates());
+    connection = new RecordingConnection();
+    EpicNameCustomFieldCache.clear();
+  }
+
+  @After
+  public void tearDown() {
+    EpicNameCustomFieldCache.clear();
+  }
+
+  @Test
+  public void testClear() {
+    connection.addResult("epicNameField", new Object[] { 10L });
+    getIds(NOW);
+    EpicNameCustomFieldCache.clear();
+
+    Assert.assertEquals(Collections.emptyList(), getIds(NOW));
+    Assert.assertEquals(2, connection.getStatements().size());
+  }
+
+  @Test
+  public void testIdsCachedUntilTimeToLive() {
+    connection.addResult("epicNameField", new Object[] { 10L });
+    Assert.assertEquals(Arrays.asList(10L), getIds(NOW));
+    Assert.assertEquals(1, connection.getStatements().size());
+    Assert.assertEquals(Arrays.<Object> asList(EpicNameCustomFieldCache.EPIC_NAME),
+        connection.getParameters(0));
+
+    connection.addResult("epicNameField", new Object[] { 10L }, new Object[] { 11L });
+    Assert.assertEquals(Arrays.asList(10L),
+        getIds((NOW + EpicNameCustomFieldCache.TIME_TO_LIVE) - 1));
+    Assert.assertEquals(1, connection.getStatements().size());
+
+    // the field was created again (for example JIRA Agile was reinstalled)
+    Assert.assertEquals(Arrays.asList(10L, 11L),
+        getIds(NOW + EpicNameCustomFieldCache.TIME_TO_LIVE));
+    Assert.assertEquals(2, connection.getStatements().size());
+  }
+
+  @Test
+  public void testMissingEpicNameFieldCached() {
+    Assert.assertEquals(Collections.emptyList(), getIds(NOW));
+    Assert.assertEquals(Collections.emptyList(), getIds(NOW + 1));
+    Assert.assertEquals(1, connection.getStatements().size());
+  }
+
+}
@@ -0,0 +1,86 @@
+/*
+ * Copyright (C) 2011 Everit Kft. (http://www.everit.org)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.everit.jira.tests.reporting.plugin.query;
+
+import java.sql.SQLException;
+import java.util.Arrays;
+import java.util.List;
+
+import org.everit.jira.querydsl.support.QuerydslCallable;
+import org.everit.jira.reporting.plugin.dto.PickerSearchParam;
+import org.everit.jira.reporting.plugin.query.PickerComponentQuery;
+import org.everit.jira.reporting.plugin.query.PickerEpicLinkQuery;
+import org.everit.jira.reporting.plugin.query.PickerLabelQuery;
+import org.everit.jira.reporting.plugin.query.PickerVersionQuery;
+import org.junit.Assert;
+import org.junit.Test;
+
+import com.querydsl.sql.Configuration;
+import com.querydsl.sql.PostgreSQLTemplates;
+
+public class PickerQueryTest {
+
+  private static PickerSearchParam prefix(final String prefix) {
+    return new PickerSearchParam().prefix(prefix);
+  }
+
+  private RecordingConnection execute(final QuerydslCallable<?> query) throws SQLException {
+    RecordingConnection connection = new RecordingConnection();
+    query.call(connection.getConnection(), new Configuration(new PostgreSQLTemplates()));
+    Assert.assertEquals(1, connection.getStatements().size());
+    return connection;
+  }
+
+  private String getWhere(final RecordingConnection connection) {
+    String sql = connection.getStatements().get(0);
+    return sql.substring(sql.indexOf("\nwhere "));
+  }
+
+  @Test
+  public void testNoPrefixPredicate() throws SQLException {
+    // the prefix is matched on the loaded list, because lower(name) like ? can not use an index
+    List<QuerydslCallable<?>> queries = Arrays.<QuerydslCallable<?>> asList(
+        new PickerComponentQuery(prefix("Back")),
+        new PickerEpicLinkQuery(prefix("ABC-1")),
+        new PickerLabelQuery(prefix("Back")),
+        new PickerVersionQuery(prefix("V1")));
+    for (QuerydslCallable<?> query : queries) {
+      RecordingConnection connection = execute(query);
+      String sql = connection.getStatements().get(0);
+      Assert.assertFalse(sql, sql.contains("like"));
+      Assert.assertFalse(sql, sql.contains("lower("));
+    }
+  }
+
+  @Test
+  public void testProjectsAndLimit() throws SQLException {
+    PickerSearchParam pickerSearchParam = new PickerSearchParam()
+        .projectIds(Arrays.asList(1L, 2L))
+        .limit(5L);
+
+    RecordingConnection connection = execute(new PickerLabelQuery(pickerSearchParam));
+    String where = getWhere(connection);
+    Assert.assertTrue(where, where.contains("issue.project in (?, ?)"));
+    Assert.assertTrue(where, where.contains("limit ?"));
+    Assert.assertEquals(Arrays.<Object> asList(1L, 2L, 5L), connection.getParameters(0));
+
+    connection = execute(new PickerVersionQuery(pickerSearchParam));
+    where = getWhere(connection);
+    Assert.assertTrue(where, where.contains("p_version.project in (?, ?)"));
+    Assert.assertEquals(Arrays.<Object> asList(1L, 2L, 5L), connection.getParameters(0));
+  }
+
+}
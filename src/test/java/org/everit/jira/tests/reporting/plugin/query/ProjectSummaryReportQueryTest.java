@@ -0,0 +1,166 @@
+/*
+ * Copyright (C) 2011 Everit Kft. (http://www.everit.org)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.everit.jira.tests.reporting.plugin.query;
+
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+
+import org.everit.jira.reporting.plugin.dto.ReportSearchParam;
+import org.everit.jira.reporting.plugin.query.ProjectSummaryReportQueryBuilder;
+import org.everit.jira.timetracker.plugin.dto.ChartData;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Mockito;
+
+import com.atlassian.jira.mock.component.MockComponentWorker;
+import com.atlassian.jira.security.JiraAuthenticationContext;
+import com.atlassian.jira.security.groups.GroupManager;
+import com.atlassian.jira.user.ApplicationUser;
+import com.querydsl.sql.Configuration;
+import com.querydsl.sql.PostgreSQLTemplates;
+
+public class ProjectSummaryReportQueryTest {
+
+  private static final long DAY_IN_MILLIS = 86400000L;
+
+  private Configuration configuration;
+
+  private RecordingConnection connection;
+
+  private ReportSearchParam createChartSearchParam() {
+    return new ReportSearchParam()
+        .issueIds(Collections.<Long> emptyList())
+        .projectIds(Arrays.asList(10L, 11L))
+        .users(Collections.singletonList("selected"))
+        .worklogStartDate(new Date(DAY_IN_MILLIS))
+        .worklogEndDate(new Date(2 * DAY_IN_MILLIS));
+  }
+
+  private String getSql() {
+    Assert.assertEquals(1, connection.getStatements().size());
+    return connection.getStatements().get(0);
+  }
+
+  @Before
+  public void setUp() throws SQLException {
+    configuration = new Configuration(new PostgreSQLTemplates());
+    connection = new RecordingConnection();
+
+    ApplicationUser user = Mockito.mock(ApplicationUser.class);
+    Mockito.when(user.getKey()).thenReturn("logged");
+    JiraAuthenticationContext authenticationContext =
+        Mockito.mock(JiraAuthenticationContext.class);
+    Mockito.when(authenticationContext.getUser()).thenReturn(user);
+    GroupManager groupManager = Mockito.mock(GroupManager.class);
+    Mockito.when(groupManager.getGroupNamesForUser(user))
+        .thenReturn(Collections.singletonList("jira-users"));
+    new MockComponentWorker()
+        .addMock(JiraAuthenticationContext.class, authenticationContext)
+        .addMock(GroupManager.class, groupManager)
+        .init();
+  }
+
+  @Test
+  public void testChartDataSummedPerProject() throws SQLException {
+    connection.addResult("sum(worklog.timeworked)", new Object[] { "ABC", 3600L },
+        new Object[] { "DEF", null });
+
+    List<ChartData> chartData = new ProjectSummaryReportQueryBuilder(createChartSearchParam())
+        .buildChartDataQuery().call(connection.getConnection(), configuration);
+
+    String sql = getSql();
+    Assert.assertTrue(sql, sql.startsWith("select project.pkey, sum(worklog.timeworked)\n"));
+    Assert.assertTrue(sql, sql.contains("project.id in (?, ?)"));
+    Assert.assertTrue(sql, sql.contains("worklog.author in (?)"));
+    Assert.assertTrue(sql, sql.contains("worklog.startdate >= ?"));
+    Assert.assertTrue(sql, sql.contains("worklog.startdate < ?"));
+    // the secured issues are checked one by one
+    Assert.assertTrue(sql, sql.contains("issue.security is null"));
+    Assert.assertTrue(sql, sql.contains("\ngroup by project.id, project.pkey\n"));
+    Assert.assertTrue(sql, sql.endsWith("\norder by project.pkey asc"));
+    List<Object> parameters = connection.getParameters(0);
+    Assert.assertTrue(parameters.toString(),
+        parameters.containsAll(Arrays.<Object> asList(10L, 11L, "selected")));
+
+    Assert.assertEquals(2, chartData.size());
+    Assert.assertEquals("ABC", chartData.get(0).getProjectId());
+    Assert.assertEquals(Long.valueOf(3600000L), chartData.get(0).getDuration());
+    Assert.assertEquals("DEF", chartData.get(1).getProjectId());
+    Assert.assertEquals(Long.valueOf(0L), chartData.get(1).getDuration());
+  }
+
+  @Test
+  public void testGroupsWithoutMembers() throws SQLException {
+    ProjectSummaryReportQueryBuilder builder =
+        new ProjectSummaryReportQueryBuilder(createChartSearchParam().groupsHasNoMembers(true));
+
+    Assert.assertTrue(builder.buildChartDataQuery()
+        .call(connection.getConnection(), configuration).isEmpty());
+    Assert.assertTrue(builder.buildSecuredIssueChartDataQuery()
+        .call(connection.getConnection(), configuration).isEmpty());
+    Assert.assertTrue(connection.getStatements().isEmpty());
+  }
+
+  @Test
+  public void testIssueIdsInlinedAsLiterals() throws SQLException {
+    List<Long> issueIds = new ArrayList<>();
+    for (long issueId = 1; issueId <= 2500; issueId++) {
+      issueIds.add(issueId);
+    }
+
+    new ProjectSummaryReportQueryBuilder(createChartSearchParam().issueIds(issueIds))
+        .buildChartDataQuery().call(connection.getConnection(), configuration);
+
+    String sql = getSql();
+    // Oracle accepts at most 1000 expressions in one list
+    Assert.assertEquals(3, sql.split("issue\\.id in \\(", -1).length - 1);
+    Assert.assertTrue(sql.contains("issue.id in (1, 2, 3, "));
+    Assert.assertTrue(sql.contains(", 1000)"));
+    Assert.assertTrue(sql.contains("issue.id in (2001, "));
+    Assert.assertTrue(sql.contains(", 2500)"));
+    // the ids are not bound, so the parameter limits of the drivers are not reached
+    List<Object> parameters = connection.getParameters(0);
+    Assert.assertFalse(parameters.toString(), parameters.contains(1L));
+    Assert.assertFalse(parameters.toString(), parameters.contains(2500L));
+    Assert.assertTrue(parameters.toString(), parameters.size() < 10);
+  }
+
+  @Test
+  public void testSecuredIssueChartDataSummedPerIssue() throws SQLException {
+    connection.addResult("sum(worklog.timeworked)", new Object[] { 100L, "ABC", 60L });
+
+    Map<Long, ChartData> chartData =
+        new ProjectSummaryReportQueryBuilder(createChartSearchParam())
+            .buildSecuredIssueChartDataQuery().call(connection.getConnection(), configuration);
+
+    String sql = getSql();
+    Assert.assertTrue(sql,
+        sql.startsWith("select issue.id, project.pkey, sum(worklog.timeworked)\n"));
+    Assert.assertTrue(sql, sql.contains("issue.security is not null"));
+    Assert.assertTrue(sql, sql.endsWith("\ngroup by issue.id, project.pkey"));
+
+    Assert.assertEquals(1, chartData.size());
+    Assert.assertEquals("ABC", chartData.get(100L).getProjectId());
+    Assert.assertEquals(Long.valueOf(60000L), chartData.get(100L).getDuration());
+  }
+
+}
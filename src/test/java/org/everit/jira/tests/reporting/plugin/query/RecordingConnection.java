@@ -0,0 +1,218 @@
+/*
+ * Copyright (C) 2011 Everit Kft. (http://www.everit.org)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.everit.jira.tests.reporting.plugin.query;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.AbstractMap;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+import org.mockito.Matchers;
+import org.mockito.Mockito;
+import org.mockito.invocation.InvocationOnMock;
+import org.mockito.stubbing.Answer;
+
+/**
+ * Mocked JDBC connection that records the prepared SQL statements and their parameters. The
+ * queries give back the rows added by the {@link #addResult(String, Object[]...)} or an empty
+ * result set.
+ */
+public class RecordingConnection {
+
+  /**
+   * Gives back the values of the rows by the column indexes.
+   */
+  private static final class ResultSetAnswer implements Answer<Object> {
+
+    private Object[] row;
+
+    private final Iterator<Object[]> rows;
+
+    private boolean wasNull;
+
+    ResultSetAnswer(final List<Object[]> rows) {
+      this.rows = rows.iterator();
+    }
+
+    @Override
+    public Object answer(final InvocationOnMock invocation) throws Throwable {
+      String methodName = invocation.getMethod().getName();
+      Object[] arguments = invocation.getArguments();
+      if ("next".equals(methodName)) {
+        row = rows.hasNext() ? rows.next() : null;
+        return row != null;
+      }
+      if ("wasNull".equals(methodName)) {
+        return wasNull;
+      }
+      if (methodName.startsWith("get") && (arguments.length == 1)
+          && (arguments[0] instanceof Integer)) {
+        int index = (Integer) arguments[0] - 1;
+        Object value = index < row.length ? row[index] : null;
+        wasNull = value == null;
+        return convert(value, invocation.getMethod().getReturnType());
+      }
+      return Mockito.RETURNS_DEFAULTS.answer(invocation);
+    }
+
+    private Object convert(final Object value, final Class<?> type) {
+      if (type == String.class) {
+        return value == null ? null : value.toString();
+      }
+      if ((type == long.class) || (type == int.class) || (type == double.class)) {
+        Number number = value == null ? Long.valueOf(0) : (Number) value;
+        if (type == long.class) {
+          return number.longValue();
+        }
+        if (type == int.class) {
+          return number.intValue();
+        }
+        return number.doubleValue();
+      }
+      return value;
+    }
+  }
+
+  /**
+   * Records the parameters set on a prepared statement.
+   */
+  private static final class StatementAnswer implements Answer<Object> {
+
+    private final Map<Integer, Object> parameters;
+
+    private final ResultSet resultSet;
+
+    StatementAnswer(final Map<Integer, Object> parameters, final ResultSet resultSet) {
+      this.parameters = parameters;
+      this.resultSet = resultSet;
+    }
+
+    @Override
+    public Object answer(final InvocationOnMock invocation) throws Throwable {
+      String methodName = invocation.getMethod().getName();
+      Object[] arguments = invocation.getArguments();
+      if ("executeQuery".equals(methodName)) {
+        return resultSet;
+      }
+      if (methodName.startsWith("set") && (arguments.length >= 2)
+          && (arguments[0] instanceof Integer)) {
+        parameters.put((Integer) arguments[0], arguments[1]);
+      }
+      return Mockito.RETURNS_DEFAULTS.answer(invocation);
+    }
+  }
+
+  private final Connection connection;
+
+  private final List<Map.Entry<String, List<Object[]>>> results = new ArrayList<>();
+
+  private final List<Map<Integer, Object>> parameters = new ArrayList<>();
+
+  private final List<PreparedStatement> preparedStatements = new ArrayList<>();
+
+  private final List<String> statements = new ArrayList<>();
+
+  /**
+   * Creates the mocked connection.
+   */
+  public RecordingConnection() throws SQLException {
+    connection = Mockito.mock(Connection.class);
+    Answer<PreparedStatement> prepareAnswer = new Answer<PreparedStatement>() {
+      @Override
+      public PreparedStatement answer(final InvocationOnMock invocation) throws Throwable {
+        return prepare((String) invocation.getArguments()[0]);
+      }
+    };
+    Mockito.when(connection.prepareStatement(Matchers.anyString())).thenAnswer(prepareAnswer);
+    Mockito.when(connection.prepareStatement(Matchers.anyString(), Matchers.anyInt(),
+        Matchers.anyInt())).thenAnswer(prepareAnswer);
+  }
+
+  /**
+   * Adds the result of the next query that contains the given SQL part. Each result is given back
+   * once.
+   *
+   * @param sqlPart
+   *          the part of the SQL of the query.
+   * @param rows
+   *          the rows of the result. The values are in the order of the columns.
+   */
+  public synchronized void addResult(final String sqlPart, final Object[]... rows) {
+    results.add(
+        new AbstractMap.SimpleEntry<String, List<Object[]>>(sqlPart, Arrays.asList(rows)));
+  }
+
+  public Connection getConnection() {
+    return connection;
+  }
+
+  /**
+   * Gives back the parameters of the prepared statement in the order of their indexes.
+   *
+   * @param index
+   *          the index of the statement in the order of the preparation.
+   */
+  public synchronized List<Object> getParameters(final int index) {
+    return new ArrayList<>(parameters.get(index).values());
+  }
+
+  /**
+   * Gives back the mocked prepared statement.
+   *
+   * @param index
+   *          the index of the statement in the order of the preparation.
+   */
+  public synchronized PreparedStatement getPreparedStatement(final int index) {
+    return preparedStatements.get(index);
+  }
+
+  /**
+   * Gives back the SQL of the prepared statements in the order of the preparation.
+   */
+  public synchronized List<String> getStatements() {
+    return new ArrayList<>(statements);
+  }
+
+  private synchronized PreparedStatement prepare(final String sql) throws SQLException {
+    Map<Integer, Object> statementParameters = new TreeMap<>();
+    List<Object[]> rows = Collections.emptyList();
+    Iterator<Map.Entry<String, List<Object[]>>> iterator = results.iterator();
+    while (iterator.hasNext()) {
+      Map.Entry<String, List<Object[]>> result = iterator.next();
+      if (sql.contains(result.getKey())) {
+        rows = result.getValue();
+        iterator.remove();
+        break;
+      }
+    }
+    ResultSet resultSet = Mockito.mock(ResultSet.class, new ResultSetAnswer(rows));
+    PreparedStatement preparedStatement = Mockito.mock(PreparedStatement.class,
+        new StatementAnswer(statementParameters, resultSet));
+    statements.add(sql);
+    parameters.add(statementParameters);
+    preparedStatements.add(preparedStatement);
+    return preparedStatement;
+  }
+
+}
@@ -0,0 +1,146 @@
+/*
+ * Copyright (C) 2011 Everit Kft. (http://www.everit.org)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.everit.jira.tests.reporting.plugin.query;
+
+import java.nio.charset.StandardCharsets;
+import java.sql.Timestamp;
+import java.util.Arrays;
+import java.util.List;
+
+import org.everit.jira.reporting.plugin.column.WorklogDetailsColumns;
+import org.everit.jira.reporting.plugin.query.WorklogDetailsCursor;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class WorklogDetailsCursorTest {
+
+  private static final List<String> STRING_COLUMNS =
+      Arrays.asList(WorklogDetailsColumns.ISSUE_KEY, WorklogDetailsColumns.PROJECT);
+
+  private static final List<String> TIMESTAMP_COLUMNS =
+      Arrays.asList(WorklogDetailsColumns.CREATED,
+          WorklogDetailsColumns.START_TIME,
+          WorklogDetailsColumns.UPDATED,
+          WorklogDetailsColumns.WORKLOG_CREATED,
+          WorklogDetailsColumns.WORKLOG_UPDATED);
+
+  private void assertRoundTrip(final boolean next, final String columnName, final boolean asc,
+      final long worklogId, final String value) {
+    String token = new WorklogDetailsCursor(next, columnName, asc, worklogId, value).toToken();
+    Assert.assertTrue(token.matches("[0-9a-f]+"));
+
+    WorklogDetailsCursor cursor = WorklogDetailsCursor.parse(token);
+
+    Assert.assertNotNull(cursor);
+    Assert.assertEquals(next, cursor.isNext());
+    Assert.assertEquals(columnName, cursor.getColumnName());
+    Assert.assertEquals(asc, cursor.isAsc());
+    Assert.assertEquals(worklogId, cursor.getWorklogId());
+    Assert.assertEquals(value, cursor.getValue());
+  }
+
+  private String hex(final String plain) {
+    StringBuilder sb = new StringBuilder();
+    for (byte b : plain.getBytes(StandardCharsets.UTF_8)) {
+      sb.append(String.format("%02x", b));
+    }
+    return sb.toString();
+  }
+
+  @Test
+  public void testIssueKeyValue() {
+    WorklogDetailsCursor cursor =
+        new WorklogDetailsCursor(true, WorklogDetailsColumns.ISSUE_KEY, true, 1L, "TEST_2-123");
+
+    Assert.assertEquals(Long.valueOf(123L), cursor.getIssueNumValue());
+    Assert.assertEquals("TEST_2", cursor.getProjectKeyValue());
+
+    String[] values = new String[] { "", "TEST", "TEST-", "-1", "TEST-x1", "TEST--1", "TEST-+1",
+        "TEST-99999999999999999999" };
+    for (String value : values) {
+      cursor = new WorklogDetailsCursor(true, WorklogDetailsColumns.ISSUE_KEY, true, 1L, value);
+      Assert.assertNull(value, cursor.getIssueNumValue());
+      Assert.assertNull(value, cursor.getProjectKeyValue());
+    }
+  }
+
+  @Test
+  public void testMalformedToken() {
+    Assert.assertNull(WorklogDetailsCursor.parse(null));
+    Assert.assertNull(WorklogDetailsCursor.parse(""));
+    Assert.assertNull(WorklogDetailsCursor.parse("abc"));
+    Assert.assertNull(WorklogDetailsCursor.parse("zz"));
+    Assert.assertNull(WorklogDetailsCursor.parse(hex("N~jtrp_col_issueKey~ASC~12")));
+    Assert.assertNull(WorklogDetailsCursor.parse(hex("N~jtrp_col_issueKey~ASC~x12~TEST-1")));
+    Assert.assertNull(WorklogDetailsCursor
+        .parse(hex("N~jtrp_col_issueKey~ASC~99999999999999999999~TEST-1")));
+  }
+
+  @Test
+  public void testStringColumns() {
+    for (String columnName : STRING_COLUMNS) {
+      assertRoundTrip(true, columnName, true, 1L, "TEST-1");
+      assertRoundTrip(false, columnName, false, Long.MAX_VALUE,
+          "Project ~ \u00e1rv\u00edzt\u0171r\u0151");
+      assertRoundTrip(true, columnName, false, 2L, "");
+    }
+  }
+
+  @Test
+  public void testTamperedToken() {
+    String token =
+        new WorklogDetailsCursor(true, WorklogDetailsColumns.PROJECT, true, 5L, "A").toToken();
+    String tamperedDirection = hex("X") + token.substring(2);
+    String tamperedOrder = token.replace(hex("ASC"), hex("ZZZ"));
+
+    Assert.assertFalse(WorklogDetailsCursor.parse(tamperedDirection).isNext());
+    Assert.assertFalse(WorklogDetailsCursor.parse(tamperedOrder).isAsc());
+    Assert.assertNull(WorklogDetailsCursor.parse(token.substring(1)));
+    Assert.assertNull(WorklogDetailsCursor.parse(token.substring(0, token.length() - 1) + "g"));
+  }
+
+  @Test
+  public void testTamperedTimestampValue() {
+    String[] values = new String[] { "", "abc", "1", "1:2:3", "1:", ":1", "1:-1", "1:1000000000",
+        "99999999999999999999:1", "1:99999999999" };
+    for (String value : values) {
+      WorklogDetailsCursor cursor =
+          new WorklogDetailsCursor(true, WorklogDetailsColumns.CREATED, true, 1L, value);
+      Assert.assertNull(value, cursor.getTimestampValue());
+    }
+  }
+
+  @Test
+  public void testTimestampColumns() {
+    Timestamp timestamp = new Timestamp(1483225199999L);
+    timestamp.setNanos(999999999);
+    Timestamp beforeEpoch = new Timestamp(-1000L);
+    for (String columnName : TIMESTAMP_COLUMNS) {
+      for (Timestamp value : Arrays.asList(timestamp, beforeEpoch)) {
+        String cursorValue = WorklogDetailsCursor.toTimestampValue(value);
+        assertRoundTrip(true, columnName, true, 3L, cursorValue);
+        assertRoundTrip(false, columnName, false, 3L, cursorValue);
+
+        WorklogDetailsCursor cursor = WorklogDetailsCursor.parse(
+            new WorklogDetailsCursor(true, columnName, true, 3L, cursorValue).toToken());
+        Assert.assertEquals(value, cursor.getTimestampValue());
+        Assert.assertEquals(value.getNanos(), cursor.getTimestampValue().getNanos());
+      }
+    }
+    Assert.assertNull(WorklogDetailsCursor.toTimestampValue(null));
+  }
+
+}
@@ -0,0 +1,273 @@
+/*
+ * Copyright (C) 2011 Everit Kft. (http://www.everit.org)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.everit.jira.tests.reporting.plugin.query;
+
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+import org.everit.jira.reporting.plugin.column.WorklogDetailsColumns;
+import org.everit.jira.reporting.plugin.dto.OrderBy;
+import org.everit.jira.reporting.plugin.dto.ReportSearchParam;
+import org.everit.jira.reporting.plugin.dto.WorklogDetailsDTO;
+import org.everit.jira.reporting.plugin.query.WorklogDetailsCursor;
+import org.everit.jira.reporting.plugin.query.WorklogDetailsReportQueryBuilder;
+import org.everit.jira.reporting.plugin.query.util.EpicNameCustomFieldCache;
+import org.everit.jira.reporting.plugin.query.util.QueryUtil;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Mockito;
+
+import com.atlassian.jira.mock.component.MockComponentWorker;
+import com.atlassian.jira.security.JiraAuthenticationContext;
+import com.atlassian.jira.security.groups.GroupManager;
+import com.atlassian.jira.user.ApplicationUser;
+import com.querydsl.sql.Configuration;
+import com.querydsl.sql.PostgreSQLTemplates;
+
+public class WorklogDetailsReportQueryTest {
+
+  private static final String[] CORRELATED_DISPLAY_NAME_ALIASES =
+      new String[] { "issueUser", "appUserForIssue", "cwdDirMin", "cwdUMin" };
+
+  private static final long EPIC_NAME_FIELD_ID = 10L;
+
+  private static final String EPIC_NAME_FIELD_QUERY_PART = "epicNameField";
+
+  private static final long ISSUE_ID = 1L;
+
+  /**
+   * The index of the issue id in the page query projection.
+   */
+  private static final int ISSUE_ID_COLUMN = 4;
+
+  private static final int PAGE_COLUMN_COUNT = 26;
+
+  private static final String PAGE_QUERY_PART = "as worklogId";
+
+  private Configuration configuration;
+
+  private void assertNoCorrelatedDisplayNames(final String sql) {
+    for (String alias : CORRELATED_DISPLAY_NAME_ALIASES) {
+      Assert.assertFalse(sql, sql.contains(alias));
+    }
+  }
+
+  private int count(final String sql, final String part) {
+    int count = 0;
+    int index = sql.indexOf(part);
+    while (index >= 0) {
+      count++;
+      index = sql.indexOf(part, index + part.length());
+    }
+    return count;
+  }
+
+  private Object[] createPageRow() {
+    Object[] row = new Object[PAGE_COLUMN_COUNT];
+    row[ISSUE_ID_COLUMN] = ISSUE_ID;
+    return row;
+  }
+
+  private List<WorklogDetailsDTO> execute(final RecordingConnection connection,
+      final String orderColumnName) throws SQLException {
+    ReportSearchParam reportSearchParam = new ReportSearchParam()
+        .issueIds(Arrays.asList(1L, 2L))
+        .limit(25L)
+        .offset(0L);
+    OrderBy orderBy = new OrderBy()
+        .columnName(orderColumnName)
+        .asc(true);
+    List<WorklogDetailsDTO> result =
+        new WorklogDetailsReportQueryBuilder(reportSearchParam, orderBy).buildQuery()
+            .call(connection.getConnection(), configuration);
+    for (String sql : connection.getStatements()) {
+      assertNoCorrelatedDisplayNames(sql);
+    }
+    return result;
+  }
+
+  private String executePageQuery(final String orderColumnName) throws SQLException {
+    RecordingConnection connection = new RecordingConnection();
+    execute(connection, orderColumnName);
+    return connection.getStatements().get(0);
+  }
+
+  private String findStatement(final RecordingConnection connection, final String sqlPart) {
+    String found = null;
+    for (String sql : connection.getStatements()) {
+      if (sql.contains(sqlPart)) {
+        Assert.assertNull(found);
+        found = sql;
+      }
+    }
+    return found;
+  }
+
+  private void initEpicNameFieldIds(final Object[]... rows) throws SQLException {
+    RecordingConnection connection = new RecordingConnection();
+    connection.addResult(EPIC_NAME_FIELD_QUERY_PART, rows);
+    EpicNameCustomFieldCache.getIds(connection.getConnection(), configuration);
+  }
+
+  @Before
+  public void setUp() {
+    configuration = new Configuration(new PostgreSQLTemplates());
+    EpicNameCustomFieldCache.clear();
+
+    ApplicationUser user = Mockito.mock(ApplicationUser.class);
+    Mockito.when(user.getKey()).thenReturn("user");
+    JiraAuthenticationContext authenticationContext =
+        Mockito.mock(JiraAuthenticationContext.class);
+    Mockito.when(authenticationContext.getUser()).thenReturn(user);
+    GroupManager groupManager = Mockito.mock(GroupManager.class);
+    Mockito.when(groupManager.getGroupNamesForUser(user))
+        .thenReturn(Collections.singletonList("jira-users"));
+    new MockComponentWorker()
+        .addMock(JiraAuthenticationContext.class, authenticationContext)
+        .addMock(GroupManager.class, groupManager)
+        .init();
+  }
+
+  @After
+  public void tearDown() {
+    EpicNameCustomFieldCache.clear();
+  }
+
+  @Test
+  public void testDisplayNamesQueriedPerChunk() throws SQLException {
+    List<String> userKeys = new ArrayList<>();
+    int userCount = (QueryUtil.USER_KEY_CHUNK_SIZE * 2) + 500;
+    for (int i = 0; i < userCount; i++) {
+      userKeys.add("user" + i);
+    }
+    RecordingConnection connection = new RecordingConnection();
+
+    Map<String, String> displayNames = QueryUtil.fetchUserDisplayNames(
+        connection.getConnection(), configuration, userKeys);
+
+    Assert.assertTrue(displayNames.isEmpty());
+    List<String> statements = connection.getStatements();
+    Assert.assertEquals(3, statements.size());
+    List<Object> boundUserKeys = new ArrayList<>();
+    int[] expectedSizes = new int[] { QueryUtil.USER_KEY_CHUNK_SIZE,
+        QueryUtil.USER_KEY_CHUNK_SIZE, 500 };
+    for (int i = 0; i < statements.size(); i++) {
+      assertNoCorrelatedDisplayNames(statements.get(i));
+      List<Object> parameters = connection.getParameters(i);
+      Assert.assertEquals(expectedSizes[i], parameters.size());
+      boundUserKeys.addAll(parameters);
+    }
+    Assert.assertEquals(userKeys, boundUserKeys);
+  }
+
+  @Test
+  public void testEpicValuesAggregatedPerIssue() throws SQLException {
+    initEpicNameFieldIds(new Object[] { EPIC_NAME_FIELD_ID });
+    RecordingConnection connection = new RecordingConnection();
+    connection.addResult(PAGE_QUERY_PART, createPageRow());
+    // the issue is linked to two epics, but the query gives back one (the minimum) value
+    connection.addResult("group by epicIssueLink.destination",
+        new Object[] { ISSUE_ID, "Epic A" });
+    connection.addResult("group by epicIssueLink.source", new Object[] { ISSUE_ID, "Own epic" });
+
+    List<WorklogDetailsDTO> result = execute(connection, WorklogDetailsColumns.ISSUE_KEY);
+
+    Assert.assertEquals(1, result.size());
+    Assert.assertEquals("Epic A", result.get(0).getIssueEpicLink());
+    Assert.assertEquals("Own epic", result.get(0).getIssueEpicName());
+    for (String groupBy : new String[] { "group by epicIssueLink.destination",
+        "group by epicIssueLink.source" }) {
+      String sql = findStatement(connection, groupBy);
+      Assert.assertNotNull(groupBy, sql);
+      Assert.assertTrue(sql, sql.contains("min(epicCustomfieldValue.stringvalue)"));
+    }
+  }
+
+  @Test
+  public void testIssueKeyOrderSeeksOnColumns() throws SQLException {
+    ReportSearchParam reportSearchParam = new ReportSearchParam()
+        .issueIds(Arrays.asList(1L, 2L))
+        .limit(25L)
+        .offset(25L)
+        .cursor(new WorklogDetailsCursor(true, WorklogDetailsColumns.ISSUE_KEY, true, 7L,
+            "TEST-12").toToken());
+    OrderBy orderBy = new OrderBy()
+        .columnName(WorklogDetailsColumns.ISSUE_KEY)
+        .asc(true);
+    RecordingConnection connection = new RecordingConnection();
+    new WorklogDetailsReportQueryBuilder(reportSearchParam, orderBy).buildQuery()
+        .call(connection.getConnection(), configuration);
+
+    String sql = connection.getStatements().get(0);
+    String whereAndOrder = sql.substring(sql.indexOf("\nwhere "));
+    // the concatenated issue key is only selected, the seek and the order use the columns
+    Assert.assertFalse(sql, whereAndOrder.contains("||"));
+    Assert.assertTrue(sql, whereAndOrder.contains("project.pkey >= ?"));
+    Assert.assertTrue(sql,
+        whereAndOrder.contains("order by project.pkey asc, issue.issuenum asc, worklog.id asc"));
+    Assert.assertFalse(sql, whereAndOrder.contains("offset"));
+  }
+
+  @Test
+  public void testMissingEpicNameFieldSkipsEpicQueries() throws SQLException {
+    initEpicNameFieldIds();
+    RecordingConnection connection = new RecordingConnection();
+    connection.addResult(PAGE_QUERY_PART, createPageRow());
+
+    List<WorklogDetailsDTO> result = execute(connection, WorklogDetailsColumns.ISSUE_KEY);
+
+    Assert.assertEquals(1, result.size());
+    Assert.assertNull(result.get(0).getIssueEpicLink());
+    Assert.assertNull(result.get(0).getIssueEpicName());
+    Assert.assertNull(findStatement(connection, "epicIssueLink"));
+    Assert.assertNull(findStatement(connection, EPIC_NAME_FIELD_QUERY_PART));
+  }
+
+  @Test
+  public void testNoDisplayNameQueryWithoutUsers() throws SQLException {
+    RecordingConnection connection = new RecordingConnection();
+
+    Map<String, String> displayNames = QueryUtil.fetchUserDisplayNames(
+        connection.getConnection(), configuration, Collections.<String> emptyList());
+
+    Assert.assertTrue(displayNames.isEmpty());
+    Assert.assertTrue(connection.getStatements().isEmpty());
+  }
+
+  @Test
+  public void testPageQueryOrderedByUserJoinsDisplayNamesOnce() throws SQLException {
+    String sql = executePageQuery(WorklogDetailsColumns.ASSIGNEE);
+
+    // the display names are joined once as a derived table instead of a subquery per row
+    Assert.assertEquals(sql, 1, count(sql, "left join (select"));
+    Assert.assertEquals(sql, 1, count(sql, "as orderUserNames"));
+  }
+
+  @Test
+  public void testPageQueryWithoutDisplayNameSubqueries() throws SQLException {
+    String sql = executePageQuery(WorklogDetailsColumns.ISSUE_KEY);
+
+    Assert.assertFalse(sql, sql.contains("dnUser"));
+    Assert.assertFalse(sql, sql.contains("orderUserNames"));
+  }
+
+}
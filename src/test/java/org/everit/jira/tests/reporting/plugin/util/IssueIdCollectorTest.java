@@ -0,0 +1,121 @@
+/*
+ * Copyright (C) 2011 Everit Kft. (http://www.everit.org)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.everit.jira.tests.reporting.plugin.util;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import org.apache.lucene.analysis.KeywordAnalyzer;
+import org.apache.lucene.document.Document;
+import org.apache.lucene.document.Field;
+import org.apache.lucene.index.IndexReader;
+import org.apache.lucene.index.IndexWriter;
+import org.apache.lucene.index.IndexWriterConfig;
+import org.apache.lucene.index.Term;
+import org.apache.lucene.search.IndexSearcher;
+import org.apache.lucene.search.MatchAllDocsQuery;
+import org.apache.lucene.search.Query;
+import org.apache.lucene.search.TermQuery;
+import org.apache.lucene.store.RAMDirectory;
+import org.apache.lucene.util.Version;
+import org.everit.jira.reporting.plugin.util.IssueIdCollector;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.atlassian.jira.issue.index.DocumentConstants;
+
+public class IssueIdCollectorTest {
+
+  private static final String PROJECT_FIELD = "project";
+
+  private RAMDirectory directory;
+
+  private IndexReader reader;
+
+  private Document createDocument(final String issueId, final String project) {
+    Document document = new Document();
+    if (issueId != null) {
+      document.add(new Field(DocumentConstants.ISSUE_ID, issueId, Field.Store.YES,
+          Field.Index.NOT_ANALYZED));
+    }
+    document.add(new Field(PROJECT_FIELD, project, Field.Store.YES, Field.Index.NOT_ANALYZED));
+    return document;
+  }
+
+  private List<Long> search(final Query query) throws IOException {
+    IndexSearcher searcher = new IndexSearcher(reader);
+    try {
+      IssueIdCollector collector = new IssueIdCollector();
+      searcher.search(query, collector);
+      List<Long> issueIds = new ArrayList<>(collector.getIssueIds());
+      Collections.sort(issueIds);
+      return issueIds;
+    } finally {
+      searcher.close();
+    }
+  }
+
+  @Before
+  public void setUp() throws IOException {
+    directory = new RAMDirectory();
+    IndexWriter writer = new IndexWriter(directory,
+        new IndexWriterConfig(Version.LUCENE_30, new KeywordAnalyzer()));
+    try {
+      writer.addDocument(createDocument("10000", "ABC"));
+      writer.addDocument(createDocument("10001", "DEF"));
+      // the commits create more segments, so the document numbers restart per segment
+      writer.commit();
+      writer.addDocument(createDocument("10002", "ABC"));
+      writer.addDocument(createDocument(null, "ABC"));
+      writer.commit();
+      writer.addDocument(createDocument("10003", "ABC"));
+    } finally {
+      writer.close();
+    }
+    reader = IndexReader.open(directory);
+  }
+
+  @After
+  public void tearDown() throws IOException {
+    reader.close();
+    directory.close();
+  }
+
+  @Test
+  public void testAllIssueIds() throws IOException {
+    Assert.assertTrue(reader.getSequentialSubReaders().length > 1);
+    Assert.assertEquals(Arrays.asList(10000L, 10001L, 10002L, 10003L),
+        search(new MatchAllDocsQuery()));
+  }
+
+  @Test
+  public void testMatchingIssueIds() throws IOException {
+    Assert.assertEquals(Arrays.asList(10000L, 10002L, 10003L),
+        search(new TermQuery(new Term(PROJECT_FIELD, "ABC"))));
+  }
+
+  @Test
+  public void testNoMatch() throws IOException {
+    Assert.assertEquals(Collections.emptyList(),
+        search(new TermQuery(new Term(PROJECT_FIELD, "XYZ"))));
+  }
+
+}
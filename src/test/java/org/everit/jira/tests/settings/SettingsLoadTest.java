@@ -26,6 +26,7 @@ import java.util.regex.Pattern;
 
 import org.everit.jira.analytics.AnalyticsSender;
 import org.everit.jira.analytics.event.AnalyticsEvent;
+import org.everit.jira.settings.SettingsSnapshotCache;
 import org.everit.jira.settings.TimeTrackerSettingsHelperImpl;
 import org.everit.jira.settings.dto.GlobalSettingsKey;
 import org.everit.jira.settings.dto.ReportingGlobalSettings;
@@ -257,7 +258,8 @@ public class SettingsLoadTest {
 
     TimeTrackerGlobalSettings loadGlobalSettings =
         timeTrackerSettingsHelperImpl.loadGlobalSettings();
-    Mockito.verify(settingsFactoryMock, Mockito.times(2)).createGlobalSettings();
+    // the second load is served from the settings cache
+    Mockito.verify(settingsFactoryMock, Mockito.times(1)).createGlobalSettings();
     Mockito.verifyNoMoreInteractions(settingsFactoryMock);
     Assert.assertEquals(10, dummyPluginSettings.getMap().size());
     Assert.assertEquals(true, loadGlobalSettings.getAnalyticsCheck());
@@ -273,6 +275,9 @@ public class SettingsLoadTest {
         loadGlobalSettings.getIncludeDates());
     assertPatterns(new Pattern[] { Pattern.compile("sam-3"), Pattern.compile("sam-4") },
         loadGlobalSettings.getIssuePatterns().toArray(new Pattern[] {}));
+    // the patterns are compiled once and shared
+    Assert.assertSame(loadGlobalSettings.getIssuePatterns().get(0),
+        loadGlobalSettings.getIssuePatterns().get(0));
     Assert.assertArrayEquals(new String[] { "group-1", "group-2" },
         loadGlobalSettings.getPluginGroups().toArray(new String[] {}));
     Assert.assertArrayEquals(new String[] { "group-3", "group-4" },
@@ -371,6 +376,49 @@ public class SettingsLoadTest {
     // TODO Continue here
   }
 
+  @Test
+  public void testSettingsCache() {
+    PluginSettingsFactory settingsFactoryMock = Mockito.mock(PluginSettingsFactory.class);
+    DummyPluginSettings dummyPluginSettings = new DummyPluginSettings();
+    DummyPluginSettings dummyUserSettings = new DummyPluginSettings();
+    dummyPluginSettings.putGlobalSetting(GlobalSettingsKey.PLUGIN_UUID, "123456");
+    dummyPluginSettings.putGlobalSetting(GlobalSettingsKey.PLUGIN_PERMISSION,
+        Arrays.asList("group-1", "group-2"));
+    Mockito.when(settingsFactoryMock.createGlobalSettings()).thenReturn(dummyPluginSettings);
+    Mockito.when(settingsFactoryMock.createSettingsForKey(Matchers.anyString()))
+        .thenReturn(dummyUserSettings);
+    TimeTrackerSettingsHelperImpl timeTrackerSettingsHelperImpl =
+        new TimeTrackerSettingsHelperImpl(settingsFactoryMock, null);
+    SettingsSnapshotCache settingsCache = timeTrackerSettingsHelperImpl.getSettingsCache();
+
+    timeTrackerSettingsHelperImpl.loadGlobalSettings().getPluginGroups().add("group-3");
+    Assert.assertArrayEquals(new String[] { "group-1", "group-2" },
+        timeTrackerSettingsHelperImpl.loadGlobalSettings().getPluginGroups()
+            .toArray(new String[] {}));
+    Mockito.verify(settingsFactoryMock, Mockito.times(1)).createGlobalSettings();
+    Assert.assertEquals(1, settingsCache.getMissCount());
+    Assert.assertEquals(2, settingsCache.getHitCount());
+
+    timeTrackerSettingsHelperImpl.saveGlobalSettings(
+        new TimeTrackerGlobalSettings().pluginGroups(Arrays.asList("group-4")));
+    Assert.assertArrayEquals(new String[] { "group-4" },
+        timeTrackerSettingsHelperImpl.loadGlobalSettings().getPluginGroups()
+            .toArray(new String[] {}));
+    Mockito.verify(settingsFactoryMock, Mockito.times(3)).createGlobalSettings();
+
+    timeTrackerSettingsHelperImpl.loadUserSettings();
+    timeTrackerSettingsHelperImpl.loadUserSettings();
+    Mockito.verify(settingsFactoryMock, Mockito.times(1))
+        .createSettingsForKey(Matchers.anyString());
+
+    timeTrackerSettingsHelperImpl.receive(TimeTrackerSettingsHelperImpl.CLUSTER_CHANNEL,
+        SettingsSnapshotCache.userKey("Fred"), "node-2");
+    Assert.assertEquals(20, timeTrackerSettingsHelperImpl.loadUserSettings().getPageSize());
+    Mockito.verify(settingsFactoryMock, Mockito.times(2))
+        .createSettingsForKey(Matchers.anyString());
+    Mockito.verifyNoMoreInteractions(settingsFactoryMock);
+  }
+
   @Test
   public void testUniqKeys() {
     Set<String> keys = new HashSet<>();
@@ -0,0 +1,62 @@
+/*
+ * Copyright (C) 2011 Everit Kft. (http://www.everit.org)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.everit.jira.tests.settings;
+
+import java.util.Collections;
+import java.util.Map;
+
+import org.everit.jira.settings.SettingsSnapshotCache;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class SettingsSnapshotCacheTest {
+
+  private void put(final SettingsSnapshotCache cache, final String key) {
+    cache.put(key, Collections.singletonMap("key", key), cache.getVersion());
+  }
+
+  @Test
+  public void testInvalidatedDuringLoad() {
+    SettingsSnapshotCache cache = new SettingsSnapshotCache();
+    long loadedVersion = cache.getVersion();
+    cache.invalidate(SettingsSnapshotCache.GLOBAL_KEY);
+    Map<String, String> snapshot = cache.put(SettingsSnapshotCache.GLOBAL_KEY,
+        Collections.singletonMap("key", "old"), loadedVersion);
+    Assert.assertEquals("old", snapshot.get("key"));
+    Assert.assertNull(cache.get(SettingsSnapshotCache.GLOBAL_KEY));
+  }
+
+  @Test
+  public void testLeastRecentlyUsedEvicted() {
+    SettingsSnapshotCache cache = new SettingsSnapshotCache();
+    put(cache, SettingsSnapshotCache.GLOBAL_KEY);
+    for (int i = 0; i < SettingsSnapshotCache.MAX_SIZE; i++) {
+      put(cache, SettingsSnapshotCache.userKey("user-" + i));
+      // the global settings are used by every request
+      Assert.assertNotNull(cache.get(SettingsSnapshotCache.GLOBAL_KEY));
+    }
+
+    Assert.assertNull(cache.get(SettingsSnapshotCache.userKey("user-0")));
+    Assert.assertNotNull(cache.get(SettingsSnapshotCache.userKey("user-1")));
+    Map<String, String> snapshot = cache.get(SettingsSnapshotCache.GLOBAL_KEY);
+    Assert.assertEquals(SettingsSnapshotCache.GLOBAL_KEY, snapshot.get("key"));
+
+    put(cache, SettingsSnapshotCache.userKey("user-0"));
+    Assert.assertNull(cache.get(SettingsSnapshotCache.userKey("user-2")));
+    Assert.assertNotNull(cache.get(SettingsSnapshotCache.userKey("user-1")));
+  }
+
+}
@@ -0,0 +1,125 @@
+/*
+ * Copyright (C) 2011 Everit Kft. (http://www.everit.org)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.everit.jira.tests.timetracker.plugin;
+
+import java.util.Properties;
+
+import org.everit.jira.timetracker.plugin.JiraTimetrackerAnalytics;
+import org.everit.jira.timetracker.plugin.util.HashUtil;
+import org.everit.jira.timetracker.plugin.util.PropertiesUtil;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Mockito;
+
+import com.atlassian.jira.config.properties.ApplicationProperties;
+import com.atlassian.jira.mock.component.MockComponentWorker;
+import com.atlassian.jira.security.JiraAuthenticationContext;
+import com.atlassian.jira.user.ApplicationUser;
+import com.atlassian.jira.util.BuildUtilsInfo;
+import com.atlassian.plugin.PluginAccessor;
+
+public class JiraTimetrackerAnalyticsTest {
+
+  private ApplicationProperties applicationProperties;
+
+  private JiraAuthenticationContext authenticationContext;
+
+  private BuildUtilsInfo buildUtilsInfo;
+
+  private PluginAccessor pluginAccessor;
+
+  private void logIn(final String userKey) {
+    ApplicationUser user = Mockito.mock(ApplicationUser.class);
+    Mockito.when(user.getKey()).thenReturn(userKey);
+    Mockito.when(authenticationContext.getUser()).thenReturn(user);
+  }
+
+  @Before
+  public void setUp() {
+    JiraTimetrackerAnalytics.clear();
+
+    applicationProperties = Mockito.mock(ApplicationProperties.class);
+    authenticationContext = Mockito.mock(JiraAuthenticationContext.class);
+    buildUtilsInfo = Mockito.mock(BuildUtilsInfo.class);
+    Mockito.when(buildUtilsInfo.getVersion()).thenReturn("6.3.15");
+    pluginAccessor = Mockito.mock(PluginAccessor.class, Mockito.RETURNS_DEEP_STUBS);
+    Mockito.when(pluginAccessor.getPlugin("org.everit.jira.timetracker.plugin")
+        .getPluginInformation().getVersion()).thenReturn("2.7.0");
+
+    new MockComponentWorker()
+        .addMock(ApplicationProperties.class, applicationProperties)
+        .addMock(JiraAuthenticationContext.class, authenticationContext)
+        .addMock(BuildUtilsInfo.class, buildUtilsInfo)
+        .addMock(PluginAccessor.class, pluginAccessor)
+        .init();
+  }
+
+  @Test
+  public void testBaseUrlHashFollowsBaseUrl() throws Exception {
+    Mockito.when(applicationProperties.getString("jira.baseurl"))
+        .thenReturn("http://jira.example.com");
+    String hash = JiraTimetrackerAnalytics.getBaseUrl();
+    Assert.assertEquals(HashUtil.encryptString("http://jira.example.com"), hash);
+    Assert.assertEquals(hash, JiraTimetrackerAnalytics.getBaseUrl());
+
+    Mockito.when(applicationProperties.getString("jira.baseurl"))
+        .thenReturn("https://jira.example.com");
+    Assert.assertEquals(HashUtil.encryptString("https://jira.example.com"),
+        JiraTimetrackerAnalytics.getBaseUrl());
+  }
+
+  @Test
+  public void testBuildPropertiesLoadedOnce() {
+    Properties properties = PropertiesUtil.getJttpBuildProperties();
+    Assert.assertNotNull(properties.getProperty(PropertiesUtil.ISSUE_COLLECTOR_SRC));
+    Assert.assertSame(properties, PropertiesUtil.getJttpBuildProperties());
+  }
+
+  @Test
+  public void testUserIdHashesBounded() throws Exception {
+    for (int i = 0; i < (JiraTimetrackerAnalytics.USER_ID_HASH_CACHE_SIZE + 10); i++) {
+      logIn("user-" + i);
+      Assert.assertEquals(HashUtil.encryptString("user-" + i),
+          JiraTimetrackerAnalytics.getUserId());
+    }
+    Assert.assertEquals(JiraTimetrackerAnalytics.USER_ID_HASH_CACHE_SIZE,
+        JiraTimetrackerAnalytics.getCachedUserIdCount());
+
+    logIn("user-0");
+    Assert.assertEquals(HashUtil.encryptString("user-0"), JiraTimetrackerAnalytics.getUserId());
+    Assert.assertEquals(JiraTimetrackerAnalytics.USER_ID_HASH_CACHE_SIZE,
+        JiraTimetrackerAnalytics.getCachedUserIdCount());
+  }
+
+  @Test
+  public void testVersionsQueriedOnce() {
+    Assert.assertEquals("6.3.15", JiraTimetrackerAnalytics.getJiraVersionFromBuildUtilsInfo());
+    Assert.assertEquals("6.3.15", JiraTimetrackerAnalytics.getJiraVersionFromBuildUtilsInfo());
+    Mockito.verify(buildUtilsInfo, Mockito.times(1)).getVersion();
+
+    Assert.assertEquals("2.7.0", JiraTimetrackerAnalytics.getPluginVersion());
+    Mockito.when(pluginAccessor.getPlugin("org.everit.jira.timetracker.plugin")
+        .getPluginInformation().getVersion()).thenReturn("2.8.0");
+    Assert.assertEquals("2.7.0", JiraTimetrackerAnalytics.getPluginVersion());
+
+    JiraTimetrackerAnalytics.clear();
+    Assert.assertEquals("2.8.0", JiraTimetrackerAnalytics.getPluginVersion());
+    Assert.assertEquals("6.3.15", JiraTimetrackerAnalytics.getJiraVersionFromBuildUtilsInfo());
+    Mockito.verify(buildUtilsInfo, Mockito.times(2)).getVersion();
+  }
+
+}
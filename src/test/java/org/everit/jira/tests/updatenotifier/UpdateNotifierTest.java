@@ -15,21 +15,90 @@
  */
 package org.everit.jira.tests.updatenotifier;
 
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+
 import org.everit.jira.updatenotifier.TimetrackerVersionUpdater;
 import org.everit.jira.updatenotifier.UpdateNotifier;
 import org.everit.jira.updatenotifier.exception.UpdateException;
+import org.junit.After;
 import org.junit.Assert;
+import org.junit.Before;
 import org.junit.Test;
 import org.mockito.Matchers;
 import org.mockito.Mockito;
 
 import com.atlassian.jira.mock.component.MockComponentWorker;
 import com.atlassian.jira.util.BuildUtilsInfo;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpHandler;
+import com.sun.net.httpserver.HttpServer;
 
 public class UpdateNotifierTest {
 
+  /**
+   * Local stand-in of the marketplace. Gives back a version for the 725 build, an error for the
+   * 711 build and answers slowly for the 999 build.
+   */
+  private static class MarketplaceHandler implements HttpHandler {
+
+    @Override
+    public void handle(final HttpExchange exchange) throws IOException {
+      String query = exchange.getRequestURI().getQuery();
+      if (query.contains("applicationBuild=999")) {
+        try {
+          Thread.sleep(SLOW_RESPONSE_IN_MILISEC);
+        } catch (InterruptedException e) {
+          Thread.currentThread().interrupt();
+        }
+      }
+      if (query.contains("applicationBuild=725")) {
+        byte[] body = "{\"_embedded\":{\"version\":{\"name\":\"1.4.3\"}}}"
+            .getBytes(StandardCharsets.UTF_8);
+        exchange.sendResponseHeaders(HTTP_OK, body.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+          out.write(body);
+        }
+      } else {
+        exchange.sendResponseHeaders(HTTP_NOT_FOUND, -1);
+      }
+      exchange.close();
+    }
+  }
+
+  private static final int HTTP_NOT_FOUND = 404;
+
+  private static final int HTTP_OK = 200;
+
+  private static final long SLOW_RESPONSE_IN_MILISEC = 2000;
+
+  private static final int TIMEOUT_IN_MILISEC = 500;
+
   private static final long TWO_MINUTE_IN_MILISEC = 120000;
 
+  private HttpServer marketplace;
+
+  private String marketplaceUrl;
+
+  @After
+  public void after() {
+    marketplace.stop(0);
+  }
+
+  @Before
+  public void before() throws IOException {
+    marketplace = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+    marketplace.createContext("/rest/2/addons/", new MarketplaceHandler());
+    marketplace.start();
+    marketplaceUrl = "http://127.0.0.1:" + marketplace.getAddress().getPort();
+  }
+
+  private TimetrackerVersionUpdater createUpdater(final UpdateNotifier updateNotifier) {
+    return new TimetrackerVersionUpdater(updateNotifier, marketplaceUrl, TIMEOUT_IN_MILISEC);
+  }
+
   private void initMockComponentWorker(final Integer buildNumber) {
     MockComponentWorker mockComponentWorker = new MockComponentWorker();
 
@@ -45,7 +114,7 @@ public class UpdateNotifierTest {
   public void testNotUpdateVersion() {
     initMockComponentWorker(725);
     UpdateNotifier mock = Mockito.mock(UpdateNotifier.class);
-    TimetrackerVersionUpdater jttpVersionUpdater = new TimetrackerVersionUpdater(mock);
+    TimetrackerVersionUpdater jttpVersionUpdater = createUpdater(mock);
     Mockito.when(mock.getLastUpdateTime())
         .thenReturn(System.currentTimeMillis() - TWO_MINUTE_IN_MILISEC);
     jttpVersionUpdater.updateLatestVersion();
@@ -56,7 +125,7 @@ public class UpdateNotifierTest {
   public void testUpdateFail() {
     initMockComponentWorker(711);
     UpdateNotifier mock = Mockito.mock(UpdateNotifier.class);
-    TimetrackerVersionUpdater jttpVersionUpdater = new TimetrackerVersionUpdater(mock);
+    TimetrackerVersionUpdater jttpVersionUpdater = createUpdater(mock);
     Mockito.when(mock.getLastUpdateTime()).thenReturn(2L);
     Mockito.doNothing().when(mock).putLastUpdateTime(org.easymock.EasyMock.anyLong());
     Mockito.doNothing().when(mock).putLatestVersion(Matchers.anyString());
@@ -73,7 +142,7 @@ public class UpdateNotifierTest {
   public void testUpdateVersion() {
     initMockComponentWorker(725);
     UpdateNotifier mock = Mockito.mock(UpdateNotifier.class);
-    TimetrackerVersionUpdater jttpVersionUpdater = new TimetrackerVersionUpdater(mock);
+    TimetrackerVersionUpdater jttpVersionUpdater = createUpdater(mock);
     Mockito.when(mock.getLastUpdateTime()).thenReturn(2L);
     Mockito.doNothing().when(mock).putLastUpdateTime(org.easymock.EasyMock.anyLong());
     Mockito.doNothing().when(mock).putLatestVersion(Matchers.anyString());
@@ -83,4 +152,21 @@ public class UpdateNotifierTest {
     Mockito.verify(mock).putLatestVersion(Matchers.eq("1.4.3"));
   }
 
+  @Test
+  public void testUpdateTimeout() {
+    initMockComponentWorker(999);
+    UpdateNotifier mock = Mockito.mock(UpdateNotifier.class);
+    TimetrackerVersionUpdater jttpVersionUpdater = createUpdater(mock);
+    Mockito.when(mock.getLastUpdateTime()).thenReturn(2L);
+    long start = System.currentTimeMillis();
+    try {
+      jttpVersionUpdater.updateLatestVersion();
+      Assert.fail();
+    } catch (UpdateException e) {
+    }
+    Assert.assertTrue((System.currentTimeMillis() - start) < SLOW_RESPONSE_IN_MILISEC);
+    Mockito.verify(mock).putLastUpdateTime(Matchers.anyLong());
+    Mockito.verify(mock, Mockito.never()).putLatestVersion(Matchers.anyString());
+  }
+
 }